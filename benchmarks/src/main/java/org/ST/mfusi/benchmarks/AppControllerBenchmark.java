@@ -0,0 +1,59 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.task.Priority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link AppController} calls behind the console and GUI actions,
+ * including resolving the task number and building the status message.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AppControllerBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int size;
+
+    @Param({"HEAD", "MIDDLE", "TAIL"})
+    String position;
+
+    AppController app;
+    int taskNumber;
+    boolean high;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        app = new AppController(BenchmarkData.profile(size));
+        taskNumber = BenchmarkData.indexOf(position, size) + 1;
+    }
+
+    /**
+     * Toggles the priority of one task, so that every call really changes the list.
+     */
+    @Benchmark
+    public String changeTaskPriority() {
+        high = !high;
+        return app.changeTaskPriority(taskNumber, high ? Priority.HIGH : Priority.LOW);
+    }
+}
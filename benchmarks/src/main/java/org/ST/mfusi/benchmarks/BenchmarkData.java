@@ -0,0 +1,91 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.todolist.ToDoList;
+
+import java.util.Random;
+
+/**
+ * Builds the profiles and lists the benchmarks run against.
+ * <p>All fixtures share one description string so that a 10M task list fits comfortably in
+ * the benchmark heap; titles are distinct so that equality checks cannot short-circuit.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class BenchmarkData {
+
+    static final String DESCRIPTION = "A task created by the benchmark fixture";
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * The vocabulary searchable fixtures draw their words from: a few very common words and many rare ones.
+     */
+    private static final String[] COMMON_WORDS = {"call", "buy", "fix", "email", "review", "plan", "clean", "book"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a profile holding {@code size} open tasks with rotating priorities.
+     * @param size the number of tasks.
+     * @return the filled profile.
+     */
+    static Profile profile(int size) {
+        Profile profile = new Profile("Benchmark");
+        fill(profile.getToDoList(), size);
+        return profile;
+    }
+
+    /**
+     * Creates a to-do list holding {@code size} open tasks with rotating priorities.
+     * @param size the number of tasks.
+     * @return the filled list.
+     */
+    static ToDoList toDoList(int size) {
+        ToDoList list = new ToDoList();
+        fill(list, size);
+        return list;
+    }
+
+    /**
+     * Creates a to-do list whose titles and descriptions mix common words with numbered rare
+     * words, so search queries see posting lists of very different lengths.
+     * @param size the number of tasks.
+     * @return the filled list.
+     */
+    static ToDoList searchableToDoList(int size) {
+        ToDoList list = new ToDoList();
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            String common = COMMON_WORDS[random.nextInt(COMMON_WORDS.length)];
+            list.addTask(common + " item" + random.nextInt(10_000),
+                    COMMON_WORDS[random.nextInt(COMMON_WORDS.length)] + " topic" + random.nextInt(100_000),
+                    PRIORITIES[i % PRIORITIES.length]);
+        }
+        return list;
+    }
+
+    private static void fill(ToDoList list, int size) {
+        for (int i = 0; i < size; i++) {
+            list.addTask("Task " + i, DESCRIPTION, PRIORITIES[i % PRIORITIES.length]);
+        }
+    }
+
+    /**
+     * Translates a position name into an index of a list.
+     * @param position HEAD, MIDDLE or TAIL.
+     * @param size the size of the list.
+     * @return the 0-based index.
+     */
+    static int indexOf(String position, int size) {
+        return switch (position) {
+            case "HEAD" -> 0;
+            case "MIDDLE" -> size / 2;
+            case "TAIL" -> size - 1;
+            default -> throw new IllegalArgumentException("Unknown position: " + position);
+        };
+    }
+}
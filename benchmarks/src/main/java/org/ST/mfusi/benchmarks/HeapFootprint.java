@@ -0,0 +1,88 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.ToDoList;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Measures how much heap a list of tasks retains per task in each storage mode, compared with a
+ * plain {@code ArrayList<Task>}. JMH measures time, not retained size, so this is a small program
+ * of its own: it fills a list, forces garbage collection and reads the used heap before and after.
+ * <p>Run it with {@code make footprint}, or {@code make footprint FOOTPRINT_ARGS=5000000} for a
+ * different number of tasks. Every task gets its own title and description, as real tasks do.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class HeapFootprint {
+
+    private static final int DEFAULT_SIZE = 1_000_000;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private HeapFootprint() {
+    }
+
+    /**
+     * Prints the retained heap per task for every way of storing tasks.
+     * @param args optionally the number of tasks to store.
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        System.out.printf("Retained heap for %,d tasks%n", size);
+        System.out.printf("%-18s %14s %14s%n", "Store", "Total (MB)", "Bytes/task");
+        report("ArrayList<Task>", size, HeapFootprint::arrayList);
+        for (ToDoList.StorageMode mode : ToDoList.StorageMode.values()) {
+            report(mode.name(), size, n -> toDoList(mode, n));
+        }
+    }
+
+    private static void report(String name, int size, IntFunction<Object> build) {
+        long before = usedHeap();
+        Object store = build.apply(size);
+        long after = usedHeap();
+        long retained = after - before;
+        System.out.printf("%-18s %14.1f %14.1f%n", name, retained / 1e6, (double) retained / size);
+        // keep the store reachable until it has been measured
+        if (store.hashCode() == 42) {
+            System.out.println();
+        }
+    }
+
+    private static Object arrayList(int size) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            tasks.add(task(i));
+        }
+        return tasks;
+    }
+
+    private static Object toDoList(ToDoList.StorageMode mode, int size) {
+        ToDoList list = new ToDoList(mode);
+        for (int i = 0; i < size; i++) {
+            list.addTask(task(i));
+        }
+        return list;
+    }
+
+    private static Task task(int i) {
+        return new Task("Task " + i, "Description of task number " + i, PRIORITIES[i % PRIORITIES.length]);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // a few rounds, so that objects freed by finalisation or reference processing are gone too
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,255 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.app.ProfileRegistry;
+import org.ST.mfusi.app.server.TaskServer;
+import org.ST.mfusi.metrics.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the HTTP API of {@link TaskServer} with many concurrent clients and prints the
+ * throughput and latency percentiles it sustains. JMH is built for single methods rather than
+ * a server and its clients, so this is a small program of its own.
+ * <p>Every client is a virtual thread with a kept-alive connection that sends requests back
+ * to back: 60% read one task, 20% read a page of 20 tasks, 10% add a task and 10% change the
+ * priority of one. The clients are spread over 16 profiles of 1,000 tasks each. After a
+ * warm-up of a quarter of the run the latencies are recorded from the client's side. The
+ * clients speak just enough HTTP/1.1 over a plain socket to do this, so that they take as
+ * little CPU as possible away from a server on the same machine.</p>
+ * <p>Run it with {@code make loadtest}, or {@code make loadtest LOADTEST_ARGS="30 256"} for a
+ * 30-second run with 256 clients. The server runs in the same JVM unless a base URL such as
+ * {@code http://host:8080} is given as third argument.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class HttpLoadTest {
+
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int DEFAULT_CLIENTS = 64;
+    private static final int PROFILES = 16;
+    private static final int TASKS_PER_PROFILE = 1_000;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final String host;
+    private final int port;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private HttpLoadTest(URI baseUrl) {
+        this.host = baseUrl.getHost();
+        this.port = baseUrl.getPort() < 0 ? 80 : baseUrl.getPort();
+    }
+
+    /**
+     * Runs the load test and prints the results.
+     * @param args optionally the duration in seconds, the number of clients and the base URL of a running server.
+     * @throws Exception if the server cannot be started or the profiles cannot be filled.
+     */
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SECONDS;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        TaskServer server = null;
+        ProfileRegistry registry = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            registry = new ProfileRegistry(AppController::new, PROFILES, null);
+            server = new TaskServer(registry, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort();
+        }
+        try {
+            new HttpLoadTest(URI.create(baseUrl)).run(Duration.ofSeconds(seconds), clients);
+        } finally {
+            if (server != null) {
+                server.close();
+                registry.close();
+            }
+        }
+    }
+
+    private void run(Duration duration, int clients) throws Exception {
+        System.out.printf("Filling %d profiles with %,d tasks each on %s:%d%n", PROFILES, TASKS_PER_PROFILE, host, port);
+        List<List<Long>> ids = new ArrayList<>();
+        try (Connection connection = new Connection(host, port)) {
+            for (int p = 0; p < PROFILES; p++) {
+                List<Long> profileIds = new ArrayList<>();
+                for (int t = 0; t < TASKS_PER_PROFILE; t++) {
+                    connection.send("POST", tasksPath(p), taskBody(t));
+                    profileIds.add(idOf(connection.body()));
+                }
+                ids.add(List.copyOf(profileIds));
+            }
+        }
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int profile = c % PROFILES;
+            long seed = c;
+            threads.add(Thread.ofVirtual().start(() -> drive(profile, ids.get(profile), new SplittableRandom(seed))));
+        }
+        Duration warmUp = duration.dividedBy(4);
+        System.out.printf("Warming up with %d clients for %d s%n", clients, warmUp.toSeconds());
+        Thread.sleep(warmUp);
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyHistogram.Snapshot snapshot = latencies.snapshot();
+        System.out.printf("%,d requests in %.1f s: %,.0f requests/s, %,d errors%n",
+                snapshot.count(), elapsed / 1e9, snapshot.count() / (elapsed / 1e9), errors.sum());
+        System.out.printf("latency (us): mean %.0f  p50 %d  p90 %d  p99 %d  p99.9 %d  max %d%n",
+                snapshot.mean() / 1000, snapshot.p50() / 1000, snapshot.p90() / 1000,
+                snapshot.p99() / 1000, snapshot.p999() / 1000, snapshot.max() / 1000);
+    }
+
+    private void drive(int profile, List<Long> ids, SplittableRandom random) {
+        String tasks = tasksPath(profile);
+        String[] priorities = {"LOW", "MEDIUM", "HIGH"};
+        try (Connection connection = new Connection(host, port)) {
+            while (running) {
+                int pick = random.nextInt(100);
+                String taskPath = tasks + "/" + ids.get(random.nextInt(ids.size()));
+                long start = System.nanoTime();
+                int status;
+                if (pick < 60) {
+                    status = connection.send("GET", taskPath, null);
+                } else if (pick < 80) {
+                    status = connection.send("GET", tasks + "?offset=" + random.nextInt(ids.size() - 20) + "&limit=20", null);
+                } else if (pick < 90) {
+                    status = connection.send("POST", tasks, taskBody(random.nextInt()));
+                } else {
+                    status = connection.send("PUT", taskPath, "{\"priority\":\"" + priorities[random.nextInt(3)] + "\"}");
+                }
+                connection.skipBody();
+                if (recording) {
+                    latencies.record(System.nanoTime() - start);
+                    if (status >= 300) {
+                        errors.increment();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            errors.increment();
+            System.out.println("Client stopped: " + e);
+        }
+    }
+
+    private static String tasksPath(int profile) {
+        return "/profiles/load-" + profile + "/tasks";
+    }
+
+    private static String taskBody(int i) {
+        return "{\"title\":\"Task " + i + "\",\"description\":\"Description of task number " + i
+                + "\",\"priority\":\"MEDIUM\"}";
+    }
+
+    /**
+     * A kept-alive HTTP/1.1 connection. It relies on the server always sending a Content-Length,
+     * which {@link TaskServer} does.
+     */
+    private static final class Connection implements Closeable {
+        private static final byte[] NO_BODY = new byte[0];
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final String hostHeader;
+        private int contentLength;
+
+        Connection(String host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            out = new BufferedOutputStream(socket.getOutputStream(), 8 * 1024);
+            hostHeader = "\r\nHost: " + host + ":" + port + "\r\nContent-Length: ";
+        }
+
+        /**
+         * Sends a request and reads the response up to its body.
+         * @return The status code.
+         */
+        int send(String method, String path, String body) throws IOException {
+            byte[] payload = body == null ? NO_BODY : body.getBytes(StandardCharsets.UTF_8);
+            String head = method + " " + path + " HTTP/1.1" + hostHeader + payload.length + "\r\n\r\n";
+            out.write(head.getBytes(StandardCharsets.ISO_8859_1));
+            out.write(payload);
+            out.flush();
+
+            String statusLine = readLine();
+            if (statusLine.length() < 12) {
+                throw new IOException("Connection closed by the server.");
+            }
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            contentLength = 0;
+            for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+                if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Integer.parseInt(line.substring(15).trim());
+                }
+            }
+            return status;
+        }
+
+        String body() throws IOException {
+            return new String(in.readNBytes(contentLength), StandardCharsets.UTF_8);
+        }
+
+        void skipBody() throws IOException {
+            in.skipNBytes(contentLength);
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder(64);
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) {
+                    return line.toString();
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static long idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No task id in " + json);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+}
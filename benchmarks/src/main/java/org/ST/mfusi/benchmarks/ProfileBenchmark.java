@@ -0,0 +1,96 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the operations of {@link Profile} that the console calls most often.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProfileBenchmark {
+
+    /**
+     * A profile filled once per trial.
+     */
+    @State(Scope.Thread)
+    public static class ProfileState {
+        @Param({"10", "1000", "100000", "10000000"})
+        int size;
+
+        Profile profile;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            profile = BenchmarkData.profile(size);
+        }
+    }
+
+    /**
+     * A profile whose tasks are removed by number at a position.
+     */
+    @State(Scope.Thread)
+    public static class RemoveState extends ProfileState {
+        @Param({"HEAD", "MIDDLE", "TAIL"})
+        String position;
+
+        int taskNumber;
+
+        @Setup(Level.Trial)
+        public void locate() {
+            taskNumber = BenchmarkData.indexOf(position, size) + 1;
+        }
+    }
+
+    /**
+     * Removes a task by the number shown to the user, then appends a new task so the profile keeps its size.
+     */
+    @Benchmark
+    public Profile removeTask(RemoveState state) {
+        Profile profile = state.profile;
+        Task task = profile.getTasks().get(state.taskNumber - 1);
+        profile.removeTask(state.taskNumber);
+        profile.addTask(task.getTitle(), task.getDescription(), task.getPriority());
+        return profile;
+    }
+
+    /**
+     * Renders the whole list as the console prints it.
+     */
+    @Benchmark
+    public String getFormattedToDoList(ProfileState state) {
+        return state.profile.getFormattedToDoList();
+    }
+
+    /**
+     * Streams the whole list to a writer, as the console does, without keeping the output.
+     */
+    @Benchmark
+    public Writer writeFormattedToDoList(ProfileState state) throws IOException {
+        Writer out = Writer.nullWriter();
+        state.profile.writeFormattedToDoList(out);
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.TaskQuery;
+import org.ST.mfusi.todolist.ToDoList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TaskQuery}, comparing the plans it can choose between.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryBenchmark {
+
+    /**
+     * A list filled once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class ListState {
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        @Param({"INSERTION_ORDER", "PRIORITY_BUCKETS", "COLUMNAR"})
+        ToDoList.StorageMode mode;
+
+        ToDoList toDoList;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            toDoList = new ToDoList(mode);
+            for (Task task : BenchmarkData.toDoList(size).getTaskList()) {
+                toDoList.addTask(task);
+            }
+        }
+    }
+
+    /**
+     * The ten highest-priority open tasks.
+     */
+    @Benchmark
+    public List<Task> topTenOpenByPriority(ListState state) {
+        return state.toDoList.query().open().sortedByPriority().limit(10).list();
+    }
+
+    /**
+     * Every open LOW task, answered from the buckets when the list has them.
+     */
+    @Benchmark
+    public int countOpenLow(ListState state) {
+        return state.toDoList.query().priority(Priority.LOW).open().count();
+    }
+
+    /**
+     * A title filter with a custom top-k sort, scanned sequentially.
+     */
+    @Benchmark
+    public List<Task> titleTopKSequential(ListState state) {
+        return titleTopK(state, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The same query scanned in parallel.
+     */
+    @Benchmark
+    public List<Task> titleTopKParallel(ListState state) {
+        return titleTopK(state, 1);
+    }
+
+    private static List<Task> titleTopK(ListState state, int parallelThreshold) {
+        return state.toDoList.query()
+                .titleMatches(title -> title.endsWith("7"))
+                .sortedBy(Comparator.comparing(Task::getTitle).reversed())
+                .limit(10)
+                .parallelThreshold(parallelThreshold)
+                .list();
+    }
+}
@@ -0,0 +1,64 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link TaskSearchIndex}. Sampled, so the results include the p99 latency a
+ * type-ahead box would see.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@BenchmarkMode(Mode.SampleTime)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    /**
+     * An index over a list filled once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class IndexState {
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        /**
+         * A rare word, a common word with a rare one, a typed prefix of a rare word, and a one-letter prefix.
+         */
+        @Param({"topic123 ", "call topic123 ", "fix ite", "b"})
+        String query;
+
+        TaskSearchIndex index;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            index = new TaskSearchIndex(BenchmarkData.searchableToDoList(size));
+        }
+    }
+
+    /**
+     * Finds the ten best matches for the query.
+     */
+    @Benchmark
+    public List<Task> search(IndexState state) {
+        return state.index.search(state.query, 10);
+    }
+}
@@ -0,0 +1,66 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Task#hashCode()} and {@link Task#equals(Object)}, which every
+ * list comparison and hash-based collection of tasks relies on.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TaskBenchmark {
+
+    /**
+     * Length of the task descriptions, which dominates the cost of hashing and comparing.
+     */
+    @Param({"16", "256"})
+    int descriptionLength;
+
+    Task task;
+    Task equalTask;
+    Task differentTask;
+
+    @Setup
+    public void createTasks() {
+        String description = "d".repeat(descriptionLength);
+        task = new Task("Benchmark task", description, Priority.HIGH);
+        equalTask = new Task("Benchmark task", new String(description), Priority.HIGH);
+        differentTask = new Task("Benchmark task", description.substring(1) + "e", Priority.HIGH);
+    }
+
+    @Benchmark
+    public int hashCodeOfTask() {
+        return task.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsEqualTask() {
+        return task.equals(equalTask);
+    }
+
+    @Benchmark
+    public boolean equalsDifferentTask() {
+        return task.equals(differentTask);
+    }
+}
@@ -0,0 +1,96 @@
+package org.ST.mfusi.benchmarks;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.ToDoList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the write paths of {@link ToDoList}.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ToDoListBenchmark {
+
+    /**
+     * A fresh list per iteration, so that appends always start from the same size.
+     */
+    @State(Scope.Thread)
+    public static class AppendState {
+        @Param({"10", "1000", "100000", "10000000"})
+        int size;
+
+        ToDoList list;
+
+        @Setup(Level.Iteration)
+        public void fill() {
+            list = BenchmarkData.toDoList(size);
+        }
+    }
+
+    /**
+     * A list that keeps its size: every removed task is replaced by a new one at the tail.
+     */
+    @State(Scope.Thread)
+    public static class RemoveState {
+        @Param({"10", "1000", "100000", "10000000"})
+        int size;
+
+        @Param({"HEAD", "MIDDLE", "TAIL"})
+        String position;
+
+        ToDoList list;
+        int index;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            list = BenchmarkData.toDoList(size);
+            index = BenchmarkData.indexOf(position, size);
+        }
+    }
+
+    /**
+     * Adds a task through the public, validating entry point. Each measurement appends a batch
+     * of 10,000 tasks to a list that starts at {@code size} tasks and reports the time of the whole batch.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = 10_000)
+    @Measurement(iterations = 10, batchSize = 10_000)
+    public ToDoList addTask(AppendState state) {
+        state.list.addTask("Benchmark task", BenchmarkData.DESCRIPTION, Priority.HIGH);
+        return state.list;
+    }
+
+    /**
+     * Removes the task at a position by reference, then appends a new task so the list keeps its
+     * size. Compare with {@link #addTask} to separate the cost of the removal.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public ToDoList removeTask(RemoveState state) {
+        ToDoList list = state.list;
+        Task task = list.getTaskList().get(state.index);
+        list.removeTask(task);
+        list.addTask(task.getTitle(), task.getDescription(), task.getPriority());
+        return list;
+    }
+}
@@ -1,8 +1,30 @@
 package org.ST.mfusi.app;
 
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.metrics.Timer;
+import org.ST.mfusi.persistence.PersistencePipeline;
+import org.ST.mfusi.persistence.ProfileJournal;
+import org.ST.mfusi.persistence.ProfileStore;
+import org.ST.mfusi.persistence.TaskCsvCodec;
+import org.ST.mfusi.persistence.TaskMutation;
 import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.reminder.ReminderScheduler;
+import org.ST.mfusi.reminder.TaskReminders;
 import org.ST.mfusi.task.Priority;
 import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+import org.ST.mfusi.todolist.TaskSearchIndex;
+import org.ST.mfusi.todolist.TaskStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Handles all the core application logic for the To-Do list.
@@ -22,22 +44,133 @@ import org.ST.mfusi.task.Task;
  *  to-do list, ensuring that all operations are performed
  *  in a consistent manner.
  *  </p>
+ * <p> Every operation is timed in the global {@link Metrics} under {@code app.<operation>},
+ *  counting the calls that fail, and the number of tasks of each priority is published as
+ *  the gauges {@code profile.<name>.tasks.<priority>} by the first controller opened for the
+ *  profile, until it is closed.
+ *  </p>
  * @author Sthembiso Mfusi
  * @version 1.0
  * @since 2025-06-24
  */
 public class AppController {
+    /**
+     * The number of changes that can be undone.
+     */
+    public static final int UNDO_LIMIT = 100;
+
+    private static final Metrics METRICS = Metrics.global();
+    private static final Timer FORMAT_LIST = METRICS.timer("app.getFormattedToDoList");
+    private static final Timer WRITE_LIST = METRICS.timer("app.writeFormattedToDoList");
+    private static final Timer ADD_TASK = METRICS.timer("app.addTask");
+    private static final Timer ADD_TASKS = METRICS.timer("app.addTasks");
+    private static final Timer REMOVE_TASK = METRICS.timer("app.removeTask");
+    private static final Timer COMPLETE_TASK = METRICS.timer("app.markTaskComplete");
+    private static final Timer CHANGE_PRIORITY = METRICS.timer("app.changeTaskPriority");
+    private static final Timer EDIT_TASK = METRICS.timer("app.editTask");
+    private static final Timer SET_DUE_DATE = METRICS.timer("app.setDueDate");
+    private static final Timer CLEAR_TASKS = METRICS.timer("app.clearAllTasks");
+    private static final Timer UNDO = METRICS.timer("app.undo");
+    private static final Timer REDO = METRICS.timer("app.redo");
+    private static final Timer SEARCH = METRICS.timer("app.search");
+    private static final Timer IMPORT_TASKS = METRICS.timer("app.importTasks");
+    private static final Timer EXPORT_TASKS = METRICS.timer("app.exportTasks");
+    private static final Timer SAVE_PROFILE = METRICS.timer("app.saveProfile");
+    private static final Timer CLOSE = METRICS.timer("app.close");
+
     /**
      * The user profile associated with this controller instance.
      */
     private final Profile userProfile;
 
+    /**
+     * The journal every change is logged to, or {@code null} if the profile only lives in memory.
+     */
+    private final ProfileJournal journal;
+
+    /**
+     * The pipeline writing changes in the background, or {@code null} if changes are logged by the calling thread.
+     */
+    private final PersistencePipeline pipeline;
+
+    /**
+     * The full-text index of the tasks, built on the first search.
+     */
+    private volatile TaskSearchIndex searchIndex;
+
+    /**
+     * Whether this controller registered the task count gauges of its profile, and so removes them on close.
+     */
+    private boolean publishesGauges;
+
+    /**
+     * The reminders about due tasks, or {@code null} until {@link #followReminders} is called.
+     */
+    private TaskReminders reminders;
+
     /**
      * Constructs a new AppController and creates a user profile with the given name.
      * @param profileName The name of the user for whom the profile will be created.
      */
     public AppController(String profileName) {
         this.userProfile = new Profile(profileName);
+        this.journal = null;
+        this.pipeline = null;
+        enableUndo();
+        registerGauges();
+    }
+
+    /**
+     * Constructs a new AppController around an existing, in-memory profile.
+     * @param profile The profile to manage.
+     */
+    public AppController(Profile profile) {
+        this.userProfile = profile;
+        this.journal = null;
+        this.pipeline = null;
+        enableUndo();
+        registerGauges();
+    }
+
+    /**
+     * Constructs a new AppController backed by a profile store. If a profile with the
+     * given name was saved before it is loaded and any changes logged since are replayed,
+     * otherwise a new, empty profile is created. Every later change is appended to the
+     * profile's write-ahead log.
+     * @param profileName The name of the user whose profile should be opened.
+     * @param profileStore The store to load the profile from and save it to.
+     * @throws IOException if a saved profile or its log exists but cannot be read.
+     */
+    public AppController(String profileName, ProfileStore profileStore) throws IOException {
+        this(ProfileJournal.open(profileStore, profileName));
+    }
+
+    /**
+     * Constructs a new AppController around an already opened profile journal.
+     * @param journal The journal holding the profile and logging its changes.
+     */
+    public AppController(ProfileJournal journal) {
+        this.userProfile = journal.getProfile();
+        this.journal = journal;
+        this.pipeline = null;
+        enableUndo();
+        registerGauges();
+    }
+
+    /**
+     * Constructs a new AppController that writes changes to the journal in the background.
+     * Every change is visible in the profile as soon as the method making it returns, but it
+     * is written together with the other changes made within the coalescing window, so a
+     * user interface thread never waits for the disk.
+     * @param journal The journal holding the profile and logging its changes.
+     * @param coalesceWindow How long to collect changes before writing them as one batch.
+     */
+    public AppController(ProfileJournal journal, Duration coalesceWindow) {
+        this.userProfile = journal.getProfile();
+        this.journal = journal;
+        this.pipeline = new PersistencePipeline(journal, coalesceWindow);
+        enableUndo();
+        registerGauges();
     }
 
     /**
@@ -53,7 +186,43 @@ public class AppController {
      * @return A string containing the formatted list of tasks.
      */
     public String getFormattedToDoList() {
-        return userProfile.getFormattedToDoList();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            String list = userProfile.getFormattedToDoList();
+            succeeded = true;
+            return list;
+        } finally {
+            FORMAT_LIST.stop(start, succeeded);
+        }
+    }
+
+    /**
+     * Writes the formatted to-do list to a destination row by row, so that long lists are
+     * streamed rather than built as one string.
+     * @param out Where to write the list.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void writeFormattedToDoList(Appendable out) throws IOException {
+        writeFormattedToDoList(out, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes one page of the formatted to-do list. Tasks keep their numbers from the full list.
+     * @param out Where to write the list.
+     * @param offset The 0-based index of the first task to write.
+     * @param limit The maximum number of tasks to write.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void writeFormattedToDoList(Appendable out, int offset, int limit) throws IOException {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            userProfile.writeFormattedToDoList(out, offset, limit);
+            succeeded = true;
+        } finally {
+            WRITE_LIST.stop(start, succeeded);
+        }
     }
 
     /**
@@ -65,10 +234,118 @@ public class AppController {
      */
     public String addTask(String title, String description, Priority priority) {
         try {
-            userProfile.addTask(title, description, priority);
+            createTask(title, description, priority);
             return "Task added successfully.";
         } catch (IllegalArgumentException e) {
             return "Error adding task: " + e.getMessage();
+        } catch (UncheckedIOException e) {
+            return logFailure(e);
+        }
+    }
+
+    /**
+     * Adds a new task to the user's to-do list and returns it, for callers that need its id.
+     * @param title The title of the task.
+     * @param description The detailed description of the task.
+     * @param priority The priority level of the task.
+     * @return The added task.
+     * @throws IllegalArgumentException if the title, description or priority is invalid.
+     * @throws UncheckedIOException if the task was added but could not be written to the log.
+     */
+    public Task createTask(String title, String description, Priority priority) {
+        long start = System.nanoTime();
+        boolean added = false;
+        try {
+            TaskMutation.AddTask mutation = new TaskMutation.AddTask(title, description, priority);
+            apply(mutation);
+            added = true;
+            // the id is reserved up front, so the new task can be found wherever the list stores it
+            return userProfile.getToDoList().getTaskById(mutation.taskId());
+        } finally {
+            ADD_TASK.stop(start, added);
+        }
+    }
+
+    /**
+     * Adds a batch of existing tasks in one step, for example when importing from another tool.
+     * Invalid rows are reported rather than stopping the import, and the valid tasks appear in
+     * the list all at once. For a saved profile every added task is logged.
+     * @param tasks The tasks to add, keeping their ids and completion status.
+     * @return The added tasks and the rejected rows, see {@link BulkAddReport#summary()}.
+     * @throws IllegalArgumentException if {@code tasks} is null.
+     * @throws UncheckedIOException if the tasks were added but could not be written to the log.
+     */
+    public BulkAddReport addTasks(Iterable<Task> tasks) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            BulkAddReport report;
+            if (pipeline != null) {
+                report = pipeline.addTasks(tasks);
+            } else if (journal != null) {
+                report = journal.addTasks(tasks);
+            } else {
+                report = userProfile.addTasks(tasks);
+            }
+            succeeded = report.isComplete();
+            return report;
+        } finally {
+            ADD_TASKS.stop(start, succeeded);
+        }
+    }
+
+    /**
+     * Adds a stream of existing tasks in one step, see {@link #addTasks(Iterable)}.
+     * @param tasks The tasks to add; the stream is consumed.
+     * @return The added tasks and the rejected rows.
+     * @throws IllegalArgumentException if {@code tasks} is null.
+     */
+    public BulkAddReport addTasks(Stream<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null.");
+        }
+        return addTasks(tasks.toList());
+    }
+
+    /**
+     * Adds every task of a CSV or TSV file to the list in one step, like {@link #addTasks(Iterable)}.
+     * The format is picked from the file name, see {@link TaskCsvCodec.Format#forFile(Path)}.
+     * @param file The file to import.
+     * @return A status message with the number of tasks added and rows rejected.
+     */
+    public String importTasks(Path file) {
+        long start = System.nanoTime();
+        boolean imported = false;
+        try {
+            TaskCsvCodec.ImportedRows rows = TaskCsvCodec.read(file, TaskCsvCodec.Format.forFile(file));
+            BulkAddReport report = rows.merge(addTasks(rows.tasks()));
+            imported = true;
+            return report.summary();
+        } catch (IOException | UncheckedIOException e) {
+            return "Error importing tasks: " + e.getMessage();
+        } finally {
+            IMPORT_TASKS.stop(start, imported);
+        }
+    }
+
+    /**
+     * Writes every task of the list to a CSV or TSV file, replacing it if it exists.
+     * The format is picked from the file name, see {@link TaskCsvCodec.Format#forFile(Path)}.
+     * @param file The file to write.
+     * @return A status message indicating success or failure.
+     */
+    public String exportTasks(Path file) {
+        long start = System.nanoTime();
+        boolean exported = false;
+        try {
+            List<Task> tasks = userProfile.getTasks();
+            TaskCsvCodec.write(tasks, file, TaskCsvCodec.Format.forFile(file));
+            exported = true;
+            return "Exported " + tasks.size() + (tasks.size() == 1 ? " task." : " tasks.");
+        } catch (IOException | UncheckedIOException e) {
+            return "Error exporting tasks: " + e.getMessage();
+        } finally {
+            EXPORT_TASKS.stop(start, exported);
         }
     }
 
@@ -78,10 +355,24 @@ public class AppController {
      * @return A status message indicating success or failure.
      */
     public String removeTask(int taskNumber) {
-        if (userProfile.removeTask(taskNumber)) {
-            return "Task removed successfully.";
+        long start = System.nanoTime();
+        Task task = taskAt(taskNumber);
+        if (task == null) {
+            REMOVE_TASK.stop(start, false);
+            return "Invalid task number.";
         }
-        return "Invalid task number.";
+        return apply(REMOVE_TASK, start, new TaskMutation.RemoveTask(task.getId()),
+                "Task removed successfully.", "Invalid task number.");
+    }
+
+    /**
+     * Removes a task from the to-do list based on its id.
+     * @param taskId The id of the task to remove.
+     * @return A status message indicating success or failure.
+     */
+    public String removeTaskById(long taskId) {
+        return apply(REMOVE_TASK, System.nanoTime(), new TaskMutation.RemoveTask(taskId),
+                "Task removed successfully.", "Invalid task id.");
     }
 
     /**
@@ -90,10 +381,24 @@ public class AppController {
      * @return A status message indicating success or failure.
      */
     public String markTaskComplete(int taskNumber) {
-        if (userProfile.markTaskComplete(taskNumber)) {
-            return "Task marked as complete.";
+        long start = System.nanoTime();
+        Task task = taskAt(taskNumber);
+        if (task == null) {
+            COMPLETE_TASK.stop(start, false);
+            return "Invalid task number.";
         }
-        return "Invalid task number.";
+        return apply(COMPLETE_TASK, start, new TaskMutation.CompleteTask(task.getId()),
+                "Task marked as complete.", "Invalid task number.");
+    }
+
+    /**
+     * Marks a task as complete based on its id.
+     * @param taskId The id of the task to mark as complete.
+     * @return A status message indicating success or failure.
+     */
+    public String markTaskCompleteById(long taskId) {
+        return apply(COMPLETE_TASK, System.nanoTime(), new TaskMutation.CompleteTask(taskId),
+                "Task marked as complete.", "Invalid task id.");
     }
 
     /**
@@ -103,12 +408,34 @@ public class AppController {
      * @return A status message indicating success or failure.
      */
     public String changeTaskPriority(int taskNumber, Priority newPriority) {
-        if (taskNumber > 0 && taskNumber <= userProfile.getTasks().size()) {
-            Task task = userProfile.getTasks().get(taskNumber - 1);
-            task.setPriority(newPriority);
-            return "Priority updated successfully.";
+        long start = System.nanoTime();
+        if (newPriority == null) {
+            CHANGE_PRIORITY.stop(start, false);
+            return "Invalid priority.";
         }
-        return "Invalid task number.";
+        Task task = taskAt(taskNumber);
+        if (task == null) {
+            CHANGE_PRIORITY.stop(start, false);
+            return "Invalid task number.";
+        }
+        return apply(CHANGE_PRIORITY, start, new TaskMutation.ChangePriority(task.getId(), newPriority),
+                "Priority updated successfully.", "Invalid task number.");
+    }
+
+    /**
+     * Changes the priority of the task with the given id.
+     * @param taskId The id of the task to modify.
+     * @param newPriority The new priority to set for the task.
+     * @return A status message indicating success or failure.
+     */
+    public String changeTaskPriorityById(long taskId, Priority newPriority) {
+        long start = System.nanoTime();
+        if (newPriority == null) {
+            CHANGE_PRIORITY.stop(start, false);
+            return "Invalid priority.";
+        }
+        return apply(CHANGE_PRIORITY, start, new TaskMutation.ChangePriority(taskId, newPriority),
+                "Priority updated successfully.", "Invalid task id.");
     }
 
     /**
@@ -119,26 +446,214 @@ public class AppController {
      * @return A status message indicating success or failure.
      */
     public String editTask(int taskNumber, String newTitle, String newDescription) {
-        if (taskNumber > 0 && taskNumber <= userProfile.getTasks().size()) {
-            Task task = userProfile.getTasks().get(taskNumber - 1);
-            if (newTitle != null && !newTitle.isBlank()) {
-                task.setTitle(newTitle);
-            }
-            if (newDescription != null && !newDescription.isBlank()) {
-                task.setDescription(newDescription);
-            }
-            return "Task updated successfully.";
+        return editTask(taskNumber, newTitle, newDescription, null);
+    }
+
+    /**
+     * Edits the title, description and/or due date of an existing task in one change. A new due
+     * date moves the task's reminder, if reminders are followed.
+     * @param taskNumber The 1-based index of the task to edit.
+     * @param newTitle The new title for the task. If blank, the title is not changed.
+     * @param newDescription The new description for the task. If blank, the description is not changed.
+     * @param newDueDate The new due date for the task. If {@code null}, the due date is not changed.
+     * @return A status message indicating success or failure.
+     */
+    public String editTask(int taskNumber, String newTitle, String newDescription, Instant newDueDate) {
+        long start = System.nanoTime();
+        Task task = taskAt(taskNumber);
+        if (task == null) {
+            EDIT_TASK.stop(start, false);
+            return "Invalid task number.";
         }
-        return "Invalid task number.";
+        return apply(EDIT_TASK, start,
+                new TaskMutation.EditTask(task.getId(), newTitle, newDescription, newDueDate),
+                "Task updated successfully.", "Invalid task number.");
     }
+
+    /**
+     * Edits the title and/or description of the task with the given id.
+     * @param taskId The id of the task to edit.
+     * @param newTitle The new title for the task. If blank, the title is not changed.
+     * @param newDescription The new description for the task. If blank, the description is not changed.
+     * @return A status message indicating success or failure.
+     */
+    public String editTaskById(long taskId, String newTitle, String newDescription) {
+        return apply(EDIT_TASK, System.nanoTime(), new TaskMutation.EditTask(taskId, newTitle, newDescription),
+                "Task updated successfully.", "Invalid task id.");
+    }
+
+    /**
+     * Edits the title, description and priority of the task with the given id and optionally
+     * completes it, as a single change that is logged as one record.
+     * @param taskId The id of the task to update.
+     * @param newTitle The new title for the task. If blank, the title is not changed.
+     * @param newDescription The new description for the task. If blank, the description is not changed.
+     * @param newPriority The new priority for the task. If {@code null}, the priority is not changed.
+     * @param complete {@code true} to mark the task as completed; {@code false} leaves its status as it is.
+     * @return A status message indicating success or failure.
+     */
+    public String updateTaskById(long taskId, String newTitle, String newDescription, Priority newPriority,
+                                 boolean complete) {
+        return apply(EDIT_TASK, System.nanoTime(),
+                new TaskMutation.UpdateTask(taskId, newTitle, newDescription, newPriority, complete),
+                "Task updated successfully.", "Invalid task id.");
+    }
+
+    /**
+     * Sets or removes the due date of a task.
+     * @param taskNumber The 1-based index of the task.
+     * @param dueDate The new due date, or {@code null} to remove it.
+     * @return A status message indicating success or failure.
+     */
+    public String setDueDate(int taskNumber, Instant dueDate) {
+        long start = System.nanoTime();
+        Task task = taskAt(taskNumber);
+        if (task == null) {
+            SET_DUE_DATE.stop(start, false);
+            return "Invalid task number.";
+        }
+        return apply(SET_DUE_DATE, start, new TaskMutation.SetDueDate(task.getId(), dueDate),
+                dueDate == null ? "Due date removed." : "Due date set.", "Invalid task number.");
+    }
+
+    /**
+     * Sets or removes the due date of the task with the given id.
+     * @param taskId The id of the task.
+     * @param dueDate The new due date, or {@code null} to remove it.
+     * @return A status message indicating success or failure.
+     */
+    public String setDueDateById(long taskId, Instant dueDate) {
+        return apply(SET_DUE_DATE, System.nanoTime(), new TaskMutation.SetDueDate(taskId, dueDate),
+                dueDate == null ? "Due date removed." : "Due date set.", "Invalid task id.");
+    }
+
+    /**
+     * Starts reminding about the open tasks of this profile when they come due, replacing the
+     * reminders followed before. Tasks that are overdue already are not reminded about.
+     * @param scheduler The scheduler to keep the reminders in.
+     * @param onDue Called with each task that comes due, on the scheduler's thread.
+     */
+    public synchronized void followReminders(ReminderScheduler scheduler, Consumer<Task> onDue) {
+        if (reminders != null) {
+            reminders.close();
+        }
+        reminders = new TaskReminders(userProfile.getToDoList(), scheduler, onDue);
+    }
+
     /**
      * Clears all tasks from the user's to-do list.
      * @return A status message indicating success or failure.
      */
     public String clearAllTasks() {
-        userProfile.clearTasks();
-        return "All tasks cleared successfully.";
+        try {
+            apply(CLEAR_TASKS, System.nanoTime(), new TaskMutation.ClearTasks());
+            return "All tasks cleared successfully.";
+        } catch (UncheckedIOException e) {
+            return logFailure(e);
+        }
+    }
+    /**
+     * Takes back the most recent change to the to-do list, including clearing it. Up to
+     * {@value #UNDO_LIMIT} changes can be undone one after another.
+     * @return A status message indicating success or failure.
+     */
+    public String undo() {
+        long start = System.nanoTime();
+        boolean undone = false;
+        try {
+            if (pipeline != null) {
+                undone = pipeline.undo();
+            } else if (journal != null) {
+                undone = journal.undo();
+            } else {
+                undone = !userProfile.getToDoList().undo().isEmpty();
+            }
+        } catch (UncheckedIOException e) {
+            return logFailure(e);
+        } finally {
+            UNDO.stop(start, undone);
+        }
+        return undone ? "Last change undone." : "Nothing to undo.";
     }
+
+    /**
+     * Makes the most recently undone change again. Making any other change first discards the undone changes.
+     * @return A status message indicating success or failure.
+     */
+    public String redo() {
+        long start = System.nanoTime();
+        boolean redone = false;
+        try {
+            if (pipeline != null) {
+                redone = pipeline.redo();
+            } else if (journal != null) {
+                redone = journal.redo();
+            } else {
+                redone = !userProfile.getToDoList().redo().isEmpty();
+            }
+        } catch (UncheckedIOException e) {
+            return logFailure(e);
+        } finally {
+            REDO.stop(start, redone);
+        }
+        return redone ? "Change redone." : "Nothing to redo.";
+    }
+
+    /**
+     * Checks whether there is a change that {@link #undo()} can take back.
+     * @return {@code true} if a change can be undone, {@code false} otherwise.
+     */
+    public boolean canUndo() {
+        return userProfile.getToDoList().canUndo();
+    }
+
+    /**
+     * Checks whether there is an undone change that {@link #redo()} can make again.
+     * @return {@code true} if a change can be redone, {@code false} otherwise.
+     */
+    public boolean canRedo() {
+        return userProfile.getToDoList().canRedo();
+    }
+
+    /**
+     * Searches the titles and descriptions of the tasks. The last word of the query also
+     * matches words it is the start of, so results can be shown while the user is typing.
+     * The first search builds an index of the list, which is kept up to date from then on.
+     * @param query The words to look for.
+     * @param limit The maximum number of tasks to return.
+     * @return The tasks containing every word of the query, best match first.
+     * @throws IllegalArgumentException if the query is null or the limit is not positive.
+     */
+    public List<Task> search(String query, int limit) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            List<Task> matches = searchIndex().search(query, limit);
+            succeeded = true;
+            return matches;
+        } finally {
+            SEARCH.stop(start, succeeded);
+        }
+    }
+
+    /**
+     * Retrieves the search index, building it on first use.
+     * @return The index of this profile's tasks.
+     */
+    private TaskSearchIndex searchIndex() {
+        TaskSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = new TaskSearchIndex(userProfile.getToDoList());
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * Retrieves the number of tasks in the user's to-do list.
      * @return The count of tasks.
@@ -146,6 +661,191 @@ public class AppController {
     public int getTaskCount() {
         return userProfile.getTasks().size();
     }
+
+    /**
+     * Retrieves the counts of the user's to-do list, such as open and completed tasks and tasks
+     * per priority. They are kept up to date as the list changes, so this takes the same time
+     * however many tasks there are.
+     * @return The counts as of the latest change.
+     */
+    public TaskStats getStats() {
+        return userProfile.getToDoList().getStats();
+    }
+    /**
+     * Saves the user's profile and all of its tasks to the profile store.
+     * @return A status message indicating success or failure.
+     */
+    public String saveProfile() {
+        if (journal == null) {
+            return "No data directory configured, profile not saved.";
+        }
+        long start = System.nanoTime();
+        boolean saved = false;
+        try {
+            if (pipeline != null) {
+                pipeline.flush();
+            }
+            journal.checkpoint();
+            saved = true;
+            return "Profile saved successfully.";
+        } catch (IOException | UncheckedIOException e) {
+            return "Error saving profile: " + e.getMessage();
+        } finally {
+            SAVE_PROFILE.stop(start, saved);
+        }
+    }
+
+    /**
+     * Retrieves the counters of the background writer, such as the number of changes
+     * waiting to be written and how long writes take.
+     * @return The counters, or an empty optional if changes are not written in the background.
+     */
+    public Optional<PersistencePipeline.Stats> getPersistenceStats() {
+        return pipeline == null ? Optional.empty() : Optional.of(pipeline.getStats());
+    }
+
+    /**
+     * Checks whether this controller saves its profile to disk.
+     * @return {@code true} if a profile store is configured, {@code false} otherwise.
+     */
+    public boolean isPersistent() {
+        return journal != null;
+    }
+
+    /**
+     * Flushes the write-ahead log and closes it, and stops publishing the task counts of
+     * this profile and following its reminders and search index. Writes nothing for in-memory profiles.
+     * @return A status message indicating success or failure.
+     */
+    public String close() {
+        if (publishesGauges) {
+            METRICS.removeGauges(userProfile.getToDoList());
+        }
+        synchronized (this) {
+            if (reminders != null) {
+                reminders.close();
+                reminders = null;
+            }
+            if (searchIndex != null) {
+                searchIndex.dispose();
+                searchIndex = null;
+            }
+        }
+        if (journal == null) {
+            return "Nothing to close.";
+        }
+        long start = System.nanoTime();
+        boolean closed = false;
+        try {
+            if (pipeline != null) {
+                pipeline.close();
+            }
+            journal.close();
+            closed = true;
+            return "Profile closed.";
+        } catch (IOException | UncheckedIOException e) {
+            return "Error closing profile: " + e.getMessage();
+        } finally {
+            CLOSE.stop(start, closed);
+        }
+    }
+
+    /**
+     * Looks up a task by the number shown to the user.
+     * @param taskNumber The 1-based index of the task.
+     * @return The task, or {@code null} if the number is out of range.
+     */
+    private Task taskAt(int taskNumber) {
+        List<Task> tasks = userProfile.getTasks();
+        if (taskNumber > 0 && taskNumber <= tasks.size()) {
+            return tasks.get(taskNumber - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Starts remembering changes for undo. Called once the profile is loaded, so that loading
+     * it, including replaying its log, cannot be undone.
+     */
+    private void enableUndo() {
+        userProfile.getToDoList().setUndoLimit(UNDO_LIMIT);
+    }
+
+    /**
+     * Publishes the number of tasks of each priority in this profile as gauges, unless another
+     * open controller of the profile publishes them already.
+     */
+    private void registerGauges() {
+        for (Priority priority : Priority.values()) {
+            if (METRICS.gaugeIfAbsent("profile." + userProfile.getName() + ".tasks." + priority,
+                    userProfile.getToDoList(), list -> list.getTaskCount(priority))) {
+                publishesGauges = true;
+            }
+        }
+    }
+
+    /**
+     * Applies a change and records it with the timer of the operation making it.
+     * @param timer The timer of the operation.
+     * @param start When the operation started, from {@link System#nanoTime()}.
+     * @param mutation The change to apply.
+     * @return {@code true} if the profile changed, {@code false} otherwise.
+     */
+    private boolean apply(Timer timer, long start, TaskMutation mutation) {
+        boolean changed = false;
+        try {
+            changed = apply(mutation);
+            return changed;
+        } finally {
+            timer.stop(start, changed);
+        }
+    }
+
+    /**
+     * Applies a change like {@link #apply(Timer, long, TaskMutation)} and reports the outcome as a status message.
+     * @param timer The timer of the operation.
+     * @param start When the operation started, from {@link System#nanoTime()}.
+     * @param mutation The change to apply.
+     * @param changed The message to return if the profile changed.
+     * @param unchanged The message to return if it did not.
+     * @return One of the two messages, or an error message if the change could not be logged.
+     */
+    private String apply(Timer timer, long start, TaskMutation mutation, String changed, String unchanged) {
+        try {
+            return apply(timer, start, mutation) ? changed : unchanged;
+        } catch (UncheckedIOException e) {
+            return logFailure(e);
+        }
+    }
+
+    /**
+     * Describes a change that was made but could not be written to the log. The journal keeps
+     * such changes queued and writes them with the next change or save.
+     * @param e The failure of the write.
+     * @return A status message for the user.
+     */
+    private static String logFailure(UncheckedIOException e) {
+        return "Error saving change: " + e.getMessage();
+    }
+
+    /**
+     * Applies a change to the profile and logs it if the profile is journaled, either right
+     * away or through the background writer.
+     * @param mutation The change to apply.
+     * @return {@code true} if the profile changed, {@code false} otherwise.
+     * @throws IllegalArgumentException if the change carries invalid task data.
+     * @throws UncheckedIOException if the change was made but could not be written to the log.
+     */
+    private boolean apply(TaskMutation mutation) {
+        if (pipeline != null) {
+            return pipeline.submit(mutation);
+        }
+        if (journal != null) {
+            return journal.apply(mutation);
+        }
+        return mutation.applyTo(userProfile);
+    }
+
     /**
      * Retrieves the user profile name.
      * @return The name of the user profile.
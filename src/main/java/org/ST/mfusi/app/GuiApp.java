@@ -5,17 +5,40 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.ST.mfusi.app.gui.FirstFrameTimer;
+import org.ST.mfusi.app.gui.WelcomeViewController;
+import org.ST.mfusi.metrics.MetricsReporter;
 
 public class GuiApp extends Application {
 
+    private MetricsReporter metricsReporter;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // off unless -Dtodo.metrics.logInterval is set
+        metricsReporter = MetricsReporter.startFromSystemProperty();
+
         // Load the WELCOME view first
-        Parent root = FXMLLoader.load(getClass().getResource("/views/WelcomeView.fxml"));
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/WelcomeView.fxml"));
+        Parent root = loader.load();
 
         primaryStage.setTitle("Welcome!");
-        primaryStage.setScene(new Scene(root, 500, 300));
+        Scene scene = new Scene(root, 500, 300);
+        // measured from the start of the JVM, the whole wait for the first window
+        FirstFrameTimer.record(scene, "gui.welcomeView.firstFrame", FirstFrameTimer.jvmStart());
+        primaryStage.setScene(scene);
         primaryStage.show();
+
+        // build the main window while the user types a name
+        WelcomeViewController welcome = loader.getController();
+        welcome.preloadMainView();
+    }
+
+    @Override
+    public void stop() {
+        if (metricsReporter != null) {
+            metricsReporter.close();
+        }
     }
 
     public static void main(String[] args) {
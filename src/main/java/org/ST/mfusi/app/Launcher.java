@@ -0,0 +1,95 @@
+package org.ST.mfusi.app;
+
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import org.ST.mfusi.app.gui.ToDoViewController;
+import org.ST.mfusi.app.gui.ViewPreloader;
+import org.ST.mfusi.app.gui.WelcomeViewController;
+import org.ST.mfusi.task.Priority;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The entry point of the packaged jar. JavaFX does not start an {@link javafx.application.Application}
+ * that is the main class of a jar on the class path, so this plain class starts {@link GuiApp}.
+ * <p>Started with {@value #CDS_TRAINING}, it does not show a window but goes through what a start
+ * of the application loads, both views included, and exits. The {@code cds} build profile runs
+ * the jar like this with {@code -XX:ArchiveClassesAtExit} to create a class-data sharing archive,
+ * which lets later starts map those classes instead of loading and verifying them again.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Launcher {
+
+    /**
+     * The argument that makes a training run for the class-data sharing archive.
+     */
+    public static final String CDS_TRAINING = "--cds-training";
+
+    private Launcher() {
+    }
+
+    /**
+     * Starts the GUI, or makes a training run.
+     * @param args {@value #CDS_TRAINING} for a training run; anything else is passed to {@link GuiApp}.
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(CDS_TRAINING)) {
+            train();
+            return;
+        }
+        GuiApp.main(args);
+    }
+
+    /**
+     * Loads the classes a start of the application needs: the model, then both views if there is a display.
+     */
+    private static void train() {
+        AppController app = new AppController("cds-training");
+        app.addTask("Train", "Load the classes of the model", Priority.HIGH);
+        app.setDueDate(1, Instant.now().plusSeconds(60));
+        app.getFormattedToDoList();
+        app.search("train", 10);
+        app.getStats();
+        try {
+            Platform.startup(() -> { });
+        } catch (UnsupportedOperationException e) {
+            System.out.println("No display, so the archive only covers the classes loaded without the GUI: "
+                    + e.getMessage());
+            return;
+        }
+        CompletableFuture<Void> views = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                lay(new ViewPreloader<WelcomeViewController>(
+                        Launcher.class.getResource("/views/WelcomeView.fxml")).take().root());
+                ViewPreloader.LoadedView<ToDoViewController> toDo = new ViewPreloader<ToDoViewController>(
+                        Launcher.class.getResource("/views/ToDoView.fxml")).take();
+                toDo.controller().initializeData(app);
+                lay(toDo.root());
+                toDo.controller().shutdown();
+                views.complete(null);
+            } catch (IOException | RuntimeException e) {
+                views.completeExceptionally(e);
+            }
+        });
+        try {
+            views.join();
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Styles and lays out a view in a scene that is never shown.
+     */
+    private static void lay(Parent root) {
+        new Scene(root);
+        root.applyCss();
+        root.layout();
+    }
+}
@@ -1,9 +1,30 @@
 package org.ST.mfusi.app;
 
+import org.ST.mfusi.app.batch.BatchRunner;
+import org.ST.mfusi.app.server.TaskServer;
+import org.ST.mfusi.metrics.MetricsReporter;
+import org.ST.mfusi.persistence.ProfileStore;
+import org.ST.mfusi.reminder.ReminderScheduler;
 import org.ST.mfusi.task.Priority;
 import org.ST.mfusi.task.Task;
-
+import org.ST.mfusi.todolist.TaskStats;
+import org.ST.mfusi.todolist.ToDoList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.InputMismatchException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -16,21 +37,73 @@ import java.util.Scanner;
  */
 public class Main {
 
+    /**
+     * System property naming the directory profiles are saved to. When it is not set,
+     * the profile only lives for the duration of the session.
+     */
+    public static final String DATA_DIR_PROPERTY = "todo.dataDir";
+
+    /**
+     * The most search results printed at once.
+     */
+    private static final int SEARCH_RESULT_LIMIT = 20;
+
+    /**
+     * The most profiles a server keeps in memory when it saves them to a data directory.
+     */
+    private static final int SERVER_ACTIVE_PROFILES = 10_000;
+
+    /**
+     * How long a server keeps an unused profile in memory when it saves them to a data directory.
+     */
+    private static final Duration SERVER_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    /**
+     * How due dates are typed and shown in the console, in the local time zone.
+     */
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     /**
      * The main entry point of the application. Initializes the application,
-     * creates the user profile, and runs the main menu loop.
-     * @param args Command-line arguments (not used).
+     * creates the user profile, and runs the main menu loop. Operation metrics are written
+     * to the log every few seconds if {@value MetricsReporter#INTERVAL_PROPERTY} is set.
+     * <p>Started with {@code --server [port]} the application runs headless instead and serves
+     * every profile over HTTP, see {@link TaskServer}. Started with {@code --batch profile [file]}
+     * it runs the commands of a script against one profile without showing the menu, see
+     * {@link BatchRunner}; the script is read from standard input when no file is given.</p>
+     * @param args Command-line arguments: nothing for the console menu, {@code --server [port]}
+     *             or {@code --batch profile [file]}.
      */
     public static void main(String[] args) {
+        if (args != null && args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : TaskServer.DEFAULT_PORT);
+            return;
+        }
+        if (args != null && args.length > 0 && args[0].equals("--batch")) {
+            if (args.length < 2) {
+                System.out.println("Usage: --batch <profile> [script file]");
+                return;
+            }
+            runBatch(args[1], args.length > 2 ? Path.of(args[2]) : null);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
+        MetricsReporter metricsReporter = MetricsReporter.startFromSystemProperty();
 
 
         System.out.println("Welcome to your To-Do List Application!");
         System.out.print("Please enter your name to create a profile: ");
         String name = scanner.nextLine();
-        AppController app = new AppController(name);
+        AppController app = createController(name);
 
-        System.out.println("\nProfile for " + name + " created. Let's get started!\n");
+        if (app.getTaskCount() > 0) {
+            System.out.println("\nProfile for " + name + " loaded with " + app.getTaskCount() + " task(s). Let's get started!\n");
+        } else {
+            System.out.println("\nProfile for " + name + " created. Let's get started!\n");
+        }
+        ReminderScheduler reminderScheduler = new ReminderScheduler();
+        app.followReminders(reminderScheduler,
+                task -> System.out.println("\nReminder: \"" + task.getTitle() + "\" is due now."));
 
 
         boolean running = true;
@@ -42,12 +115,17 @@ public class Main {
                 scanner.nextLine();
 
                 switch (choice) {
-                    case 1 -> System.out.println(app.getFormattedToDoList());
+                    case 1 -> printToDoList(app);
                     case 2 -> handleAddTask(scanner, app);
                     case 3 -> handleRemoveTask(scanner, app);
                     case 4 -> handleMarkTaskComplete(scanner, app);
                     case 5 -> handleChangeTaskPriority(scanner, app);
                     case 6 -> handleEditTask(scanner, app);
+                    case 7 -> handleSearchTasks(scanner, app);
+                    case 8 -> System.out.println(app.undo());
+                    case 9 -> System.out.println(app.redo());
+                    case 10 -> printStats(app);
+                    case 11 -> handleSetDueDate(scanner, app);
                     case 0 -> running = false;
                     default -> System.out.println("Invalid choice. Please try again.");
                 }
@@ -59,10 +137,105 @@ public class Main {
         }
 
 
+        reminderScheduler.close();
+        if (app.isPersistent()) {
+            System.out.println(app.saveProfile());
+            app.close();
+        }
         System.out.println("Thank you for using the To-Do List App. Goodbye!");
+        if (metricsReporter != null) {
+            metricsReporter.report();
+            metricsReporter.close();
+        }
         scanner.close();
     }
 
+    /**
+     * Serves all profiles over HTTP until the JVM is stopped. With a data directory profiles are
+     * loaded on first use and saved when they go idle; without one they only live in memory and
+     * are never dropped.
+     *
+     * @param port The port to listen on.
+     */
+    private static void runServer(int port) {
+        // Without TCP_NODELAY the response headers and body go out as two small segments, and
+        // the second waits for the client's delayed ACK: about 40 ms per kept-alive request.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        ProfileRegistry registry;
+        TaskServer server;
+        try {
+            if (dataDir == null || dataDir.isBlank()) {
+                registry = new ProfileRegistry(AppController::new, Integer.MAX_VALUE, null);
+            } else {
+                registry = ProfileRegistry.backedBy(new ProfileStore(Path.of(dataDir), ProfileStore.Format.BINARY),
+                        SERVER_ACTIVE_PROFILES, SERVER_IDLE_TIMEOUT);
+            }
+            server = new TaskServer(registry, new InetSocketAddress(port));
+        } catch (IOException e) {
+            System.out.println("Could not start the server: " + e.getMessage());
+            return;
+        }
+        MetricsReporter metricsReporter = MetricsReporter.startFromSystemProperty();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            registry.close(); // saves every profile still in memory
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+        }, "server-shutdown"));
+        server.start();
+        System.out.println("Serving to-do lists on http://localhost:" + server.getPort() + "/profiles/. Press Ctrl+C to stop.");
+    }
+
+    /**
+     * Runs a script of commands against a profile and prints a summary with the throughput.
+     * The profile is saved afterwards if a data directory is configured.
+     *
+     * @param name The name of the profile.
+     * @param script The script file, or {@code null} to read the script from standard input.
+     */
+    private static void runBatch(String name, Path script) {
+        AppController app = createController(name);
+        MetricsReporter metricsReporter = MetricsReporter.startFromSystemProperty();
+        try (InputStream in = script == null ? System.in : Files.newInputStream(script)) {
+            BatchRunner.Summary summary = new BatchRunner(app).run(in);
+            System.out.print(summary.format());
+        } catch (IOException e) {
+            System.out.println("Could not read the script: " + e.getMessage());
+        }
+        if (app.isPersistent()) {
+            System.out.println(app.saveProfile());
+            app.close();
+        }
+        if (metricsReporter != null) {
+            metricsReporter.report();
+            metricsReporter.close();
+        }
+    }
+
+    /**
+     * Creates the controller for the session. If a data directory is configured the
+     * profile is loaded from it, otherwise a fresh in-memory profile is created.
+     *
+     * @param name The name of the user's profile.
+     * @return The controller for the session.
+     */
+    private static AppController createController(String name) {
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        if (dataDir == null || dataDir.isBlank()) {
+            return new AppController(name);
+        }
+        try {
+            return new AppController(name, new ProfileStore(Path.of(dataDir), ProfileStore.Format.BINARY));
+        } catch (IOException e) {
+            System.out.println("Could not open saved profile (" + e.getMessage() + "), starting with an empty list.");
+            return new AppController(name);
+        }
+    }
+
     /**
      * Displays the main menu of options to the user's console.
      */
@@ -74,6 +247,11 @@ public class Main {
         System.out.println("4. Mark a Task as Complete");
         System.out.println("5. Change a Task's Priority");
         System.out.println("6. Edit a Task");
+        System.out.println("7. Search Tasks");
+        System.out.println("8. Undo Last Change");
+        System.out.println("9. Redo");
+        System.out.println("10. Show Statistics");
+        System.out.println("11. Set a Due Date");
         System.out.println("0. Exit");
         System.out.println("-----------------");
     }
@@ -119,7 +297,7 @@ public class Main {
      */
     private static void handleRemoveTask(Scanner scanner, AppController app) {
         if (isListEmpty(app)) return;
-        System.out.println(app.getFormattedToDoList());
+        printToDoList(app);
 
         System.out.print("Enter the number of the task to remove: ");
         try {
@@ -141,7 +319,7 @@ public class Main {
      */
     private static void handleMarkTaskComplete(Scanner scanner, AppController app) {
         if (isListEmpty(app)) return;
-        System.out.println(app.getFormattedToDoList());
+        printToDoList(app);
 
         System.out.print("Enter the number of the task to mark as complete: ");
         try {
@@ -163,7 +341,7 @@ public class Main {
      */
     private static void handleChangeTaskPriority(Scanner scanner, AppController app) {
         if (isListEmpty(app)) return;
-        System.out.println(app.getFormattedToDoList());
+        printToDoList(app);
 
         try {
             System.out.print("Enter the number of the task to change: ");
@@ -204,7 +382,7 @@ public class Main {
      */
     private static void handleEditTask(Scanner scanner, AppController app) {
         if (isListEmpty(app)) return;
-        System.out.println(app.getFormattedToDoList());
+        printToDoList(app);
 
         try {
             System.out.print("Enter the number of the task to edit: ");
@@ -235,6 +413,122 @@ public class Main {
         }
     }
 
+    /**
+     * Handles the logic for setting or removing the due date of a task.
+     * Prompts the user to select a task and enter its due date; the user is reminded
+     * about the task when it comes due while the application is running.
+     *
+     * @param scanner the Scanner instance for reading user input
+     * @param app the {@code AppController} instance that manages the application logic
+     */
+    private static void handleSetDueDate(Scanner scanner, AppController app) {
+        if (isListEmpty(app)) return;
+        printToDoList(app);
+
+        try {
+            System.out.print("Enter the number of the task: ");
+            int taskNumber = scanner.nextInt();
+            scanner.nextLine();
+
+            if (taskNumber > 0 && taskNumber <= app.getUserProfile().getTasks().size()) {
+                Task task = app.getUserProfile().getTasks().get(taskNumber - 1);
+                System.out.printf("Current due date: %s\n", formatDueDate(task.getDueDate()));
+            }
+            System.out.print("Enter the due date as yyyy-MM-dd HH:mm (or press Enter to remove it): ");
+            String dueDate = scanner.nextLine();
+            System.out.println(app.setDueDate(taskNumber, dueDate.isBlank() ? null : parseDueDate(dueDate)));
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid input. Please enter a number.");
+            scanner.nextLine();
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date. Please use the format yyyy-MM-dd HH:mm.");
+        }
+    }
+
+    /**
+     * Reads a due date typed in the local time zone.
+     *
+     * @param text The date, as {@code yyyy-MM-dd HH:mm}.
+     * @return The instant it stands for.
+     * @throws DateTimeParseException if the text is not a valid date.
+     */
+    private static Instant parseDueDate(String text) {
+        return LocalDateTime.parse(text.trim(), DUE_DATE_FORMAT).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Shows a due date in the local time zone.
+     *
+     * @param dueDate The due date, or {@code null}.
+     * @return The date as {@code yyyy-MM-dd HH:mm}, or {@code "none"}.
+     */
+    private static String formatDueDate(Instant dueDate) {
+        return dueDate == null ? "none" : DUE_DATE_FORMAT.format(dueDate.atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Handles the logic for searching the user's to-do list.
+     * Prompts the user for the words to look for and prints the best matches
+     * with the numbers they have in the full list.
+     *
+     * @param scanner the Scanner instance for reading user input
+     * @param app the {@code AppController} instance that manages the application logic
+     */
+    private static void handleSearchTasks(Scanner scanner, AppController app) {
+        if (isListEmpty(app)) return;
+
+        System.out.print("Enter words to search for: ");
+        List<Task> matches = app.search(scanner.nextLine(), SEARCH_RESULT_LIMIT);
+        if (matches.isEmpty()) {
+            System.out.println("No matching tasks found.");
+            return;
+        }
+        System.out.println("--- Search Results ---");
+        ToDoList toDoList = app.getUserProfile().getToDoList();
+        for (Task task : matches) {
+            System.out.println((toDoList.indexOf(task.getId()) + 1) + ". "
+                    + (task.isCompleted() ? "[x] " : "[ ] ") + task.getTitle() + ": " + task.getDescription()
+                    + " (Priority: " + task.getPriority() + ")");
+        }
+    }
+
+    /**
+     * Prints the to-do list followed by a blank line. The list is streamed to the console row
+     * by row instead of being built as one string first, so long lists print in constant memory.
+     *
+     * @param app The AppController instance.
+     */
+    private static void printToDoList(AppController app) {
+        // not closed: closing the writer would close System.out
+        Writer console = new OutputStreamWriter(System.out, System.out.charset());
+        try {
+            app.writeFormattedToDoList(console);
+            console.flush();
+        } catch (IOException e) {
+            System.out.println("Could not print the to-do list: " + e.getMessage());
+        }
+        System.out.println();
+    }
+
+    /**
+     * Prints the counts of the to-do list: open and completed tasks, the completion ratio and
+     * the tasks per priority.
+     *
+     * @param app The AppController instance.
+     */
+    private static void printStats(AppController app) {
+        TaskStats stats = app.getStats();
+        System.out.println("\n--- Statistics ---");
+        System.out.println("Tasks: " + stats.getTotal());
+        System.out.println("Open: " + stats.getOpenCount());
+        System.out.println("Completed: " + stats.getCompletedCount()
+                + " (" + Math.round(stats.getCompletionRatio() * 100) + "%)");
+        for (Priority priority : Priority.values()) {
+            System.out.println(priority + ": " + stats.getCount(priority)
+                    + " (" + stats.getOpenCount(priority) + " open)");
+        }
+    }
+
     /**
      * Checks if the user's to-do list is empty and prints a message if it is.
      * This is a helper method to avoid repetitive code in the handler methods.
@@ -0,0 +1,481 @@
+package org.ST.mfusi.app;
+
+import org.ST.mfusi.persistence.ProfileStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Holds the {@link AppController}s of many user profiles for a server that serves
+ * many users from one JVM.
+ * <p>Profiles are looked up by name in a {@link ConcurrentHashMap} and opened lazily
+ * the first time they are used; concurrent first requests for the same profile share
+ * a single load. Only recently used profiles stay in memory: once more than
+ * {@code maxActiveProfiles} are open, the least recently used ones are saved and
+ * dropped, and profiles idle for longer than the idle timeout are dropped as well.
+ * Memory use therefore follows the number of active users rather than all users.</p>
+ * <p>Callers {@link #acquire(String) acquire} a lease while they work with a controller.
+ * A leased profile is never evicted, so two controllers can never exist for the same
+ * profile at the same time.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ProfileRegistry implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileRegistry.class);
+
+    /**
+     * Opens the controller of a profile that is not in memory yet.
+     */
+    @FunctionalInterface
+    public interface ControllerFactory {
+        /**
+         * Opens or creates the controller of a profile.
+         * @param profileName The name of the profile.
+         * @return The controller managing the profile.
+         * @throws IOException if the profile exists but cannot be loaded.
+         */
+        AppController open(String profileName) throws IOException;
+    }
+
+    /**
+     * Exclusive right to use a profile's controller without it being evicted. Leases must be closed.
+     */
+    public final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private boolean released;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Retrieves the leased controller.
+         * @return The controller of the profile.
+         */
+        public AppController controller() {
+            return entry.controller;
+        }
+
+        /**
+         * Releases the lease, making the profile eligible for eviction again.
+         */
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                entry.release();
+            }
+        }
+    }
+
+    /**
+     * A profile slot. {@code pins} counts open leases; -1 marks an evicted slot that must not be reused.
+     * A slot being evicted stays mapped until its controller is saved and closed, or until saving
+     * failed and the slot is usable again; {@code evicting} is set meanwhile, guarded by the slot's monitor.
+     */
+    private static final class Entry {
+        final String key;
+        final CompletableFuture<AppController> loaded = new CompletableFuture<>();
+        final AtomicInteger pins = new AtomicInteger();
+        private boolean evicting;
+        volatile AppController controller;
+        volatile long lastAccess = System.nanoTime();
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        boolean pin() {
+            int current;
+            do {
+                current = pins.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!pins.compareAndSet(current, current + 1));
+            lastAccess = System.nanoTime();
+            return true;
+        }
+
+        void release() {
+            lastAccess = System.nanoTime();
+            pins.decrementAndGet();
+        }
+
+        synchronized boolean startEviction() {
+            if (!pins.compareAndSet(0, -1)) {
+                return false;
+            }
+            evicting = true;
+            return true;
+        }
+
+        /**
+         * Ends an eviction, making the slot usable again if it was called off.
+         */
+        synchronized void endEviction(boolean evicted) {
+            if (!evicted) {
+                pins.set(0);
+            }
+            evicting = false;
+            notifyAll();
+        }
+
+        synchronized void awaitEviction() throws InterruptedException {
+            while (evicting) {
+                wait();
+            }
+        }
+    }
+
+    private final ControllerFactory factory;
+    private final int maxActiveProfiles;
+    private final Duration idleTimeout;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> namesByEmail = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService idleSweeper;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder failedEvictions = new LongAdder();
+
+    /**
+     * Constructs a registry.
+     * @param factory Opens profiles that are not in memory.
+     * @param maxActiveProfiles The number of profiles kept in memory before the least recently used are evicted.
+     * @param idleTimeout How long an unused profile stays in memory, or {@code null} to keep it until it is
+     *                    pushed out by the size limit.
+     */
+    public ProfileRegistry(ControllerFactory factory, int maxActiveProfiles, Duration idleTimeout) {
+        if (maxActiveProfiles < 1) {
+            throw new IllegalArgumentException("The registry must be able to hold at least one profile.");
+        }
+        this.factory = factory;
+        this.maxActiveProfiles = maxActiveProfiles;
+        this.idleTimeout = idleTimeout;
+        if (idleTimeout != null) {
+            this.idleSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "profile-registry-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, idleTimeout.toMillis() / 2);
+            idleSweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.idleSweeper = null;
+        }
+    }
+
+    /**
+     * Creates a registry whose profiles are saved to and loaded from a store.
+     * @param store The store holding the profiles.
+     * @param maxActiveProfiles The number of profiles kept in memory.
+     * @param idleTimeout How long an unused profile stays in memory, or {@code null} for no timeout.
+     * @return The new registry.
+     */
+    public static ProfileRegistry backedBy(ProfileStore store, int maxActiveProfiles, Duration idleTimeout) {
+        return new ProfileRegistry(name -> new AppController(name, store), maxActiveProfiles, idleTimeout);
+    }
+
+    /**
+     * Leases the controller of a profile, opening the profile if it is not in memory.
+     * @param profileName The name of the profile.
+     * @return A lease on the profile's controller, which must be closed after use.
+     * @throws IOException if the profile cannot be loaded.
+     */
+    public Lease acquire(String profileName) throws IOException {
+        String key = keyOf(profileName);
+        while (true) {
+            Entry entry = entries.get(key);
+            boolean created = false;
+            if (entry == null) {
+                Entry fresh = new Entry(key);
+                entry = entries.putIfAbsent(key, fresh);
+                if (entry == null) {
+                    entry = fresh;
+                    created = true;
+                }
+            }
+            if (!entry.pin()) {
+                // being evicted: the next controller must not open the profile before this one has closed it
+                awaitEviction(entry, profileName);
+                continue;
+            }
+            if (created) {
+                load(entry, profileName);
+            }
+            try {
+                entry.loaded.get();
+            } catch (ExecutionException e) {
+                entry.release();
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException io ? io : new IOException(cause);
+            } catch (InterruptedException e) {
+                entry.release();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading profile " + profileName, e);
+            }
+            if (created) {
+                trimToSize();
+            }
+            return new Lease(entry);
+        }
+    }
+
+    /**
+     * Runs an action against a profile's controller while holding a lease on it.
+     * @param profileName The name of the profile.
+     * @param action The action to run.
+     * @param <R> The type of the action's result.
+     * @return The result of the action.
+     * @throws UncheckedIOException if the profile cannot be loaded.
+     */
+    public <R> R withController(String profileName, Function<AppController, R> action) {
+        try (Lease lease = acquire(profileName)) {
+            return action.apply(lease.controller());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds the name of an in-memory profile by its email address.
+     * @param email The email address to look up, compared case-insensitively.
+     * @return The profile name, or an empty {@link Optional} if no active profile has that email.
+     */
+    public Optional<String> findProfileNameByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        String name = namesByEmail.get(email.toLowerCase(Locale.ROOT));
+        if (name == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(keyOf(name));
+        AppController controller = entry == null ? null : entry.controller;
+        if (controller == null || !email.equalsIgnoreCase(controller.getUserProfile().getEmail())) {
+            return Optional.empty();
+        }
+        return Optional.of(name);
+    }
+
+    /**
+     * Changes the email address of a profile and updates the email index.
+     * @param profileName The name of the profile.
+     * @param email The new email address.
+     * @throws IOException if the profile cannot be loaded.
+     */
+    public void setEmail(String profileName, String email) throws IOException {
+        try (Lease lease = acquire(profileName)) {
+            String previous = lease.controller().getUserProfile().getEmail();
+            lease.controller().getUserProfile().setEmail(email);
+            if (previous != null && !previous.isBlank()) {
+                namesByEmail.remove(previous.toLowerCase(Locale.ROOT), profileName);
+            }
+            indexEmail(lease.controller());
+        }
+    }
+
+    /**
+     * Checks whether a profile is currently held in memory.
+     * @param profileName The name of the profile.
+     * @return {@code true} if the profile is loaded, {@code false} otherwise.
+     */
+    public boolean isActive(String profileName) {
+        Entry entry = entries.get(keyOf(profileName));
+        return entry != null && entry.controller != null;
+    }
+
+    /**
+     * Retrieves the number of profiles in memory.
+     * @return The number of active profiles.
+     */
+    public int getActiveCount() {
+        return entries.size();
+    }
+
+    /**
+     * Retrieves how many times a profile was opened by the factory.
+     * @return The number of loads since the registry was created.
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Retrieves how many profiles were evicted.
+     * @return The number of evictions since the registry was created.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Retrieves how many evictions were called off because the profile could not be saved.
+     * Such a profile stays in memory with its changes and is tried again on the next eviction.
+     * @return The number of failed evictions since the registry was created.
+     */
+    public long getFailedEvictionCount() {
+        return failedEvictions.sum();
+    }
+
+    /**
+     * Evicts every profile that has not been used for longer than the idle timeout.
+     * Does nothing if the registry has no idle timeout.
+     */
+    public void evictIdle() {
+        if (idleTimeout == null) {
+            return;
+        }
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        for (Entry entry : entries.values()) {
+            if (entry.lastAccess - cutoff < 0) {
+                tryEvict(entry);
+            }
+        }
+    }
+
+    /**
+     * Evicts a profile now, saving it first.
+     * @param profileName The name of the profile.
+     * @return {@code true} if the profile was evicted, {@code false} if it was not loaded, is in use
+     *         or could not be saved.
+     */
+    public boolean evict(String profileName) {
+        Entry entry = entries.get(keyOf(profileName));
+        return entry != null && tryEvict(entry);
+    }
+
+    /**
+     * Evicts every profile that is not in use and stops the idle sweeper.
+     */
+    @Override
+    public void close() {
+        if (idleSweeper != null) {
+            idleSweeper.shutdownNow();
+        }
+        for (Entry entry : entries.values()) {
+            tryEvict(entry);
+        }
+    }
+
+    private void load(Entry entry, String profileName) {
+        try {
+            AppController controller = factory.open(profileName);
+            entry.controller = controller;
+            indexEmail(controller);
+            loads.increment();
+            entry.loaded.complete(controller);
+        } catch (IOException | RuntimeException e) {
+            // forget the slot so that the next request tries again
+            entries.remove(entry.key, entry);
+            entry.loaded.completeExceptionally(e);
+        }
+    }
+
+    private static void awaitEviction(Entry entry, String profileName) throws IOException {
+        try {
+            entry.awaitEviction();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing profile " + profileName, e);
+        }
+    }
+
+    private void indexEmail(AppController controller) {
+        String email = controller.getUserProfile().getEmail();
+        if (email != null && !email.isBlank()) {
+            namesByEmail.put(email.toLowerCase(Locale.ROOT), controller.getProfileName());
+        }
+    }
+
+    /**
+     * Evicts the least recently used profiles once the size limit is exceeded. To keep
+     * the cost of scanning amortised, it evicts down to 90% of the limit at once.
+     */
+    private void trimToSize() {
+        int excess = entries.size() - maxActiveProfiles;
+        if (excess <= 0) {
+            return;
+        }
+        int target = excess + maxActiveProfiles / 10;
+        List<Entry> candidates = new ArrayList<>(entries.values());
+        candidates.sort(Comparator.comparingLong(e -> e.lastAccess));
+        for (Entry entry : candidates) {
+            if (target <= 0) {
+                break;
+            }
+            if (tryEvict(entry)) {
+                target--;
+            }
+        }
+    }
+
+    /**
+     * Evicts an entry if nobody holds a lease on it. The entry stays mapped while its controller
+     * is saved and closed, so a concurrent {@link #acquire(String)} waits for that instead of
+     * opening the profile a second time. If the profile cannot be saved, the entry is kept with
+     * its controller, so no change is dropped, and becomes usable again.
+     */
+    private boolean tryEvict(Entry entry) {
+        if (!entry.loaded.isDone() || !entry.startEviction()) {
+            return false;
+        }
+        AppController controller = entry.controller;
+        if (controller != null && controller.isPersistent()) {
+            String saved = controller.saveProfile();
+            if (saved.startsWith("Error")) {
+                log.warn("Keeping profile {} in memory, it could not be saved: {}", entry.key, saved);
+                failedEvictions.increment();
+                entry.endEviction(false);
+                return false;
+            }
+        }
+        try {
+            if (controller != null) {
+                String email = controller.getUserProfile().getEmail();
+                if (email != null && !email.isBlank()) {
+                    namesByEmail.remove(email.toLowerCase(Locale.ROOT), controller.getProfileName());
+                }
+                // also releases the gauges and the search index of in-memory profiles
+                String closed = controller.close();
+                if (closed.startsWith("Error")) {
+                    // the snapshot just saved holds every change, so the profile can still go
+                    log.warn("Profile {} was saved but did not close cleanly: {}", entry.key, closed);
+                }
+            }
+        } finally {
+            entries.remove(entry.key, entry);
+            entry.endEviction(true);
+        }
+        evictions.increment();
+        return true;
+    }
+
+    private static String keyOf(String profileName) {
+        if (profileName == null || profileName.isBlank()) {
+            throw new IllegalArgumentException("Profile name cannot be null or empty.");
+        }
+        return profileName;
+    }
+}
@@ -0,0 +1,248 @@
+package org.ST.mfusi.app.batch;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.persistence.TaskCsvCodec;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs a script of commands against an {@link AppController} without the console menu, for
+ * feeding the application large numbers of changes from a file or a pipe.
+ * <p>A script holds one command per line. Keywords and priorities are case-insensitive, task
+ * numbers are the 1-based numbers shown in the list, blank lines and lines starting with
+ * {@code #} are skipped:</p>
+ * <pre>
+ * add HIGH Buy milk | Oat milk from the corner shop
+ * complete 1
+ * priority 2 LOW
+ * edit 2 New title | New description     (leave a side empty to keep it)
+ * remove 3
+ * clear
+ * undo
+ * redo
+ * import tasks.csv                       (CSV or TSV, see {@link TaskCsvCodec})
+ * export tasks.tsv
+ * </pre>
+ * <p>Consecutive {@code add} commands are collected and added with
+ * {@link AppController#addTasks(Iterable)} in batches of up to {@link #DEFAULT_BATCH_SIZE}, so
+ * the list is updated and saved once per batch rather than once per task. Any other command
+ * first adds the tasks collected so far, so commands always see the effect of the lines before
+ * them. A line that fails is counted and reported in the {@link Summary}, and the script goes on.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class BatchRunner {
+
+    /**
+     * The most {@code add} commands collected before they are added to the list.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /**
+     * The most failed lines a summary describes; the rest are only counted.
+     */
+    static final int MAX_REPORTED_ERRORS = 10;
+
+    private final AppController app;
+    private final int batchSize;
+
+    /**
+     * Creates a runner that adds tasks in batches of {@link #DEFAULT_BATCH_SIZE}.
+     * @param app The controller to apply the commands to.
+     */
+    public BatchRunner(AppController app) {
+        this(app, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a runner.
+     * @param app The controller to apply the commands to.
+     * @param batchSize The most {@code add} commands collected before they are added.
+     * @throws IllegalArgumentException if the controller is null or the batch size is not positive.
+     */
+    public BatchRunner(AppController app, int batchSize) {
+        if (app == null) {
+            throw new IllegalArgumentException("Controller cannot be null.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.app = app;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * The outcome of a script.
+     * @param commands The number of commands read, including the failed ones.
+     * @param failed The number of commands that failed.
+     * @param byCommand The number of commands of each kind that succeeded, by keyword.
+     * @param errors The first {@value #MAX_REPORTED_ERRORS} failures, each with its line number.
+     * @param elapsed How long the script took.
+     */
+    public record Summary(long commands, long failed, Map<String, Long> byCommand, List<String> errors,
+                          Duration elapsed) {
+
+        /**
+         * Calculates the throughput of the script.
+         * @return The commands run per second.
+         */
+        public double commandsPerSecond() {
+            long nanos = Math.max(elapsed.toNanos(), 1);
+            return commands * 1e9 / nanos;
+        }
+
+        /**
+         * Describes the outcome over a few lines, ready to be printed.
+         * @return The counts, the throughput and the first failures.
+         */
+        public String format() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "Ran %,d commands in %.3f s (%,.0f commands/s), %,d failed.%n",
+                    commands, elapsed.toNanos() / 1e9, commandsPerSecond(), failed));
+            byCommand.forEach((command, count) ->
+                    text.append(String.format(Locale.ROOT, "  %-9s %,d%n", command, count)));
+            for (String error : errors) {
+                text.append("  ").append(error).append(System.lineSeparator());
+            }
+            if (failed > errors.size()) {
+                text.append(String.format(Locale.ROOT, "  ... and %,d more failures.%n", failed - errors.size()));
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Runs every command of a script. The stream is not closed.
+     * @param script The commands, as UTF-8 text.
+     * @return What was done.
+     * @throws IOException if the script cannot be read. Commands before the failure have been applied.
+     */
+    public Summary run(InputStream script) throws IOException {
+        return new Run().execute(new CommandReader(script));
+    }
+
+    /**
+     * The state of one run of a script.
+     */
+    private final class Run {
+        private final long[] succeeded = new long[CommandReader.Kind.values().length];
+        private final List<String> errors = new ArrayList<>();
+        private final List<Task> pending = new ArrayList<>(batchSize);
+        private final long[] pendingLines = new long[batchSize];
+        private long commands;
+        private long failed;
+
+        Summary execute(CommandReader reader) throws IOException {
+            long start = System.nanoTime();
+            while (reader.next()) {
+                commands++;
+                CommandReader.Kind kind = reader.kind();
+                if (kind == null) {
+                    fail(reader.lineNumber(), reader.error());
+                } else if (kind == CommandReader.Kind.ADD) {
+                    pendingLines[pending.size()] = reader.lineNumber();
+                    pending.add(new Task(reader.title(), reader.description(), reader.priority()));
+                    if (pending.size() == batchSize) {
+                        addPending();
+                    }
+                } else {
+                    addPending();
+                    String result;
+                    try {
+                        result = apply(kind, reader);
+                    } catch (IllegalArgumentException e) {
+                        result = "Invalid command: " + e.getMessage();
+                    }
+                    if (isFailure(result)) {
+                        fail(reader.lineNumber(), result);
+                    } else {
+                        succeeded[kind.ordinal()]++;
+                    }
+                }
+            }
+            addPending();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            Map<String, Long> byCommand = new LinkedHashMap<>();
+            for (CommandReader.Kind kind : CommandReader.Kind.values()) {
+                if (succeeded[kind.ordinal()] > 0) {
+                    byCommand.put(kind.name().toLowerCase(Locale.ROOT), succeeded[kind.ordinal()]);
+                }
+            }
+            return new Summary(commands, failed, Collections.unmodifiableMap(byCommand), List.copyOf(errors), elapsed);
+        }
+
+        private String apply(CommandReader.Kind kind, CommandReader reader) {
+            return switch (kind) {
+                case REMOVE -> app.removeTask(reader.number());
+                case COMPLETE -> app.markTaskComplete(reader.number());
+                case PRIORITY -> app.changeTaskPriority(reader.number(), reader.priority());
+                case EDIT -> app.editTask(reader.number(), reader.title(), reader.description());
+                case CLEAR -> app.clearAllTasks();
+                case UNDO -> app.undo();
+                case REDO -> app.redo();
+                case IMPORT -> app.importTasks(toPath(reader.file()));
+                case EXPORT -> app.exportTasks(toPath(reader.file()));
+                case ADD -> throw new IllegalStateException("Tasks are added in batches.");
+            };
+        }
+
+        private void addPending() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            BulkAddReport report;
+            try {
+                report = app.addTasks(pending);
+            } catch (UncheckedIOException e) {
+                for (int row = 0; row < pending.size(); row++) {
+                    fail(pendingLines[row], "Error saving change: " + e.getMessage());
+                }
+                pending.clear();
+                return;
+            }
+            succeeded[CommandReader.Kind.ADD.ordinal()] += report.added().size();
+            for (BulkAddReport.RowError error : report.errors()) {
+                fail(pendingLines[error.row()], error.message());
+            }
+            pending.clear();
+        }
+
+        private void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + message);
+            }
+        }
+    }
+
+    private static Path toPath(String file) {
+        try {
+            return Path.of(file);
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid file name: " + file);
+        }
+    }
+
+    /**
+     * Tells a failure from a success by the status message of the controller.
+     */
+    private static boolean isFailure(String result) {
+        return result.startsWith("Invalid") || result.startsWith("Error") || result.startsWith("Nothing")
+                || result.contains("rejected");
+    }
+}
@@ -0,0 +1,359 @@
+package org.ST.mfusi.app.batch;
+
+import org.ST.mfusi.task.Priority;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reads the commands of a batch script one line at a time, straight from the bytes of a
+ * stream. Lines are found and parsed in a reusable buffer, keywords, numbers and priorities
+ * are matched byte by byte, and the only objects created per command are the title and
+ * description strings of the commands that carry them.
+ * <p>After {@link #next()} returns {@code true} the fields describe the command on
+ * {@link #lineNumber()}: either {@link #kind()} and its arguments, or an {@link #error()}
+ * if the line could not be parsed. The grammar is described in {@link BatchRunner}.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class CommandReader {
+
+    /**
+     * The commands of the script language.
+     */
+    enum Kind {
+        ADD, REMOVE, COMPLETE, PRIORITY, EDIT, CLEAR, UNDO, REDO, IMPORT, EXPORT;
+
+        private final byte[] keyword = name().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    /** The unread bytes are {@code buffer[position, limit)}. */
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private long lineNumber;
+
+    private Kind kind;
+    private int number;
+    private Priority priority;
+    private String title;
+    private String description;
+    private String file;
+    private String error;
+
+    /**
+     * Creates a reader over a stream of UTF-8 text. The stream is not closed.
+     * @param in The script.
+     */
+    CommandReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next command, skipping blank lines and comments.
+     * @return {@code true} if a command or an invalid line was read, {@code false} at the end of the input.
+     * @throws IOException if the stream cannot be read.
+     */
+    boolean next() throws IOException {
+        while (true) {
+            int end = findLineEnd();
+            if (end < 0) {
+                return false;
+            }
+            int start = position;
+            position = Math.min(end + 1, limit);
+            lineNumber++;
+            if (end > start && buffer[end - 1] == '\r') {
+                end--;
+            }
+            start = skipSpaces(start, end);
+            if (start < end && buffer[start] != '#') {
+                parse(start, end);
+                return true;
+            }
+        }
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return The command read, or {@code null} if the line is invalid.
+     */
+    Kind kind() {
+        return kind;
+    }
+
+    /**
+     * @return The 1-based task number of {@code remove}, {@code complete}, {@code priority} and {@code edit}.
+     */
+    int number() {
+        return number;
+    }
+
+    /**
+     * @return The priority of {@code add} and {@code priority}.
+     */
+    Priority priority() {
+        return priority;
+    }
+
+    /**
+     * @return The title of {@code add} and {@code edit}; empty to keep the title when editing.
+     */
+    String title() {
+        return title;
+    }
+
+    /**
+     * @return The description of {@code add} and {@code edit}; empty to keep it when editing.
+     */
+    String description() {
+        return description;
+    }
+
+    /**
+     * @return The file of {@code import} and {@code export}.
+     */
+    String file() {
+        return file;
+    }
+
+    /**
+     * @return Why the line could not be parsed, or {@code null} if it is a valid command.
+     */
+    String error() {
+        return error;
+    }
+
+    /**
+     * Finds the end of the line starting at {@link #position}, reading more input as needed.
+     * @return The index of its line feed, or of {@link #limit} for a last line without one,
+     *         or -1 if there is no input left.
+     */
+    private int findLineEnd() throws IOException {
+        int scan = position;
+        while (true) {
+            for (; scan < limit; scan++) {
+                if (buffer[scan] == '\n') {
+                    return scan;
+                }
+            }
+            if (endOfInput) {
+                return position < limit ? limit : -1;
+            }
+            scan -= fill();
+        }
+    }
+
+    /**
+     * Moves the unread bytes to the front of the buffer, growing it if a single line fills it,
+     * and reads as much input as fits after them.
+     * @return How far the unread bytes moved towards the front.
+     */
+    private int fill() throws IOException {
+        int shift = position;
+        if (shift > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+        return shift;
+    }
+
+    private void parse(int start, int end) {
+        kind = null;
+        number = 0;
+        priority = null;
+        title = null;
+        description = null;
+        file = null;
+        error = null;
+
+        int wordEnd = wordEnd(start, end);
+        Kind command = matchKind(start, wordEnd);
+        if (command == null) {
+            error = "Unknown command: " + text(start, wordEnd);
+            return;
+        }
+        int at = skipSpaces(wordEnd, end);
+        switch (command) {
+            case ADD -> {
+                int priorityEnd = wordEnd(at, end);
+                priority = matchPriority(at, priorityEnd);
+                if (priority == null) {
+                    error = "Invalid priority: " + text(at, priorityEnd);
+                    return;
+                }
+                readText(skipSpaces(priorityEnd, end), end);
+            }
+            case REMOVE, COMPLETE -> {
+                if (!readNumber(at, wordEnd(at, end)) || !expectEnd(wordEnd(at, end), end)) {
+                    return;
+                }
+            }
+            case PRIORITY -> {
+                int numberEnd = wordEnd(at, end);
+                if (!readNumber(at, numberEnd)) {
+                    return;
+                }
+                at = skipSpaces(numberEnd, end);
+                int priorityEnd = wordEnd(at, end);
+                priority = matchPriority(at, priorityEnd);
+                if (priority == null) {
+                    error = "Invalid priority: " + text(at, priorityEnd);
+                    return;
+                }
+                if (!expectEnd(priorityEnd, end)) {
+                    return;
+                }
+            }
+            case EDIT -> {
+                int numberEnd = wordEnd(at, end);
+                if (!readNumber(at, numberEnd)) {
+                    return;
+                }
+                readText(skipSpaces(numberEnd, end), end);
+            }
+            case IMPORT, EXPORT -> {
+                file = trimmedText(at, end);
+                if (file.isEmpty()) {
+                    error = "Missing file name.";
+                    return;
+                }
+            }
+            case CLEAR, UNDO, REDO -> {
+                if (!expectEnd(at, end)) {
+                    return;
+                }
+            }
+        }
+        kind = command;
+    }
+
+    /**
+     * Reads {@code title | description}, trimming both. Without a bar the whole text is the title.
+     */
+    private void readText(int start, int end) {
+        int bar = start;
+        while (bar < end && buffer[bar] != '|') {
+            bar++;
+        }
+        title = trimmedText(start, bar);
+        description = bar < end ? trimmedText(bar + 1, end) : "";
+    }
+
+    private boolean readNumber(int start, int end) {
+        if (start == end || end - start > 9) {
+            error = "Invalid task number: " + text(start, end);
+            return false;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                error = "Invalid task number: " + text(start, end);
+                return false;
+            }
+            value = value * 10 + digit;
+        }
+        number = value;
+        return true;
+    }
+
+    private boolean expectEnd(int start, int end) {
+        int rest = skipSpaces(start, end);
+        if (rest < end) {
+            error = "Unexpected text: " + text(rest, end);
+            return false;
+        }
+        return true;
+    }
+
+    private Kind matchKind(int start, int end) {
+        for (Kind candidate : KINDS) {
+            if (matchesIgnoreCase(candidate.keyword, start, end)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Priority matchPriority(int start, int end) {
+        for (Priority candidate : PRIORITIES) {
+            if (matchesIgnoreCase(candidate.name(), start, end)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean matchesIgnoreCase(byte[] lowerCase, int start, int end) {
+        if (end - start != lowerCase.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length; i++) {
+            if ((buffer[start + i] | 0x20) != lowerCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesIgnoreCase(String upperCase, int start, int end) {
+        if (end - start != upperCase.length()) {
+            return false;
+        }
+        for (int i = 0; i < upperCase.length(); i++) {
+            if ((buffer[start + i] & ~0x20) != upperCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipSpaces(int start, int end) {
+        while (start < end && (buffer[start] == ' ' || buffer[start] == '\t')) {
+            start++;
+        }
+        return start;
+    }
+
+    private int wordEnd(int start, int end) {
+        while (start < end && buffer[start] != ' ' && buffer[start] != '\t') {
+            start++;
+        }
+        return start;
+    }
+
+    private String trimmedText(int start, int end) {
+        start = skipSpaces(start, end);
+        while (end > start && (buffer[end - 1] == ' ' || buffer[end - 1] == '\t')) {
+            end--;
+        }
+        return text(start, end);
+    }
+
+    private String text(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,61 @@
+package org.ST.mfusi.app.gui;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import org.ST.mfusi.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a window takes to show its first frame, the wait the user actually sees.
+ * <p>The time runs from a given start until the first pulse that lays out the window's scene,
+ * which is the pulse that renders its first frame. It is recorded in the
+ * {@link Metrics#global() metrics} under the given name and written to the log at INFO.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class FirstFrameTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstFrameTimer.class);
+
+    private FirstFrameTimer() {
+    }
+
+    /**
+     * Retrieves when the JVM started, to measure the first frame of the first window from there.
+     * @return The start of the JVM on the {@link System#nanoTime()} scale.
+     */
+    public static long jvmStart() {
+        return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    /**
+     * Times the first frame of a scene. Call it before the scene's window is shown.
+     * @param scene The scene.
+     * @param timerName The name of the timer to record the time with, such as {@code gui.welcomeView.firstFrame}.
+     * @param startNanos When the wait started, from {@link System#nanoTime()}.
+     */
+    public static void record(Scene scene, String timerName, long startNanos) {
+        Runnable listener = new Runnable() {
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                long elapsed = System.nanoTime() - startNanos;
+                Metrics.global().timer(timerName).stop(startNanos, true);
+                log.info("{} took {} ms", timerName, TimeUnit.NANOSECONDS.toMillis(elapsed));
+                // not removed right away: the scene is still running its pulse listeners
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(this));
+            }
+        };
+        scene.addPostLayoutPulseListener(listener);
+    }
+}
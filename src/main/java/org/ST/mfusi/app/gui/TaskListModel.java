@@ -0,0 +1,120 @@
+package org.ST.mfusi.app.gui;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.TaskEvent;
+import org.ST.mfusi.todolist.ToDoList;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * An observable view of a {@link ToDoList} for a {@link javafx.scene.control.ListView}.
+ * <p>Instead of being rebuilt after every change, the model listens to the to-do list and
+ * turns each {@link TaskEvent} into a fine-grained add, remove or replace change, so adding,
+ * completing or editing one task only refreshes that task's cell. Events may come from any
+ * thread; they are queued and applied on the JavaFX application thread, and all events that
+ * arrive before the queue is drained are reported as one list change.</p>
+ * <p>The model never copies the tasks: it shows the to-do list's own unmodifiable snapshot and
+ * moves to the next snapshot with each change, so opening a profile with millions of tasks,
+ * or one that is still mapped from disk, costs the same as opening an empty one. Only the
+ * rows the list view displays are ever read.</p>
+ * <p>The model must be created and read on the JavaFX application thread.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TaskListModel extends ObservableListBase<Task> {
+
+    private final ToDoList toDoList;
+    private final Executor uiExecutor;
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Consumer<TaskEvent> listener = this::enqueue;
+    private List<Task> items;
+
+    /**
+     * A queued event together with the snapshot of the to-do list right after it.
+     */
+    private record Change(TaskEvent event, List<Task> tasks) {}
+
+    /**
+     * Creates a model that applies changes on the JavaFX application thread.
+     * @param toDoList The list to follow.
+     */
+    public TaskListModel(ToDoList toDoList) {
+        this(toDoList, Platform::runLater);
+    }
+
+    /**
+     * Creates a model that applies changes through the given executor.
+     * @param toDoList The list to follow.
+     * @param uiExecutor Runs the code that applies queued changes; it must run it on the thread
+     *                   that reads the model.
+     */
+    public TaskListModel(ToDoList toDoList, Executor uiExecutor) {
+        this.toDoList = toDoList;
+        this.uiExecutor = uiExecutor;
+        this.items = toDoList.addListener(listener);
+    }
+
+    @Override
+    public Task get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Stops following the to-do list. The model keeps its current contents.
+     */
+    public void dispose() {
+        toDoList.removeListener(listener);
+    }
+
+    /**
+     * Called on the thread that changed the list: queues the event and makes sure a drain is scheduled.
+     * Listeners run while the list is locked, so the snapshot taken here is the one the event produced.
+     */
+    private void enqueue(TaskEvent event) {
+        pending.add(new Change(event, toDoList.getTaskList()));
+        if (drainScheduled.compareAndSet(false, true)) {
+            uiExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Applies every queued event as a single list change.
+     */
+    private void drain() {
+        drainScheduled.set(false);
+        beginChange();
+        try {
+            Change change;
+            while ((change = pending.poll()) != null) {
+                items = change.tasks();
+                apply(change.event());
+            }
+        } finally {
+            endChange();
+        }
+    }
+
+    private void apply(TaskEvent event) {
+        switch (event) {
+            case TaskEvent.Added added -> nextAdd(added.index(), added.index() + 1);
+            case TaskEvent.BatchAdded batch -> nextAdd(batch.index(), batch.index() + batch.tasks().size());
+            case TaskEvent.Removed removed -> nextRemove(removed.index(), removed.task());
+            case TaskEvent.Updated updated -> nextSet(updated.index(), updated.oldTask());
+            case TaskEvent.Cleared cleared -> nextRemove(0, cleared.removed());
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package org.ST.mfusi.app.gui;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
+import javafx.util.Duration;
 import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.persistence.PersistencePipeline;
 import org.ST.mfusi.task.Priority;
 import org.ST.mfusi.task.Task;
 import java.util.Optional;
@@ -17,14 +21,67 @@ public class ToDoViewController {
     @FXML private TextField titleField;
     @FXML private TextField descriptionField;
     @FXML private ComboBox<Priority> priorityComboBox;
+    @FXML private Label persistenceLabel;
+    @FXML private Label statsLabel;
+    @FXML private Button undoButton;
+    @FXML private Button redoButton;
 
     private AppController appController;
+    private TaskListModel taskModel;
+    private Timeline persistenceRefresh;
 
-    // This method is called by the WelcomeViewController to pass in the user's name
     public void initializeData(String profileName) {
-        this.appController = new AppController(profileName);
-        welcomeLabel.setText("Tasks for " + profileName);
-        updateTaskList();
+        initializeData(new AppController(profileName));
+    }
+
+    // This method is called by the WelcomeViewController once the profile has been loaded
+    public void initializeData(AppController appController) {
+        this.appController = appController;
+        welcomeLabel.setText("Tasks for " + appController.getProfileName());
+        // the model follows the list, so handlers below never have to refresh the view
+        taskModel = new TaskListModel(appController.getUserProfile().getToDoList());
+        taskListView.setItems(taskModel);
+        // every change reaches the model, so it is also the moment to update the buttons and the counts
+        taskModel.addListener((ListChangeListener<Task>) change -> {
+            refreshUndoButtons();
+            refreshStats();
+        });
+        refreshUndoButtons();
+        refreshStats();
+
+        refreshPersistenceStatus();
+        persistenceRefresh = new Timeline(new KeyFrame(Duration.seconds(1), event -> refreshPersistenceStatus()));
+        persistenceRefresh.setCycleCount(Timeline.INDEFINITE);
+        persistenceRefresh.play();
+    }
+
+    // Called when the window is closed; the last changes are written off the FX thread
+    public void shutdown() {
+        if (persistenceRefresh != null) {
+            persistenceRefresh.stop();
+        }
+        if (taskModel != null) {
+            taskModel.dispose();
+        }
+        if (appController != null) {
+            Thread.ofVirtual().name("profile-closer").start(appController::close);
+        }
+    }
+
+    private void refreshPersistenceStatus() {
+        if (!appController.isPersistent()) {
+            persistenceLabel.setText("Not saved: no data directory configured.");
+            return;
+        }
+        PersistencePipeline.Stats stats = appController.getPersistenceStats().orElse(null);
+        if (stats == null) {
+            persistenceLabel.setText("Changes are saved as they are made.");
+            return;
+        }
+        persistenceLabel.setText("Unsaved changes: " + stats.queueDepth()
+                + " | Last save: " + stats.lastSaveLatency().toMillis() + " ms"
+                + " | Slowest save: " + stats.maxSaveLatency().toMillis() + " ms"
+                + (stats.failedBatches() > 0 ? " | Failed saves: " + stats.failedBatches() : ""));
     }
 
     @FXML
@@ -41,8 +98,8 @@ public class ToDoViewController {
                     setText(null);
                 } else {
                     String status = task.isCompleted() ? "[✔]" : "[ ]";
-                    setText(String.format("%s %s: %s (Priority: %s)",
-                            status, task.getTitle(), task.getDescription(), task.getPriority()));
+                    setText(status + " " + task.getTitle() + ": " + task.getDescription()
+                            + " (Priority: " + task.getPriority() + ")");
                 }
             }
         });
@@ -66,7 +123,6 @@ public class ToDoViewController {
             titleField.clear();
             descriptionField.clear();
             priorityComboBox.setValue(null);
-            updateTaskList();
         }
     }
 
@@ -83,8 +139,7 @@ public class ToDoViewController {
     private void handleMarkCompleteButton() {
         Task selectedTask = getSelectedTask();
         if (selectedTask != null) {
-            appController.markTaskComplete(getTaskIndex(selectedTask) + 1);
-            updateTaskList();
+            appController.markTaskCompleteById(selectedTask.getId());
         }
     }
 
@@ -92,8 +147,7 @@ public class ToDoViewController {
     private void handleRemoveTaskButton() {
         Task selectedTask = getSelectedTask();
         if (selectedTask != null) {
-            appController.removeTask(getTaskIndex(selectedTask) + 1);
-            updateTaskList();
+            appController.removeTaskById(selectedTask.getId());
         }
     }
 
@@ -108,10 +162,7 @@ public class ToDoViewController {
         dialog.setContentText("Choose a new priority:");
 
         Optional<Priority> result = dialog.showAndWait();
-        result.ifPresent(newPriority -> {
-            appController.changeTaskPriority(getTaskIndex(selectedTask) + 1, newPriority);
-            updateTaskList();
-        });
+        result.ifPresent(newPriority -> appController.changeTaskPriorityById(selectedTask.getId(), newPriority));
     }
 
     @FXML
@@ -144,13 +195,34 @@ public class ToDoViewController {
 
         Optional<ButtonType> result = dialog.showAndWait();
         if (result.isPresent() && result.get() == saveButtonType) {
-            appController.editTask(getTaskIndex(selectedTask) + 1, editTitle.getText(), editDescription.getText());
-            updateTaskList();
+            appController.editTaskById(selectedTask.getId(), editTitle.getText(), editDescription.getText());
         }
     }
 
+    @FXML
+    private void handleUndoButton() {
+        appController.undo();
+        refreshUndoButtons();
+    }
+
+    @FXML
+    private void handleRedoButton() {
+        appController.redo();
+        refreshUndoButtons();
+    }
+
     // --- Helper Methods ---
 
+    private void refreshUndoButtons() {
+        undoButton.setDisable(!appController.canUndo());
+        redoButton.setDisable(!appController.canRedo());
+    }
+
+    // the list keeps its counts up to date, so this does not look at the tasks
+    private void refreshStats() {
+        statsLabel.setText(appController.getStats().format());
+    }
+
     private Task getSelectedTask() {
         Task selected = taskListView.getSelectionModel().getSelectedItem();
         if (selected == null) {
@@ -159,17 +231,6 @@ public class ToDoViewController {
         return selected;
     }
 
-    private int getTaskIndex(Task task) {
-        return appController.getUserProfile().getTasks().indexOf(task);
-    }
-
-    private void updateTaskList() {
-        if (appController != null) {
-            ObservableList<Task> tasks = FXCollections.observableArrayList(appController.getUserProfile().getTasks());
-            taskListView.setItems(tasks);
-        }
-    }
-
     private void showInfoAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
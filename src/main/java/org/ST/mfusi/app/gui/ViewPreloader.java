@@ -0,0 +1,110 @@
+package org.ST.mfusi.app.gui;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.metrics.Timer;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads an FXML view ahead of time on a background thread, so that showing it later does not
+ * parse the file and build its scene graph on the FX thread while the user waits.
+ * <p>Nodes may be created on any thread until they are part of a window that is showing, so the
+ * whole graph is built in the background, including its controller and the controller's
+ * {@code initialize()}. The preloaded view is handed over once by {@link #take()}; call
+ * {@link #start()} again to preload another one. Every load is timed in the
+ * {@link Metrics#global() metrics} as {@code gui.loadView}.</p>
+ * @param <C> The type of the view's controller.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ViewPreloader<C> {
+
+    private static final Timer LOAD_VIEW = Metrics.global().timer("gui.loadView");
+
+    // parsing FXML and reflecting on the controller is the slow part, and none of it needs the FX thread
+    private static final Executor LOADER = task -> Thread.ofVirtual().name("view-preloader").start(task);
+
+    /**
+     * A loaded view.
+     * @param root The root of its scene graph, not yet part of any scene.
+     * @param controller Its controller, already initialised.
+     * @param <C> The type of the controller.
+     */
+    public record LoadedView<C>(Parent root, C controller) {
+    }
+
+    private final URL location;
+
+    /**
+     * The view being preloaded, or {@code null} if none is.
+     */
+    private final AtomicReference<CompletableFuture<LoadedView<C>>> preloaded = new AtomicReference<>();
+
+    /**
+     * Creates a preloader for a view; nothing is loaded until {@link #start()} or {@link #take()}.
+     * @param location The FXML file of the view.
+     */
+    public ViewPreloader(URL location) {
+        this.location = Objects.requireNonNull(location, "location");
+    }
+
+    /**
+     * Starts loading the view in the background, unless it is being loaded already.
+     * @return This preloader.
+     */
+    public ViewPreloader<C> start() {
+        if (preloaded.get() == null) {
+            CompletableFuture<LoadedView<C>> future = new CompletableFuture<>();
+            if (preloaded.compareAndSet(null, future)) {
+                LOADER.execute(() -> {
+                    try {
+                        future.complete(load());
+                    } catch (IOException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Hands over the preloaded view, waiting for it if it is still loading. A view that was
+     * not preloaded, or failed to load in the background, is loaded on the calling thread.
+     * @return The view.
+     * @throws IOException if the view cannot be loaded.
+     */
+    public LoadedView<C> take() throws IOException {
+        CompletableFuture<LoadedView<C>> future = preloaded.getAndSet(null);
+        if (future != null) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                // try again below, so the caller sees the error of a load on its own thread
+            }
+        }
+        return load();
+    }
+
+    private LoadedView<C> load() throws IOException {
+        long start = System.nanoTime();
+        boolean loaded = false;
+        try {
+            FXMLLoader loader = new FXMLLoader(location);
+            Parent root = loader.load();
+            loaded = true;
+            return new LoadedView<>(root, loader.getController());
+        } finally {
+            LOAD_VIEW.stop(start, loaded);
+        }
+    }
+}
@@ -1,41 +1,111 @@
 package org.ST.mfusi.app.gui;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.app.Main;
+import org.ST.mfusi.persistence.PersistencePipeline;
+import org.ST.mfusi.persistence.ProfileJournal;
+import org.ST.mfusi.persistence.ProfileStore;
+
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class WelcomeViewController {
 
+    // loading replays the profile's log, so it runs on a virtual thread instead of the FX thread
+    private static final Executor LOADER = task -> Thread.ofVirtual().name("profile-loader").start(task);
+
+    // the main view, built in the background while the user types a name
+    private final ViewPreloader<ToDoViewController> mainView =
+            new ViewPreloader<>(WelcomeViewController.class.getResource("/views/ToDoView.fxml"));
+
     @FXML
     private TextField nameField;
 
+    @FXML
+    private Button startButton;
+
+    @FXML
+    private ProgressIndicator loadingIndicator;
+
+    // Called by GuiApp once the welcome window is showing, so the preload does not delay its first frame
+    public void preloadMainView() {
+        mainView.start();
+    }
+
     @FXML
     private void handleStartButton() {
+        long clickedAt = System.nanoTime();
         String profileName = nameField.getText();
         if (profileName == null || profileName.isBlank()) {
             showAlert("Name Required", "Please enter your name to continue.");
             return;
         }
 
+        setLoading(true);
+        CompletableFuture.supplyAsync(() -> openController(profileName), LOADER)
+                .whenComplete((appController, error) -> Platform.runLater(() -> {
+                    setLoading(false);
+                    if (error != null) {
+                        showAlert("Error", "Could not load the profile of " + profileName + ": "
+                                + error.getCause().getMessage());
+                    } else {
+                        showMainWindow(profileName, appController, clickedAt);
+                    }
+                }));
+    }
+
+    /**
+     * Opens the profile from the configured data directory, or creates an in-memory profile
+     * when none is configured. Runs off the FX thread.
+     */
+    private static AppController openController(String profileName) {
+        String dataDir = System.getProperty(Main.DATA_DIR_PROPERTY);
+        if (dataDir == null || dataDir.isBlank()) {
+            return new AppController(profileName);
+        }
+        try {
+            ProfileJournal journal = ProfileJournal.open(new ProfileStore(Path.of(dataDir), ProfileStore.Format.BINARY), profileName);
+            return new AppController(journal, PersistencePipeline.DEFAULT_COALESCE_WINDOW);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        startButton.setDisable(loading);
+        nameField.setDisable(loading);
+        loadingIndicator.setVisible(loading);
+        loadingIndicator.setManaged(loading);
+    }
+
+    private void showMainWindow(String profileName, AppController appController, long clickedAt) {
         try {
-            // Load the main ToDoView FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/ToDoView.fxml"));
-            Parent root = loader.load();
+            // Take the preloaded ToDoView, or load it now if the preload has not been started
+            ViewPreloader.LoadedView<ToDoViewController> view = mainView.take();
 
 
-            ToDoViewController toDoViewController = loader.getController();
+            ToDoViewController toDoViewController = view.controller();
 
-            toDoViewController.initializeData(profileName);
+            toDoViewController.initializeData(appController);
 
 
             Stage mainStage = new Stage();
             mainStage.setTitle("To-Do List for " + profileName);
-            mainStage.setScene(new Scene(root, 800, 600));
+            Scene scene = new Scene(view.root(), 800, 600);
+            FirstFrameTimer.record(scene, "gui.toDoView.firstFrame", clickedAt);
+            mainStage.setScene(scene);
+            mainStage.setOnHidden(event -> toDoViewController.shutdown());
             mainStage.show();
 
             // Close the current welcome window
@@ -45,6 +115,7 @@ public class WelcomeViewController {
         } catch (IOException e) {
             e.printStackTrace();
             showAlert("Error", "Could not load the main application window.");
+            LOADER.execute(appController::close);
         }
     }
 
@@ -0,0 +1,185 @@
+package org.ST.mfusi.app.server;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads and writes the JSON bodies of the {@link TaskServer} API with Jackson's streaming
+ * generator and parser, like {@link org.ST.mfusi.persistence.ProfileJsonCodec} does for
+ * saved profiles. A task is written as
+ * <pre>
+ * {"id": 7, "title": "...", "description": "...", "priority": "HIGH", "completed": false}
+ * </pre>
+ * and request bodies use the same field names, all of them optional.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class TaskJson {
+
+    /**
+     * Shared, thread-safe factory used to create generators and parsers.
+     */
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    /**
+     * The fields of a request body. Fields missing from the body are {@code null}.
+     * @param title The new title.
+     * @param description The new description.
+     * @param priority The new priority.
+     * @param completed {@code true} to mark the task as complete.
+     */
+    record TaskFields(String title, String description, Priority priority, Boolean completed) {
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private TaskJson() {}
+
+    /**
+     * Encodes one task.
+     * @param task The task to encode.
+     * @return The UTF-8 JSON object.
+     */
+    static byte[] task(Task task) {
+        return write(gen -> writeTask(gen, task));
+    }
+
+    /**
+     * Encodes a page of tasks together with the size of the whole list.
+     * @param tasks The tasks of the page.
+     * @param total The number of tasks in the list.
+     * @return A UTF-8 JSON object with the fields {@code total} and {@code tasks}.
+     */
+    static byte[] tasks(List<Task> tasks, int total) {
+        return write(gen -> {
+            gen.writeStartObject();
+            gen.writeNumberField("total", total);
+            gen.writeArrayFieldStart("tasks");
+            for (Task task : tasks) {
+                writeTask(gen, task);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        });
+    }
+
+    /**
+     * Encodes named numbers, such as the application metrics.
+     * @param values The values by name.
+     * @return A UTF-8 JSON object with one field per value.
+     */
+    static byte[] values(Map<String, Number> values) {
+        return write(gen -> {
+            gen.writeStartObject();
+            for (Map.Entry<String, Number> entry : values.entrySet()) {
+                gen.writeFieldName(entry.getKey());
+                Number value = entry.getValue();
+                if (value instanceof Double || value instanceof Float) {
+                    gen.writeNumber(value.doubleValue());
+                } else {
+                    gen.writeNumber(value.longValue());
+                }
+            }
+            gen.writeEndObject();
+        });
+    }
+
+    /**
+     * Encodes an error message.
+     * @param message The message for the client.
+     * @return A UTF-8 JSON object with the field {@code error}.
+     */
+    static byte[] error(String message) {
+        return write(gen -> {
+            gen.writeStartObject();
+            gen.writeStringField("error", message);
+            gen.writeEndObject();
+        });
+    }
+
+    /**
+     * Reads the fields of a request body. Unknown fields are skipped; an empty body has no fields.
+     * The stream is not closed.
+     * @param in The request body.
+     * @return The fields found.
+     * @throws IOException if the body is not a JSON object or a priority is unknown.
+     */
+    static TaskFields readFields(InputStream in) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                return new TaskFields(null, null, null, null);
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object but found " + first);
+            }
+            String title = null;
+            String description = null;
+            Priority priority = null;
+            Boolean completed = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "title" -> title = parser.getValueAsString();
+                    case "description" -> description = parser.getValueAsString();
+                    case "priority" -> priority = parsePriority(parser);
+                    case "completed" -> completed = parser.getValueAsBoolean();
+                    default -> parser.skipChildren();
+                }
+            }
+            return new TaskFields(title, description, priority, completed);
+        }
+    }
+
+    private static void writeTask(JsonGenerator gen, Task task) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", task.getId());
+        gen.writeStringField("title", task.getTitle());
+        gen.writeStringField("description", task.getDescription());
+        gen.writeStringField("priority", task.getPriority().name());
+        gen.writeBooleanField("completed", task.isCompleted());
+        gen.writeEndObject();
+    }
+
+    private static Priority parsePriority(JsonParser parser) throws IOException {
+        String value = parser.getValueAsString();
+        try {
+            return value == null ? null : Priority.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Invalid task priority: " + value);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void writeTo(JsonGenerator gen) throws IOException;
+    }
+
+    private static byte[] write(Body body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator gen = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            body.writeTo(gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a ByteArrayOutputStream never throws
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,292 @@
+package org.ST.mfusi.app.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.app.ProfileRegistry;
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.metrics.Timer;
+import org.ST.mfusi.task.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the to-do lists of a {@link ProfileRegistry} as a JSON API over HTTP, so that the
+ * application can run headless and be driven by remote clients.
+ * <p>The server is the JDK's built-in {@link HttpServer}. Its single dispatcher thread only
+ * accepts connections and parses request lines; every request is then handled on a virtual
+ * thread of its own, so a request waiting for a profile to load or for the disk never holds
+ * up the others. Connections are kept alive between requests.</p>
+ * <p>Run the server with {@code -Dsun.net.httpserver.nodelay=true}, as {@code --server} does.
+ * Without TCP_NODELAY the response headers and body go out as two small segments, and the
+ * second waits for the client's delayed ACK: about 40 ms per kept-alive request. The JDK reads
+ * the property once, when the first server is created.</p>
+ * <p>The API, where {@code {name}} is a profile name and {@code {id}} a task id:</p>
+ * <pre>
+ * GET    /profiles/{name}/tasks?offset=0&amp;limit=100   a page of tasks and the total count
+ * POST   /profiles/{name}/tasks                        add a task; 201 with the new task
+ * GET    /profiles/{name}/tasks/{id}                   one task
+ * PUT    /profiles/{name}/tasks/{id}                   change title, description, priority or
+ *                                                      completion; blank or missing fields are kept
+ * POST   /profiles/{name}/tasks/{id}/complete          mark a task as complete
+ * DELETE /profiles/{name}/tasks/{id}                   remove a task; 204
+ * GET    /metrics                                      the application metrics
+ * </pre>
+ * Task bodies are described in {@link TaskJson}. Invalid input is answered with 400, unknown
+ * tasks with 404, and both carry a JSON body of the form {@code {"error": "..."}}.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TaskServer implements Closeable {
+
+    /**
+     * The port the server listens on when none is given.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The number of tasks in a page when the client does not ask for a limit.
+     */
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The largest page a client can ask for.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(TaskServer.class);
+    private static final Timer REQUESTS = Metrics.global().timer("http.request");
+    private static final String JSON = "application/json";
+
+    /**
+     * A status code and the JSON body to send with it, or {@code null} for no body.
+     */
+    private record Response(int status, byte[] body) {
+        static Response ok(byte[] body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, TaskJson.error(message));
+        }
+    }
+
+    private final ProfileRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+
+    /**
+     * Creates a server and binds it to an address. Call {@link #start()} to accept requests.
+     * @param registry The profiles to serve. The server does not close them.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public TaskServer(ProfileRegistry registry, InetSocketAddress address) throws IOException {
+        this.registry = registry;
+        this.server = HttpServer.create(address, 1024);
+        this.handlers = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(handlers);
+        server.createContext("/profiles/", this::handle);
+        server.createContext("/metrics", this::handle);
+    }
+
+    /**
+     * Starts accepting requests in the background.
+     */
+    public void start() {
+        server.start();
+        log.info("Serving to-do lists on http://{}:{}/profiles/", server.getAddress().getHostString(), getPort());
+    }
+
+    /**
+     * Retrieves the port the server listens on, which is useful when it was bound to port 0.
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, lets the requests being handled finish, and releases the port.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        handlers.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = route(exchange);
+        } catch (JsonProcessingException e) {
+            response = Response.error(400, "Invalid JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            response = Response.error(500, "Internal error.");
+        }
+        try (exchange) {
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+            } else {
+                exchange.getResponseHeaders().set("Content-Type", JSON);
+                exchange.sendResponseHeaders(response.status(), response.body().length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response.body());
+                }
+            }
+        } finally {
+            REQUESTS.stop(start, response.status() < 500);
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getRawPath().split("/");
+        // path[0] is the empty string before the leading slash
+        if (path.length == 2 && path[1].equals("metrics")) {
+            return method.equals("GET") ? Response.ok(TaskJson.values(Metrics.global().values())) : notAllowed();
+        }
+        if (path.length < 4 || !path[1].equals("profiles") || !path[3].equals("tasks") || path.length > 6) {
+            return Response.error(404, "Not found.");
+        }
+        String profileName = decode(path[2]);
+        try (ProfileRegistry.Lease lease = registry.acquire(profileName)) {
+            AppController controller = lease.controller();
+            if (path.length == 4) {
+                return switch (method) {
+                    case "GET" -> listTasks(controller, exchange.getRequestURI().getRawQuery());
+                    case "POST" -> addTask(controller, TaskJson.readFields(exchange.getRequestBody()));
+                    default -> notAllowed();
+                };
+            }
+            long taskId = parseId(path[4]);
+            if (taskId < 0) {
+                return Response.error(404, "No task with id " + path[4] + ".");
+            }
+            if (path.length == 6) {
+                if (!path[5].equals("complete")) {
+                    return Response.error(404, "Not found.");
+                }
+                return method.equals("POST") ? completeTask(controller, taskId) : notAllowed();
+            }
+            return switch (method) {
+                case "GET" -> getTask(controller, taskId);
+                case "PUT", "PATCH" -> updateTask(controller, taskId, TaskJson.readFields(exchange.getRequestBody()));
+                case "DELETE" -> removeTask(controller, taskId);
+                default -> notAllowed();
+            };
+        }
+    }
+
+    private static Response listTasks(AppController controller, String query) {
+        int offset = queryParameter(query, "offset", 0);
+        int limit = Math.min(queryParameter(query, "limit", DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+        // one snapshot, so the page and the total always agree
+        List<Task> tasks = controller.getUserProfile().getTasks();
+        int from = Math.min(offset, tasks.size());
+        int to = (int) Math.min((long) from + limit, tasks.size());
+        return Response.ok(TaskJson.tasks(tasks.subList(from, to), tasks.size()));
+    }
+
+    private static Response addTask(AppController controller, TaskJson.TaskFields fields) {
+        Task task = controller.createTask(fields.title(), fields.description(), fields.priority());
+        if (Boolean.TRUE.equals(fields.completed())) {
+            controller.markTaskCompleteById(task.getId());
+            task = findTask(controller, task.getId());
+        }
+        return new Response(201, TaskJson.task(task));
+    }
+
+    private static Response getTask(AppController controller, long taskId) {
+        Task task = findTask(controller, taskId);
+        return task == null ? noSuchTask(taskId) : Response.ok(TaskJson.task(task));
+    }
+
+    private static Response updateTask(AppController controller, long taskId, TaskJson.TaskFields fields) {
+        if (controller.updateTaskById(taskId, fields.title(), fields.description(), fields.priority(),
+                Boolean.TRUE.equals(fields.completed())).startsWith("Invalid")) {
+            return noSuchTask(taskId);
+        }
+        return getTask(controller, taskId);
+    }
+
+    private static Response completeTask(AppController controller, long taskId) {
+        if (controller.markTaskCompleteById(taskId).startsWith("Invalid")) {
+            return noSuchTask(taskId);
+        }
+        return getTask(controller, taskId);
+    }
+
+    private static Response removeTask(AppController controller, long taskId) {
+        if (controller.removeTaskById(taskId).startsWith("Invalid")) {
+            return noSuchTask(taskId);
+        }
+        return new Response(204, null);
+    }
+
+    private static Task findTask(AppController controller, long taskId) {
+        return controller.getUserProfile().getToDoList().getTaskById(taskId);
+    }
+
+    private static Response noSuchTask(long taskId) {
+        return Response.error(404, "No task with id " + taskId + ".");
+    }
+
+    private static Response notAllowed() {
+        return Response.error(405, "Method not allowed.");
+    }
+
+    /**
+     * Parses a task id from the path.
+     * @return The id, or -1 if the segment is not a valid id.
+     */
+    private static long parseId(String segment) {
+        try {
+            long id = Long.parseLong(segment);
+            return id > 0 ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int queryParameter(String query, String name, int defaultValue) {
+        if (query == null) {
+            return defaultValue;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                try {
+                    return Integer.parseInt(pair.substring(equals + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Query parameter " + name + " must be a number.");
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private static String decode(String segment) {
+        // a path segment keeps '+' as is, unlike a form value
+        return URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+}
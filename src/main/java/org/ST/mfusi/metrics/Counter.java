@@ -0,0 +1,44 @@
+package org.ST.mfusi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that only goes up, such as the number of rejected tasks. Threads incrementing it
+ * at the same time do not contend on a single memory location.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Creates a counter. Counters are normally obtained from {@link Metrics#counter(String)}.
+     */
+    Counter() {
+    }
+
+    /**
+     * Adds one to the count.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds to the count.
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Retrieves the count.
+     * @return The sum of everything added so far.
+     */
+    public long get() {
+        return value.sum();
+    }
+}
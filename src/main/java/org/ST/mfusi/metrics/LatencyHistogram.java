@@ -0,0 +1,147 @@
+package org.ST.mfusi.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that many threads can record into at once.
+ * <p>Values are counted in log-linear buckets, the way HdrHistogram does it: every power of
+ * two is split into {@value #SUB_BUCKETS} equal buckets, so a recorded value is off by at most
+ * about 3% while the whole range from 1 ns to about 18 minutes takes a fixed array of 1152
+ * counters. Recording a value is one array increment and two adder updates; it takes no lock
+ * and allocates nothing. Larger values are counted in the last bucket.</p>
+ * <p>A {@link #snapshot()} reads the counters one by one while other threads may still be
+ * recording, so its percentiles can be off by the few values recorded during the read.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits of a value kept exactly; the remaining low bits are rounded away.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The number of buckets every power of two is split into.
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Values from {@code 2^MAX_MAGNITUDE} ns on are counted in the last bucket.
+     */
+    private static final int MAX_MAGNITUDE = 40;
+
+    /**
+     * The largest value with a bucket of its own, about 18 minutes.
+     */
+    static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * A point-in-time view of the histogram. All latencies are in nanoseconds; the percentiles
+     * are the largest value of the bucket the percentile falls into.
+     * @param count The number of recorded values.
+     * @param mean The mean of the recorded values.
+     * @param p50 The median.
+     * @param p90 The 90th percentile.
+     * @param p99 The 99th percentile.
+     * @param p999 The 99.9th percentile.
+     * @param max The largest recorded value, exact rather than rounded to a bucket.
+     */
+    public record Snapshot(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency.
+     * @param nanos The latency in nanoseconds; negative values, which a clock step can produce, count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long largest = max.get();
+        while (value > largest && !max.compareAndSet(largest, value)) {
+            largest = max.get();
+        }
+    }
+
+    /**
+     * Retrieves the number of recorded values.
+     * @return The count, without reading the buckets.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Computes the count, mean and percentiles of the values recorded so far.
+     * @return The snapshot; all zeros if nothing was recorded.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0, 0);
+        }
+        long largest = max.get();
+        return new Snapshot(total, (double) sum.sum() / total,
+                percentile(counts, total, 0.50, largest), percentile(counts, total, 0.90, largest),
+                percentile(counts, total, 0.99, largest), percentile(counts, total, 0.999, largest), largest);
+    }
+
+    /**
+     * Finds the bucket a value is counted in.
+     * @param value A value of at least 0.
+     * @return The index of its bucket.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value; // small values are counted exactly
+        }
+        long clamped = Math.min(value, MAX_VALUE);
+        int magnitude = 63 - Long.numberOfLeadingZeros(clamped);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) | (int) ((clamped >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Computes the largest value counted in a bucket.
+     * @param bucket The index of the bucket.
+     * @return The largest value that {@link #bucketOf(long)} maps to it.
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long largest) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // a bucket's upper bound can overshoot the largest value actually seen
+                return Math.min(highestValueOf(i), largest);
+            }
+        }
+        return largest;
+    }
+}
@@ -0,0 +1,298 @@
+package org.ST.mfusi.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * A registry of named timers, counters and gauges.
+ * <p>Timers and counters are created on first use and live as long as the registry; callers
+ * look them up once and keep them in a field, so recording never touches the registry. A
+ * gauge reads its value from an object when the metrics are read, and only holds that object
+ * weakly, so registering a gauge never keeps a to-do list alive.</p>
+ * <p>The {@link #global() global registry} is what the application records into. It is
+ * published over JMX as {@value #OBJECT_NAME}, where every metric is a read-only attribute,
+ * and can be written to the log periodically with a {@link MetricsReporter}.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Metrics {
+
+    /**
+     * The JMX name the global registry is published under.
+     */
+    public static final String OBJECT_NAME = "org.ST.mfusi:type=Metrics";
+
+    private static final Logger log = LoggerFactory.getLogger(Metrics.class);
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Gauge<?>> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * What a timer contributes to {@link #values()}, each under the timer's name and one of these suffixes.
+     */
+    private static final List<String> TIMER_STATISTICS = List.of(
+            "count", "failures", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "p999Micros", "maxMicros");
+
+    /**
+     * Holds the global registry, so it is created and published on first use.
+     */
+    private static final class Global {
+        private static final Metrics INSTANCE = new Metrics();
+
+        static {
+            try {
+                INSTANCE.registerMBean(new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                // metrics are still recorded and reported to the log without JMX
+                log.warn("Could not publish metrics over JMX: {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * Retrieves the registry the application records its metrics into.
+     * @return The global registry, published over JMX.
+     */
+    public static Metrics global() {
+        return Global.INSTANCE;
+    }
+
+    /**
+     * Retrieves the timer with the given name, creating it on first use.
+     * @param name The name of the timed operation, for example {@code app.addTask}.
+     * @return The timer.
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Retrieves the counter with the given name, creating it on first use.
+     * @param name The name of the counter, for example {@code validator.rejected.title}.
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Registers a gauge that reads its value from an object whenever the metrics are read.
+     * A gauge registered earlier under the same name is replaced.
+     * @param name The name of the gauge.
+     * @param target The object to read; it is only referenced weakly.
+     * @param value Reads the value from the object. It must not capture {@code target} itself.
+     * @param <T> The type of the object.
+     */
+    public <T> void gauge(String name, T target, ToLongFunction<? super T> value) {
+        gauges.put(name, new Gauge<>(target, value));
+    }
+
+    /**
+     * Registers a gauge unless a gauge whose object is still alive is registered under the name already.
+     * @param name The name of the gauge.
+     * @param target The object to read; it is only referenced weakly.
+     * @param value Reads the value from the object. It must not capture {@code target} itself.
+     * @param <T> The type of the object.
+     * @return {@code true} if the gauge was registered, {@code false} if the name was taken.
+     */
+    public <T> boolean gaugeIfAbsent(String name, T target, ToLongFunction<? super T> value) {
+        Gauge<T> gauge = new Gauge<>(target, value);
+        return gauges.compute(name, (key, current) ->
+                current == null || current.target.get() == null ? gauge : current) == gauge;
+    }
+
+    /**
+     * Removes every gauge reading the given object.
+     * @param target The object passed to {@link #gauge(String, Object, ToLongFunction)}.
+     */
+    public void removeGauges(Object target) {
+        gauges.values().removeIf(gauge -> gauge.target.get() == target);
+    }
+
+    /**
+     * Reads every metric at once. A timer contributes its count, failures and latencies in
+     * microseconds, each under its own name such as {@code app.addTask.p99Micros}.
+     * Gauges whose object has been garbage collected are dropped.
+     * @return The values by name, sorted by name.
+     */
+    public SortedMap<String, Number> values() {
+        SortedMap<String, Number> values = new TreeMap<>();
+        timers.forEach((name, timer) -> {
+            LatencyHistogram.Snapshot latencies = timer.getLatencies().snapshot();
+            for (String statistic : TIMER_STATISTICS) {
+                values.put(name + "." + statistic, timerValue(timer, latencies, statistic));
+            }
+        });
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        for (Map.Entry<String, Gauge<?>> entry : gauges.entrySet()) {
+            Gauge<?> gauge = entry.getValue();
+            if (gauge.target.get() == null) {
+                gauges.remove(entry.getKey(), gauge);
+                continue;
+            }
+            Long value = gauge.read();
+            if (value != null) {
+                values.put(entry.getKey(), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads a single metric, under a name as in {@link #values()}, without reading any other.
+     * @param name The name of the metric, for example {@code app.addTask.p99Micros}.
+     * @return The value, or {@code null} if there is no such metric.
+     */
+    public Number value(String name) {
+        Gauge<?> gauge = gauges.get(name);
+        if (gauge != null) {
+            Long value = gauge.read();
+            if (value == null) {
+                gauges.remove(name, gauge);
+            }
+            return value;
+        }
+        Counter counter = counters.get(name);
+        if (counter != null) {
+            return counter.get();
+        }
+        int dot = name.lastIndexOf('.');
+        Timer timer = dot < 0 ? null : timers.get(name.substring(0, dot));
+        String statistic = name.substring(dot + 1);
+        if (timer == null || !TIMER_STATISTICS.contains(statistic)) {
+            return null;
+        }
+        // the failure count needs no snapshot of the latencies
+        LatencyHistogram.Snapshot latencies = statistic.equals("failures") ? null : timer.getLatencies().snapshot();
+        return timerValue(timer, latencies, statistic);
+    }
+
+    /**
+     * Retrieves the timers registered so far.
+     * @return The timers by name.
+     */
+    public Map<String, Timer> getTimers() {
+        return Map.copyOf(timers);
+    }
+
+    /**
+     * Publishes this registry on the platform MBean server.
+     * @param name The JMX name to publish it under.
+     * @throws JMException if the name is taken or the registry cannot be published.
+     */
+    public void registerMBean(ObjectName name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(new MetricsMBean(), name);
+    }
+
+    private static Number timerValue(Timer timer, LatencyHistogram.Snapshot latencies, String statistic) {
+        return switch (statistic) {
+            case "count" -> latencies.count();
+            case "failures" -> timer.getFailureCount();
+            case "meanMicros" -> latencies.mean() / 1000;
+            case "p50Micros" -> latencies.p50() / 1000.0;
+            case "p90Micros" -> latencies.p90() / 1000.0;
+            case "p99Micros" -> latencies.p99() / 1000.0;
+            case "p999Micros" -> latencies.p999() / 1000.0;
+            case "maxMicros" -> latencies.max() / 1000.0;
+            default -> throw new IllegalArgumentException("Unknown timer statistic: " + statistic);
+        };
+    }
+
+    /**
+     * A gauge and the object it reads.
+     * @param <T> The type of the object.
+     */
+    private static final class Gauge<T> {
+        private final WeakReference<T> target;
+        private final ToLongFunction<? super T> value;
+
+        Gauge(T target, ToLongFunction<? super T> value) {
+            this.target = new WeakReference<>(target);
+            this.value = value;
+        }
+
+        Long read() {
+            T object = target.get();
+            return object == null ? null : value.applyAsLong(object);
+        }
+    }
+
+    /**
+     * Publishes the metrics as read-only JMX attributes. The set of attributes grows as timers,
+     * counters and gauges are added, so the description is rebuilt on every request.
+     */
+    private final class MetricsMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = value(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                Number value = value(attribute);
+                if (value != null) {
+                    list.add(new Attribute(attribute, value));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList(); // nothing can be set
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            SortedMap<String, Number> values = values();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> entry : values.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        entry.getKey(), true, false, false);
+            }
+            return new MBeanInfo(Metrics.class.getName(), "To-do list operation metrics",
+                    attributes, null, null, null);
+        }
+    }
+}
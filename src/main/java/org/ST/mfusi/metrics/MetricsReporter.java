@@ -0,0 +1,122 @@
+package org.ST.mfusi.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the metrics of a registry to the log at a fixed interval, one line per timer that
+ * has run and one line with every counter and gauge. Lines are logged at INFO level under
+ * this class's logger, so they can be routed or silenced in {@code logback.xml}.
+ * <p>The reporter runs on a daemon thread of its own and never holds up the application
+ * from exiting. Timers that have not run since the registry was created are left out.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class MetricsReporter implements Closeable {
+
+    /**
+     * System property holding the reporting interval in seconds. Reporting is off when it is not set.
+     */
+    public static final String INTERVAL_PROPERTY = "todo.metrics.logInterval";
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsReporter.class);
+
+    private final Metrics metrics;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Starts reporting a registry.
+     * @param metrics The registry to report.
+     * @param interval How long to wait between reports.
+     * @throws IllegalArgumentException if the interval is not positive.
+     */
+    public MetricsReporter(Metrics metrics, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Reporting interval must be positive.");
+        }
+        this.metrics = metrics;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("metrics-reporter").daemon().factory());
+        long millis = interval.toMillis();
+        scheduler.scheduleAtFixedRate(this::reportScheduled, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts reporting the global registry if {@value #INTERVAL_PROPERTY} is set.
+     * @return The running reporter, or {@code null} if reporting is not configured.
+     */
+    public static MetricsReporter startFromSystemProperty() {
+        String seconds = System.getProperty(INTERVAL_PROPERTY);
+        if (seconds == null || seconds.isBlank()) {
+            return null;
+        }
+        try {
+            return new MetricsReporter(Metrics.global(), Duration.ofSeconds(Long.parseLong(seconds.trim())));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring {}={}: not a positive number of seconds.", INTERVAL_PROPERTY, seconds);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the current metrics to the log right away.
+     */
+    public void report() {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        SortedMap<String, Timer> timers = new TreeMap<>(metrics.getTimers());
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            LatencyHistogram.Snapshot latencies = entry.getValue().getLatencies().snapshot();
+            if (latencies.count() == 0) {
+                continue;
+            }
+            log.info("{}: count={} failures={} mean={}us p50={}us p90={}us p99={}us p99.9={}us max={}us",
+                    entry.getKey(), latencies.count(), entry.getValue().getFailureCount(),
+                    micros(Math.round(latencies.mean())), micros(latencies.p50()), micros(latencies.p90()),
+                    micros(latencies.p99()), micros(latencies.p999()), micros(latencies.max()));
+        }
+        SortedMap<String, Number> values = metrics.values();
+        values.keySet().removeIf(name -> isTimerValue(timers, name));
+        if (!values.isEmpty()) {
+            log.info("counters and gauges: {}", values);
+        }
+    }
+
+    /**
+     * Stops reporting. A report that is being written is allowed to finish.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+    private void reportScheduled() {
+        try {
+            report();
+        } catch (RuntimeException e) {
+            // an exception would cancel every later report
+            log.warn("Could not report metrics: {}", e.toString());
+        }
+    }
+
+    private static boolean isTimerValue(Map<String, Timer> timers, String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && timers.containsKey(name.substring(0, dot));
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,68 @@
+package org.ST.mfusi.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times one operation: how often it ran, how often it failed, and how long it took.
+ * <p>A caller reads {@link System#nanoTime()} before the operation and hands it to
+ * {@link #stop(long, boolean)} afterwards:</p>
+ * <pre>{@code
+ * long start = System.nanoTime();
+ * boolean ok = doWork();
+ * timer.stop(start, ok);
+ * }</pre>
+ * Neither step allocates, so a timer can stay in place on hot paths.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class Timer {
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Creates a timer. Timers are normally obtained from {@link Metrics#timer(String)}.
+     * @param name The name of the timed operation.
+     */
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retrieves the name of the timed operation.
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one run of the operation.
+     * @param startNanos The value of {@link System#nanoTime()} when the operation started.
+     * @param succeeded {@code false} if the operation failed or rejected its input.
+     */
+    public void stop(long startNanos, boolean succeeded) {
+        latencies.record(System.nanoTime() - startNanos);
+        if (!succeeded) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Retrieves the number of runs that failed.
+     * @return The failure count.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Retrieves the latencies of all runs, failed ones included.
+     * @return The histogram of latencies in nanoseconds.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+}
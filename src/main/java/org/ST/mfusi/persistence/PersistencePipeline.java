@@ -0,0 +1,252 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the changes made to a {@link ProfileJournal} on a background thread, so that the
+ * thread making a change never waits for the disk.
+ * <p>A submitted mutation is applied to the profile right away and queued in the journal.
+ * The first mutation of a burst schedules a write on the pipeline's writer thread, which
+ * waits for the coalescing window to pass and then writes everything queued by then as a
+ * single batch. Ten quick edits therefore cost one write instead of ten, and at most one
+ * write is waiting at any time.</p>
+ * <p>A failed write keeps its mutations queued; they are retried with the next batch and
+ * at the latest when the pipeline is flushed or closed. The pipeline keeps counters of how
+ * many batches it wrote and how long they took, see {@link #getStats()}.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class PersistencePipeline implements Closeable {
+
+    /**
+     * How long the writer waits for further changes by default before it writes a batch.
+     */
+    public static final Duration DEFAULT_COALESCE_WINDOW = Duration.ofMillis(50);
+
+    /**
+     * A point-in-time view of the pipeline's counters.
+     * @param queueDepth The number of mutations applied but not written yet.
+     * @param batchesWritten The number of batches written so far.
+     * @param mutationsWritten The number of mutations written so far.
+     * @param failedBatches The number of batches that could not be written.
+     * @param lastSaveLatency How long the most recent batch took to write.
+     * @param maxSaveLatency How long the slowest batch took to write.
+     * @param averageSaveLatency How long a batch took to write on average.
+     */
+    public record Stats(int queueDepth, long batchesWritten, long mutationsWritten, long failedBatches,
+                        Duration lastSaveLatency, Duration maxSaveLatency, Duration averageSaveLatency) {
+    }
+
+    private final ProfileJournal journal;
+    private final Duration coalesceWindow;
+    private final ExecutorService writer;
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    /**
+     * Counted down by {@link #close()} to cut a batch's coalescing window short.
+     */
+    private final CountDownLatch closing = new CountDownLatch(1);
+    private volatile boolean closed;
+
+    private long batchesWritten;
+    private long mutationsWritten;
+    private long failedBatches;
+    private long lastLatencyNanos;
+    private long maxLatencyNanos;
+    private long totalLatencyNanos;
+    private volatile Exception lastError;
+
+    /**
+     * Creates a pipeline that writes the changes of a journal on its own virtual thread.
+     * @param journal The journal to apply changes to and write them through.
+     * @param coalesceWindow How long to wait for further changes before writing a batch.
+     * @throws IllegalArgumentException if the window is negative.
+     */
+    public PersistencePipeline(ProfileJournal journal, Duration coalesceWindow) {
+        if (coalesceWindow.isNegative()) {
+            throw new IllegalArgumentException("Coalesce window cannot be negative.");
+        }
+        this.journal = journal;
+        this.coalesceWindow = coalesceWindow;
+        this.writer = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("profile-writer-", 0).factory());
+    }
+
+    /**
+     * Retrieves the journal this pipeline writes through.
+     * @return The journal.
+     */
+    public ProfileJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Applies a mutation to the profile and schedules it to be written.
+     * @param mutation The mutation to apply.
+     * @return {@code true} if the profile was changed, {@code false} otherwise.
+     * @throws IllegalArgumentException if the mutation carries invalid task data.
+     * @throws IllegalStateException if the pipeline was closed.
+     */
+    public boolean submit(TaskMutation mutation) {
+        if (closed) {
+            throw new IllegalStateException("The persistence pipeline is closed.");
+        }
+        if (!journal.applyDeferred(mutation)) {
+            return false;
+        }
+        scheduleWrite();
+        return true;
+    }
+
+    /**
+     * Adds a batch of tasks to the profile and schedules their records to be written.
+     * @param tasks The tasks to add.
+     * @return The added tasks and the rejected rows.
+     * @throws IllegalStateException if the pipeline was closed.
+     */
+    public BulkAddReport addTasks(Iterable<Task> tasks) {
+        if (closed) {
+            throw new IllegalStateException("The persistence pipeline is closed.");
+        }
+        BulkAddReport report = journal.addTasksDeferred(tasks);
+        if (!report.added().isEmpty()) {
+            scheduleWrite();
+        }
+        return report;
+    }
+
+    /**
+     * Undoes the most recent change to the profile and schedules its effect to be written.
+     * @return {@code true} if a change was undone, {@code false} if there was nothing to undo.
+     * @throws IllegalStateException if the pipeline was closed.
+     */
+    public boolean undo() {
+        if (closed) {
+            throw new IllegalStateException("The persistence pipeline is closed.");
+        }
+        if (!journal.undoDeferred()) {
+            return false;
+        }
+        scheduleWrite();
+        return true;
+    }
+
+    /**
+     * Makes the most recently undone change again and schedules it to be written.
+     * @return {@code true} if a change was redone, {@code false} if there was nothing to redo.
+     * @throws IllegalStateException if the pipeline was closed.
+     */
+    public boolean redo() {
+        if (closed) {
+            throw new IllegalStateException("The persistence pipeline is closed.");
+        }
+        if (!journal.redoDeferred()) {
+            return false;
+        }
+        scheduleWrite();
+        return true;
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread.
+     * @return The number of mutations written.
+     * @throws UncheckedIOException if the log cannot be written. The mutations stay queued.
+     */
+    public int flush() {
+        long start = System.nanoTime();
+        int written;
+        try {
+            written = journal.flush();
+        } catch (UncheckedIOException e) {
+            synchronized (this) {
+                failedBatches++;
+            }
+            lastError = e.getCause();
+            throw e;
+        }
+        if (written > 0) {
+            recordBatch(written, System.nanoTime() - start);
+        }
+        return written;
+    }
+
+    /**
+     * Retrieves the pipeline's current counters.
+     * @return The counters.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(journal.getUnloggedCount(), batchesWritten, mutationsWritten, failedBatches,
+                Duration.ofNanos(lastLatencyNanos), Duration.ofNanos(maxLatencyNanos),
+                Duration.ofNanos(batchesWritten == 0 ? 0 : totalLatencyNanos / batchesWritten));
+    }
+
+    /**
+     * Retrieves the error of the most recent failed write, if any.
+     * @return The error, or {@code null} if no write has failed.
+     */
+    public Exception getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops the writer thread and writes everything still queued. A batch waiting for its
+     * coalescing window is written at once. The journal itself stays open.
+     * @throws UncheckedIOException if the remaining mutations cannot be written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closing.countDown();
+        // waits for a scheduled batch to finish its write
+        writer.close();
+        flush();
+    }
+
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::writeAfterWindow);
+            } catch (RejectedExecutionException e) {
+                // closed concurrently; close() writes whatever is still queued
+                writeScheduled.set(false);
+            }
+        }
+    }
+
+    private void writeAfterWindow() {
+        try {
+            if (coalesceWindow.isPositive()) {
+                // not interrupted to wake it: an interrupt would close the log's file channel mid-write
+                closing.await(coalesceWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // cleared before writing, so that a change made during the write schedules the next batch
+        writeScheduled.set(false);
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            // recorded by flush(); the mutations stay queued for the next batch
+        }
+    }
+
+    private synchronized void recordBatch(int mutations, long latencyNanos) {
+        batchesWritten++;
+        mutationsWritten += mutations;
+        lastLatencyNanos = latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        totalLatencyNanos += latencyNanos;
+    }
+}
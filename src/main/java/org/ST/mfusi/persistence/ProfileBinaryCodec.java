@@ -0,0 +1,443 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.TaskTable;
+import org.ST.mfusi.todolist.ToDoList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads and writes a {@link Profile} snapshot in a binary format that is opened by memory-mapping
+ * the file instead of parsing it.
+ * <p>Opening a snapshot reads its 64-byte header and maps the rest of the file; no task is
+ * decoded. The profile's list reads each task from the mapping when it is first looked at (see
+ * {@link ToDoList#ToDoList(ToDoList.StorageMode, TaskTable)}), so opening a profile takes the same
+ * few milliseconds whether it holds ten tasks or a file of several gigabytes.</p>
+ * <p>All numbers are little-endian. The file has the following layout:</p>
+ * <pre>
+ * header   int magic "TDLB", int version, int flags (bit 0: ids ascending, bit 1: due dates), int task count,
+ *          long logSequence, long maxId, long heapOffset, long heapLength, long orderOffset,
+ *          int name length, int email length or -1 for none
+ * records  one 24-byte record per task, in list order:
+ *          long id, long text offset (low 56 bits) | flags (top 8 bits), int title length, int description length
+ * heap     the UTF-8 profile name and email, then every task's title and description back to back
+ * order    only if ids are not ascending: one int per task, the record positions sorted by id
+ * due      only if some task has a due date: one long per task, in list order, holding the due date
+ *          in epoch milliseconds or {@code Long.MIN_VALUE} for none
+ * </pre>
+ * <p>Record flags hold the priority ordinal in bits 0-6 and the completion status in bit 7.
+ * Text offsets are relative to the start of the heap. The due dates follow the order table, or the heap if there is no
+ * order table, so version 1 snapshots, which never have them, read unchanged. Because records have a fixed width,
+ * record {@code i} is found by arithmetic, and a task is found by id with a binary search
+ * over the records or the order table.</p>
+ * <p>The mapping stays valid after the snapshot is replaced by a newer save, so a profile can keep
+ * reading its old snapshot while a checkpoint writes the next one.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ProfileBinaryCodec {
+
+    /**
+     * The format version written into every snapshot.
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC = 0x424C4454; // "TDLB" read as a little-endian int
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 24;
+    private static final int IDS_ASCENDING = 1;
+    private static final int HAS_DUE_DATES = 2;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    /**
+     * The email length of a profile without an email address.
+     */
+    private static final int NO_EMAIL = -1;
+    private static final int COMPLETED = 0x80;
+    private static final long OFFSET_MASK = (1L << 56) - 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The size of one mapping of the heap or the order table. Mappings are limited to 2 GB each.
+     */
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    /**
+     * The size of one mapping of the records; a whole number of records, so none straddles two mappings.
+     */
+    private static final long RECORD_CHUNK_SIZE = (CHUNK_SIZE / RECORD_SIZE) * RECORD_SIZE;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ProfileBinaryCodec() {}
+
+    /**
+     * Writes the given profile as a snapshot that contains all task log records up to and
+     * including {@code logSequence}, replacing the file if it exists.
+     * @param profile The profile to write.
+     * @param logSequence The sequence number of the last log record the snapshot covers, or 0 for none.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Profile profile, long logSequence, Path file) throws IOException {
+        List<Task> tasks = profile.getTasks();
+        int count = tasks.size();
+        byte[] name = profile.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = profile.getEmail() == null ? null : profile.getEmail().getBytes(StandardCharsets.UTF_8);
+        long heapOffset = HEADER_SIZE + (long) count * RECORD_SIZE;
+        long[] ids = new long[count];
+        long[] dueDates = null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output records = new Output(channel, HEADER_SIZE);
+            Output heap = new Output(channel, heapOffset);
+            heap.put(name);
+            if (email != null) {
+                heap.put(email);
+            }
+            boolean ascending = true;
+            long maxId = 0;
+            for (int i = 0; i < count; i++) {
+                Task task = tasks.get(i);
+                byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+                byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+                long flags = task.getPriority().ordinal() | (task.isCompleted() ? COMPLETED : 0);
+                ids[i] = task.getId();
+                ascending &= i == 0 || ids[i - 1] < ids[i];
+                maxId = Math.max(maxId, ids[i]);
+                if (task.getDueDate() != null) {
+                    if (dueDates == null) {
+                        dueDates = new long[count];
+                        Arrays.fill(dueDates, NO_DUE_DATE);
+                    }
+                    dueDates[i] = task.getDueDate().toEpochMilli();
+                }
+
+                ByteBuffer record = records.room(RECORD_SIZE);
+                record.putLong(task.getId());
+                record.putLong(heap.written() | flags << 56);
+                record.putInt(title.length);
+                record.putInt(description.length);
+                heap.put(title);
+                heap.put(description);
+            }
+            records.flush();
+            long heapLength = heap.written();
+            heap.flush();
+
+            long orderOffset = 0;
+            if (!ascending) {
+                orderOffset = heapOffset + heapLength;
+                Output order = new Output(channel, orderOffset);
+                for (int position : positionsById(ids)) {
+                    order.room(Integer.BYTES).putInt(position);
+                }
+                order.flush();
+            }
+            if (dueDates != null) {
+                Output due = new Output(channel, dueDatesOffset(heapOffset, heapLength, ascending, count));
+                for (long dueDate : dueDates) {
+                    due.room(Long.BYTES).putLong(dueDate);
+                }
+                due.flush();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int flags = (ascending ? IDS_ASCENDING : 0) | (dueDates != null ? HAS_DUE_DATES : 0);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(flags).putInt(count);
+            header.putLong(logSequence).putLong(maxId).putLong(heapOffset).putLong(heapLength).putLong(orderOffset);
+            header.putInt(name.length).putInt(email == null ? NO_EMAIL : email.length);
+            header.flip();
+            writeFully(channel, header, 0);
+        }
+    }
+
+    /**
+     * Opens a snapshot by mapping it into memory. No task is read until the profile's list asks for it.
+     * @param file The snapshot file.
+     * @return The profile, backed by the mapped file, and the log position it covers.
+     * @throws IOException if the file cannot be read, is not a snapshot or has a newer version.
+     */
+    public static ProfileJsonCodec.ProfileSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a profile snapshot.");
+            }
+            header.flip();
+            header.getInt();
+            int version = header.getInt();
+            if (version > FORMAT_VERSION) {
+                throw new IOException("Unsupported profile snapshot version: " + version);
+            }
+            int flags = header.getInt();
+            boolean ascending = (flags & IDS_ASCENDING) != 0;
+            boolean hasDueDates = (flags & HAS_DUE_DATES) != 0;
+            int count = header.getInt();
+            long logSequence = header.getLong();
+            long maxId = header.getLong();
+            long heapOffset = header.getLong();
+            long heapLength = header.getLong();
+            long orderOffset = header.getLong();
+            int nameLength = header.getInt();
+            int emailLength = header.getInt();
+            long recordsEnd = HEADER_SIZE + (long) count * RECORD_SIZE;
+            if (count < 0 || emailLength < NO_EMAIL || heapOffset < recordsEnd
+                    || heapLength < (long) nameLength + Math.max(emailLength, 0)
+                    || heapOffset + heapLength > fileSize
+                    || (!ascending && (orderOffset < heapOffset + heapLength
+                    || orderOffset + (long) count * Integer.BYTES > fileSize))) {
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+            long dueDatesOffset = dueDatesOffset(heapOffset, heapLength, ascending, count);
+            if (hasDueDates && dueDatesOffset + (long) count * Long.BYTES > fileSize) {
+                throw new IOException(file + " is truncated or corrupt.");
+            }
+
+            Region records = Region.map(channel, HEADER_SIZE, recordsEnd - HEADER_SIZE, RECORD_CHUNK_SIZE);
+            Region heap = Region.map(channel, heapOffset, heapLength, CHUNK_SIZE);
+            Region order = ascending ? null : Region.map(channel, orderOffset, (long) count * Integer.BYTES, CHUNK_SIZE);
+            Region dueDates = hasDueDates
+                    ? Region.map(channel, dueDatesOffset, (long) count * Long.BYTES, CHUNK_SIZE) : null;
+            String name = heap.string(0, nameLength);
+            String email = emailLength == NO_EMAIL ? null : heap.string(nameLength, emailLength);
+
+            MappedTaskTable table = new MappedTaskTable(records, heap, order, dueDates, count, maxId);
+            Profile profile = new Profile(name, email, new ToDoList(ToDoList.StorageMode.INSERTION_ORDER, table));
+            return new ProfileJsonCodec.ProfileSnapshot(profile, logSequence);
+        }
+    }
+
+    /**
+     * The due dates come right after the heap and the order table, if there is one.
+     */
+    private static long dueDatesOffset(long heapOffset, long heapLength, boolean ascending, int count) {
+        return heapOffset + heapLength + (ascending ? 0 : (long) count * Integer.BYTES);
+    }
+
+    /**
+     * Works out the record positions in id order without boxing them.
+     */
+    private static int[] positionsById(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int[] positions = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            positions[Arrays.binarySearch(sorted, ids[i])] = i;
+        }
+        return positions;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * A buffered writer for one region of the file, so that records and text can be written in a single pass.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+        private long written;
+
+        Output(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        /**
+         * @return the number of bytes written to this region so far.
+         */
+        long written() {
+            return written;
+        }
+
+        ByteBuffer room(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            written += bytes;
+            return buffer;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                writeFully(channel, ByteBuffer.wrap(bytes), position);
+                position += bytes.length;
+                written += bytes.length;
+            } else {
+                room(bytes.length).put(bytes);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            int length = buffer.remaining();
+            writeFully(channel, buffer, position);
+            position += length;
+            buffer.clear();
+        }
+    }
+
+    /**
+     * A region of the file mapped as one or more read-only buffers. Only absolute reads are used,
+     * which do not change a buffer, so a region can be read from several threads at once.
+     */
+    private static final class Region {
+        private final ByteBuffer[] chunks;
+        private final long chunkSize;
+
+        private Region(ByteBuffer[] chunks, long chunkSize) {
+            this.chunks = chunks;
+            this.chunkSize = chunkSize;
+        }
+
+        static Region map(FileChannel channel, long offset, long length, long chunkSize) throws IOException {
+            ByteBuffer[] chunks = new ByteBuffer[(int) Math.max(1, (length + chunkSize - 1) / chunkSize)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = i * chunkSize;
+                long size = Math.min(chunkSize, length - start);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start, size)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new Region(chunks, chunkSize);
+        }
+
+        long getLong(long position) {
+            return chunks[(int) (position / chunkSize)].getLong((int) (position % chunkSize));
+        }
+
+        int getInt(long position) {
+            return chunks[(int) (position / chunkSize)].getInt((int) (position % chunkSize));
+        }
+
+        String string(long position, int length) {
+            byte[] bytes = new byte[length];
+            int copied = 0;
+            while (copied < length) {
+                ByteBuffer chunk = chunks[(int) ((position + copied) / chunkSize)];
+                int at = (int) ((position + copied) % chunkSize);
+                int part = Math.min(length - copied, chunk.limit() - at);
+                chunk.get(at, bytes, copied, part);
+                copied += part;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The tasks of a mapped snapshot, decoded record by record.
+     */
+    private static final class MappedTaskTable implements TaskTable {
+        private final Region records;
+        private final Region heap;
+        private final Region order;
+        private final Region dueDates;
+        private final int size;
+        private final long maxId;
+
+        MappedTaskTable(Region records, Region heap, Region order, Region dueDates, int size, long maxId) {
+            this.records = records;
+            this.heap = heap;
+            this.order = order;
+            this.dueDates = dueDates;
+            this.size = size;
+            this.maxId = maxId;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long id(int index) {
+            return records.getLong((long) Objects.checkIndex(index, size) * RECORD_SIZE);
+        }
+
+        @Override
+        public Priority priority(int index) {
+            int ordinal = flags(index) & ~COMPLETED;
+            if (ordinal >= PRIORITIES.length) {
+                throw new UncheckedIOException(new IOException("Corrupt priority in task record " + index));
+            }
+            return PRIORITIES[ordinal];
+        }
+
+        @Override
+        public boolean isCompleted(int index) {
+            return (flags(index) & COMPLETED) != 0;
+        }
+
+        @Override
+        public Task get(int index) {
+            long record = (long) Objects.checkIndex(index, size) * RECORD_SIZE;
+            long text = records.getLong(record + 8) & OFFSET_MASK;
+            int titleLength = records.getInt(record + 16);
+            String title = heap.string(text, titleLength);
+            String description = heap.string(text + titleLength, records.getInt(record + 20));
+            long due = dueDates == null ? NO_DUE_DATE : dueDates.getLong((long) index * Long.BYTES);
+            return new Task(records.getLong(record), title, description, priority(index), isCompleted(index),
+                    due == NO_DUE_DATE ? null : Instant.ofEpochMilli(due));
+        }
+
+        @Override
+        public int indexOf(long id) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int at = order == null ? mid : order.getInt((long) mid * Integer.BYTES);
+                long midId = records.getLong((long) at * RECORD_SIZE);
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return at;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean idsAscending() {
+            return order == null;
+        }
+
+        @Override
+        public long maxId() {
+            return maxId;
+        }
+
+        private int flags(int index) {
+            return (int) (records.getLong((long) Objects.checkIndex(index, size) * RECORD_SIZE + 8) >>> 56);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.metrics.Counter;
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+import org.ST.mfusi.todolist.TaskEvent;
+import org.ST.mfusi.todolist.ToDoList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a profile durable by combining a snapshot in the {@link ProfileStore}, JSON or binary,
+ * with a {@link TaskLog}.
+ * <p>Opening a journal loads the last snapshot and replays every logged mutation that
+ * came after it. From then on each mutation is applied to the profile and appended to
+ * the log in one step, instead of rewriting the whole snapshot. Once the log grows past
+ * a size threshold, a background thread folds it into a new snapshot.</p>
+ * <p>Callers that must not block on disk, such as a user interface thread, can use
+ * {@link #applyDeferred(TaskMutation)} instead: the change is applied immediately and only
+ * queued for the log, and a background writer calls {@link #flush()} to write everything
+ * queued so far as one batch. Snapshots always flush the queue first, so a snapshot never
+ * contains a change that the log does not.</p>
+ * <p>A background compaction that fails is logged and counted in the {@link Metrics#global()
+ * metrics} as {@code journal.compaction.failures}; the log keeps every record, so the next
+ * crossing of the threshold tries again.</p>
+ * <p>Undo and redo are logged by their effect, for example as the re-insertion of a removed
+ * task at its old position, so replaying the log needs no undo history.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ProfileJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileJournal.class);
+    private static final Counter COMPACTION_FAILURES = Metrics.global().counter("journal.compaction.failures");
+
+    /**
+     * The log size after which a background compaction is started by default.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 4L * 1024 * 1024;
+
+    /**
+     * Shared daemon thread that runs compactions for all open journals.
+     */
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "profile-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ProfileStore store;
+    private final Profile profile;
+    private final TaskLog log;
+    private final long compactionThreshold;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Object checkpointLock = new Object();
+    private final Object logLock = new Object();
+    private List<TaskMutation> unlogged = new ArrayList<>();
+    private volatile boolean closed;
+
+    private ProfileJournal(ProfileStore store, Profile profile, TaskLog log, long compactionThreshold) {
+        this.store = store;
+        this.profile = profile;
+        this.log = log;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Opens the journal of a profile with the default sync policy and compaction threshold.
+     * @param store The store holding the profile's snapshot and log.
+     * @param profileName The name of the profile.
+     * @return The opened journal.
+     * @throws IOException if the snapshot or log cannot be read, or a logged change does not apply to the snapshot.
+     */
+    public static ProfileJournal open(ProfileStore store, String profileName) throws IOException {
+        return open(store, profileName, TaskLog.SyncPolicy.DEFAULT, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens the journal of a profile, creating an empty profile if none was saved yet.
+     * @param store The store holding the profile's snapshot and log.
+     * @param profileName The name of the profile.
+     * @param syncPolicy When appended records are forced to disk.
+     * @param compactionThreshold The log size in bytes after which a background compaction starts.
+     * @return The opened journal.
+     * @throws IOException if the snapshot or log cannot be read, or a logged change does not apply to the snapshot.
+     */
+    public static ProfileJournal open(ProfileStore store, String profileName,
+                                      TaskLog.SyncPolicy syncPolicy, long compactionThreshold) throws IOException {
+        ProfileJsonCodec.ProfileSnapshot snapshot = store.loadSnapshot(profileName)
+                .orElseGet(() -> new ProfileJsonCodec.ProfileSnapshot(new Profile(profileName), 0));
+        Profile profile = snapshot.profile();
+
+        TaskLog log = new TaskLog(store.getDirectory(), ProfileStore.fileStem(profileName),
+                snapshot.logSequence() + 1, syncPolicy);
+        try {
+            log.replay(snapshot.logSequence(), mutation -> mutation.applyTo(profile));
+        } catch (IllegalArgumentException e) {
+            // only mutations that were applied are logged, so the log does not match the snapshot
+            log.close();
+            throw new IOException("The task log of " + profileName + " does not apply to its snapshot: "
+                    + e.getMessage(), e);
+        }
+        return new ProfileJournal(store, profile, log, compactionThreshold);
+    }
+
+    /**
+     * Retrieves the profile kept by this journal.
+     * @return The journaled profile.
+     */
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Applies a mutation to the profile and, if it changed anything, appends it to the log
+     * together with any mutations still waiting from {@link #applyDeferred(TaskMutation)}.
+     * @param mutation The mutation to apply.
+     * @return {@code true} if the profile was changed, {@code false} otherwise.
+     * @throws IllegalArgumentException if the mutation carries invalid task data.
+     * @throws java.io.UncheckedIOException if the log cannot be written.
+     */
+    public boolean apply(TaskMutation mutation) {
+        if (!applyDeferred(mutation)) {
+            return false;
+        }
+        flush();
+        return true;
+    }
+
+    /**
+     * Applies a mutation to the profile right away but only queues it for the log. The caller
+     * does no file I/O; the mutation is written by the next {@link #flush()}, {@link #checkpoint()}
+     * or {@link #close()}. Until then it would be lost if the process died.
+     * @param mutation The mutation to apply.
+     * @return {@code true} if the profile was changed, {@code false} otherwise.
+     * @throws IllegalArgumentException if the mutation carries invalid task data.
+     */
+    public synchronized boolean applyDeferred(TaskMutation mutation) {
+        if (!mutation.applyTo(profile)) {
+            return false;
+        }
+        unlogged.add(mutation);
+        return true;
+    }
+
+    /**
+     * Adds a batch of tasks to the profile in one step and appends one record per added task to
+     * the log, together with any mutations still waiting from {@link #applyDeferred(TaskMutation)}.
+     * The records are written with a single write, but a crash during that write can leave only
+     * part of the batch in the log.
+     * @param tasks The tasks to add.
+     * @return The added tasks and the rejected rows.
+     * @throws java.io.UncheckedIOException if the log cannot be written.
+     */
+    public BulkAddReport addTasks(Iterable<Task> tasks) {
+        BulkAddReport report = addTasksDeferred(tasks);
+        flush();
+        return report;
+    }
+
+    /**
+     * Adds a batch of tasks to the profile right away but only queues the log records, like
+     * {@link #applyDeferred(TaskMutation)}.
+     * @param tasks The tasks to add.
+     * @return The added tasks and the rejected rows.
+     */
+    public synchronized BulkAddReport addTasksDeferred(Iterable<Task> tasks) {
+        BulkAddReport report = profile.addTasks(tasks);
+        for (Task task : report.added()) {
+            unlogged.add(new TaskMutation.AddTask(task.getId(), task.getTitle(), task.getDescription(), task.getPriority()));
+            if (task.isCompleted()) {
+                unlogged.add(new TaskMutation.CompleteTask(task.getId()));
+            }
+            if (task.getDueDate() != null) {
+                unlogged.add(new TaskMutation.SetDueDate(task.getId(), task.getDueDate()));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Undoes the most recent change to the profile's list (see {@link ToDoList#undo()}) and logs
+     * its effect, together with any mutations still waiting from {@link #applyDeferred(TaskMutation)}.
+     * @return {@code true} if a change was undone, {@code false} if there was nothing to undo.
+     * @throws java.io.UncheckedIOException if the log cannot be written.
+     */
+    public boolean undo() {
+        if (!undoDeferred()) {
+            return false;
+        }
+        flush();
+        return true;
+    }
+
+    /**
+     * Undoes the most recent change right away but only queues its effect for the log, like
+     * {@link #applyDeferred(TaskMutation)}.
+     * @return {@code true} if a change was undone, {@code false} if there was nothing to undo.
+     */
+    public synchronized boolean undoDeferred() {
+        return queue(profile.getToDoList().undo());
+    }
+
+    /**
+     * Makes the most recently undone change again (see {@link ToDoList#redo()}) and logs it.
+     * @return {@code true} if a change was redone, {@code false} if there was nothing to redo.
+     * @throws java.io.UncheckedIOException if the log cannot be written.
+     */
+    public boolean redo() {
+        if (!redoDeferred()) {
+            return false;
+        }
+        flush();
+        return true;
+    }
+
+    /**
+     * Makes the most recently undone change again right away but only queues it for the log.
+     * @return {@code true} if a change was redone, {@code false} if there was nothing to redo.
+     */
+    public synchronized boolean redoDeferred() {
+        return queue(profile.getToDoList().redo());
+    }
+
+    /**
+     * Queues the mutations that replay the given changes. Must be called while holding this journal's monitor.
+     * @return {@code true} if there was any change.
+     */
+    private boolean queue(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            unlogged.addAll(TaskMutation.of(event));
+        }
+        return !events.isEmpty();
+    }
+
+    /**
+     * Writes every queued mutation to the log with a single write.
+     * @return The number of mutations written.
+     * @throws java.io.UncheckedIOException if the log cannot be written. The mutations stay queued.
+     */
+    public int flush() {
+        // the log lock keeps batches in order: a batch is taken and written before the next one is taken
+        synchronized (logLock) {
+            List<TaskMutation> batch = takeUnlogged();
+            writeBatch(batch);
+            return batch.size();
+        }
+    }
+
+    /**
+     * Retrieves the number of mutations applied but not written to the log yet.
+     * @return The number of queued mutations.
+     */
+    public synchronized int getUnloggedCount() {
+        return unlogged.size();
+    }
+
+    /**
+     * Writes a new snapshot that contains every mutation so far and drops the log segments it replaces.
+     * @throws IOException if the snapshot cannot be written or old segments cannot be deleted.
+     */
+    public void checkpoint() throws IOException {
+        // checkpoints must not overtake each other, or an older snapshot could replace a newer one
+        synchronized (checkpointLock) {
+            Profile copy;
+            List<Task> tasks;
+            long sequence;
+            synchronized (logLock) {
+                List<TaskMutation> batch;
+                synchronized (this) {
+                    // the list's snapshot is immutable, so taking it is all that needs the lock
+                    copy = new Profile(profile.getName(), profile.getEmail(),
+                            new ToDoList(profile.getToDoList().getStorageMode()));
+                    tasks = profile.getTasks();
+                    batch = takeUnlogged();
+                }
+                // the tasks already contain the batch, so it must be logged before the sequence is taken
+                writeBatch(batch);
+                sequence = log.lastSequence();
+                log.roll();
+            }
+            // the copy shares the immutable tasks and keeps the storage mode of the profile's list
+            copy.addTasks(tasks);
+            store.save(copy, sequence);
+            log.deleteSegmentsUpTo(sequence);
+        }
+    }
+
+    /**
+     * Retrieves the current size of the log.
+     * @return The size of all live log segments in bytes.
+     */
+    public long getLogSize() {
+        return log.sizeInBytes();
+    }
+
+    /**
+     * Forces the log to disk and closes its current segment. A background compaction that is
+     * already running is allowed to finish first; one that has not started yet is skipped.
+     * @throws IOException if the log cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (checkpointLock) {
+            closed = true;
+            synchronized (logLock) {
+                writeBatch(takeUnlogged());
+                log.close();
+            }
+        }
+    }
+
+    private synchronized List<TaskMutation> takeUnlogged() {
+        if (unlogged.isEmpty()) {
+            return List.of();
+        }
+        List<TaskMutation> batch = unlogged;
+        unlogged = new ArrayList<>();
+        return batch;
+    }
+
+    /**
+     * Appends a batch to the log. Must be called while holding the log lock. If the write fails,
+     * the batch is put back in front of the queue so that nothing applied is silently dropped.
+     */
+    private void writeBatch(List<TaskMutation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            log.appendAll(batch);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                batch.addAll(unlogged);
+                unlogged = batch;
+            }
+            throw e;
+        }
+        if (log.sizeInBytes() >= compactionThreshold && compacting.compareAndSet(false, true)) {
+            COMPACTOR.execute(this::compactInBackground);
+        }
+    }
+
+    private void compactInBackground() {
+        try {
+            synchronized (checkpointLock) {
+                if (!closed) {
+                    checkpoint();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the log keeps every record, so nothing is lost; the next threshold crossing retries
+            COMPACTION_FAILURES.increment();
+            logger.warn("Could not compact the task log of profile {}", profile.getName(), e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.ST.mfusi.persistence;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads and writes a {@link Profile} and its tasks as JSON.
+ * <p>The codec works directly on Jackson's streaming {@link JsonGenerator} and
+ * {@link JsonParser}, so tasks are written and read one at a time and no tree
+ * of the whole document is ever built in memory.</p>
+ * <p>The document has the following shape:</p>
+ * <pre>
+ * {
+ *   "version": 1,
+ *   "logSequence": 42,
+ *   "name": "Alex",
+ *   "email": "alex@example.com",
+ *   "tasks": [
+ *     {"id": 7, "title": "...", "description": "...", "priority": "HIGH", "completed": false,
+ *      "dueDate": "2026-10-18T09:00:00Z"}
+ *   ]
+ * }
+ * </pre>
+ * <p>Task ids are optional when reading; tasks without one get a fresh id. {@code dueDate}
+ * is an ISO-8601 instant and is left out for tasks without a due date.
+ * {@code logSequence} is the sequence number of the last {@link TaskLog} record
+ * already contained in the snapshot. It is omitted when no log was involved.
+ * Unknown fields are skipped so that older readers can open newer files.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ProfileJsonCodec {
+
+    /**
+     * The format version written into every document.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Shared, thread-safe factory used to create generators and parsers.
+     */
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private ProfileJsonCodec() {}
+
+    /**
+     * Writes the given profile and all of its tasks to the stream as UTF-8 JSON.
+     * The stream is flushed but not closed.
+     *
+     * @param profile The profile to write.
+     * @param out The stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public static void write(Profile profile, OutputStream out) throws IOException {
+        write(profile, 0, out);
+    }
+
+    /**
+     * Writes the given profile as a snapshot that contains all task log records up to
+     * and including {@code logSequence}. The stream is flushed but not closed.
+     *
+     * @param profile The profile to write.
+     * @param logSequence The sequence number of the last log record the snapshot covers, or 0 for none.
+     * @param out The stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public static void write(Profile profile, long logSequence, OutputStream out) throws IOException {
+        try (JsonGenerator gen = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeNumberField("version", FORMAT_VERSION);
+            if (logSequence > 0) {
+                gen.writeNumberField("logSequence", logSequence);
+            }
+            gen.writeStringField("name", profile.getName());
+            gen.writeStringField("email", profile.getEmail());
+            gen.writeArrayFieldStart("tasks");
+            for (Task task : profile.getTasks()) {
+                gen.writeStartObject();
+                gen.writeNumberField("id", task.getId());
+                gen.writeStringField("title", task.getTitle());
+                gen.writeStringField("description", task.getDescription());
+                gen.writeStringField("priority", task.getPriority().name());
+                gen.writeBooleanField("completed", task.isCompleted());
+                if (task.getDueDate() != null) {
+                    gen.writeStringField("dueDate", task.getDueDate().toString());
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads a profile and all of its tasks from a UTF-8 JSON stream.
+     * The stream is not closed.
+     *
+     * @param in The stream to read from.
+     * @return The restored profile.
+     * @throws IOException if reading fails or the document is not a valid profile.
+     */
+    public static Profile read(InputStream in) throws IOException {
+        return readSnapshot(in).profile();
+    }
+
+    /**
+     * Reads a profile snapshot, including the last task log sequence number it covers.
+     * The stream is not closed.
+     *
+     * @param in The stream to read from.
+     * @return The restored snapshot.
+     * @throws IOException if reading fails or the document is not a valid profile.
+     */
+    public static ProfileSnapshot readSnapshot(InputStream in) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            String name = null;
+            String email = "";
+            long logSequence = 0;
+            Profile profile = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "version" -> {
+                        if (parser.getIntValue() > FORMAT_VERSION) {
+                            throw new JsonParseException(parser, "Unsupported profile format version: " + parser.getIntValue());
+                        }
+                    }
+                    case "logSequence" -> logSequence = parser.getLongValue();
+                    case "name" -> name = parser.getValueAsString();
+                    case "email" -> email = parser.getValueAsString("");
+                    case "tasks" -> {
+                        expect(parser, value, JsonToken.START_ARRAY);
+                        profile = newProfile(parser, name, email);
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            Task task = readTask(parser);
+                            try {
+                                profile.addTask(task);
+                            } catch (IllegalArgumentException e) {
+                                throw new JsonParseException(parser, "Invalid task: " + e.getMessage(), e);
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (profile == null) {
+                profile = newProfile(parser, name, email);
+            } else {
+                // the email may follow the task array in hand-written files
+                try {
+                    profile.setEmail(email);
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException(parser, "Invalid profile: " + e.getMessage(), e);
+                }
+            }
+            return new ProfileSnapshot(profile, logSequence);
+        }
+    }
+
+    /**
+     * A profile as read from disk, together with the task log position it reflects.
+     * @param profile The restored profile.
+     * @param logSequence The sequence number of the last task log record contained in the profile.
+     */
+    public record ProfileSnapshot(Profile profile, long logSequence) {}
+
+    /**
+     * Reads a single task object. The parser must be positioned on its {@code START_OBJECT}.
+     */
+    private static Task readTask(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        long id = 0;
+        String title = null;
+        String description = null;
+        Priority priority = Priority.MEDIUM;
+        boolean completed = false;
+        Instant dueDate = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getLongValue();
+                case "title" -> title = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "priority" -> priority = parsePriority(parser);
+                case "completed" -> completed = parser.getValueAsBoolean();
+                case "dueDate" -> dueDate = parseDueDate(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        try {
+            return new Task(id > 0 ? id : Task.nextId(), title, description, priority, completed, dueDate);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Invalid task: " + e.getMessage(), e);
+        }
+    }
+
+    private static Priority parsePriority(JsonParser parser) throws IOException {
+        try {
+            return Priority.valueOf(parser.getValueAsString());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new JsonParseException(parser, "Invalid task priority: " + parser.getValueAsString());
+        }
+    }
+
+    private static Instant parseDueDate(JsonParser parser) throws IOException {
+        String value = parser.getValueAsString();
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException(parser, "Invalid task due date: " + value);
+        }
+    }
+
+    private static Profile newProfile(JsonParser parser, String name, String email) throws IOException {
+        if (name == null) {
+            throw new JsonParseException(parser, "Profile name must appear before its tasks.");
+        }
+        try {
+            return new Profile(name, email);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Invalid profile: " + e.getMessage(), e);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.profile.Profile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Saves and loads profiles as files inside a single data directory.
+ * <p>Each profile is stored in its own file, named after the profile. Saving writes
+ * to a temporary file first and then moves it over the old one, so a crash in the
+ * middle of a save never leaves a half-written profile behind.</p>
+ * <p>Profiles are saved as JSON by default, or as memory-mapped binary snapshots (see
+ * {@link ProfileBinaryCodec}) when the store is created with {@link Format#BINARY}. Either
+ * store loads a profile saved in either format, so switching formats migrates each
+ * profile the next time it is saved.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ProfileStore {
+
+    /**
+     * The file formats a store can save profiles in.
+     */
+    public enum Format {
+        /**
+         * Human-readable JSON, read completely when a profile is loaded.
+         */
+        JSON(".json"),
+        /**
+         * A binary snapshot that is memory-mapped when a profile is loaded and decoded lazily.
+         */
+        BINARY(".snapshot");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Retrieves the file extension used for this format.
+         * @return The extension, including the leading dot.
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        private Format other() {
+            return this == JSON ? BINARY : JSON;
+        }
+    }
+
+    /**
+     * Size of the I/O buffers wrapped around the file streams.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The directory in which all profile files are kept.
+     */
+    private final Path directory;
+
+    /**
+     * The format new saves are written in.
+     */
+    private final Format format;
+
+    /**
+     * Constructs a store that keeps its files in the given directory as JSON.
+     * The directory is created if it does not exist yet.
+     * @param directory The data directory.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ProfileStore(Path directory) throws IOException {
+        this(directory, Format.JSON);
+    }
+
+    /**
+     * Constructs a store that keeps its files in the given directory in the given format.
+     * The directory is created if it does not exist yet.
+     * @param directory The data directory.
+     * @param format The format to save profiles in.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ProfileStore(Path directory, Format format) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.format = Objects.requireNonNull(format, "format");
+    }
+
+    /**
+     * Retrieves the directory this store writes to.
+     * @return The data directory.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Retrieves the format this store saves profiles in.
+     * @return The save format.
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Checks whether a saved profile exists for the given name.
+     * @param profileName The name of the profile.
+     * @return {@code true} if a file exists for the profile in either format, {@code false} otherwise.
+     */
+    public boolean exists(String profileName) {
+        return Files.exists(fileFor(profileName, format)) || Files.exists(fileFor(profileName, format.other()));
+    }
+
+    /**
+     * Writes the profile and all of its tasks to disk, replacing any previous save.
+     * @param profile The profile to save.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Profile profile) throws IOException {
+        save(profile, 0);
+    }
+
+    /**
+     * Writes the profile as a snapshot covering all task log records up to and
+     * including {@code logSequence}, replacing any previous save in either format.
+     * <p>A binary snapshot that is still mapped by a loaded profile can be replaced: the
+     * profile keeps reading the old file until it is no longer used. On Windows, a mapped
+     * file cannot be replaced, so saves there should use {@link Format#JSON}.</p>
+     * @param profile The profile to save.
+     * @param logSequence The sequence number of the last log record already applied to the profile.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Profile profile, long logSequence) throws IOException {
+        Path target = fileFor(profile.getName());
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            if (format == Format.BINARY) {
+                ProfileBinaryCodec.write(profile, logSequence, temp);
+            } else {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)) {
+                    ProfileJsonCodec.write(profile, logSequence, out);
+                }
+            }
+            moveReplacing(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        Files.deleteIfExists(fileFor(profile.getName(), format.other()));
+    }
+
+    /**
+     * Loads a previously saved profile.
+     * @param profileName The name of the profile to load.
+     * @return The restored profile, or an empty {@link Optional} if none was saved.
+     * @throws IOException if the file exists but cannot be read or parsed.
+     */
+    public Optional<Profile> load(String profileName) throws IOException {
+        return loadSnapshot(profileName).map(ProfileJsonCodec.ProfileSnapshot::profile);
+    }
+
+    /**
+     * Loads a previously saved profile together with the task log position it covers.
+     * <p>If the profile was saved in both formats, for example because a save was
+     * interrupted after switching formats, the more recently written file is used.</p>
+     * @param profileName The name of the profile to load.
+     * @return The restored snapshot, or an empty {@link Optional} if none was saved.
+     * @throws IOException if the file exists but cannot be read or parsed.
+     */
+    public Optional<ProfileJsonCodec.ProfileSnapshot> loadSnapshot(String profileName) throws IOException {
+        Path preferred = fileFor(profileName, format);
+        Path other = fileFor(profileName, format.other());
+        boolean hasPreferred = Files.exists(preferred);
+        boolean hasOther = Files.exists(other);
+        if (!hasPreferred && !hasOther) {
+            return Optional.empty();
+        }
+        Path file = preferred;
+        if (!hasPreferred || (hasOther
+                && Files.getLastModifiedTime(other).compareTo(Files.getLastModifiedTime(preferred)) > 0)) {
+            file = other;
+        }
+        if (file.getFileName().toString().endsWith(Format.BINARY.getExtension())) {
+            return Optional.of(ProfileBinaryCodec.open(file));
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            return Optional.of(ProfileJsonCodec.readSnapshot(in));
+        }
+    }
+
+    /**
+     * Deletes the saved profile and its task log, if there are any.
+     * @param profileName The name of the profile to delete.
+     * @return {@code true} if a snapshot file was deleted, {@code false} if none existed.
+     * @throws IOException if a file cannot be deleted.
+     */
+    public boolean delete(String profileName) throws IOException {
+        TaskLog.deleteAll(directory, fileStem(profileName));
+        boolean deleted = Files.deleteIfExists(fileFor(profileName, format.other()));
+        return Files.deleteIfExists(fileFor(profileName, format)) || deleted;
+    }
+
+    /**
+     * Resolves the file this store saves a profile to. The name is URL-encoded so that any
+     * profile name maps to a single, safe file name inside the data directory.
+     * @param profileName The name of the profile.
+     * @return The path of the profile's file in this store's format.
+     */
+    public Path fileFor(String profileName) {
+        return fileFor(profileName, format);
+    }
+
+    private Path fileFor(String profileName, Format fileFormat) {
+        return directory.resolve(fileStem(profileName) + fileFormat.getExtension());
+    }
+
+    /**
+     * Converts a profile name into the stem used for all of its files.
+     * @param profileName The name of the profile.
+     * @return A file-system safe version of the name.
+     */
+    static String fileStem(String profileName) {
+        return URLEncoder.encode(profileName, StandardCharsets.UTF_8);
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,696 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reads and writes tasks as CSV or TSV, for moving task lists between this application and
+ * other tools.
+ * <p>A file starts with a header naming its columns, in any order: {@code title} and
+ * {@code description} are required, {@code priority} (HIGH, MEDIUM or LOW, MEDIUM when empty)
+ * and {@code completed} (true/false, yes/no or 1/0) are optional, and any other column, such
+ * as the {@code id} written on export, is ignored. Imported tasks always get fresh ids, so a
+ * file can be imported into any list. CSV follows RFC 4180: fields holding a comma, a quote or
+ * a line break are quoted and quotes are doubled. TSV fields are never quoted; a tab, line
+ * break or backslash in a field is written as {@code \t}, {@code \n}, {@code \r} or
+ * {@code \\}. Text is UTF-8.</p>
+ * <p>Both directions stream through a {@link FileChannel} with a large direct buffer. Reading
+ * cuts the file into chunks of about {@value #CHUNK_SIZE} bytes at record boundaries while it
+ * is read, and parses the chunks in parallel while the next ones are read; the rows are put
+ * back in file order before the tasks are created. Writing encodes every field straight into
+ * the output buffer, without building a string per row.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TaskCsvCodec {
+
+    /**
+     * The two flavours of delimited text.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with RFC 4180 quoting.
+         */
+        CSV((byte) ','),
+        /**
+         * Tab-separated values with backslash escapes.
+         */
+        TSV((byte) '\t');
+
+        private final byte delimiter;
+
+        Format(byte delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * Picks the format from a file name: {@code .tsv} and {@code .tab} files are TSV, everything else CSV.
+         * @param file The file.
+         * @return The format of the file.
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".tsv") || name.endsWith(".tab") ? TSV : CSV;
+        }
+    }
+
+    /**
+     * The rows of a file that could be read as tasks, and those that could not.
+     * @param tasks The tasks read, in file order, not yet validated.
+     * @param rows For every task, the 0-based row it was read from, not counting the header.
+     * @param errors The rows that could not be read, ordered by row.
+     */
+    public record ImportedRows(List<Task> tasks, int[] rows, List<BulkAddReport.RowError> errors) {
+
+        /**
+         * Combines the rows that could not be read with the outcome of adding the tasks, so that
+         * every rejected row is reported by its row in the file.
+         * @param added The outcome of adding {@link #tasks()} to a list.
+         * @return The added tasks and every rejected row of the file, ordered by row.
+         */
+        public BulkAddReport merge(BulkAddReport added) {
+            if (errors.isEmpty() && added.errors().isEmpty()) {
+                return added;
+            }
+            List<BulkAddReport.RowError> merged = new ArrayList<>(errors);
+            for (BulkAddReport.RowError error : added.errors()) {
+                merged.add(new BulkAddReport.RowError(rows[error.row()], error.message()));
+            }
+            merged.sort(Comparator.comparingInt(BulkAddReport.RowError::row));
+            return new BulkAddReport(added.added(), merged);
+        }
+    }
+
+    /**
+     * The size of the direct buffer files are read and written through, and roughly the size of a parsed chunk.
+     */
+    static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final byte[][] PRIORITY_NAMES = new byte[PRIORITIES.length][];
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] YES = "yes".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NO = "no".getBytes(StandardCharsets.US_ASCII);
+    private static final String[] HEADER = {"id", "title", "description", "priority", "completed"};
+    private static final int COMPLETED = 0x80;
+    private static final int INVALID = -1;
+
+    static {
+        for (Priority priority : PRIORITIES) {
+            PRIORITY_NAMES[priority.ordinal()] = priority.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private TaskCsvCodec() {}
+
+    /**
+     * Writes tasks to a file with a header row, replacing the file if it exists.
+     * @param tasks The tasks to write, in the order they should appear.
+     * @param file The file to write.
+     * @param format The format to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(List<Task> tasks, Path file, Format format) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel, format);
+            for (int i = 0; i < HEADER.length; i++) {
+                if (i > 0) {
+                    out.put(format.delimiter);
+                }
+                out.putText(HEADER[i]);
+            }
+            out.put((byte) '\n');
+            for (Task task : tasks) {
+                out.putLong(task.getId());
+                out.put(format.delimiter);
+                out.putText(task.getTitle());
+                out.put(format.delimiter);
+                out.putText(task.getDescription());
+                out.put(format.delimiter);
+                out.put(PRIORITY_NAMES[task.getPriority().ordinal()]);
+                out.put(format.delimiter);
+                out.put(task.isCompleted() ? TRUE : FALSE);
+                out.put((byte) '\n');
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads the tasks of a file. Rows that cannot be read, such as rows with the wrong number of
+     * fields or an unknown priority, are reported instead of stopping the import; the tasks are
+     * checked by {@link org.ST.mfusi.validator.TaskValidator} when they are added to a list.
+     * @param file The file to read.
+     * @param format The format of the file.
+     * @return The tasks read and the rows that could not be read.
+     * @throws IOException if the file cannot be read or its header lacks a title or description column.
+     */
+    public static ImportedRows read(Path file, Format format) throws IOException {
+        List<CompletableFuture<Chunk>> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean parallel = channel.size() > CHUNK_SIZE;
+            Splitter splitter = new Splitter(format);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            Columns columns = null;
+            int firstRow = 0;
+            while (true) {
+                buffer.clear();
+                boolean end = channel.read(buffer) < 0;
+                buffer.flip();
+                byte[] data = end ? splitter.rest() : splitter.cut(buffer);
+                if (data != null) {
+                    int length = splitter.lastLength;
+                    int records = splitter.lastRecords;
+                    int from = 0;
+                    if (columns == null) {
+                        // the header is the first record of the first chunk
+                        from = recordEnd(data, 0, length, format);
+                        columns = Columns.of(new RecordParser(data, format).fields(0, from), file);
+                        records--;
+                    }
+                    chunks.add(parse(new Slice(data, from, length, records, firstRow), columns, format, parallel));
+                    firstRow += records;
+                }
+                if (end) {
+                    break;
+                }
+            }
+        }
+
+        int count = 0;
+        List<BulkAddReport.RowError> errors = new ArrayList<>();
+        List<Chunk> parsed = new ArrayList<>(chunks.size());
+        try {
+            for (CompletableFuture<Chunk> chunk : chunks) {
+                Chunk result = chunk.join();
+                parsed.add(result);
+                count += result.count;
+                errors.addAll(result.errors);
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        // fresh ids are handed out in file order, so the batch is added as one ascending run
+        Task[] tasks = new Task[count];
+        int[] rows = new int[count];
+        int next = 0;
+        for (Chunk chunk : parsed) {
+            for (int i = 0; i < chunk.count; i++) {
+                int flags = chunk.flags[i] & 0xFF;
+                tasks[next] = new Task(Task.nextId(), chunk.titles[i], chunk.descriptions[i],
+                        PRIORITIES[flags & ~COMPLETED], (flags & COMPLETED) != 0);
+                rows[next++] = chunk.rows[i];
+            }
+        }
+        return new ImportedRows(Arrays.asList(tasks), rows, errors);
+    }
+
+    /**
+     * A run of whole records in {@code data[from, to)}, the first of them at row {@code firstRow}.
+     */
+    private record Slice(byte[] data, int from, int to, int records, int firstRow) {
+    }
+
+    private static CompletableFuture<Chunk> parse(Slice slice, Columns columns, Format format, boolean parallel) {
+        if (!parallel) {
+            // a file of one chunk: parsing on this thread beats handing it to the pool
+            return CompletableFuture.completedFuture(parseChunk(slice, columns, format));
+        }
+        return CompletableFuture.supplyAsync(() -> parseChunk(slice, columns, format));
+    }
+
+    private static Chunk parseChunk(Slice slice, Columns columns, Format format) {
+        Chunk chunk = new Chunk(slice.records());
+        RecordParser parser = new RecordParser(slice.data(), format);
+        int row = slice.firstRow();
+        for (int start = slice.from(); start < slice.to(); row++) {
+            int end = recordEnd(slice.data(), start, slice.to(), format);
+            int fields = parser.split(start, end);
+            if (fields == 1 && parser.isBlank(0)) {
+                start = end;
+                continue; // a blank line
+            }
+            if (fields != columns.count) {
+                chunk.errors.add(new BulkAddReport.RowError(row,
+                        "Expected " + columns.count + " fields but found " + fields + "."));
+            } else {
+                int priority = columns.priority < 0 ? Priority.MEDIUM.ordinal() : parser.priority(columns.priority);
+                int completed = columns.completed < 0 ? 0 : parser.completed(columns.completed);
+                if (priority == INVALID) {
+                    chunk.errors.add(new BulkAddReport.RowError(row,
+                            "Invalid priority: " + parser.text(columns.priority) + "."));
+                } else if (completed == INVALID) {
+                    chunk.errors.add(new BulkAddReport.RowError(row,
+                            "Invalid completion status: " + parser.text(columns.completed) + "."));
+                } else {
+                    chunk.add(row, parser.text(columns.title), parser.text(columns.description), priority | completed);
+                }
+            }
+            start = end;
+        }
+        return chunk;
+    }
+
+    /**
+     * Finds where the record starting at {@code start} ends.
+     * @return The index just past its line feed, or {@code limit}.
+     */
+    private static int recordEnd(byte[] data, int start, int limit, Format format) {
+        boolean quoted = false;
+        for (int i = start; i < limit; i++) {
+            byte b = data[i];
+            if (b == '"' && format == Format.CSV) {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * The positions of the columns this codec reads, or -1 for a column the file does not have.
+     */
+    private record Columns(int count, int title, int description, int priority, int completed) {
+        static Columns of(List<String> header, Path file) throws IOException {
+            List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            Columns columns = new Columns(names.size(), names.indexOf("title"), names.indexOf("description"),
+                    names.indexOf("priority"), names.indexOf("completed"));
+            if (columns.title < 0 || columns.description < 0) {
+                throw new IOException(file + " has no title and description columns in its header.");
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * The rows of one chunk, kept as plain arrays until the tasks are created in file order.
+     */
+    private static final class Chunk {
+        final String[] titles;
+        final String[] descriptions;
+        final byte[] flags;
+        final int[] rows;
+        final List<BulkAddReport.RowError> errors = new ArrayList<>();
+        int count;
+
+        Chunk(int capacity) {
+            titles = new String[capacity];
+            descriptions = new String[capacity];
+            flags = new byte[capacity];
+            rows = new int[capacity];
+        }
+
+        void add(int row, String title, String description, int flags) {
+            titles[count] = title;
+            descriptions[count] = description;
+            this.flags[count] = (byte) flags;
+            rows[count++] = row;
+        }
+    }
+
+    /**
+     * Cuts the input into chunks that end on a record boundary, keeping the unfinished record
+     * at the end of each read for the next chunk. A line feed inside a quoted CSV field is not a
+     * boundary, so the quote state is carried from one read to the next.
+     */
+    private static final class Splitter {
+        private final Format format;
+        private byte[] pending = new byte[0];
+        private boolean quoted;
+        /** The length of the chunk returned last. */
+        int lastLength;
+        /** The records in the chunk returned last. */
+        int lastRecords;
+
+        Splitter(Format format) {
+            this.format = format;
+        }
+
+        /**
+         * Adds a read to the unfinished record and returns the data holding the complete records,
+         * if any; they are its first {@link #lastLength} bytes.
+         */
+        byte[] cut(ByteBuffer read) {
+            int scanned = pending.length;
+            byte[] data = Arrays.copyOf(pending, pending.length + read.remaining());
+            read.get(data, scanned, read.remaining());
+            int boundary = 0;
+            int records = 0;
+            boolean csv = format == Format.CSV;
+            for (int i = scanned; i < data.length; i++) {
+                byte b = data[i];
+                if (b == '"' && csv) {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    boundary = i + 1;
+                    records++;
+                }
+            }
+            if (boundary == 0) {
+                pending = data;
+                return null;
+            }
+            pending = Arrays.copyOfRange(data, boundary, data.length);
+            lastLength = boundary;
+            lastRecords = records;
+            return data;
+        }
+
+        /**
+         * Returns what is left at the end of the input, a last record without a line feed.
+         */
+        byte[] rest() {
+            if (pending.length == 0) {
+                return null;
+            }
+            lastLength = pending.length;
+            lastRecords = 1;
+            return pending;
+        }
+    }
+
+    /**
+     * Splits a record into fields and decodes them, reusing its arrays from record to record.
+     */
+    private static final class RecordParser {
+        private final byte[] data;
+        private final Format format;
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private boolean[] escaped = new boolean[8];
+        private byte[] scratch = new byte[256];
+
+        RecordParser(byte[] data, Format format) {
+            this.data = data;
+            this.format = format;
+        }
+
+        /**
+         * Splits the record in {@code [start, end)}.
+         * @return The number of fields.
+         */
+        int split(int start, int end) {
+            if (end > start && data[end - 1] == '\n') {
+                end--;
+            }
+            if (end > start && data[end - 1] == '\r') {
+                end--;
+            }
+            int field = 0;
+            int i = start;
+            while (true) {
+                if (field == starts.length) {
+                    starts = Arrays.copyOf(starts, field * 2);
+                    ends = Arrays.copyOf(ends, field * 2);
+                    escaped = Arrays.copyOf(escaped, field * 2);
+                }
+                boolean hasEscapes = false;
+                if (format == Format.CSV && i < end && data[i] == '"') {
+                    starts[field] = ++i;
+                    while (i < end) {
+                        if (data[i] == '"') {
+                            if (i + 1 < end && data[i + 1] == '"') {
+                                hasEscapes = true;
+                                i += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        i++;
+                    }
+                    ends[field] = i;
+                    // skip the closing quote and anything up to the delimiter
+                    while (i < end && data[i] != format.delimiter) {
+                        i++;
+                    }
+                } else {
+                    starts[field] = i;
+                    while (i < end && data[i] != format.delimiter) {
+                        hasEscapes |= data[i] == '\\' && format == Format.TSV;
+                        i++;
+                    }
+                    ends[field] = i;
+                }
+                escaped[field++] = hasEscapes;
+                if (i >= end) {
+                    return field;
+                }
+                i++; // the delimiter
+            }
+        }
+
+        List<String> fields(int start, int end) {
+            int count = split(start, end);
+            List<String> fields = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                fields.add(text(i));
+            }
+            return fields;
+        }
+
+        boolean isBlank(int field) {
+            for (int i = starts[field]; i < ends[field]; i++) {
+                if (data[i] != ' ' && data[i] != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String text(int field) {
+            int start = starts[field];
+            int length = ends[field] - start;
+            if (!escaped[field]) {
+                return new String(data, start, length, StandardCharsets.UTF_8);
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            int n = 0;
+            for (int i = start; i < ends[field]; i++) {
+                byte b = data[i];
+                if (format == Format.CSV) {
+                    if (b == '"') {
+                        i++; // the second quote of a doubled pair
+                    }
+                } else if (b == '\\' && i + 1 < ends[field]) {
+                    b = switch (data[++i]) {
+                        case 't' -> '\t';
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        default -> data[i];
+                    };
+                }
+                scratch[n++] = b;
+            }
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return The priority ordinal, or {@link #INVALID}.
+         */
+        int priority(int field) {
+            int start = skipSpaces(starts[field], ends[field]);
+            int end = trimSpaces(start, ends[field]);
+            if (start == end) {
+                return Priority.MEDIUM.ordinal();
+            }
+            for (int p = 0; p < PRIORITY_NAMES.length; p++) {
+                if (equalsIgnoreCase(PRIORITY_NAMES[p], start, end)) {
+                    return p;
+                }
+            }
+            return INVALID;
+        }
+
+        /**
+         * @return {@link #COMPLETED}, 0, or {@link #INVALID}.
+         */
+        int completed(int field) {
+            int start = skipSpaces(starts[field], ends[field]);
+            int end = trimSpaces(start, ends[field]);
+            if (start == end) {
+                return 0;
+            }
+            int first = data[start] | 0x20;
+            if (end - start == 1) {
+                return first == '1' ? COMPLETED : first == '0' ? 0 : INVALID;
+            }
+            if (equalsIgnoreCase(TRUE, start, end) || equalsIgnoreCase(YES, start, end)) {
+                return COMPLETED;
+            }
+            if (equalsIgnoreCase(FALSE, start, end) || equalsIgnoreCase(NO, start, end)) {
+                return 0;
+            }
+            return INVALID;
+        }
+
+        private boolean equalsIgnoreCase(byte[] word, int start, int end) {
+            if (end - start != word.length) {
+                return false;
+            }
+            for (int i = 0; i < word.length; i++) {
+                if ((data[start + i] | 0x20) != (word[i] | 0x20)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int skipSpaces(int start, int end) {
+            while (start < end && data[start] == ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        private int trimSpaces(int start, int end) {
+            while (end > start && data[end - 1] == ' ') {
+                end--;
+            }
+            return end;
+        }
+    }
+
+    /**
+     * Encodes fields straight into a direct buffer and writes it to the channel whenever it fills up.
+     */
+    private static final class Output {
+        /** The most bytes one character takes: a surrogate pair is written as four bytes of UTF-8. */
+        private static final int MAX_CHAR_BYTES = 4;
+
+        private final FileChannel channel;
+        private final Format format;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+
+        Output(FileChannel channel, Format format) {
+            this.channel = channel;
+            this.format = format;
+        }
+
+        void put(byte b) throws IOException {
+            room(1).put(b);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            room(bytes.length).put(bytes);
+        }
+
+        void putLong(long value) throws IOException {
+            room(20);
+            if (value < 0) {
+                buffer.put((byte) '-');
+                value = -value;
+            }
+            long divisor = 1;
+            while (divisor <= value / 10) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                buffer.put((byte) ('0' + value / divisor % 10));
+            }
+        }
+
+        /**
+         * Writes a field, quoting or escaping it as the format requires, and encodes it as UTF-8.
+         */
+        void putText(String text) throws IOException {
+            boolean csv = format == Format.CSV;
+            boolean quote = csv && needsQuotes(text);
+            if (quote) {
+                put((byte) '"');
+            }
+            int length = text.length();
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                room(MAX_CHAR_BYTES);
+                if (c < 0x80) {
+                    if (csv) {
+                        if (c == '"') {
+                            buffer.put((byte) '"');
+                        }
+                        buffer.put((byte) c);
+                    } else {
+                        putTsvAscii(c);
+                    }
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | c >> 6));
+                    buffer.put((byte) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer.put((byte) (0xF0 | codePoint >> 18));
+                    buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                    buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                    buffer.put((byte) (0x80 | codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer.put((byte) '?'); // an unpaired surrogate has no UTF-8 form
+                } else {
+                    buffer.put((byte) (0xE0 | c >> 12));
+                    buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                    buffer.put((byte) (0x80 | c & 0x3F));
+                }
+            }
+            if (quote) {
+                put((byte) '"');
+            }
+        }
+
+        private void putTsvAscii(char c) {
+            switch (c) {
+                case '\t' -> buffer.put((byte) '\\').put((byte) 't');
+                case '\n' -> buffer.put((byte) '\\').put((byte) 'n');
+                case '\r' -> buffer.put((byte) '\\').put((byte) 'r');
+                case '\\' -> buffer.put((byte) '\\').put((byte) '\\');
+                default -> buffer.put((byte) c);
+            }
+        }
+
+        private static boolean needsQuotes(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private ByteBuffer room(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.task.Priority;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only write-ahead log of {@link TaskMutation}s for a single profile.
+ * <p>Each mutation is stored as a compact binary record carrying a sequence number
+ * that grows by one for every record ever written. Records are framed as
+ * {@code [int length][long sequence][byte type][fields...][int crc32]}, so a record
+ * torn by a crash is detected and dropped on the next start. Edit, insert and replace records
+ * end with the task's due date in epoch milliseconds only if it has one, so logs written
+ * before tasks had due dates read unchanged.</p>
+ * <p>The log is split into segment files named {@code <profile>.wal.<first sequence>}.
+ * Compaction rolls over to a fresh segment, saves a snapshot that covers everything
+ * before it, and then deletes the older segments. Because the snapshot remembers the
+ * last sequence it contains, records are never applied twice, even if the process dies
+ * between saving the snapshot and deleting the old segments.</p>
+ * <p>How often the log is forced to disk is controlled by a {@link SyncPolicy}. With
+ * group commit, {@link #append(TaskMutation)} returns once the record is handed to the
+ * operating system, and the file is forced after a number of records or a short delay,
+ * whichever comes first.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TaskLog implements Closeable {
+
+    /**
+     * Controls when appended records are forced to stable storage.
+     * @param maxBatch The number of records after which the log is forced. A value of 1 forces every record.
+     * @param maxDelay The longest time an appended record may wait before being forced,
+     *                 or {@code null} to only force on batch size, roll-over and close.
+     */
+    public record SyncPolicy(int maxBatch, Duration maxDelay) {
+
+        /**
+         * Forces the log after every single record.
+         */
+        public static final SyncPolicy EVERY_RECORD = new SyncPolicy(1, null);
+
+        /**
+         * Forces the log after 64 records or 20 milliseconds, whichever comes first.
+         */
+        public static final SyncPolicy DEFAULT = new SyncPolicy(64, Duration.ofMillis(20));
+
+        /**
+         * Validates the policy.
+         */
+        public SyncPolicy {
+            if (maxBatch < 1) {
+                throw new IllegalArgumentException("Sync batch size must be at least 1.");
+            }
+        }
+
+        /**
+         * Creates a group-commit policy.
+         * @param maxBatch The number of records after which the log is forced.
+         * @param maxDelay The longest time a record may wait before being forced.
+         * @return The new policy.
+         */
+        public static SyncPolicy groupCommit(int maxBatch, Duration maxDelay) {
+            return new SyncPolicy(maxBatch, maxDelay);
+        }
+    }
+
+    private static final String SEGMENT_INFIX = ".wal.";
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte COMPLETE = 3;
+    private static final byte CHANGE_PRIORITY = 4;
+    private static final byte EDIT = 5;
+    private static final byte CLEAR = 6;
+    private static final byte INSERT = 7;
+    private static final byte REPLACE = 8;
+    private static final byte SET_DUE_DATE = 9;
+    private static final byte UPDATE = 10;
+
+    /**
+     * The priority of a {@link TaskMutation.UpdateTask} that keeps the current one.
+     */
+    private static final byte KEEP_PRIORITY = -1;
+
+    /**
+     * The due date of a {@link TaskMutation.SetDueDate} that removes it.
+     */
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    /**
+     * Shared daemon thread that forces logs whose group-commit delay has expired.
+     */
+    private static final ScheduledExecutorService SYNCER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "task-log-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path directory;
+    private final String stem;
+    private final SyncPolicy syncPolicy;
+    private final List<Long> segmentStarts = new ArrayList<>();
+
+    private FileChannel active;
+
+    /**
+     * Where the active segment has to be cut off before anything else is written to it, because a
+     * failed write left part of a record there, or -1 if it ends in a whole record.
+     */
+    private long tornAt = -1;
+    private long nextSequence;
+    private long sizeInBytes;
+    private int unsyncedRecords;
+    private ScheduledFuture<?> pendingSync;
+    private ByteBuffer buffer = ByteBuffer.allocate(256);
+    private ByteBuffer batchBuffer = ByteBuffer.allocate(4096);
+
+    /**
+     * Opens the log of a profile, recovering from a torn final record if necessary.
+     * @param directory The data directory holding the log segments.
+     * @param stem The file stem of the profile, as used by {@link ProfileStore}.
+     * @param firstSequence The lowest sequence number the next record may use. This keeps
+     *                      numbering ahead of the snapshot after all segments were deleted.
+     * @param syncPolicy When to force appended records to disk.
+     * @throws IOException if the segments cannot be read or repaired.
+     */
+    public TaskLog(Path directory, String stem, long firstSequence, SyncPolicy syncPolicy) throws IOException {
+        this.directory = directory;
+        this.stem = stem;
+        this.syncPolicy = syncPolicy;
+        this.segmentStarts.addAll(listSegmentStarts(directory, stem));
+        this.nextSequence = Math.max(firstSequence, 1);
+
+        for (long start : segmentStarts) {
+            sizeInBytes += Files.size(segment(start));
+        }
+        if (!segmentStarts.isEmpty()) {
+            long lastStart = segmentStarts.get(segmentStarts.size() - 1);
+            long last = recoverTail(segment(lastStart));
+            nextSequence = Math.max(nextSequence, Math.max(last + 1, lastStart));
+        }
+    }
+
+    /**
+     * Appends a mutation to the log and assigns it the next sequence number.
+     * @param mutation The mutation to record.
+     * @return The sequence number of the new record.
+     * @throws UncheckedIOException if the record cannot be written.
+     */
+    public synchronized long append(TaskMutation mutation) {
+        long sequence = nextSequence;
+        try {
+            if (active == null) {
+                openSegment(sequence);
+            }
+            writeRecords(encode(sequence, mutation), sequence + 1, 1);
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the task log", e);
+        }
+    }
+
+    /**
+     * Appends several mutations with a single write, assigning them consecutive sequence numbers.
+     * The sync policy counts every record, so a batch at least as large as the policy's batch size
+     * is forced to disk once, right after it is written.
+     * @param mutations The mutations to record, in order.
+     * @return The sequence number of the last new record, or of the last existing record if
+     *         {@code mutations} is empty.
+     * @throws UncheckedIOException if the records cannot be written.
+     */
+    public synchronized long appendAll(List<TaskMutation> mutations) {
+        if (mutations.isEmpty()) {
+            return nextSequence - 1;
+        }
+        long sequence = nextSequence;
+        try {
+            if (active == null) {
+                openSegment(sequence);
+            }
+            batchBuffer.clear();
+            for (TaskMutation mutation : mutations) {
+                ByteBuffer record = encode(sequence++, mutation);
+                if (batchBuffer.remaining() < record.remaining()) {
+                    ByteBuffer grown = ByteBuffer.allocate(Math.max(batchBuffer.capacity() * 2,
+                            batchBuffer.position() + record.remaining()));
+                    batchBuffer = grown.put(batchBuffer.flip());
+                }
+                batchBuffer.put(record);
+            }
+            writeRecords(batchBuffer.flip(), sequence, mutations.size());
+            return sequence - 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the task log", e);
+        }
+    }
+
+    /**
+     * Forces every appended record to stable storage.
+     * @throws IOException if the file cannot be forced.
+     */
+    public synchronized void sync() throws IOException {
+        if (pendingSync != null) {
+            pendingSync.cancel(false);
+            pendingSync = null;
+        }
+        if (active != null && unsyncedRecords > 0) {
+            active.force(false);
+        }
+        unsyncedRecords = 0;
+    }
+
+    /**
+     * Finishes the current segment. The next record starts a new segment file.
+     * @throws IOException if the current segment cannot be forced or closed.
+     */
+    public synchronized void roll() throws IOException {
+        sync();
+        if (active != null) {
+            cutOffTornTail();
+            active.close();
+            active = null;
+        }
+    }
+
+    /**
+     * Deletes every finished segment whose records all have a sequence number of at most {@code sequence}.
+     * @param sequence The highest sequence number already covered by a snapshot.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    public synchronized void deleteSegmentsUpTo(long sequence) throws IOException {
+        while (segmentStarts.size() > 1 || (segmentStarts.size() == 1 && active == null)) {
+            long start = segmentStarts.get(0);
+            long end = segmentStarts.size() > 1 ? segmentStarts.get(1) - 1 : nextSequence - 1;
+            if (end > sequence) {
+                break;
+            }
+            Path file = segment(start);
+            sizeInBytes -= Files.size(file);
+            Files.delete(file);
+            segmentStarts.remove(0);
+        }
+    }
+
+    /**
+     * Reads every valid record with a sequence number above {@code afterSequence}, oldest first.
+     * A torn or corrupt record ends the replay. Only the last segment may end in one, as a crash
+     * leaves it there; anywhere else the records after it would be applied without the change it
+     * held, so the log is reported as damaged instead.
+     * @param afterSequence Records up to and including this sequence number are skipped.
+     * @param consumer Receives each mutation in order.
+     * @return The number of mutations passed to the consumer.
+     * @throws IOException if a segment cannot be read, or a segment other than the last is damaged.
+     */
+    public synchronized int replay(long afterSequence, Consumer<TaskMutation> consumer) throws IOException {
+        int count = 0;
+        for (int i = 0; i < segmentStarts.size(); i++) {
+            long start = segmentStarts.get(i);
+            boolean last = i + 1 == segmentStarts.size();
+            if (!last && segmentStarts.get(i + 1) - 1 <= afterSequence) {
+                continue;
+            }
+            Path file = segment(start);
+            long validLength = 0;
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                byte[] body;
+                while ((body = readRecord(in)) != null) {
+                    validLength += body.length + 2L * Integer.BYTES;
+                    ByteBuffer record = ByteBuffer.wrap(body);
+                    long sequence = record.getLong();
+                    if (sequence > afterSequence) {
+                        consumer.accept(decode(record));
+                        count++;
+                    }
+                }
+            }
+            if (validLength < Files.size(file)) {
+                if (!last) {
+                    throw new IOException("Task log segment " + file.getFileName()
+                            + " is damaged at byte " + validLength + " and is not the last segment");
+                }
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the sequence number of the most recently appended record.
+     * @return The last sequence number, or one less than the first sequence if nothing was written.
+     */
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Retrieves the combined size of all live segments.
+     * @return The size of the log in bytes.
+     */
+    public synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Forces and closes the log.
+     * @throws IOException if the active segment cannot be forced or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        roll();
+    }
+
+    /**
+     * Deletes every log segment of a profile.
+     * @param directory The data directory.
+     * @param stem The file stem of the profile.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    static void deleteAll(Path directory, String stem) throws IOException {
+        for (long start : listSegmentStarts(directory, stem)) {
+            Files.deleteIfExists(directory.resolve(stem + SEGMENT_INFIX + start));
+        }
+    }
+
+    private static List<Long> listSegmentStarts(Path directory, String stem) throws IOException {
+        List<Long> starts = new ArrayList<>();
+        String prefix = stem + SEGMENT_INFIX;
+        try (var files = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    starts.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    /**
+     * Writes encoded records to the active segment and applies the sync policy. If that fails, the
+     * segment is cut back to where it ended before, so the records count as not written at all and
+     * can be appended again: left in place, a torn record would end the replay in front of them.
+     */
+    private void writeRecords(ByteBuffer records, long sequenceAfter, int count) throws IOException {
+        cutOffTornTail();
+        long start = active.size();
+        long sequenceBefore = nextSequence;
+        long sizeBefore = sizeInBytes;
+        int unsyncedBefore = unsyncedRecords;
+        try {
+            int length = records.remaining();
+            while (records.hasRemaining()) {
+                active.write(records);
+            }
+            nextSequence = sequenceAfter;
+            sizeInBytes += length;
+            recordsWritten(count);
+        } catch (IOException e) {
+            nextSequence = sequenceBefore;
+            sizeInBytes = sizeBefore;
+            unsyncedRecords = unsyncedBefore;
+            tornAt = start;
+            try {
+                cutOffTornTail();
+            } catch (IOException truncateFailure) {
+                // tried again before the next write, which fails if the segment still cannot be cut
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+    }
+
+    private void cutOffTornTail() throws IOException {
+        if (tornAt >= 0) {
+            active.truncate(tornAt);
+            tornAt = -1;
+        }
+    }
+
+    /**
+     * Applies the sync policy after records were written.
+     */
+    private void recordsWritten(int count) throws IOException {
+        unsyncedRecords += count;
+        if (unsyncedRecords >= syncPolicy.maxBatch()) {
+            sync();
+        } else if (syncPolicy.maxDelay() != null && pendingSync == null) {
+            pendingSync = SYNCER.schedule(this::syncQuietly, syncPolicy.maxDelay().toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            synchronized (this) {
+                pendingSync = null;
+                sync();
+            }
+        } catch (IOException e) {
+            // the next append or roll-over reports the failure
+        }
+    }
+
+    private Path segment(long start) {
+        return directory.resolve(stem + SEGMENT_INFIX + start);
+    }
+
+    private void openSegment(long start) throws IOException {
+        active = openChannel(segment(start));
+        if (segmentStarts.isEmpty() || segmentStarts.get(segmentStarts.size() - 1) != start) {
+            segmentStarts.add(start);
+        }
+    }
+
+    /**
+     * Opens a segment file for appending. Tests override this to make writes fail.
+     * @param file The segment file.
+     * @return The channel to append to.
+     * @throws IOException if the file cannot be opened.
+     */
+    FileChannel openChannel(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Scans a segment, cuts off anything after the last valid record, and returns its sequence number.
+     */
+    private long recoverTail(Path file) throws IOException {
+        long lastSequence = 0;
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            byte[] body;
+            while ((body = readRecord(in)) != null) {
+                lastSequence = ByteBuffer.wrap(body).getLong();
+                validLength += body.length + 2L * Integer.BYTES;
+            }
+        }
+        long actualLength = Files.size(file);
+        if (validLength < actualLength) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+            sizeInBytes -= actualLength - validLength;
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Reads one framed record and verifies its checksum.
+     * @return The record body, or {@code null} at the end of the file or at a damaged record.
+     */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length < Long.BYTES + 1 || length > (1 << 28)) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            int checksum = in.readInt();
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            return (int) crc.getValue() == checksum ? body : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private ByteBuffer encode(long sequence, TaskMutation mutation) {
+        byte[] first = null;
+        byte[] second = null;
+        int fields;
+        switch (mutation) {
+            case TaskMutation.AddTask add -> {
+                first = utf8(add.title());
+                second = utf8(add.description());
+                fields = Long.BYTES + 2 * Integer.BYTES + length(first) + length(second) + 1;
+            }
+            case TaskMutation.EditTask edit -> {
+                first = utf8(edit.title());
+                second = utf8(edit.description());
+                fields = Long.BYTES + 2 * Integer.BYTES + length(first) + length(second)
+                        + dueDateLength(edit.dueDate());
+            }
+            case TaskMutation.UpdateTask update -> {
+                first = utf8(update.title());
+                second = utf8(update.description());
+                fields = Long.BYTES + 2 * Integer.BYTES + length(first) + length(second) + 2;
+            }
+            case TaskMutation.SetDueDate ignored -> fields = 2 * Long.BYTES;
+            case TaskMutation.ChangePriority ignored -> fields = Long.BYTES + 1;
+            case TaskMutation.RemoveTask ignored -> fields = Long.BYTES;
+            case TaskMutation.CompleteTask ignored -> fields = Long.BYTES;
+            case TaskMutation.ClearTasks ignored -> fields = 0;
+            case TaskMutation.InsertTask insert -> {
+                first = utf8(insert.title());
+                second = utf8(insert.description());
+                fields = Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + length(first) + length(second) + 2
+                        + dueDateLength(insert.dueDate());
+            }
+            case TaskMutation.ReplaceTask replace -> {
+                first = utf8(replace.title());
+                second = utf8(replace.description());
+                fields = Long.BYTES + 2 * Integer.BYTES + length(first) + length(second) + 2
+                        + dueDateLength(replace.dueDate());
+            }
+        }
+
+        int bodyLength = Long.BYTES + 1 + fields;
+        int total = Integer.BYTES + bodyLength + Integer.BYTES;
+        if (buffer.capacity() < total) {
+            buffer = ByteBuffer.allocate(Math.max(total, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.putInt(bodyLength);
+        int bodyStart = buffer.position();
+        buffer.putLong(sequence);
+        switch (mutation) {
+            case TaskMutation.AddTask add -> {
+                buffer.put(ADD).putLong(add.taskId());
+                putString(first);
+                putString(second);
+                buffer.put((byte) add.priority().ordinal());
+            }
+            case TaskMutation.RemoveTask remove -> buffer.put(REMOVE).putLong(remove.taskId());
+            case TaskMutation.CompleteTask complete -> buffer.put(COMPLETE).putLong(complete.taskId());
+            case TaskMutation.ChangePriority change ->
+                    buffer.put(CHANGE_PRIORITY).putLong(change.taskId()).put((byte) change.priority().ordinal());
+            case TaskMutation.EditTask edit -> {
+                buffer.put(EDIT).putLong(edit.taskId());
+                putString(first);
+                putString(second);
+                putDueDate(edit.dueDate());
+            }
+            case TaskMutation.UpdateTask update -> {
+                buffer.put(UPDATE).putLong(update.taskId());
+                putString(first);
+                putString(second);
+                buffer.put(update.priority() == null ? KEEP_PRIORITY : (byte) update.priority().ordinal())
+                        .put((byte) (update.complete() ? 1 : 0));
+            }
+            case TaskMutation.SetDueDate set -> buffer.put(SET_DUE_DATE).putLong(set.taskId())
+                    .putLong(set.dueDate() == null ? NO_DUE_DATE : set.dueDate().toEpochMilli());
+            case TaskMutation.ClearTasks ignored -> buffer.put(CLEAR);
+            case TaskMutation.InsertTask insert -> {
+                buffer.put(INSERT).putInt(insert.index()).putLong(insert.taskId());
+                putString(first);
+                putString(second);
+                buffer.put((byte) insert.priority().ordinal()).put((byte) (insert.completed() ? 1 : 0));
+                putDueDate(insert.dueDate());
+            }
+            case TaskMutation.ReplaceTask replace -> {
+                buffer.put(REPLACE).putLong(replace.taskId());
+                putString(first);
+                putString(second);
+                buffer.put((byte) replace.priority().ordinal()).put((byte) (replace.completed() ? 1 : 0));
+                putDueDate(replace.dueDate());
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), bodyStart, bodyLength);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static TaskMutation decode(ByteBuffer record) throws IOException {
+        byte type = record.get();
+        return switch (type) {
+            case ADD -> new TaskMutation.AddTask(record.getLong(), getString(record), getString(record), Priority.values()[record.get()]);
+            case REMOVE -> new TaskMutation.RemoveTask(record.getLong());
+            case COMPLETE -> new TaskMutation.CompleteTask(record.getLong());
+            case CHANGE_PRIORITY -> new TaskMutation.ChangePriority(record.getLong(), Priority.values()[record.get()]);
+            case EDIT -> new TaskMutation.EditTask(record.getLong(), getString(record), getString(record),
+                    getDueDate(record));
+            case UPDATE -> {
+                long taskId = record.getLong();
+                String title = getString(record);
+                String description = getString(record);
+                byte priority = record.get();
+                yield new TaskMutation.UpdateTask(taskId, title, description,
+                        priority == KEEP_PRIORITY ? null : Priority.values()[priority], record.get() != 0);
+            }
+            case SET_DUE_DATE -> {
+                long taskId = record.getLong();
+                long due = record.getLong();
+                yield new TaskMutation.SetDueDate(taskId, due == NO_DUE_DATE ? null : Instant.ofEpochMilli(due));
+            }
+            case CLEAR -> new TaskMutation.ClearTasks();
+            case INSERT -> new TaskMutation.InsertTask(record.getInt(), record.getLong(), getString(record),
+                    getString(record), Priority.values()[record.get()], record.get() != 0, getDueDate(record));
+            case REPLACE -> new TaskMutation.ReplaceTask(record.getLong(), getString(record), getString(record),
+                    Priority.values()[record.get()], record.get() != 0, getDueDate(record));
+            default -> throw new IOException("Unknown task log record type: " + type);
+        };
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private void putString(byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static int dueDateLength(Instant dueDate) {
+        return dueDate == null ? 0 : Long.BYTES;
+    }
+
+    private void putDueDate(Instant dueDate) {
+        if (dueDate != null) {
+            buffer.putLong(dueDate.toEpochMilli());
+        }
+    }
+
+    /**
+     * Reads the due date that ends a record, if it has one.
+     */
+    private static Instant getDueDate(ByteBuffer record) {
+        return record.remaining() >= Long.BYTES ? Instant.ofEpochMilli(record.getLong()) : null;
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(record.array(), record.arrayOffset() + record.position(), length, StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return value;
+    }
+}
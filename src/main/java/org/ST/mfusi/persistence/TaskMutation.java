@@ -0,0 +1,239 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.TaskEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single change to a profile's to-do list, as recorded in the {@link TaskLog}.
+ * <p>Every mutation knows how to apply itself to a {@link Profile}, so the same
+ * object is used both when a change is first made and when it is replayed from
+ * the log after a restart. Mutations address tasks by id rather than by position,
+ * and new tasks carry the id they were given, so replaying a log always touches
+ * the same tasks as the original calls did.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public sealed interface TaskMutation {
+
+    /**
+     * Applies this mutation to the given profile.
+     * @param profile The profile to change.
+     * @return {@code true} if the profile was changed, {@code false} if the mutation did not apply
+     *         (for example because no task has the given id).
+     * @throws IllegalArgumentException if the mutation carries invalid task data.
+     */
+    boolean applyTo(Profile profile);
+
+    /**
+     * Describes a change reported by a to-do list as mutations that make the same change when
+     * replayed, for example the events of an undo. Positions and completion status are kept.
+     * @param event The change to describe.
+     * @return The mutations, in the order they have to be applied.
+     */
+    static List<TaskMutation> of(TaskEvent event) {
+        return switch (event) {
+            case TaskEvent.Added added -> List.of(InsertTask.of(added.index(), added.task()));
+            case TaskEvent.BatchAdded batch -> {
+                List<TaskMutation> inserts = new ArrayList<>(batch.tasks().size());
+                for (int i = 0; i < batch.tasks().size(); i++) {
+                    inserts.add(InsertTask.of(batch.index() + i, batch.tasks().get(i)));
+                }
+                yield inserts;
+            }
+            case TaskEvent.Removed removed -> List.of(new RemoveTask(removed.task().getId()));
+            case TaskEvent.Updated updated -> List.of(ReplaceTask.of(updated.newTask()));
+            case TaskEvent.Cleared ignored -> List.of(new ClearTasks());
+        };
+    }
+
+    /**
+     * Adds a new task.
+     * @param taskId The id given to the new task.
+     * @param title The title of the task.
+     * @param description The description of the task.
+     * @param priority The priority of the task.
+     */
+    record AddTask(long taskId, String title, String description, Priority priority) implements TaskMutation {
+
+        /**
+         * Creates a mutation that adds a task under a freshly reserved id.
+         * @param title The title of the task.
+         * @param description The description of the task.
+         * @param priority The priority of the task.
+         */
+        public AddTask(String title, String description, Priority priority) {
+            this(Task.nextId(), title, description, priority);
+        }
+
+        @Override
+        public boolean applyTo(Profile profile) {
+            profile.addTask(new Task(taskId, title, description, priority, false));
+            return true;
+        }
+    }
+
+    /**
+     * Removes a task.
+     * @param taskId The id of the task.
+     */
+    record RemoveTask(long taskId) implements TaskMutation {
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().removeTaskById(taskId);
+        }
+    }
+
+    /**
+     * Marks a task as complete.
+     * @param taskId The id of the task.
+     */
+    record CompleteTask(long taskId) implements TaskMutation {
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().markTaskComplete(taskId);
+        }
+    }
+
+    /**
+     * Changes the priority of a task.
+     * @param taskId The id of the task.
+     * @param priority The new priority.
+     */
+    record ChangePriority(long taskId, Priority priority) implements TaskMutation {
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().changeTaskPriority(taskId, priority);
+        }
+    }
+
+    /**
+     * Edits the title, description and/or due date of a task.
+     * @param taskId The id of the task.
+     * @param title The new title, or a blank value to keep the current one.
+     * @param description The new description, or a blank value to keep the current one.
+     * @param dueDate The new due date, or {@code null} to keep the current one.
+     */
+    record EditTask(long taskId, String title, String description, Instant dueDate) implements TaskMutation {
+
+        /**
+         * Creates a mutation that edits the title and/or description and keeps the due date.
+         * @param taskId The id of the task.
+         * @param title The new title, or a blank value to keep the current one.
+         * @param description The new description, or a blank value to keep the current one.
+         */
+        public EditTask(long taskId, String title, String description) {
+            this(taskId, title, description, null);
+        }
+
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().editTask(taskId, title, description, dueDate);
+        }
+    }
+
+    /**
+     * Edits the title, description and priority of a task and optionally completes it, as one change.
+     * @param taskId The id of the task.
+     * @param title The new title, or a blank value to keep the current one.
+     * @param description The new description, or a blank value to keep the current one.
+     * @param priority The new priority, or {@code null} to keep the current one.
+     * @param complete Whether to mark the task as completed.
+     */
+    record UpdateTask(long taskId, String title, String description, Priority priority,
+                      boolean complete) implements TaskMutation {
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().updateTask(taskId, title, description, priority, complete);
+        }
+    }
+
+    /**
+     * Sets or removes the due date of a task.
+     * @param taskId The id of the task.
+     * @param dueDate The new due date, or {@code null} to remove it.
+     */
+    record SetDueDate(long taskId, Instant dueDate) implements TaskMutation {
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().setDueDate(taskId, dueDate);
+        }
+    }
+
+    /**
+     * Puts a task with a known id, completion status and due date at a position in the list.
+     * @param index The 0-based position of the task.
+     * @param taskId The id of the task.
+     * @param title The title of the task.
+     * @param description The description of the task.
+     * @param priority The priority of the task.
+     * @param completed Whether the task is completed.
+     * @param dueDate When the task is due, or {@code null} for none.
+     */
+    record InsertTask(int index, long taskId, String title, String description, Priority priority,
+                      boolean completed, Instant dueDate) implements TaskMutation {
+
+        /**
+         * Creates a mutation that puts the given task back at a position.
+         * @param index The 0-based position of the task.
+         * @param task The task.
+         * @return The mutation.
+         */
+        public static InsertTask of(int index, Task task) {
+            return new InsertTask(index, task.getId(), task.getTitle(), task.getDescription(),
+                    task.getPriority(), task.isCompleted(), task.getDueDate());
+        }
+
+        @Override
+        public boolean applyTo(Profile profile) {
+            profile.getToDoList().insertTask(index, new Task(taskId, title, description, priority, completed, dueDate));
+            return true;
+        }
+    }
+
+    /**
+     * Replaces every field of a task, including its completion status and due date.
+     * @param taskId The id of the task.
+     * @param title The new title.
+     * @param description The new description.
+     * @param priority The new priority.
+     * @param completed Whether the task is completed.
+     * @param dueDate When the task is due, or {@code null} for none.
+     */
+    record ReplaceTask(long taskId, String title, String description, Priority priority,
+                       boolean completed, Instant dueDate) implements TaskMutation {
+
+        /**
+         * Creates a mutation that gives a task all fields of the given copy.
+         * @param task The updated task.
+         * @return The mutation.
+         */
+        public static ReplaceTask of(Task task) {
+            return new ReplaceTask(task.getId(), task.getTitle(), task.getDescription(),
+                    task.getPriority(), task.isCompleted(), task.getDueDate());
+        }
+
+        @Override
+        public boolean applyTo(Profile profile) {
+            return profile.getToDoList().replaceTask(
+                    new Task(taskId, title, description, priority, completed, dueDate));
+        }
+    }
+
+    /**
+     * Removes every task from the list.
+     */
+    record ClearTasks() implements TaskMutation {
+        @Override
+        public boolean applyTo(Profile profile) {
+            profile.clearTasks();
+            return true;
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package org.ST.mfusi.profile;
 
 import lombok.Getter;
+import org.ST.mfusi.todolist.BulkAddReport;
+import org.ST.mfusi.todolist.TaskEventPublisher;
 import org.ST.mfusi.todolist.ToDoList;
 import org.ST.mfusi.task.Priority;
 import org.ST.mfusi.task.Task;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Manages a user's profile, including their name, email, and personal to-do list.
@@ -52,6 +58,18 @@ public class Profile {
         this.toDoList = new ToDoList();
     }
 
+    /**
+     * Constructs a Profile around an existing to-do list, such as one opened from a saved snapshot.
+     * @param name The name for the profile.
+     * @param email The email address for the profile.
+     * @param toDoList The list holding the profile's tasks.
+     */
+    public Profile(String name, String email, ToDoList toDoList) {
+        this.name = name;
+        this.email = email;
+        this.toDoList = Objects.requireNonNull(toDoList, "toDoList");
+    }
+
     /**
      * Updates the name of this profile.
      * @param name The new name to set.
@@ -93,17 +111,40 @@ public class Profile {
     public void addTask(String title, String description, Priority priority) {
         this.toDoList.addTask(title, description, priority);
     }
+
+    /**
+     * Adds an existing task to this profile's to-do list, keeping its completion status.
+     * @param task The task to add.
+     */
+    public void addTask(Task task) {
+        this.toDoList.addTask(task);
+    }
+
+    /**
+     * Adds a batch of existing tasks in one step, see {@link ToDoList#addTasks(Iterable)}.
+     * @param tasks The tasks to add.
+     * @return The added tasks and the rejected rows.
+     */
+    public BulkAddReport addTasks(Iterable<Task> tasks) {
+        return this.toDoList.addTasks(tasks);
+    }
+
+    /**
+     * Adds a stream of existing tasks in one step, see {@link ToDoList#addTasks(Stream)}.
+     * @param tasks The tasks to add.
+     * @return The added tasks and the rejected rows.
+     */
+    public BulkAddReport addTasks(Stream<Task> tasks) {
+        return this.toDoList.addTasks(tasks);
+    }
     /**
      * Removes a task from the list, identified by its number.
      * @param taskNumber The 1-based index of the task to remove.
      * @return true if the task was found and removed, false otherwise.
      */
     public boolean removeTask(int taskNumber) {
-        if (taskNumber > 0 && taskNumber <= toDoList.getTaskCount()) {
-            toDoList.getTaskList().remove(taskNumber - 1);
-            return true;
-        }
-        return false;
+        Task task = taskAt(taskNumber);
+        return task != null && toDoList.removeTaskById(task.getId());
     }
     /**
      * Marks a task in the list as complete, identified by its index (starting from 1).
@@ -111,17 +152,64 @@ public class Profile {
      * @return true if the task was found and marked, false otherwise.
      */
     public boolean markTaskComplete(int taskNumber) {
-        if (taskNumber > 0 && taskNumber <= toDoList.getTaskCount()) {
-            Task task = toDoList.getTaskList().get(taskNumber - 1); // Adjust for 0-based index
-            task.setCompleted(true);
-            return true;
-        }
-        return false;
+        Task task = taskAt(taskNumber);
+        return task != null && toDoList.markTaskComplete(task.getId());
     }
 
     /**
-     * Provides direct access to the list of tasks.
-     * @return a list of {@link Task} objects.
+     * Changes the priority of a task in the list, identified by its index (starting from 1).
+     * @param taskNumber The 1-based index of the task to modify.
+     * @param newPriority The new priority to set for the task.
+     * @return true if the task was found and updated, false otherwise.
+     */
+    public boolean changeTaskPriority(int taskNumber, Priority newPriority) {
+        Task task = taskAt(taskNumber);
+        return task != null && toDoList.changeTaskPriority(task.getId(), newPriority);
+    }
+
+    /**
+     * Edits the title and/or description of a task, identified by its index (starting from 1).
+     * Blank values leave the corresponding field unchanged.
+     * @param taskNumber The 1-based index of the task to edit.
+     * @param newTitle The new title, or a blank value to keep the current one.
+     * @param newDescription The new description, or a blank value to keep the current one.
+     * @return true if the task was found, false otherwise.
+     */
+    public boolean editTask(int taskNumber, String newTitle, String newDescription) {
+        Task task = taskAt(taskNumber);
+        return task != null && toDoList.editTask(task.getId(), newTitle, newDescription);
+    }
+
+    /**
+     * Sets or removes the due date of a task, identified by its index (starting from 1).
+     * @param taskNumber The 1-based index of the task.
+     * @param dueDate The new due date, or {@code null} to remove it.
+     * @return true if the task was found, false otherwise.
+     */
+    public boolean setDueDate(int taskNumber, Instant dueDate) {
+        Task task = taskAt(taskNumber);
+        return task != null && toDoList.setDueDate(task.getId(), dueDate);
+    }
+
+    /**
+     * Provides access to the to-do list itself, for operations that address tasks by id.
+     * @return the {@link ToDoList} of this profile.
+     */
+    public ToDoList getToDoList() {
+        return toDoList;
+    }
+
+    /**
+     * Provides the changes to the profile's tasks as a reactive stream, see {@link ToDoList#changes()}.
+     * @return the publisher of the list's events.
+     */
+    public TaskEventPublisher changes() {
+        return toDoList.changes();
+    }
+
+    /**
+     * Provides read-only access to the list of tasks.
+     * @return an unmodifiable snapshot of the {@link Task} objects.
      */
     public List<Task> getTasks() {
         return this.toDoList.getTaskList();
@@ -138,32 +226,49 @@ public class Profile {
      * @return A user-friendly string representing the to-do list.
      */
     public String getFormattedToDoList() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("--- To-Do List for ").append(this.name).append(" ---\n");
-
-        if (toDoList.isEmpty()) {
-            sb.append("🎉 All tasks are complete, or no tasks have been added yet!\n");
-        } else {
-            List<Task> tasks = toDoList.getTaskList();
-            for (int i = 0; i < tasks.size(); i++) {
-                Task task = tasks.get(i);
-                String statusIcon = task.isCompleted() ? "[x]" : "[ ]";
-                String title = task.getTitle() != null ? task.getTitle() : "Task";
-
-                // Format: 1. [ ] Title: Description (Priority: HIGH)
-                sb.append(String.format("%d. %s %s: %s (Priority: %s)\n",
-                        i + 1, // Use 1-based numbering for the user
-                        statusIcon,
-                        title,
-                        task.getDescription(),
-                        task.getPriority()
-                ));
-            }
+        StringBuilder sb = new StringBuilder(64 + 48 * toDoList.getTaskCount());
+        try {
+            writeFormattedToDoList(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder never throws
         }
-        sb.append("----------------------------\n");
         return sb.toString();
     }
 
+    /**
+     * Writes the formatted to-do list to a destination row by row, without building it in memory first.
+     * @param out Where to write the list, for example a {@link java.io.Writer} on the console.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void writeFormattedToDoList(Appendable out) throws IOException {
+        writeFormattedToDoList(out, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Writes one page of the formatted to-do list. Tasks keep their numbers from the full list.
+     * @param out Where to write the list.
+     * @param offset The 0-based index of the first task to write.
+     * @param limit The maximum number of tasks to write.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void writeFormattedToDoList(Appendable out, int offset, int limit) throws IOException {
+        // render one snapshot, so concurrent changes cannot mix two versions of the list
+        new ToDoListRenderer().render(name, toDoList.getTaskList(), offset, limit, out);
+    }
+
+    /**
+     * Looks up a task by the number shown to the user, in a single snapshot of the list.
+     * @param taskNumber The 1-based index of the task.
+     * @return The task, or {@code null} if the number is out of range.
+     */
+    private Task taskAt(int taskNumber) {
+        List<Task> tasks = toDoList.getTaskList();
+        if (taskNumber > 0 && taskNumber <= tasks.size()) {
+            return tasks.get(taskNumber - 1); // Adjust for 0-based index
+        }
+        return null;
+    }
+
     /**
      * Returns a string representation of the Profile, including its name and email.
      * The to-do list itself is not included in this representation.
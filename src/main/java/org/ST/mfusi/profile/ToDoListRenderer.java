@@ -0,0 +1,125 @@
+package org.ST.mfusi.profile;
+
+import org.ST.mfusi.task.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the console view of a to-do list straight to an {@link Appendable}, one row at a time.
+ * <p>Rows are formatted by hand into a buffer that is reused for every row, instead of
+ * going through {@code String.format}, so rendering does not parse a format string or box
+ * the row number per task, and the full list is never held in memory unless the target is
+ * itself a {@link StringBuilder}. When the target is a {@link Writer}, rows are copied into a
+ * reusable {@code char[]} as well, because {@link Writer#append(CharSequence)} would create a
+ * new {@code String} for every row.</p>
+ * <p>The output has the format of {@link Profile#getFormattedToDoList()}. A renderer keeps
+ * per-instance buffers and must not be shared between threads; instances are cheap.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class ToDoListRenderer {
+
+    /**
+     * The line closing every rendered list.
+     */
+    public static final String FOOTER = "----------------------------\n";
+
+    /**
+     * The line shown instead of rows when the list is empty.
+     */
+    public static final String EMPTY_MESSAGE = "🎉 All tasks are complete, or no tasks have been added yet!\n";
+
+    private final StringBuilder row = new StringBuilder(128);
+    private char[] chars = new char[128];
+
+    /**
+     * Renders every task of a list.
+     * @param profileName The name shown in the header.
+     * @param tasks A snapshot of the tasks to render.
+     * @param out Where to write the list.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void render(String profileName, List<Task> tasks, Appendable out) throws IOException {
+        render(profileName, tasks, 0, Integer.MAX_VALUE, out);
+    }
+
+    /**
+     * Renders one page of a list. Rows keep the numbers they have in the full list, so the
+     * numbers shown can be used to pick a task. If the page does not cover the whole list,
+     * a line saying which rows were shown is written before the footer.
+     * @param profileName The name shown in the header.
+     * @param tasks A snapshot of the tasks to render.
+     * @param offset The 0-based index of the first task to render.
+     * @param limit The maximum number of tasks to render.
+     * @param out Where to write the list.
+     * @throws IOException if writing to {@code out} fails.
+     * @throws IllegalArgumentException if the offset or limit is negative.
+     */
+    public void render(String profileName, List<Task> tasks, int offset, int limit, Appendable out) throws IOException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+        row.setLength(0);
+        row.append("--- To-Do List for ").append(profileName).append(" ---\n");
+        flushRow(out);
+
+        int size = tasks.size();
+        if (size == 0) {
+            out.append(EMPTY_MESSAGE);
+        } else {
+            int end = (int) Math.min(size, (long) offset + limit);
+            for (int i = offset; i < end; i++) {
+                appendRow(i + 1, tasks.get(i));
+                flushRow(out);
+            }
+            if (offset > 0 || end < size) {
+                row.setLength(0);
+                row.append("Showing tasks ");
+                if (offset < end) {
+                    row.append(offset + 1).append('-').append(end);
+                } else {
+                    row.append("none");
+                }
+                row.append(" of ").append(size).append('\n');
+                flushRow(out);
+            }
+        }
+        out.append(FOOTER);
+    }
+
+    /**
+     * Formats one row as {@code 1. [ ] Title: Description (Priority: HIGH)}, followed by
+     * {@code (Due: 2026-10-20T09:00:00Z)} if the task has a due date.
+     */
+    private void appendRow(int number, Task task) {
+        row.setLength(0);
+        row.append(number).append(". ")
+                .append(task.isCompleted() ? "[x] " : "[ ] ")
+                .append(task.getTitle() != null ? task.getTitle() : "Task")
+                .append(": ")
+                .append(task.getDescription())
+                .append(" (Priority: ")
+                .append(task.getPriority())
+                .append(')');
+        if (task.getDueDate() != null) {
+            row.append(" (Due: ").append(task.getDueDate()).append(')');
+        }
+        row.append('\n');
+    }
+
+    private void flushRow(Appendable out) throws IOException {
+        if (out instanceof Writer writer) {
+            int length = row.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            row.getChars(0, length, chars, 0);
+            writer.write(chars, 0, length);
+        } else {
+            out.append(row);
+        }
+    }
+}
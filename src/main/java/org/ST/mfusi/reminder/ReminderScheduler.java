@@ -0,0 +1,370 @@
+package org.ST.mfusi.reminder;
+
+import org.ST.mfusi.metrics.Counter;
+import org.ST.mfusi.metrics.Metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs actions at given instants, for reminders about tasks that come due.
+ * <p>Reminders are kept in a hierarchical hashed timing wheel that counts time in ticks of a
+ * fixed length, so scheduling, cancelling and rescheduling a reminder are O(1) however many
+ * are pending, and a pending reminder costs one small object. A reminder never fires before
+ * its instant, and fires within one tick after it. Due actions are handed to an executor, by
+ * default one virtual thread each, so a slow action holds up neither the scheduler nor the
+ * other reminders.</p>
+ * <p>A scheduler created with {@link #ReminderScheduler()} follows the system clock on a
+ * virtual thread of its own. One created with {@link #ReminderScheduler(InstantSource,
+ * Duration, Executor)} does nothing by itself: it fires what is due whenever {@link #advance()}
+ * is called, which lets simulations and tests drive any number of reminders through time
+ * deterministically. Fired reminders are counted in the {@link Metrics#global() metrics} as
+ * {@code reminders.fired}.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class ReminderScheduler implements AutoCloseable {
+
+    /**
+     * The tick length of a scheduler that follows the system clock.
+     */
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+
+    private static final Counter FIRED = Metrics.global().counter("reminders.fired");
+
+    private final InstantSource clock;
+    private final long tickMillis;
+    private final Executor executor;
+
+    /**
+     * The clock reading that tick 0 stands for.
+     */
+    private final long originMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Wakes the driver thread when a reminder is due before the tick it sleeps until.
+     */
+    private final Condition wake = lock.newCondition();
+
+    /**
+     * Guarded by {@link #lock}, as is everything below.
+     */
+    private final TimingWheel wheel;
+
+    /**
+     * The tick the driver thread sleeps until, or {@link Long#MAX_VALUE} if it is not sleeping.
+     */
+    private long wakeTick = Long.MAX_VALUE;
+
+    private boolean closed;
+
+    /**
+     * A pending action. Get one from {@link #schedule(Instant, Runnable)}.
+     */
+    public final class Reminder {
+        private final Runnable action;
+        private Instant dueAt;
+        private boolean pending;
+
+        /**
+         * The wheel's bookkeeping: the deadline in ticks, and the slot and neighbours in it.
+         */
+        long tick;
+        int level;
+        int slot;
+        Reminder prev;
+        Reminder next;
+
+        private Reminder(Runnable action) {
+            this.action = action;
+        }
+
+        /**
+         * Retrieves when the reminder fires.
+         * @return The instant it was last scheduled for.
+         */
+        public Instant getDueAt() {
+            lock.lock();
+            try {
+                return dueAt;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Tells whether the reminder is still waiting to fire.
+         * @return {@code false} once it has fired or was cancelled.
+         */
+        public boolean isPending() {
+            lock.lock();
+            try {
+                return pending;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Cancels the reminder; see {@link ReminderScheduler#cancel(Reminder)}.
+         * @return {@code true} if it was still pending.
+         */
+        public boolean cancel() {
+            return ReminderScheduler.this.cancel(this);
+        }
+
+        /**
+         * Moves the reminder; see {@link ReminderScheduler#reschedule(Reminder, Instant)}.
+         * @param dueAt When it should fire instead.
+         * @return {@code true} if it was still pending.
+         */
+        public boolean reschedule(Instant dueAt) {
+            return ReminderScheduler.this.reschedule(this, dueAt);
+        }
+    }
+
+    /**
+     * Creates a scheduler that follows the system clock with a tick of {@link #DEFAULT_TICK}
+     * and runs every due action on a virtual thread of its own.
+     */
+    public ReminderScheduler() {
+        this(InstantSource.system(), DEFAULT_TICK, Thread::startVirtualThread, true);
+    }
+
+    /**
+     * Creates a scheduler that only fires reminders when {@link #advance()} is called.
+     * @param clock The clock reminders are due by.
+     * @param tick The tick length; reminders fire up to this long after their instant.
+     * @param executor Runs the due actions; {@code Runnable::run} runs them inside {@link #advance()}.
+     * @throws IllegalArgumentException if the tick is shorter than a millisecond.
+     */
+    public ReminderScheduler(InstantSource clock, Duration tick, Executor executor) {
+        this(clock, tick, executor, false);
+    }
+
+    private ReminderScheduler(InstantSource clock, Duration tick, Executor executor, boolean driven) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.tickMillis = tick.toMillis();
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("The tick must be at least a millisecond.");
+        }
+        this.originMillis = clock.millis();
+        this.wheel = new TimingWheel(0);
+        if (driven) {
+            Thread.ofVirtual().name("reminder-scheduler").start(this::drive);
+        }
+    }
+
+    /**
+     * Retrieves the current time of the scheduler's clock.
+     * @return The current instant.
+     */
+    public Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * Schedules an action. An action due now or in the past is run at once.
+     * @param dueAt When to run the action.
+     * @param action The action.
+     * @return The reminder, which can be cancelled or rescheduled until it fires.
+     * @throws IllegalStateException if the scheduler is closed.
+     */
+    public Reminder schedule(Instant dueAt, Runnable action) {
+        Objects.requireNonNull(dueAt, "dueAt");
+        Reminder reminder = new Reminder(Objects.requireNonNull(action, "action"));
+        boolean due;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The reminder scheduler is closed.");
+            }
+            due = !place(reminder, dueAt);
+        } finally {
+            lock.unlock();
+        }
+        if (due) {
+            fire(reminder);
+        }
+        return reminder;
+    }
+
+    /**
+     * Cancels a reminder in O(1).
+     * @param reminder A reminder of this scheduler.
+     * @return {@code true} if it was still pending, {@code false} if it had fired or was cancelled.
+     */
+    public boolean cancel(Reminder reminder) {
+        lock.lock();
+        try {
+            if (!reminder.pending) {
+                return false;
+            }
+            wheel.remove(reminder);
+            reminder.pending = false;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves a pending reminder to another instant in O(1). A reminder moved to now or into the past fires at once.
+     * @param reminder A reminder of this scheduler.
+     * @param dueAt When it should fire instead.
+     * @return {@code true} if it was moved, {@code false} if it had already fired or was cancelled;
+     *         schedule a new one then.
+     */
+    public boolean reschedule(Reminder reminder, Instant dueAt) {
+        Objects.requireNonNull(dueAt, "dueAt");
+        boolean due;
+        lock.lock();
+        try {
+            if (!reminder.pending) {
+                return false;
+            }
+            wheel.remove(reminder);
+            due = !place(reminder, dueAt);
+        } finally {
+            lock.unlock();
+        }
+        if (due) {
+            fire(reminder);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the number of reminders waiting to fire.
+     * @return The number of pending reminders.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fires every reminder that is due by the clock, in the order they are due.
+     * @return The number of reminders fired.
+     */
+    public int advance() {
+        List<Reminder> due;
+        lock.lock();
+        try {
+            due = expire(currentTick());
+        } finally {
+            lock.unlock();
+        }
+        for (Reminder reminder : due) {
+            fire(reminder);
+        }
+        return due.size();
+    }
+
+    /**
+     * Stops the scheduler. Pending reminders are dropped without firing.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            wheel.clear(reminder -> reminder.pending = false);
+            wake.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a reminder into the wheel, rounding its instant up to a whole tick so it never fires early.
+     * @return {@code false} if it is already due; it is then not pending.
+     */
+    private boolean place(Reminder reminder, Instant dueAt) {
+        reminder.dueAt = dueAt;
+        reminder.tick = Math.ceilDiv(dueAt.toEpochMilli() - originMillis, tickMillis);
+        reminder.pending = reminder.tick > currentTick() && wheel.add(reminder);
+        if (reminder.pending && reminder.tick < wakeTick) {
+            wake.signal();
+        }
+        return reminder.pending;
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(clock.millis() - originMillis, tickMillis);
+    }
+
+    /**
+     * Takes the reminders due by a tick out of the wheel.
+     */
+    private List<Reminder> expire(long tick) {
+        List<Reminder> due = new ArrayList<>();
+        wheel.advanceTo(tick, reminder -> {
+            reminder.pending = false;
+            due.add(reminder);
+        });
+        return due;
+    }
+
+    private void fire(Reminder reminder) {
+        FIRED.increment();
+        executor.execute(reminder.action);
+    }
+
+    /**
+     * Fires due reminders as the system clock reaches them, sleeping in between.
+     */
+    private void drive() {
+        while (true) {
+            List<Reminder> due;
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                long now = currentTick();
+                long next = wheel.nextTick();
+                if (next > now) {
+                    wakeTick = next;
+                    try {
+                        if (next == Long.MAX_VALUE) {
+                            wake.await();
+                        } else {
+                            wake.await(originMillis + next * tickMillis - clock.millis(), TimeUnit.MILLISECONDS);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    } finally {
+                        wakeTick = Long.MAX_VALUE;
+                    }
+                    continue;
+                }
+                due = expire(now);
+            } finally {
+                lock.unlock();
+            }
+            for (Reminder reminder : due) {
+                fire(reminder);
+            }
+        }
+    }
+}
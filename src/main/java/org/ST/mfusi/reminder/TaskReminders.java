@@ -0,0 +1,159 @@
+package org.ST.mfusi.reminder;
+
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.TaskEvent;
+import org.ST.mfusi.todolist.ToDoList;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Keeps one reminder per open task with a due date of a {@link ToDoList}, and tells a callback
+ * when such a task comes due.
+ * <p>The reminders follow the list through its listener: adding a task with a due date schedules
+ * one, changing the due date reschedules it in O(1), and completing or removing the task cancels
+ * it. Tasks that were already overdue when following started are not reminded about. The
+ * callback runs on the scheduler's executor, a virtual thread by default, and is only called if
+ * the task is still in the list, still open and due by then.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TaskReminders implements AutoCloseable {
+
+    private final ToDoList toDoList;
+    private final ReminderScheduler scheduler;
+    private final Consumer<Task> onDue;
+    private final Consumer<TaskEvent> listener = this::onChange;
+
+    /**
+     * The pending reminder of each task, by task id. Guarded by this object's monitor.
+     */
+    private final Map<Long, ReminderScheduler.Reminder> reminders = new HashMap<>();
+
+    /**
+     * Starts following a list.
+     * @param toDoList The list whose tasks to remind about.
+     * @param scheduler The scheduler to keep the reminders in.
+     * @param onDue Called with a task when it comes due.
+     */
+    public TaskReminders(ToDoList toDoList, ReminderScheduler scheduler, Consumer<Task> onDue) {
+        this.toDoList = Objects.requireNonNull(toDoList, "toDoList");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.onDue = Objects.requireNonNull(onDue, "onDue");
+        synchronized (toDoList) {
+            // no change can reach the listener before the snapshot is scheduled
+            Instant now = scheduler.now();
+            for (Task task : toDoList.addListener(listener)) {
+                if (task.getDueDate() != null && task.getDueDate().isAfter(now)) {
+                    follow(task);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of tasks waiting for their reminder.
+     * @return The number of pending reminders.
+     */
+    public synchronized int getPendingCount() {
+        return reminders.size();
+    }
+
+    /**
+     * Stops following the list and cancels the pending reminders.
+     */
+    @Override
+    public void close() {
+        toDoList.removeListener(listener);
+        forgetAll();
+    }
+
+    /**
+     * Called by the list while it holds its monitor, so it only touches the wheel.
+     */
+    private void onChange(TaskEvent event) {
+        switch (event) {
+            case TaskEvent.Added added -> follow(added.task());
+            case TaskEvent.BatchAdded batch -> batch.tasks().forEach(this::follow);
+            case TaskEvent.Removed removed -> forget(removed.task().getId());
+            case TaskEvent.Updated updated -> {
+                Task oldTask = updated.oldTask();
+                Task newTask = updated.newTask();
+                if (!Objects.equals(oldTask.getDueDate(), newTask.getDueDate())
+                        || oldTask.isCompleted() != newTask.isCompleted()) {
+                    follow(newTask);
+                }
+            }
+            case TaskEvent.Cleared cleared -> forgetAll();
+        }
+    }
+
+    /**
+     * Schedules, moves or cancels the reminder of a task to match its due date and status.
+     */
+    private synchronized void follow(Task task) {
+        Instant dueDate = task.isCompleted() ? null : task.getDueDate();
+        if (dueDate == null) {
+            forget(task.getId());
+            return;
+        }
+        ReminderScheduler.Reminder reminder = reminders.get(task.getId());
+        if (reminder != null && reminder.reschedule(dueDate)) {
+            return;
+        }
+        // the old reminder, if any, has fired already
+        reminders.remove(task.getId());
+        Due due = new Due(task.getId());
+        ReminderScheduler.Reminder scheduled = scheduler.schedule(dueDate, due);
+        due.reminder = scheduled;
+        if (scheduled.isPending()) {
+            reminders.put(task.getId(), scheduled);
+        }
+    }
+
+    private synchronized void forget(long taskId) {
+        ReminderScheduler.Reminder reminder = reminders.remove(taskId);
+        if (reminder != null) {
+            reminder.cancel();
+        }
+    }
+
+    private synchronized void forgetAll() {
+        for (ReminderScheduler.Reminder reminder : reminders.values()) {
+            reminder.cancel();
+        }
+        reminders.clear();
+    }
+
+    /**
+     * The action of one task's reminder.
+     */
+    private final class Due implements Runnable {
+        private final long taskId;
+        private ReminderScheduler.Reminder reminder;
+
+        Due(long taskId) {
+            this.taskId = taskId;
+        }
+
+        @Override
+        public void run() {
+            synchronized (TaskReminders.this) {
+                ReminderScheduler.Reminder current = reminders.get(taskId);
+                if (current != null && current != reminder) {
+                    return; // replaced by a newer reminder
+                }
+                reminders.remove(taskId);
+            }
+            Task task = toDoList.getTaskById(taskId);
+            if (task != null && !task.isCompleted() && task.getDueDate() != null
+                    && !task.getDueDate().isAfter(scheduler.now())) {
+                onDue.accept(task);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package org.ST.mfusi.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical hashed timing wheel over {@link ReminderScheduler.Reminder}s, counted in ticks.
+ * <p>The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. A slot of level {@code l}
+ * covers 64<sup>l</sup> ticks, so a reminder due {@code d} ticks from now goes into level
+ * {@code floor(log64 d)}, in the slot picked by that level's digit of its deadline; reminders
+ * further away than the whole wheel spans wait in the top level until they come within reach.
+ * Each slot is a doubly linked list threaded through the reminders themselves, which makes
+ * adding and removing a reminder O(1) and free of allocation. When time reaches the start of a
+ * slot of an upper level, the slot's reminders are cascaded into the levels below, each
+ * reminder moving at most once per level.</p>
+ * <p>Every level also keeps a bitmap of its occupied slots, so {@link #nextTick()} finds the
+ * next tick at which anything happens with a few bit operations, and {@link #advanceTo(long,
+ * Consumer)} jumps straight over empty stretches of time instead of stepping tick by tick.</p>
+ * <p>The wheel is not thread-safe; {@link ReminderScheduler} guards it with its lock.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class TimingWheel {
+
+    /**
+     * The number of bits of a deadline that pick the slot within a level.
+     */
+    static final int SLOT_BITS = 6;
+
+    /**
+     * The number of slots per level.
+     */
+    static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * The number of levels; together they span 2<sup>48</sup> ticks.
+     */
+    static final int LEVELS = 8;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * The most ticks ahead a reminder can be placed; later ones are placed here and cascaded again.
+     */
+    private static final long SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * The first reminder of every slot, indexed by level and slot.
+     */
+    private final ReminderScheduler.Reminder[][] heads = new ReminderScheduler.Reminder[LEVELS][SLOTS];
+
+    /**
+     * One bit per occupied slot, per level.
+     */
+    private final long[] occupied = new long[LEVELS];
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     * @param startTick The tick the wheel starts at.
+     */
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * @return The tick the wheel has advanced to.
+     */
+    long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * @return The number of reminders in the wheel.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a reminder for the tick in its {@code tick} field.
+     * @param reminder A reminder that is not in the wheel.
+     * @return {@code false}, without adding it, if that tick has already been reached.
+     */
+    boolean add(ReminderScheduler.Reminder reminder) {
+        long delta = reminder.tick - currentTick;
+        if (delta <= 0) {
+            return false;
+        }
+        long placed = delta > SPAN ? currentTick + SPAN : reminder.tick;
+        int level = (63 - Long.numberOfLeadingZeros(placed - currentTick)) / SLOT_BITS;
+        link(reminder, level, (int) (placed >>> (level * SLOT_BITS)) & SLOT_MASK);
+        size++;
+        return true;
+    }
+
+    /**
+     * Takes a reminder out of the wheel.
+     * @param reminder A reminder that is in the wheel.
+     */
+    void remove(ReminderScheduler.Reminder reminder) {
+        int level = reminder.level;
+        int slot = reminder.slot;
+        if (reminder.prev != null) {
+            reminder.prev.next = reminder.next;
+        } else {
+            heads[level][slot] = reminder.next;
+            if (reminder.next == null) {
+                occupied[level] &= ~(1L << slot);
+            }
+        }
+        if (reminder.next != null) {
+            reminder.next.prev = reminder.prev;
+        }
+        reminder.prev = null;
+        reminder.next = null;
+        size--;
+    }
+
+    /**
+     * Finds the next tick at which a slot of the wheel is due, which is no later than the
+     * earliest deadline in it.
+     * @return That tick, or {@link Long#MAX_VALUE} if the wheel is empty.
+     */
+    long nextTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            long bits = occupied[level];
+            if (bits == 0) {
+                continue;
+            }
+            int shift = level * SLOT_BITS;
+            long digit = (currentTick >>> shift) + 1;
+            // the occupied slots, rotated so that the slot after the current one comes first
+            long ahead = Long.rotateRight(bits, (int) (digit & SLOT_MASK));
+            long tick = (digit + Long.numberOfTrailingZeros(ahead)) << shift;
+            next = Math.min(next, tick);
+        }
+        return next;
+    }
+
+    /**
+     * Moves time forward, handing every reminder whose deadline is reached to {@code expired}
+     * in deadline order. The reminders are out of the wheel by the time they are handed over.
+     * @param tick The tick to advance to; earlier ticks are ignored.
+     * @param expired Receives the expired reminders.
+     */
+    void advanceTo(long tick, Consumer<ReminderScheduler.Reminder> expired) {
+        while (size > 0) {
+            long next = nextTick();
+            if (next > tick) {
+                break;
+            }
+            currentTick = next;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int shift = level * SLOT_BITS;
+                if ((next & ((1L << shift) - 1)) == 0) {
+                    cascade(level, (int) (next >>> shift) & SLOT_MASK, expired);
+                }
+            }
+            ReminderScheduler.Reminder reminder = detach(0, (int) next & SLOT_MASK);
+            while (reminder != null) {
+                ReminderScheduler.Reminder following = reminder.next;
+                reminder.next = null;
+                size--;
+                expired.accept(reminder);
+                reminder = following;
+            }
+        }
+        currentTick = Math.max(currentTick, tick);
+    }
+
+    /**
+     * Takes every reminder out of the wheel.
+     * @param removed Receives each of them.
+     */
+    void clear(Consumer<ReminderScheduler.Reminder> removed) {
+        for (int level = 0; level < LEVELS; level++) {
+            while (occupied[level] != 0) {
+                ReminderScheduler.Reminder reminder = detach(level, Long.numberOfTrailingZeros(occupied[level]));
+                while (reminder != null) {
+                    ReminderScheduler.Reminder following = reminder.next;
+                    reminder.next = null;
+                    size--;
+                    removed.accept(reminder);
+                    reminder = following;
+                }
+            }
+        }
+    }
+
+    /**
+     * Spreads the reminders of an upper slot that has come due over the levels below.
+     */
+    private void cascade(int level, int slot, Consumer<ReminderScheduler.Reminder> expired) {
+        ReminderScheduler.Reminder reminder = detach(level, slot);
+        while (reminder != null) {
+            ReminderScheduler.Reminder following = reminder.next;
+            reminder.next = null;
+            size--;
+            if (!add(reminder)) {
+                expired.accept(reminder);
+            }
+            reminder = following;
+        }
+    }
+
+    private void link(ReminderScheduler.Reminder reminder, int level, int slot) {
+        ReminderScheduler.Reminder head = heads[level][slot];
+        reminder.level = level;
+        reminder.slot = slot;
+        reminder.prev = null;
+        reminder.next = head;
+        if (head != null) {
+            head.prev = reminder;
+        }
+        heads[level][slot] = reminder;
+        occupied[level] |= 1L << slot;
+    }
+
+    /**
+     * Empties a slot.
+     * @return The first reminder of its list; the reminders are still chained by {@code next}.
+     */
+    private ReminderScheduler.Reminder detach(int level, int slot) {
+        ReminderScheduler.Reminder head = heads[level][slot];
+        heads[level][slot] = null;
+        occupied[level] &= ~(1L << slot);
+        for (ReminderScheduler.Reminder reminder = head; reminder != null; reminder = reminder.next) {
+            reminder.prev = null;
+        }
+        return head;
+    }
+}
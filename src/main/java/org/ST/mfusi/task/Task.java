@@ -1,30 +1,62 @@
 package org.ST.mfusi.task;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * defines a task class which a user can create
+ * <p>A task is immutable: changing one means creating an updated copy with the same id through
+ * {@link #withTitle(String)}, {@link #withDescription(String)}, {@link #withPriority(Priority)},
+ * {@link #withCompleted(boolean)} or {@link #withDueDate(Instant)}, and swapping it into the list.
+ * A task can therefore be shared between threads and snapshots without copying, and its hash
+ * code never changes while it sits in a hash-based set or map.</p>
+ * <p>The hash code is cached lazily rather than computed in the constructor: the first call to
+ * {@link #hashCode()} computes it from the fields and stores it, and every later call returns
+ * the stored value. Tasks that are never hashed, such as most of those decoded from a snapshot
+ * or built by a with-updater, never pay for hashing their text. The caching needs no
+ * synchronisation: a thread that does not see the stored value computes the same one again.</p>
  * @author Sthembiso Mfusi
  *  @version 1.0
  *  @since 2025-06-24
  */
-public class Task {
+public final class Task {
+    /**
+     * Source of task identifiers. Ids are handed out in increasing order, so a list
+     * that only appends new tasks keeps its tasks sorted by id.
+     */
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    /**
+     * The unique identifier of the task. It never changes, even when other fields do.
+     */
+    private final long id;
     /**
      * The title of the task. Can be null if not provided.
      */
-    private String title;
+    private final String title;
     /**
      * The detailed description of the task.
      */
-    private String description;
+    private final String description;
     /**
      * The completion status of the task. Defaults to false.
      */
-    private boolean completed;
+    private final boolean completed;
     /**
      * The priority level of the task.
      */
-    private Priority priority;
+    private final Priority priority;
+    /**
+     * When the task is due, to the millisecond, or {@code null} if it has no due date.
+     */
+    private final Instant dueDate;
+    /**
+     * The cached hash code, or 0 if it has not been computed yet. Like {@link String}'s, it is
+     * computed by whichever thread asks first; racing threads compute the same value.
+     */
+    private int hash;
 
 
     /**
@@ -34,10 +66,12 @@ public class Task {
      * @param description The description of the task.
      */
     public Task(String title, String description ) {
+        this.id = ID_SEQUENCE.incrementAndGet();
         this.description = description;
         this.title = title;
         this.completed = false;
         this.priority = Priority.MEDIUM;
+        this.dueDate = null;
     }
 
     /**
@@ -47,58 +81,117 @@ public class Task {
      * @param priority The priority of the task.
      */
     public Task(String title, String description, Priority priority) {
+        this.id = ID_SEQUENCE.incrementAndGet();
         this.description = description;
         this.title = title;
         this.priority = priority;
         this.completed = false;
+        this.dueDate = null;
     }
 
     /**
-     * Gets the title of the task.
-     * @return The title string.
+     * Constructs a Task with a known identifier, for example when restoring it from storage.
+     * Ids generated afterwards are guaranteed to be larger than the given one.
+     * @param id The identifier of the task.
+     * @param title The title of the task.
+     * @param description The description of the task.
+     * @param priority The priority of the task.
+     * @param completed The completion status of the task.
      */
-    public String getTitle() {
-        return title;
+    public Task(long id, String title, String description, Priority priority, boolean completed) {
+        this(id, title, description, priority, completed, null);
     }
 
     /**
-     * Sets the title of the task.
-     * @param title The new title for the task.
+     * Constructs a Task with a known identifier and a due date, for example when restoring it from storage.
+     * Ids generated afterwards are guaranteed to be larger than the given one.
+     * @param id The identifier of the task.
+     * @param title The title of the task.
+     * @param description The description of the task.
+     * @param priority The priority of the task.
+     * @param completed The completion status of the task.
+     * @param dueDate When the task is due, or {@code null} for none. It is kept to the millisecond.
      */
-    public void setTitle(String title) {
+    public Task(long id, String title, String description, Priority priority, boolean completed, Instant dueDate) {
+        reserveIdsUpTo(id);
+        this.id = id;
+        this.description = description;
         this.title = title;
+        this.priority = priority;
+        this.completed = completed;
+        this.dueDate = toMillis(dueDate);
     }
 
     /**
-     * Gets the description of the task.
-     * @return The description string.
+     * Creates an updated copy of a task, keeping its id.
      */
-    public String getDescription() {
-        return description;
+    private Task(Task source, String title, String description, Priority priority, boolean completed,
+                 Instant dueDate) {
+        this.id = source.id;
+        this.description = description;
+        this.title = title;
+        this.priority = priority;
+        this.completed = completed;
+        this.dueDate = dueDate;
     }
 
     /**
-     * Sets the description of the task.
-     * @param description The new description for the task.
+     * Due dates are stored to the millisecond, so they survive every storage format unchanged.
      */
-    public void setDescription(String description) {
-        this.description = description;
+    private static Instant toMillis(Instant dueDate) {
+        return dueDate == null ? null : dueDate.truncatedTo(ChronoUnit.MILLIS);
     }
 
     /**
-     * Checks the completion status of the task.
-     * @return {@code true} if the task is completed, {@code false} otherwise.
+     * Reserves and returns a fresh task identifier.
+     * @return An id larger than every id handed out or restored so far.
      */
-    public boolean isCompleted() {
-        return completed;
+    public static long nextId() {
+        return ID_SEQUENCE.incrementAndGet();
     }
 
     /**
-     * Sets the completion status of the task.
-     * @param completed The new completion status.
+     * Makes sure that ids handed out from now on are larger than the given one, as if a task
+     * with that id had been restored. Used when tasks are kept in storage without being loaded.
+     * @param id The largest id in use.
      */
-    public void setCompleted(boolean completed) {
-        this.completed = completed;
+    public static void reserveIdsUpTo(long id) {
+        // usually the id is already known, and a plain read keeps concurrent readers off the shared counter
+        if (id > ID_SEQUENCE.get()) {
+            ID_SEQUENCE.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    /**
+     * Gets the unique identifier of the task.
+     * @return The task id.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the title of the task.
+     * @return The title string.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the description of the task.
+     * @return The description string.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Checks the completion status of the task.
+     * @return {@code true} if the task is completed, {@code false} otherwise.
+     */
+    public boolean isCompleted() {
+        return completed;
     }
 
     /**
@@ -110,11 +203,72 @@ public class Task {
     }
 
     /**
-     * Sets the priority of the task.
-     * @param priority The new priority for the task.
+     * Gets the due date of the task.
+     * @return When the task is due, or {@code null} if it has no due date.
      */
-    public void setPriority(Priority priority) {
-        this.priority = priority;
+    public Instant getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Creates a copy of the task with another title.
+     * @param title The new title.
+     * @return The updated task with the same id, or this task if the title is the same.
+     */
+    public Task withTitle(String title) {
+        return Objects.equals(this.title, title)
+                ? this : new Task(this, title, description, priority, completed, dueDate);
+    }
+
+    /**
+     * Creates a copy of the task with another description.
+     * @param description The new description.
+     * @return The updated task with the same id, or this task if the description is the same.
+     */
+    public Task withDescription(String description) {
+        return Objects.equals(this.description, description)
+                ? this : new Task(this, title, description, priority, completed, dueDate);
+    }
+
+    /**
+     * Creates a copy of the task with another title and description, for edits that change both at once.
+     * @param title The new title.
+     * @param description The new description.
+     * @return The updated task with the same id, or this task if nothing changes.
+     */
+    public Task withDetails(String title, String description) {
+        return Objects.equals(this.title, title) && Objects.equals(this.description, description)
+                ? this : new Task(this, title, description, priority, completed, dueDate);
+    }
+
+    /**
+     * Creates a copy of the task with another priority.
+     * @param priority The new priority.
+     * @return The updated task with the same id, or this task if the priority is the same.
+     */
+    public Task withPriority(Priority priority) {
+        return this.priority == priority ? this : new Task(this, title, description, priority, completed, dueDate);
+    }
+
+    /**
+     * Creates a copy of the task with another completion status.
+     * @param completed The new completion status.
+     * @return The updated task with the same id, or this task if the status is the same.
+     */
+    public Task withCompleted(boolean completed) {
+        return this.completed == completed
+                ? this : new Task(this, title, description, priority, completed, dueDate);
+    }
+
+    /**
+     * Creates a copy of the task with another due date.
+     * @param dueDate The new due date, or {@code null} to remove it. It is kept to the millisecond.
+     * @return The updated task with the same id, or this task if the due date is the same.
+     */
+    public Task withDueDate(Instant dueDate) {
+        Instant due = toMillis(dueDate);
+        return Objects.equals(this.dueDate, due)
+                ? this : new Task(this, title, description, priority, completed, due);
     }
 
     /**
@@ -124,33 +278,54 @@ public class Task {
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Task{");
-        sb.append("title='").append(title).append('\'');
+        sb.append("id=").append(id);
+        sb.append(", title='").append(title).append('\'');
         sb.append(", description='").append(description).append('\'');
         sb.append(", completed=").append(completed);
         sb.append(", priority=").append(priority);
+        if (dueDate != null) {
+            sb.append(", dueDate=").append(dueDate);
+        }
         sb.append('}');
         return sb.toString();
     }
 
     /**
      * Compares this Task to another object for equality. Two tasks are considered
-     * equal if all their fields (title, description, completion status, and priority) are equal.
+     * equal if all their fields (title, description, completion status, priority and due date) are equal.
+     * The id is not compared; use {@link #getId()} to tell apart tasks with identical content.
      * @param o The object to compare with.
      * @return {@code true} if the objects are equal, {@code false} otherwise.
      */
     @Override
     public boolean equals(Object o) {
+        if (this == o) return true;
         if (!(o instanceof Task task)) return false;
-        return isCompleted() == task.isCompleted() && Objects.equals(getTitle(), task.getTitle()) && Objects.equals(getDescription(), task.getDescription()) && getPriority() == task.getPriority();
+        // differing cached hashes settle it without comparing the text
+        if (hash != 0 && task.hash != 0 && hash != task.hash) return false;
+        return completed == task.completed && priority == task.priority
+                && Objects.equals(title, task.title) && Objects.equals(description, task.description)
+                && Objects.equals(dueDate, task.dueDate);
     }
 
     /**
      * Returns a hash code value for the Task object.
-     * The hash code is generated based on all fields of the task.
+     * The hash code is generated based on all fields of the task except the id. It is computed
+     * on the first call and cached, so later calls are O(1).
      * @return A hash code value for this object.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(getTitle(), getDescription(), isCompleted(), getPriority());
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hashCode(title);
+            h = 31 * h + Objects.hashCode(description);
+            h = 31 * h + Boolean.hashCode(completed);
+            // the ordinal rather than the enum's identity hash, so the value is the same in every run
+            h = 31 * h + (priority == null ? 0 : priority.ordinal() + 1);
+            h = 31 * h + Objects.hashCode(dueDate);
+            hash = h;
+        }
+        return h;
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Task;
+
+import java.util.List;
+
+/**
+ * The outcome of adding a batch of tasks with {@link ToDoList#addTasks(Iterable)}.
+ * <p>Rows that fail validation do not stop the batch: every valid row is added and every
+ * invalid one is listed in {@link #errors()} with the reason it was rejected. The lists
+ * are stored as given, without copying, since a batch may hold millions of tasks.</p>
+ * @param added The tasks that were added, in the order of the batch.
+ * @param errors The rejected rows, ordered by row.
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public record BulkAddReport(List<Task> added, List<RowError> errors) {
+
+    /**
+     * A row of the batch that was not added.
+     * @param row The 0-based position of the row in the batch.
+     * @param message Why the row was rejected.
+     */
+    public record RowError(int row, String message) {
+    }
+
+    /**
+     * Checks whether every row of the batch was added.
+     * @return {@code true} if no row was rejected.
+     */
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * Describes the outcome in one line, for example {@code "Added 98 tasks, rejected 2 rows."}.
+     * @return The summary.
+     */
+    public String summary() {
+        return "Added " + added.size() + (added.size() == 1 ? " task" : " tasks")
+                + (errors.isEmpty() ? "." : ", rejected " + errors.size() + (errors.size() == 1 ? " row." : " rows."));
+    }
+}
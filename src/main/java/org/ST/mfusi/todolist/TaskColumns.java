@@ -0,0 +1,499 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An immutable run of tasks stored column by column instead of as {@link Task} objects, used by
+ * {@link ToDoList.StorageMode#COLUMNAR} lists.
+ * <p>Each task takes one slot in three primitive columns: its id in a {@code long[]}, its priority
+ * ordinal and completion flag packed into one {@code byte}, and the position and length of its
+ * text in an {@code int[]}. Titles and descriptions are encoded as UTF-8 and packed back to back
+ * into one shared byte array. A task therefore costs 21 bytes plus its text, instead of the Task
+ * object, its two Strings and their backing arrays. Due dates take a fourth column of epoch
+ * milliseconds, which is only allocated once a task of the run has one. {@link #get(int)} builds a fresh Task from the
+ * columns on every call, so the tasks of such a list are values: two reads of the same task are
+ * equal but not the same object.</p>
+ * <p>Like the object runs of {@link ToDoList}, appending writes into unused room at the end of the
+ * columns and of the text array and returns a longer run over the same storage, which keeps a
+ * series of appends amortised O(1); every other change copies the columns it touches, which is
+ * why {@link ToDoList} caps the undo history of columnar lists. Text that
+ * is no longer referenced after a task was removed or edited stays in the text array until the
+ * array has to grow, or until most of it is unused, and is then compacted away.</p>
+ * <p>Runs are only ever derived from the list's current run, while holding the list's monitor.
+ * Readers of older runs never look past their own size or text end, so they are not affected by
+ * later appends.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class TaskColumns {
+
+    static final TaskColumns EMPTY = new TaskColumns(new Block(0, false), new Heap(0), 0, 0, 0, null);
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int COMPLETED = 0x80;
+    private static final int PRIORITY_MASK = 0x7F;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    /**
+     * The number of {@code int} slots per task in the text column: start, title length and description length.
+     */
+    private static final int TEXT_SLOTS = 3;
+
+    /**
+     * The largest text array the JVM reliably allocates.
+     */
+    private static final int MAX_TEXT_BYTES = Integer.MAX_VALUE - 8;
+
+    /**
+     * Text arrays smaller than this are never compacted after a removal.
+     */
+    private static final int MIN_COMPACTION_BYTES = 1 << 16;
+
+    /**
+     * The columns, with room for more tasks than a run may use.
+     */
+    private static final class Block {
+        final long[] ids;
+        final byte[] flags;
+        final int[] text;
+        /**
+         * The due dates in epoch milliseconds, {@code NO_DUE_DATE} for none, or {@code null} while no task has one.
+         */
+        final long[] dueDates;
+        /**
+         * The number of slots written so far, or -1 once another block shares these arrays and
+         * appending in place would overwrite its tasks.
+         */
+        int used;
+
+        Block(int capacity, boolean withDueDates) {
+            this(new long[capacity], new byte[capacity], new int[capacity * TEXT_SLOTS],
+                    withDueDates ? noDueDates(capacity) : null, 0);
+        }
+
+        Block(long[] ids, byte[] flags, int[] text, long[] dueDates, int used) {
+            this.ids = ids;
+            this.flags = flags;
+            this.text = text;
+            this.dueDates = dueDates;
+            this.used = used;
+        }
+
+        int capacity() {
+            return ids.length;
+        }
+    }
+
+    /**
+     * The UTF-8 bytes of the titles and descriptions, with room at the end.
+     */
+    private static final class Heap {
+        final byte[] bytes;
+        int used;
+
+        Heap(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+    }
+
+    private final Block block;
+    private final Heap heap;
+    private final int size;
+    private final int heapEnd;
+    private final long liveBytes;
+
+    /**
+     * The positions of the tasks ordered by id, or {@code null} while insertion order is id order.
+     */
+    private final int[] order;
+
+    private TaskColumns(Block block, Heap heap, int size, int heapEnd, long liveBytes, int[] order) {
+        this.block = block;
+        this.heap = heap;
+        this.size = size;
+        this.heapEnd = heapEnd;
+        this.liveBytes = liveBytes;
+        this.order = order;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean idsAscending() {
+        return order == null;
+    }
+
+    long id(int index) {
+        return block.ids[index];
+    }
+
+    Priority priority(int index) {
+        return PRIORITIES[block.flags[index] & PRIORITY_MASK];
+    }
+
+    boolean isCompleted(int index) {
+        return (block.flags[index] & COMPLETED) != 0;
+    }
+
+    /**
+     * Builds the task stored at a position.
+     */
+    Task get(int index) {
+        int at = index * TEXT_SLOTS;
+        int[] text = block.text;
+        int start = text[at];
+        int titleLength = text[at + 1];
+        long due = block.dueDates == null ? NO_DUE_DATE : block.dueDates[index];
+        return new Task(block.ids[index],
+                new String(heap.bytes, start, titleLength, StandardCharsets.UTF_8),
+                new String(heap.bytes, start + titleLength, text[at + 2], StandardCharsets.UTF_8),
+                priority(index), isCompleted(index), due == NO_DUE_DATE ? null : Instant.ofEpochMilli(due));
+    }
+
+    /**
+     * Binary search over the ids.
+     * @return the position of the task with that id, or -1 if it is not present.
+     */
+    int indexOf(long id) {
+        long[] ids = block.ids;
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = order == null ? mid : order[mid];
+            long midId = ids[at];
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the largest id in the run; only defined for a non-empty run.
+     */
+    long maxId() {
+        return block.ids[order == null ? size - 1 : order[size - 1]];
+    }
+
+    /**
+     * Counts the tasks with a priority by scanning the flag column.
+     */
+    int count(Priority priority, boolean openOnly) {
+        byte[] flags = block.flags;
+        int ordinal = priority.ordinal();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int flag = flags[i];
+            if ((flag & PRIORITY_MASK) == ordinal && (!openOnly || (flag & COMPLETED) == 0)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first open task of the highest priority by scanning the flag column.
+     * @return its position, or -1 if every task is completed.
+     */
+    int nextOpenIndex() {
+        byte[] flags = block.flags;
+        int best = -1;
+        int bestOrdinal = Integer.MAX_VALUE;
+        for (int i = 0; i < size && bestOrdinal > 0; i++) {
+            int flag = flags[i];
+            if ((flag & COMPLETED) == 0 && (flag & PRIORITY_MASK) < bestOrdinal) {
+                best = i;
+                bestOrdinal = flag & PRIORITY_MASK;
+            }
+        }
+        return best;
+    }
+
+    List<Task> asList() {
+        return new View();
+    }
+
+    TaskColumns append(Task task) {
+        return appendAll(new Task[]{task}, 1);
+    }
+
+    /**
+     * Appends the first {@code count} tasks of a batch, growing the storage at most once.
+     */
+    TaskColumns appendAll(Task[] batch, int count) {
+        if (count == 0) {
+            return this;
+        }
+        byte[][] encoded = new byte[2 * count][];
+        long bytes = 0;
+        boolean dueDates = false;
+        for (int i = 0; i < count; i++) {
+            encoded[2 * i] = batch[i].getTitle().getBytes(StandardCharsets.UTF_8);
+            encoded[2 * i + 1] = batch[i].getDescription().getBytes(StandardCharsets.UTF_8);
+            bytes += encoded[2 * i].length + encoded[2 * i + 1].length;
+            dueDates |= batch[i].getDueDate() != null;
+        }
+        TaskColumns room = withRoom(count, bytes, dueDates);
+        Block target = room.block;
+        int end = room.heapEnd;
+        for (int i = 0; i < count; i++) {
+            int slot = size + i;
+            target.ids[slot] = batch[i].getId();
+            target.flags[slot] = flagsOf(batch[i]);
+            if (target.dueDates != null) {
+                target.dueDates[slot] = dueDateOf(batch[i]);
+            }
+            end = writeText(target, slot, room.heap, end, encoded[2 * i], encoded[2 * i + 1]);
+        }
+        target.used = size + count;
+        room.heap.used = end;
+        return new TaskColumns(target, room.heap, size + count, end, liveBytes + bytes,
+                orderAfterAppend(target.ids, count));
+    }
+
+    TaskColumns removeAt(int index) {
+        if (size == 1) {
+            return EMPTY;
+        }
+        Block target = new Block(size - 1, block.dueDates != null);
+        if (block.dueDates != null) {
+            System.arraycopy(block.dueDates, 0, target.dueDates, 0, index);
+            System.arraycopy(block.dueDates, index + 1, target.dueDates, index, size - index - 1);
+        }
+        System.arraycopy(block.ids, 0, target.ids, 0, index);
+        System.arraycopy(block.ids, index + 1, target.ids, index, size - index - 1);
+        System.arraycopy(block.flags, 0, target.flags, 0, index);
+        System.arraycopy(block.flags, index + 1, target.flags, index, size - index - 1);
+        System.arraycopy(block.text, 0, target.text, 0, index * TEXT_SLOTS);
+        System.arraycopy(block.text, (index + 1) * TEXT_SLOTS, target.text, index * TEXT_SLOTS,
+                (size - index - 1) * TEXT_SLOTS);
+        target.used = size - 1;
+
+        int[] newOrder = null;
+        if (order != null) {
+            newOrder = new int[size - 1];
+            int kept = 0;
+            for (int position : order) {
+                if (position != index) {
+                    newOrder[kept++] = position > index ? position - 1 : position;
+                }
+            }
+        }
+        long remaining = liveBytes - textLength(index);
+        TaskColumns result = new TaskColumns(target, heap, size - 1, heapEnd, remaining, newOrder);
+        if (heapEnd >= MIN_COMPACTION_BYTES && remaining < heapEnd / 4) {
+            return result.compacted(0, 0, false);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the task at a position with a task that has the same id. A change of priority or
+     * completion only copies the flag column.
+     */
+    TaskColumns set(int index, Task task) {
+        byte[] title = task.getTitle().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        int at = index * TEXT_SLOTS;
+        int start = block.text[at];
+        int titleLength = block.text[at + 1];
+        boolean sameText = Arrays.equals(title, 0, title.length, heap.bytes, start, start + titleLength)
+                && Arrays.equals(description, 0, description.length,
+                heap.bytes, start + titleLength, start + titleLength + block.text[at + 2]);
+        long bytes = sameText ? 0 : title.length + description.length;
+
+        TaskColumns room = withRoom(0, bytes, false);
+        Block source = room.block;
+        long due = dueDateOf(task);
+        long[] dueDates = source.dueDates;
+        if (dueDates == null ? due != NO_DUE_DATE : dueDates[index] != due) {
+            dueDates = dueDates == null ? noDueDates(source.capacity()) : Arrays.copyOf(dueDates, dueDates.length);
+            dueDates[index] = due;
+        }
+        Block target = new Block(source.ids, Arrays.copyOf(source.flags, source.flags.length),
+                sameText ? source.text : Arrays.copyOf(source.text, source.text.length), dueDates, size);
+        // the new block shares the id column (and maybe others), so the old one must not append into it
+        source.used = -1;
+        target.flags[index] = flagsOf(task);
+        int end = room.heapEnd;
+        long live = room.liveBytes;
+        if (!sameText) {
+            live += bytes - textLength(source, index);
+            end = writeText(target, index, room.heap, end, title, description);
+            room.heap.used = end;
+        }
+        return new TaskColumns(target, room.heap, size, end, live, order);
+    }
+
+    /**
+     * Returns this run if {@code tasks} more tasks and {@code bytes} more text, with due dates if
+     * asked for, can be appended in place, otherwise an equal run over new storage that has room for them.
+     */
+    private TaskColumns withRoom(int tasks, long bytes, boolean dueDates) {
+        boolean blockFits = block.used == size && block.capacity() - size >= tasks
+                && (!dueDates || block.dueDates != null);
+        boolean heapFits = heap.used == heapEnd && heap.bytes.length - heapEnd >= bytes;
+        if (heapFits && blockFits) {
+            return this;
+        }
+        if (!heapFits && liveBytes < heapEnd) {
+            return compacted(tasks, bytes, dueDates);
+        }
+        Heap targetHeap = heap;
+        if (!heapFits) {
+            targetHeap = new Heap(grow(heapEnd + bytes));
+            System.arraycopy(heap.bytes, 0, targetHeap.bytes, 0, heapEnd);
+            targetHeap.used = heapEnd;
+        }
+        Block targetBlock = block;
+        if (!blockFits) {
+            targetBlock = copyBlock(grow(size + (long) tasks), dueDates);
+            System.arraycopy(block.text, 0, targetBlock.text, 0, size * TEXT_SLOTS);
+        }
+        return new TaskColumns(targetBlock, targetHeap, size, heapEnd, liveBytes, order);
+    }
+
+    /**
+     * Copies the run into new storage that only holds the text still referenced, with room for
+     * {@code tasks} more tasks and {@code bytes} more text, and a due date column if asked for.
+     */
+    private TaskColumns compacted(int tasks, long bytes, boolean dueDates) {
+        Heap targetHeap = new Heap(grow(liveBytes + bytes));
+        Block targetBlock = copyBlock(size + (long) tasks + ((size + (long) tasks) >> 1), dueDates);
+        int end = 0;
+        for (int i = 0; i < size; i++) {
+            int at = i * TEXT_SLOTS;
+            int length = block.text[at + 1] + block.text[at + 2];
+            System.arraycopy(heap.bytes, block.text[at], targetHeap.bytes, end, length);
+            targetBlock.text[at] = end;
+            targetBlock.text[at + 1] = block.text[at + 1];
+            targetBlock.text[at + 2] = block.text[at + 2];
+            end += length;
+        }
+        targetHeap.used = end;
+        return new TaskColumns(targetBlock, targetHeap, size, end, liveBytes, order);
+    }
+
+    /**
+     * Copies the id, flag and due date columns into a new block; the caller fills the text column.
+     * The new block has a due date column if this one has, or if {@code dueDates} asks for one.
+     */
+    private Block copyBlock(long capacity, boolean dueDates) {
+        if (capacity > Integer.MAX_VALUE / TEXT_SLOTS) {
+            throw new IllegalStateException("The list cannot hold more than "
+                    + Integer.MAX_VALUE / TEXT_SLOTS + " tasks.");
+        }
+        Block target = new Block((int) capacity, dueDates || block.dueDates != null);
+        System.arraycopy(block.ids, 0, target.ids, 0, size);
+        System.arraycopy(block.flags, 0, target.flags, 0, size);
+        if (block.dueDates != null) {
+            System.arraycopy(block.dueDates, 0, target.dueDates, 0, size);
+        }
+        target.used = size;
+        return target;
+    }
+
+    private static int grow(long needed) {
+        if (needed > MAX_TEXT_BYTES) {
+            throw new IllegalStateException("The list's text storage is full.");
+        }
+        return (int) Math.min(MAX_TEXT_BYTES, Math.max(64, needed + (needed >> 1)));
+    }
+
+    private static int writeText(Block target, int slot, Heap heap, int end, byte[] title, byte[] description) {
+        int at = slot * TEXT_SLOTS;
+        target.text[at] = end;
+        target.text[at + 1] = title.length;
+        target.text[at + 2] = description.length;
+        System.arraycopy(title, 0, heap.bytes, end, title.length);
+        System.arraycopy(description, 0, heap.bytes, end + title.length, description.length);
+        return end + title.length + description.length;
+    }
+
+    private int textLength(int index) {
+        return textLength(block, index);
+    }
+
+    private static int textLength(Block block, int index) {
+        return block.text[index * TEXT_SLOTS + 1] + block.text[index * TEXT_SLOTS + 2];
+    }
+
+    private static long[] noDueDates(int capacity) {
+        long[] dueDates = new long[capacity];
+        Arrays.fill(dueDates, NO_DUE_DATE);
+        return dueDates;
+    }
+
+    private static long dueDateOf(Task task) {
+        return task.getDueDate() == null ? NO_DUE_DATE : task.getDueDate().toEpochMilli();
+    }
+
+    private static byte flagsOf(Task task) {
+        return (byte) (task.getPriority().ordinal() | (task.isCompleted() ? COMPLETED : 0));
+    }
+
+    /**
+     * Works out the id order after {@code count} tasks were appended behind the first {@code size}.
+     */
+    private int[] orderAfterAppend(long[] ids, int count) {
+        int total = size + count;
+        boolean ascending = order == null && (size == 0 || ids[size - 1] < ids[size]);
+        for (int i = size + 1; ascending && i < total; i++) {
+            ascending = ids[i - 1] < ids[i];
+        }
+        if (ascending) {
+            return null;
+        }
+        Integer[] added = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            added[i] = size + i;
+        }
+        Arrays.sort(added, Comparator.comparingLong(position -> ids[position]));
+        int[] merged = new int[total];
+        int mine = 0;
+        int theirs = 0;
+        for (int i = 0; i < total; i++) {
+            int own = mine < size ? (order == null ? mine : order[mine]) : -1;
+            if (theirs == count || (own >= 0 && ids[own] < ids[added[theirs]])) {
+                merged[i] = own;
+                mine++;
+            } else {
+                merged[i] = added[theirs++];
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * A read-only list over the run that builds each task when it is read.
+     */
+    private final class View extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            return TaskColumns.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
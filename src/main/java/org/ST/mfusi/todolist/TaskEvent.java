@@ -0,0 +1,59 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Task;
+
+import java.util.List;
+
+/**
+ * A single change to a {@link ToDoList}, as delivered to the listeners registered with
+ * {@link ToDoList#addListener(java.util.function.Consumer)}.
+ * <p>Events are delivered in the order the changes were made, and positions refer to the
+ * list as it was just before the change, so a listener that applies every event to its own
+ * copy of the list always ends up with the same contents as the to-do list.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public sealed interface TaskEvent {
+
+    /**
+     * A task was added to the list. New tasks are appended; a task can only be added in the
+     * middle when it is put back, see {@link ToDoList#insertTask(int, Task)} and {@link ToDoList#undo()}.
+     * @param index The position of the new task.
+     * @param task The new task.
+     */
+    record Added(int index, Task task) implements TaskEvent {
+    }
+
+    /**
+     * A batch of tasks was appended to the list in one step, see {@link ToDoList#addTasks(Iterable)}.
+     * @param index The position of the first new task.
+     * @param tasks The new tasks, in list order.
+     */
+    record BatchAdded(int index, List<Task> tasks) implements TaskEvent {
+    }
+
+    /**
+     * A task was removed from the list.
+     * @param index The position the task had.
+     * @param task The removed task.
+     */
+    record Removed(int index, Task task) implements TaskEvent {
+    }
+
+    /**
+     * A task was replaced by an updated copy with the same id, for example when it was completed.
+     * @param index The position of the task.
+     * @param oldTask The task before the change.
+     * @param newTask The task after the change.
+     */
+    record Updated(int index, Task oldTask, Task newTask) implements TaskEvent {
+    }
+
+    /**
+     * Every task was removed from the list.
+     * @param removed The tasks the list held before it was cleared.
+     */
+    record Cleared(List<Task> removed) implements TaskEvent {
+    }
+}
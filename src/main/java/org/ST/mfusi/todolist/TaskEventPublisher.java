@@ -0,0 +1,374 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.metrics.Counter;
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.task.Task;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the changes to a {@link ToDoList} as a reactive stream, so that any number of
+ * consumers, such as a view, an index or a writer, can follow the list at their own pace
+ * without ever holding its lock. Get the publisher of a list with {@link ToDoList#changes()}.
+ * <p>Every subscriber has a bounded buffer of its own. Making a change only appends the event to
+ * each buffer, which never blocks; events are handed to the subscriber on another thread, in the
+ * order the changes were made, and never more than it has {@linkplain Flow.Subscription#request
+ * requested}. Delivery runs in batches: one run hands over up to {@link #BATCH_SIZE} buffered
+ * events before it yields its thread. What happens when a subscriber falls so far behind that its
+ * buffer is full is chosen per subscriber with an {@link OverflowPolicy}; dropped events are
+ * counted in the {@link Metrics#global() metrics} as {@code todolist.events.dropped}.</p>
+ * <p>To follow the contents of the list, subscribe with {@link #subscribeWithSnapshot}: the
+ * first event delivered applies to exactly the snapshot it returns. {@link #close()} completes
+ * every subscriber once it has received the events already buffered for it.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TaskEventPublisher implements Flow.Publisher<TaskEvent>, AutoCloseable {
+
+    /**
+     * What to do with a new event when a subscriber's buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Forget the oldest buffered event to make room, for subscribers that only care about recent changes.
+         */
+        DROP_OLDEST,
+        /**
+         * Forget the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Cancel the subscription and signal {@link Flow.Subscriber#onError} with an
+         * {@link IllegalStateException}, for subscribers that must see every change. They can
+         * subscribe again and start over from a fresh snapshot.
+         */
+        FAIL
+    }
+
+    /**
+     * The buffer size of subscribers that do not choose one.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * The most events one delivery run hands to a subscriber before yielding its thread.
+     */
+    public static final int BATCH_SIZE = 64;
+
+    private static final Counter DROPPED = Metrics.global().counter("todolist.events.dropped");
+
+    /**
+     * Runs delivery on virtual threads, so a slow subscriber only holds up itself.
+     */
+    private static final Executor DEFAULT_EXECUTOR = Thread::startVirtualThread;
+
+    private final ToDoList toDoList;
+    private final Executor executor;
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Consumer<TaskEvent> listener = this::publish;
+
+    /**
+     * Whether the publisher listens to the list. Guarded by the list's monitor.
+     */
+    private boolean listening;
+
+    /**
+     * Whether {@link #close()} was called. Guarded by the list's monitor.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a publisher for a list that delivers events on virtual threads.
+     * @param toDoList The list whose changes are published.
+     */
+    TaskEventPublisher(ToDoList toDoList) {
+        this(toDoList, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Creates a publisher for a list.
+     * @param toDoList The list whose changes are published.
+     * @param executor Runs the delivery to subscribers.
+     */
+    TaskEventPublisher(ToDoList toDoList, Executor executor) {
+        this.toDoList = toDoList;
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Subscribes with a buffer of {@value #DEFAULT_BUFFER_SIZE} events that fails when it overflows.
+     * @param subscriber The subscriber; it receives the changes made from now on.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super TaskEvent> subscriber) {
+        subscribeWithSnapshot(subscriber, DEFAULT_BUFFER_SIZE, OverflowPolicy.FAIL);
+    }
+
+    /**
+     * Subscribes and returns the tasks of the list at that moment, in one step.
+     * @param subscriber The subscriber; it receives the changes made from now on.
+     * @param bufferSize The most events buffered for the subscriber.
+     * @param policy What to do when the buffer is full.
+     * @return The tasks the first event applies to. If the publisher is closed the subscriber is
+     *         completed right away, and the snapshot is the list's current contents.
+     * @throws IllegalArgumentException if the buffer size is not positive.
+     */
+    public List<Task> subscribeWithSnapshot(Flow.Subscriber<? super TaskEvent> subscriber, int bufferSize,
+                                            OverflowPolicy policy) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        Objects.requireNonNull(policy, "policy");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive.");
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, bufferSize, policy);
+        List<Task> snapshot;
+        synchronized (toDoList) {
+            // changes are published while the list's monitor is held, so none can slip in between
+            if (closed) {
+                subscription.complete();
+            } else {
+                subscriptions.add(subscription);
+                if (!listening) {
+                    toDoList.addListener(listener);
+                    listening = true;
+                }
+            }
+            snapshot = toDoList.getTaskList();
+        }
+        subscription.start();
+        return snapshot;
+    }
+
+    /**
+     * Retrieves the number of subscribers still following the list.
+     * @return The number of active subscriptions.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops publishing. Every subscriber receives the events already buffered for it and is then completed.
+     */
+    @Override
+    public void close() {
+        synchronized (toDoList) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            stopListening();
+            for (EventSubscription subscription : subscriptions) {
+                subscription.complete();
+            }
+            subscriptions.clear();
+        }
+    }
+
+    /**
+     * Called by the list while it holds its monitor: hands the event to every buffer.
+     */
+    private void publish(TaskEvent event) {
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    private void remove(EventSubscription subscription) {
+        synchronized (toDoList) {
+            if (subscriptions.remove(subscription) && subscriptions.isEmpty()) {
+                // without subscribers the list does not even create events
+                stopListening();
+            }
+        }
+    }
+
+    private void stopListening() {
+        if (listening) {
+            toDoList.removeListener(listener);
+            listening = false;
+        }
+    }
+
+    /**
+     * One subscriber's buffer and demand. The buffer is guarded by the subscription's monitor,
+     * which is only held for a moment and never while calling the subscriber. Delivery is run by
+     * at most one thread at a time, which the {@code work} counter hands on.
+     */
+    private final class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super TaskEvent> subscriber;
+        private final int bufferSize;
+        private final OverflowPolicy policy;
+        private final ArrayDeque<TaskEvent> buffer = new ArrayDeque<>();
+        private final AtomicInteger work = new AtomicInteger();
+        private long demand;
+        private boolean started;
+        private boolean cancelled;
+        private boolean completing;
+        private Throwable failure;
+
+        EventSubscription(Flow.Subscriber<? super TaskEvent> subscriber, int bufferSize, OverflowPolicy policy) {
+            this.subscriber = subscriber;
+            this.bufferSize = bufferSize;
+            this.policy = policy;
+        }
+
+        /**
+         * Calls {@code onSubscribe}, once the subscription is in place, on the delivery thread.
+         */
+        void start() {
+            signal();
+        }
+
+        void offer(TaskEvent event) {
+            boolean overflowed = false;
+            synchronized (this) {
+                if (cancelled || completing || failure != null) {
+                    return;
+                }
+                if (buffer.size() == bufferSize) {
+                    switch (policy) {
+                        case DROP_OLDEST -> buffer.pollFirst();
+                        case DROP_NEWEST -> {
+                            DROPPED.increment();
+                            return;
+                        }
+                        case FAIL -> {
+                            failure = new IllegalStateException(
+                                    "Subscriber fell more than " + bufferSize + " events behind the to-do list.");
+                            buffer.clear();
+                            overflowed = true;
+                        }
+                    }
+                    DROPPED.increment();
+                }
+                if (!overflowed) {
+                    buffer.addLast(event);
+                }
+            }
+            if (overflowed) {
+                remove(this);
+            }
+            signal();
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    failure = new IllegalArgumentException("Requested " + n + " events; the request must be positive.");
+                    buffer.clear();
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                buffer.clear();
+            }
+            remove(this);
+        }
+
+        /**
+         * Makes sure a delivery run will look at the subscription, starting one if none is running.
+         */
+        private void signal() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            if (!started) {
+                started = true;
+                if (!call(() -> subscriber.onSubscribe(this))) {
+                    return;
+                }
+            }
+            TaskEvent[] batch = new TaskEvent[BATCH_SIZE];
+            int missed = work.get();
+            while (true) {
+                int count = 0;
+                Throwable error;
+                boolean done;
+                synchronized (this) {
+                    if (cancelled) {
+                        return;
+                    }
+                    while (count < BATCH_SIZE && demand > 0 && !buffer.isEmpty()) {
+                        batch[count++] = buffer.pollFirst();
+                        demand--;
+                    }
+                    error = failure;
+                    done = error == null && completing && buffer.isEmpty();
+                    if (error != null || done) {
+                        cancelled = true;
+                    }
+                }
+                for (int i = 0; i < count; i++) {
+                    TaskEvent event = batch[i];
+                    batch[i] = null;
+                    if (!call(() -> subscriber.onNext(event))) {
+                        return;
+                    }
+                }
+                if (error != null) {
+                    call(() -> subscriber.onError(error));
+                    return;
+                }
+                if (done) {
+                    call(subscriber::onComplete);
+                    return;
+                }
+                if (count == BATCH_SIZE) {
+                    // more may be waiting: yield the thread and carry on in a fresh run
+                    executor.execute(this::deliver);
+                    return;
+                }
+                missed = work.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Calls the subscriber; if it throws, the subscription is cancelled as the Reactive Streams rules ask.
+         * @return {@code true} if the call returned normally.
+         */
+        private boolean call(Runnable signal) {
+            try {
+                signal.run();
+                return true;
+            } catch (RuntimeException e) {
+                cancel();
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * A query over the tasks of a {@link ToDoList}, built with {@link ToDoList#query()}.
+ * <p>Conditions are combined with AND. Without {@link #sortedBy(Comparator)} the results keep
+ * the order of the list; with it, tasks that compare equal keep the order of the list too.
+ * The query runs against the snapshot of the list current when {@link #list()} or
+ * {@link #count()} is called, and a query can be run again later to see newer tasks.</p>
+ * <p>How the query runs is chosen per call, see {@link Plan}: lists with priority buckets
+ * answer priority and completion filters from the buckets, large lists are scanned in
+ * parallel, and everything else is scanned in order. A query with both a sort order and a
+ * limit keeps only the best {@code limit} tasks in a bounded heap instead of sorting every
+ * match, and a query sorted by {@link #sortedByPriority()} on a bucketed list just reads the
+ * buckets in priority order until it has enough tasks.</p>
+ * <p>A query object is not thread-safe, but the list it reads may be changed concurrently.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TaskQuery {
+
+    /**
+     * The ways a query can be run.
+     */
+    public enum Plan {
+        /**
+         * Every task is checked in list order on the calling thread.
+         */
+        SEQUENTIAL_SCAN,
+        /**
+         * Only the priority buckets matching the filters are read.
+         */
+        PRIORITY_INDEX,
+        /**
+         * Slices of the list are checked in parallel on the common fork-join pool and the partial results merged.
+         */
+        PARALLEL_SCAN
+    }
+
+    /**
+     * The list size from which a query without a usable index is scanned in parallel by default.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    /**
+     * Parallel scans never split the list into slices smaller than this.
+     */
+    private static final int MIN_SLICE = 8_192;
+
+    private final ToDoList toDoList;
+    private EnumSet<Priority> priorities;
+    private Boolean completed;
+    private Predicate<Task> predicate;
+    private Comparator<Task> order;
+    private int limit = Integer.MAX_VALUE;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    TaskQuery(ToDoList toDoList) {
+        this.toDoList = toDoList;
+    }
+
+    /**
+     * Keeps only tasks with one of the given priorities.
+     * @param first A priority to keep.
+     * @param others More priorities to keep.
+     * @return this query.
+     * @throws IllegalArgumentException if any priority is null.
+     */
+    public TaskQuery priority(Priority first, Priority... others) {
+        if (first == null || Arrays.asList(others).contains(null)) {
+            throw new IllegalArgumentException("Priority cannot be null.");
+        }
+        priorities = EnumSet.of(first, others);
+        return this;
+    }
+
+    /**
+     * Keeps only tasks that are not completed yet.
+     * @return this query.
+     */
+    public TaskQuery open() {
+        completed = false;
+        return this;
+    }
+
+    /**
+     * Keeps only completed tasks.
+     * @return this query.
+     */
+    public TaskQuery completed() {
+        completed = true;
+        return this;
+    }
+
+    /**
+     * Keeps only tasks whose title matches a condition.
+     * @param condition The condition on the title.
+     * @return this query.
+     */
+    public TaskQuery titleMatches(Predicate<String> condition) {
+        return where(task -> condition.test(task.getTitle()));
+    }
+
+    /**
+     * Keeps only tasks whose description matches a condition.
+     * @param condition The condition on the description.
+     * @return this query.
+     */
+    public TaskQuery descriptionMatches(Predicate<String> condition) {
+        return where(task -> condition.test(task.getDescription()));
+    }
+
+    /**
+     * Keeps only tasks matching a condition. For parallel scans the condition must be safe
+     * to call from several threads at once.
+     * @param condition The condition on the task.
+     * @return this query.
+     * @throws IllegalArgumentException if the condition is null.
+     */
+    public TaskQuery where(Predicate<Task> condition) {
+        if (condition == null) {
+            throw new IllegalArgumentException("Condition cannot be null.");
+        }
+        predicate = predicate == null ? condition : predicate.and(condition);
+        return this;
+    }
+
+    /**
+     * Sorts the results.
+     * @param comparator The order of the results.
+     * @return this query.
+     * @throws IllegalArgumentException if the comparator is null.
+     */
+    public TaskQuery sortedBy(Comparator<Task> comparator) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Comparator cannot be null.");
+        }
+        order = comparator;
+        return this;
+    }
+
+    /**
+     * Sorts the results by priority, HIGH first, with open tasks before completed ones,
+     * the same order as {@link ToDoList#getTasksByPriority()}.
+     * @return this query.
+     */
+    public TaskQuery sortedByPriority() {
+        order = ToDoList.PRIORITY_ORDER;
+        return this;
+    }
+
+    /**
+     * Returns at most the given number of tasks.
+     * @param maxResults The maximum number of tasks.
+     * @return this query.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public TaskQuery limit(int maxResults) {
+        if (maxResults < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative.");
+        }
+        limit = maxResults;
+        return this;
+    }
+
+    /**
+     * Sets the list size from which a query without a usable index is scanned in parallel.
+     * @param size The smallest list size to scan in parallel.
+     * @return this query.
+     * @throws IllegalArgumentException if the size is not positive.
+     */
+    public TaskQuery parallelThreshold(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Parallel threshold must be positive.");
+        }
+        parallelThreshold = size;
+        return this;
+    }
+
+    /**
+     * Tells how the query would run against the list as it is now.
+     * @return The plan {@link #list()} would use.
+     */
+    public Plan plan() {
+        return plan(toDoList.querySource());
+    }
+
+    /**
+     * Runs the query.
+     * @return A new list of the matching tasks.
+     */
+    public List<Task> list() {
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        Source source = toDoList.querySource();
+        return switch (plan(source)) {
+            case PRIORITY_INDEX -> readBuckets(source).result();
+            case PARALLEL_SCAN -> ForkJoinPool.commonPool()
+                    .invoke(new SliceScan(source.tasks(), 0, source.tasks().size(), sliceSize(source)))
+                    .result();
+            case SEQUENTIAL_SCAN -> scan(source.tasks(), 0, source.tasks().size()).result();
+        };
+    }
+
+    /**
+     * Counts the matching tasks, up to the limit. Counting a priority or completion filter on
+     * a bucketed list reads only the bucket sizes.
+     * @return The number of tasks {@link #list()} would return.
+     */
+    public int count() {
+        Source source = toDoList.querySource();
+        if (predicate == null && plan(source) == Plan.PRIORITY_INDEX) {
+            long total = 0;
+            for (List<Task> bucket : selectedBuckets(source)) {
+                total += bucket.size();
+            }
+            return (int) Math.min(total, limit);
+        }
+        return list().size();
+    }
+
+    /**
+     * The parts of a snapshot a query reads, handed out by {@link ToDoList#querySource()}.
+     * @param tasks all tasks in list order.
+     * @param idsAscending whether list order is also id order.
+     * @param open open tasks per priority ordinal in id order, or {@code null} without priority buckets.
+     * @param completed completed tasks per priority ordinal in id order, or {@code null} without priority buckets.
+     */
+    record Source(List<Task> tasks, boolean idsAscending, List<List<Task>> open, List<List<Task>> completed) {
+    }
+
+    private Plan plan(Source source) {
+        // bucket order is id order, which only matches list order while ids ascend
+        boolean bucketsHelp = priorities != null || completed != null || order == ToDoList.PRIORITY_ORDER;
+        if (source.open() != null && source.idsAscending() && bucketsHelp) {
+            return Plan.PRIORITY_INDEX;
+        }
+        if (source.tasks().size() >= parallelThreshold) {
+            return Plan.PARALLEL_SCAN;
+        }
+        return Plan.SEQUENTIAL_SCAN;
+    }
+
+    private boolean matches(Task task) {
+        return (priorities == null || priorities.contains(task.getPriority()))
+                && (completed == null || task.isCompleted() == completed)
+                && (predicate == null || predicate.test(task));
+    }
+
+    private Partial scan(List<Task> tasks, int from, int to) {
+        Partial partial = new Partial();
+        for (int i = from; i < to && !partial.isFull(); i++) {
+            Task task = tasks.get(i);
+            if (matches(task)) {
+                partial.add(task, i);
+            }
+        }
+        return partial;
+    }
+
+    private int sliceSize(Source source) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(MIN_SLICE, source.tasks().size() / (parallelism * 4));
+    }
+
+    /**
+     * Reads the buckets selected by the priority and completion filters. Buckets are already in
+     * id order, which is list order here, so with the priority sort they are read one after the
+     * other in priority order; otherwise they are merged by id. Either way reading stops once the
+     * limit is reached, unless a different sort order needs every match.
+     */
+    private Partial readBuckets(Source source) {
+        List<List<Task>> buckets = selectedBuckets(source);
+        if (order == ToDoList.PRIORITY_ORDER) {
+            // selectedBuckets lists them in exactly this order, so no sorting is needed
+            Partial ordered = new Partial(null);
+            for (List<Task> bucket : buckets) {
+                for (int i = 0; i < bucket.size() && !ordered.isFull(); i++) {
+                    Task task = bucket.get(i);
+                    if (predicate == null || predicate.test(task)) {
+                        ordered.add(task, task.getId());
+                    }
+                }
+            }
+            return ordered;
+        }
+        Partial partial = new Partial();
+        int[] cursors = new int[buckets.size()];
+        while (!partial.isFull()) {
+            int next = -1;
+            for (int b = 0; b < buckets.size(); b++) {
+                if (cursors[b] < buckets.get(b).size() && (next < 0
+                        || buckets.get(b).get(cursors[b]).getId() < buckets.get(next).get(cursors[next]).getId())) {
+                    next = b;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            Task task = buckets.get(next).get(cursors[next]++);
+            if (predicate == null || predicate.test(task)) {
+                partial.add(task, task.getId());
+            }
+        }
+        return partial;
+    }
+
+    private List<List<Task>> selectedBuckets(Source source) {
+        List<List<Task>> buckets = new ArrayList<>();
+        for (Priority priority : Priority.values()) {
+            if (priorities != null && !priorities.contains(priority)) {
+                continue;
+            }
+            if (completed == null || !completed) {
+                buckets.add(source.open().get(priority.ordinal()));
+            }
+            if (completed == null || completed) {
+                buckets.add(source.completed().get(priority.ordinal()));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * A match remembered together with its place in list order, which breaks ties between
+     * tasks the sort order considers equal.
+     */
+    private record Ranked(Task task, long position) {
+    }
+
+    /**
+     * The matches found in one part of the list. Without a sort order it keeps matches in list
+     * order and is full at the limit; with a sort order and a limit it keeps the best matches in
+     * a heap whose head is the worst of them; with a sort order but no limit it keeps every match
+     * and sorts them at the end.
+     */
+    private final class Partial {
+        private final Comparator<Task> sort;
+        private final Comparator<Ranked> best;
+        private final List<Ranked> hits = new ArrayList<>();
+        private final PriorityQueue<Ranked> top;
+
+        Partial() {
+            this(order);
+        }
+
+        Partial(Comparator<Task> sort) {
+            this.sort = sort;
+            this.best = sort == null ? null
+                    : Comparator.comparing(Ranked::task, sort).thenComparingLong(Ranked::position);
+            this.top = sort != null && limit != Integer.MAX_VALUE
+                    ? new PriorityQueue<>(Math.min(limit, 1024) + 1, best.reversed())
+                    : null;
+        }
+
+        boolean isFull() {
+            return sort == null && hits.size() >= limit;
+        }
+
+        void add(Task task, long position) {
+            Ranked ranked = new Ranked(task, position);
+            if (top == null) {
+                if (!isFull()) {
+                    hits.add(ranked);
+                }
+            } else if (top.size() < limit) {
+                top.add(ranked);
+            } else if (best.compare(ranked, top.peek()) < 0) {
+                top.poll();
+                top.add(ranked);
+            }
+        }
+
+        /**
+         * Adds the matches of the part of the list that follows this one.
+         */
+        void addAll(Partial next) {
+            if (top == null) {
+                for (Ranked ranked : next.hits) {
+                    if (isFull()) {
+                        return;
+                    }
+                    hits.add(ranked);
+                }
+            } else {
+                for (Ranked ranked : next.top) {
+                    add(ranked.task(), ranked.position());
+                }
+            }
+        }
+
+        List<Task> result() {
+            List<Ranked> ranked = hits;
+            if (top != null) {
+                ranked = new ArrayList<>(top);
+            }
+            if (best != null) {
+                ranked.sort(best);
+            }
+            List<Task> tasks = new ArrayList<>(ranked.size());
+            for (Ranked hit : ranked) {
+                tasks.add(hit.task());
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Scans a slice of the list, splitting it in halves until the halves are small enough.
+     */
+    @SuppressWarnings("serial")
+    private final class SliceScan extends RecursiveTask<Partial> {
+        private final List<Task> tasks;
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+
+        SliceScan(List<Task> tasks, int from, int to, int sliceSize) {
+            this.tasks = tasks;
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= sliceSize) {
+                return scan(tasks, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            SliceScan left = new SliceScan(tasks, from, middle, sliceSize);
+            left.fork();
+            Partial right = new SliceScan(tasks, middle, to, sliceSize).compute();
+            Partial merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
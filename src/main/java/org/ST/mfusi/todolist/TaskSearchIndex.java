@@ -0,0 +1,552 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A full-text index over the titles and descriptions of the tasks in a {@link ToDoList}.
+ * <p>Text is split into lower-case words made of letters and digits. For every word the index
+ * keeps a posting list: the ids of the tasks containing it, sorted, with a weight that counts
+ * title occurrences three times as much as description occurrences. The index listens to the
+ * to-do list and updates only the postings of the task that changed, so adding, removing or
+ * editing a task costs time proportional to that task's words, never to the size of the list.</p>
+ * <p>The words themselves are kept in a sorted dictionary, which serves as the prefix tree for
+ * type-ahead search: the last word of a query matches every indexed word starting with it, as
+ * long as the query does not end with a space. A task matches a query if it contains every
+ * query word. Matches are ranked by the sum of their word weights, each scaled by how rare the
+ * word is, and only the best {@code limit} matches are kept while the postings are scanned.
+ * Posting lists are intersected by walking the shortest one and looking each id up in the
+ * others, so a query costs time proportional to its rarest word.</p>
+ * <p>The index is safe to query from any thread while the to-do list is being changed.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public class TaskSearchIndex {
+
+    /**
+     * The most dictionary words a query's last word is expanded to when it is used as a prefix.
+     */
+    public static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    /**
+     * Orders hits from worst to best, so the head of the top-k heap is the hit to drop next.
+     * Equal scores favour the older task.
+     */
+    private static final Comparator<Hit> WORST_FIRST =
+            Comparator.comparingDouble(Hit::score).thenComparing(Hit::id, Comparator.reverseOrder());
+
+    private final ToDoList toDoList;
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Consumer<TaskEvent> listener = this::onEvent;
+    private List<TaskEvent> backlog = new ArrayList<>();
+    private int taskCount;
+
+    /**
+     * Builds the index from the current tasks of a list and keeps it up to date from then on.
+     * @param toDoList The list to index.
+     */
+    public TaskSearchIndex(ToDoList toDoList) {
+        this.toDoList = toDoList;
+        List<Task> snapshot = toDoList.addListener(listener);
+        lock.writeLock().lock();
+        try {
+            for (Task task : snapshot) {
+                index(task);
+            }
+            // changes made while the snapshot was being indexed came after it
+            for (TaskEvent event : backlog) {
+                apply(event);
+            }
+            backlog = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the tasks matching a query, best match first.
+     * @param query The words to look for. The last word also matches longer words it is a prefix of,
+     *              unless the query ends with whitespace.
+     * @param limit The maximum number of tasks to return.
+     * @return The matching tasks, best match first; empty if the query has no words or nothing matches.
+     * @throws IllegalArgumentException if the query is null or the limit is not positive.
+     */
+    public List<Task> search(String query, int limit) {
+        if (query == null) {
+            throw new IllegalArgumentException("Search query cannot be null.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be positive.");
+        }
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        Hit[] hits;
+        lock.readLock().lock();
+        try {
+            hits = rank(words, lastIsPrefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Task> results = new ArrayList<>(hits.length);
+        for (Hit hit : hits) {
+            Task task = toDoList.getTaskById(hit.id());
+            // null if the task was removed after the postings were read
+            if (task != null) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Retrieves the number of distinct words in the index.
+     * @return The number of indexed words.
+     */
+    public int getWordCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stops following the to-do list. The index keeps answering queries from its current contents.
+     */
+    public void dispose() {
+        toDoList.removeListener(listener);
+    }
+
+    private Hit[] rank(List<String> words, boolean lastIsPrefix, int limit) {
+        int exactCount = lastIsPrefix ? words.size() - 1 : words.size();
+        Postings[] exact = new Postings[exactCount];
+        for (int i = 0; i < exactCount; i++) {
+            exact[i] = dictionary.get(words.get(i));
+            if (exact[i] == null) {
+                return new Hit[0];
+            }
+        }
+        Postings[] expansions = new Postings[0];
+        long unionSize = 0;
+        double prefixBound = 0;
+        if (lastIsPrefix) {
+            expansions = expand(words.get(words.size() - 1));
+            if (expansions.length == 0) {
+                return new Hit[0];
+            }
+            for (Postings postings : expansions) {
+                unionSize += postings.liveCount();
+                prefixBound = Math.max(prefixBound, postings.maxWeight * idf(postings));
+            }
+        }
+        // the rarest exact word drives the scan, every other word is a lookup
+        Arrays.sort(exact, Comparator.comparingInt(Postings::liveCount));
+
+        // Candidates are scanned in id order and older tasks win ties, so once the heap is full of
+        // hits scoring as much as any task could, nothing later can get in and the scan stops.
+        // The bounds are summed in the same order as the scores so rounding cannot push a score past them.
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, WORST_FIRST);
+        if (exactCount > 0 && (long) exact[0].liveCount() * expansions.length <= unionSize) {
+            // probing every expansion for each candidate is cheaper than walking the whole prefix
+            Postings driver = exact[0];
+            double bound = driver.maxWeight * idf(driver) + exactBound(exact, 1) + prefixBound;
+            for (int i = 0; i < driver.size && !isSettled(top, limit, bound); i++) {
+                if (driver.weights[i] == 0) {
+                    continue;
+                }
+                long id = driver.ids[i];
+                double rest = exactScore(exact, 1, id);
+                double best = expansions.length > 0 ? bestPrefixScore(expansions, id) : 0;
+                if (rest >= 0 && (best > 0 || expansions.length == 0)) {
+                    offer(top, id, driver.weights[i] * idf(driver) + rest + best, limit);
+                }
+            }
+        } else {
+            // the prefix matches fewer tasks than the rarest exact word, so it drives the scan instead;
+            // its ids ascend, so every exact word is searched forward from where the last lookup ended
+            double bound = prefixBound + exactBound(exact, 0);
+            int[] positions = new int[exactCount];
+            scanPrefixUnion(expansions, (id, best) -> {
+                double rest = seekExactScore(exact, positions, id);
+                if (rest >= 0) {
+                    offer(top, id, best + rest, limit);
+                }
+                return !isSettled(top, limit, bound);
+            });
+        }
+
+        Hit[] ranked = top.toArray(new Hit[0]);
+        Arrays.sort(ranked, WORST_FIRST.reversed());
+        return ranked;
+    }
+
+    private Postings[] expand(String prefix) {
+        List<Postings> matches = new ArrayList<>();
+        for (Postings postings : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            matches.add(postings);
+            if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return matches.toArray(new Postings[0]);
+    }
+
+    private static boolean isSettled(PriorityQueue<Hit> top, int limit, double bound) {
+        return top.size() == limit && top.peek().score() >= bound;
+    }
+
+    /**
+     * The most the exact words from {@code from} on can add to a task's score.
+     */
+    private double exactBound(Postings[] exact, int from) {
+        double bound = 0;
+        for (int w = from; w < exact.length; w++) {
+            bound += exact[w].maxWeight * idf(exact[w]);
+        }
+        return bound;
+    }
+
+    /**
+     * Scores a task against the exact words from {@code from} on.
+     * @return The summed score, or -1 if the task lacks one of the words.
+     */
+    private double exactScore(Postings[] exact, int from, long id) {
+        double score = 0;
+        for (int w = from; w < exact.length; w++) {
+            int weight = exact[w].weightOf(id);
+            if (weight == 0) {
+                return -1;
+            }
+            score += weight * idf(exact[w]);
+        }
+        return score;
+    }
+
+    /**
+     * Scores a task against all exact words, for ids that only ever ascend between calls.
+     * @return The summed score, or -1 if the task lacks one of the words.
+     */
+    private double seekExactScore(Postings[] exact, int[] positions, long id) {
+        double score = 0;
+        for (int w = 0; w < exact.length; w++) {
+            Postings postings = exact[w];
+            int slot = postings.seek(id, positions[w]);
+            positions[w] = slot;
+            if (slot == postings.size || postings.ids[slot] != id || postings.weights[slot] == 0) {
+                return -1;
+            }
+            score += postings.weights[slot] * idf(postings);
+        }
+        return score;
+    }
+
+    private double bestPrefixScore(Postings[] expansions, long id) {
+        double best = 0;
+        for (Postings postings : expansions) {
+            int weight = postings.weightOf(id);
+            if (weight != 0) {
+                best = Math.max(best, weight * idf(postings));
+            }
+        }
+        return best;
+    }
+
+    @FunctionalInterface
+    private interface HitConsumer {
+        /**
+         * @return {@code false} to stop the scan.
+         */
+        boolean accept(long id, double score);
+    }
+
+    /**
+     * Walks all posting lists of a prefix at once in id order, so each task is scored once,
+     * with the best of the words it contains, without collecting the union in a map, and the
+     * scan can stop as soon as the best hits are known. The lists
+     * are merged through a heap of their next ids, kept in primitive arrays so that comparing
+     * two lists does not have to follow pointers into them.
+     */
+    private void scanPrefixUnion(Postings[] expansions, HitConsumer consumer) {
+        int[] cursors = new int[expansions.length];
+        long[] nextIds = new long[expansions.length];
+        int[] owners = new int[expansions.length];
+        int heapSize = 0;
+        for (int p = 0; p < expansions.length; p++) {
+            if (expansions[p].size > 0) {
+                nextIds[heapSize] = expansions[p].ids[0];
+                owners[heapSize] = p;
+                heapSize++;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(nextIds, owners, heapSize, i);
+        }
+        while (heapSize > 0) {
+            long id = nextIds[0];
+            double best = 0;
+            while (heapSize > 0 && nextIds[0] == id) {
+                int p = owners[0];
+                Postings postings = expansions[p];
+                int weight = postings.weights[cursors[p]];
+                if (weight != 0) {
+                    best = Math.max(best, weight * idf(postings));
+                }
+                if (++cursors[p] < postings.size) {
+                    nextIds[0] = postings.ids[cursors[p]];
+                } else {
+                    heapSize--;
+                    nextIds[0] = nextIds[heapSize];
+                    owners[0] = owners[heapSize];
+                }
+                siftDown(nextIds, owners, heapSize, 0);
+            }
+            if (best > 0 && !consumer.accept(id, best)) {
+                return;
+            }
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] owners, int size, int index) {
+        long key = keys[index];
+        int owner = owners[index];
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[index] = keys[child];
+            owners[index] = owners[child];
+            index = child;
+        }
+        keys[index] = key;
+        owners[index] = owner;
+    }
+
+    private static void offer(PriorityQueue<Hit> top, long id, double score, int limit) {
+        if (top.size() < limit) {
+            top.add(new Hit(id, score));
+            return;
+        }
+        Hit worst = top.peek();
+        // checked before allocating, since most candidates of a large scan do not make the cut
+        if (score > worst.score() || (score == worst.score() && id < worst.id())) {
+            top.poll();
+            top.add(new Hit(id, score));
+        }
+    }
+
+    /**
+     * Rare words say more about a task than common ones.
+     */
+    private double idf(Postings postings) {
+        return Math.log(1 + (double) taskCount / postings.liveCount());
+    }
+
+    private void onEvent(TaskEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (backlog != null) {
+                backlog.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(TaskEvent event) {
+        switch (event) {
+            case TaskEvent.Added added -> index(added.task());
+            case TaskEvent.BatchAdded batch -> batch.tasks().forEach(this::index);
+            case TaskEvent.Removed removed -> unindex(removed.task());
+            case TaskEvent.Updated updated -> {
+                Task before = updated.oldTask();
+                Task after = updated.newTask();
+                // completing a task or changing its priority leaves its words alone
+                if (!Objects.equals(before.getTitle(), after.getTitle())
+                        || !Objects.equals(before.getDescription(), after.getDescription())) {
+                    unindex(before);
+                    index(after);
+                }
+            }
+            case TaskEvent.Cleared cleared -> {
+                dictionary.clear();
+                taskCount = 0;
+            }
+        }
+    }
+
+    private void index(Task task) {
+        for (Map.Entry<String, Integer> word : weighWords(task).entrySet()) {
+            dictionary.computeIfAbsent(word.getKey(), key -> new Postings()).put(task.getId(), word.getValue());
+        }
+        taskCount++;
+    }
+
+    private void unindex(Task task) {
+        for (String word : weighWords(task).keySet()) {
+            Postings postings = dictionary.get(word);
+            if (postings != null && postings.remove(task.getId()) && postings.liveCount() == 0) {
+                dictionary.remove(word);
+            }
+        }
+        taskCount--;
+    }
+
+    private static Map<String, Integer> weighWords(Task task) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String word : tokenize(task.getTitle())) {
+            weights.merge(word, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String word : tokenize(task.getDescription())) {
+            weights.merge(word, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        return weights;
+    }
+
+    /**
+     * Splits text into lower-case words made of letters and digits.
+     * @param text The text to split; may be null.
+     * @return The words, in order, including repeats.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    private record Hit(long id, double score) {
+    }
+
+    /**
+     * The tasks containing one word: ids in ascending order with their weights. Removing a task
+     * only zeroes its weight, and the arrays are compacted once half of the slots are dead, so
+     * a removal from a long list does not shift the whole array.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int[] weights = new int[4];
+        private int size;
+        private int live;
+        // only ever raised, so it stays an upper bound when tasks are removed
+        private int maxWeight;
+
+        int liveCount() {
+            return live;
+        }
+
+        void put(long id, int weight) {
+            // new tasks get ever larger ids, so this is almost always an append
+            int slot = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            maxWeight = Math.max(maxWeight, weight);
+            if (slot >= 0) {
+                if (weights[slot] == 0) {
+                    live++;
+                }
+                weights[slot] = weight;
+                return;
+            }
+            int insertAt = -(slot + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            weights[insertAt] = weight;
+            size++;
+            live++;
+        }
+
+        boolean remove(long id) {
+            int slot = Arrays.binarySearch(ids, 0, size, id);
+            if (slot < 0 || weights[slot] == 0) {
+                return false;
+            }
+            weights[slot] = 0;
+            live--;
+            if (size > 8 && live < size / 2) {
+                compact();
+            }
+            return true;
+        }
+
+        /**
+         * Finds the first slot at or after {@code from} whose id is not less than {@code id},
+         * galloping ahead before searching, so a run of ascending lookups costs little more than a merge.
+         */
+        int seek(long id, int from) {
+            int low = from;
+            int high = from;
+            int step = 1;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            int slot = Arrays.binarySearch(ids, low, Math.min(high + 1, size), id);
+            return slot >= 0 ? slot : -(slot + 1);
+        }
+
+        int weightOf(long id) {
+            int slot = Arrays.binarySearch(ids, 0, size, id);
+            return slot < 0 ? 0 : weights[slot];
+        }
+
+        private void compact() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (weights[i] != 0) {
+                    ids[kept] = ids[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * The counts of a to-do list at one moment: how many tasks it holds, how many of them are open
+ * or completed, and how they are spread over the priorities.
+ * <p>A {@link ToDoList} keeps its counts up to date as it changes, adjusting them by the tasks
+ * each change adds, removes or replaces, so {@link ToDoList#getStats()} and every getter here
+ * are O(1) however long the list is. The counts are immutable; a change to the list produces
+ * new ones.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public final class TaskStats {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * The counts of an empty list.
+     */
+    static final TaskStats EMPTY = new TaskStats(new int[PRIORITIES.length], new int[PRIORITIES.length]);
+
+    /**
+     * Open tasks per priority ordinal.
+     */
+    private final int[] open;
+
+    /**
+     * Completed tasks per priority ordinal.
+     */
+    private final int[] completed;
+
+    private TaskStats(int[] open, int[] completed) {
+        this.open = open;
+        this.completed = completed;
+    }
+
+    /**
+     * Counts the tasks of a list one by one.
+     * @param tasks The tasks to count.
+     * @return Their counts.
+     */
+    static TaskStats of(Iterable<Task> tasks) {
+        int[] open = new int[PRIORITIES.length];
+        int[] completed = new int[PRIORITIES.length];
+        for (Task task : tasks) {
+            (task.isCompleted() ? completed : open)[task.getPriority().ordinal()]++;
+        }
+        return new TaskStats(open, completed);
+    }
+
+    /**
+     * Counts the rows of a stored table from its priority and status columns, without decoding any task.
+     * @param table The table to count.
+     * @return Its counts.
+     */
+    static TaskStats of(TaskTable table) {
+        int[] open = new int[PRIORITIES.length];
+        int[] completed = new int[PRIORITIES.length];
+        for (int i = 0; i < table.size(); i++) {
+            (table.isCompleted(i) ? completed : open)[table.priority(i).ordinal()]++;
+        }
+        return new TaskStats(open, completed);
+    }
+
+    /**
+     * @return The counts after a task was added.
+     */
+    TaskStats plus(Task task) {
+        return adjusted(task, 1);
+    }
+
+    /**
+     * @return The counts after the first {@code count} tasks of a batch were added.
+     */
+    TaskStats plusAll(Task[] batch, int count) {
+        int[] newOpen = open.clone();
+        int[] newCompleted = completed.clone();
+        for (int i = 0; i < count; i++) {
+            Task task = batch[i];
+            (task.isCompleted() ? newCompleted : newOpen)[task.getPriority().ordinal()]++;
+        }
+        return new TaskStats(newOpen, newCompleted);
+    }
+
+    /**
+     * @return The counts after a task was removed.
+     */
+    TaskStats minus(Task task) {
+        return adjusted(task, -1);
+    }
+
+    /**
+     * @return The counts after a task was replaced with an updated copy.
+     */
+    TaskStats replaced(Task oldTask, Task newTask) {
+        if (oldTask.isCompleted() == newTask.isCompleted() && oldTask.getPriority() == newTask.getPriority()) {
+            return this;
+        }
+        int[] newOpen = open.clone();
+        int[] newCompleted = completed.clone();
+        (oldTask.isCompleted() ? newCompleted : newOpen)[oldTask.getPriority().ordinal()]--;
+        (newTask.isCompleted() ? newCompleted : newOpen)[newTask.getPriority().ordinal()]++;
+        return new TaskStats(newOpen, newCompleted);
+    }
+
+    private TaskStats adjusted(Task task, int delta) {
+        int[] newOpen = open;
+        int[] newCompleted = completed;
+        if (task.isCompleted()) {
+            newCompleted = completed.clone();
+            newCompleted[task.getPriority().ordinal()] += delta;
+        } else {
+            newOpen = open.clone();
+            newOpen[task.getPriority().ordinal()] += delta;
+        }
+        return new TaskStats(newOpen, newCompleted);
+    }
+
+    /**
+     * Retrieves the number of tasks.
+     * @return The number of open and completed tasks.
+     */
+    public int getTotal() {
+        return getOpenCount() + getCompletedCount();
+    }
+
+    /**
+     * Retrieves the number of tasks that are not completed yet.
+     * @return The number of open tasks.
+     */
+    public int getOpenCount() {
+        return sum(open);
+    }
+
+    /**
+     * Retrieves the number of completed tasks.
+     * @return The number of completed tasks.
+     */
+    public int getCompletedCount() {
+        return sum(completed);
+    }
+
+    /**
+     * Retrieves the number of tasks with a priority.
+     * @param priority The priority to count.
+     * @return The number of open and completed tasks with that priority.
+     */
+    public int getCount(Priority priority) {
+        return open[priority.ordinal()] + completed[priority.ordinal()];
+    }
+
+    /**
+     * Retrieves the number of open tasks with a priority.
+     * @param priority The priority to count.
+     * @return The number of tasks with that priority that are not completed yet.
+     */
+    public int getOpenCount(Priority priority) {
+        return open[priority.ordinal()];
+    }
+
+    /**
+     * Retrieves the number of completed tasks with a priority.
+     * @param priority The priority to count.
+     * @return The number of completed tasks with that priority.
+     */
+    public int getCompletedCount(Priority priority) {
+        return completed[priority.ordinal()];
+    }
+
+    /**
+     * Retrieves the share of tasks that are completed.
+     * @return A value from 0 to 1; 0 for an empty list.
+     */
+    public double getCompletionRatio() {
+        int total = getTotal();
+        return total == 0 ? 0 : (double) getCompletedCount() / total;
+    }
+
+    /**
+     * Describes the counts on one line, for a status bar or the console.
+     * @return For example {@code "5 tasks: 3 open, 2 completed (40%) | HIGH 1, MEDIUM 3, LOW 1"}.
+     */
+    public String format() {
+        int total = getTotal();
+        StringBuilder sb = new StringBuilder(80)
+                .append(total).append(total == 1 ? " task: " : " tasks: ")
+                .append(getOpenCount()).append(" open, ")
+                .append(getCompletedCount()).append(" completed (")
+                .append(Math.round(getCompletionRatio() * 100)).append("%) |");
+        for (Priority priority : PRIORITIES) {
+            sb.append(priority.ordinal() == 0 ? " " : ", ").append(priority).append(' ').append(getCount(priority));
+        }
+        return sb.toString();
+    }
+
+    private static int sum(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof TaskStats stats)) return false;
+        return Arrays.equals(open, stats.open) && Arrays.equals(completed, stats.completed);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(open) + Arrays.hashCode(completed);
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", TaskStats.class.getSimpleName() + "[", "]")
+                .add("open=" + Arrays.toString(open))
+                .add("completed=" + Arrays.toString(completed))
+                .toString();
+    }
+}
@@ -0,0 +1,71 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+
+/**
+ * A read-only table of stored tasks that a {@link ToDoList} can start from without loading
+ * it first, see {@link ToDoList#ToDoList(ToDoList.StorageMode, TaskTable)}.
+ * <p>Rows are addressed by their 0-based position in insertion order. Implementations read
+ * each row only when it is asked for, so the cost of opening a table does not depend on its
+ * size. A table must not change once a list uses it, and must be safe to read from several
+ * threads at once.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+public interface TaskTable {
+
+    /**
+     * Retrieves the number of rows.
+     * @return The number of tasks in the table.
+     */
+    int size();
+
+    /**
+     * Reads the id of a row without decoding the rest of it.
+     * @param index The 0-based row.
+     * @return The task id.
+     */
+    long id(int index);
+
+    /**
+     * Reads the priority of a row without decoding the rest of it.
+     * @param index The 0-based row.
+     * @return The task priority.
+     */
+    Priority priority(int index);
+
+    /**
+     * Reads the completion status of a row without decoding the rest of it.
+     * @param index The 0-based row.
+     * @return {@code true} if the task is completed.
+     */
+    boolean isCompleted(int index);
+
+    /**
+     * Decodes a whole row. Every call returns a new task.
+     * @param index The 0-based row.
+     * @return The task stored in that row.
+     */
+    Task get(int index);
+
+    /**
+     * Finds the row holding a task.
+     * @param id The id of the task.
+     * @return The 0-based row, or -1 if no row holds that id.
+     */
+    int indexOf(long id);
+
+    /**
+     * Tells whether the rows are ordered by id.
+     * @return {@code true} if every row has a larger id than the row before it.
+     */
+    boolean idsAscending();
+
+    /**
+     * Retrieves the largest id in the table.
+     * @return The largest id, or 0 for an empty table.
+     */
+    long maxId();
+}
@@ -0,0 +1,513 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Task;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, persistent sequence of tasks, used by the object-based storage modes of {@link ToDoList}.
+ * <p>Tasks are kept in a balanced tree of small arrays: leaves hold up to {@value #WIDTH} tasks, and
+ * each branch holds up to {@value #WIDTH} children together with the running totals of their
+ * sizes, so a position is found by one short binary search per level. Every change copies only
+ * the path from the root to the leaf it touches and shares all other nodes with the sequence it
+ * started from. Reading, inserting, removing or replacing a task is therefore O(log n) in time and
+ * in new memory, and any number of earlier versions can be kept, for example as undo history,
+ * for little more than the nodes that differ.</p>
+ * <p>The last, incomplete leaf is kept outside the tree as the tail. Appending writes into the
+ * first unused slot of the tail when no other version has written it yet and returns a longer
+ * sequence over the same array; shorter sequences never read that slot. A full tail is moved
+ * into the tree as a leaf, so a series of appends stays amortised O(1).</p>
+ * <p>Leaves and branches that become less than half full after a removal are merged with a
+ * neighbour when both fit into one node, which keeps the tree shallow.</p>
+ * @author Sthembiso Mfusi
+ * @version 1.0
+ * @since 2026-10-18
+ */
+final class TaskVector {
+
+    /**
+     * The most tasks per leaf and the most children per branch.
+     */
+    static final int WIDTH = 32;
+
+    private static final Task[] NO_TASKS = new Task[0];
+
+    static final TaskVector EMPTY = new TaskVector(null, 0, NO_TASKS, 0);
+
+    /**
+     * The tree: a {@code Task[]} leaf, a {@link Branch}, or {@code null} if the tree is empty.
+     * All leaves are at the same depth.
+     */
+    private final Object root;
+    private final int treeSize;
+    private final Task[] tail;
+    private final int tailSize;
+
+    private TaskVector(Object root, int treeSize, Task[] tail, int tailSize) {
+        this.root = root;
+        this.treeSize = treeSize;
+        this.tail = tail;
+        this.tailSize = tailSize;
+    }
+
+    /**
+     * An inner node: its children and, for each child, the number of tasks in it and every child before it.
+     */
+    private static final class Branch {
+        final Object[] children;
+        final int[] sizes;
+
+        Branch(Object[] children) {
+            this.children = children;
+            this.sizes = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += count(children[i]);
+                sizes[i] = total;
+            }
+        }
+
+        Branch(Object[] children, int[] sizes) {
+            this.children = children;
+            this.sizes = sizes;
+        }
+
+        int total() {
+            return sizes[sizes.length - 1];
+        }
+
+        /**
+         * @return the child holding the task at {@code index}.
+         */
+        int slotFor(int index) {
+            int low = 0;
+            int high = sizes.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sizes[mid] > index) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        int offset(int slot) {
+            return slot > 0 ? sizes[slot - 1] : 0;
+        }
+    }
+
+    int size() {
+        return treeSize + tailSize;
+    }
+
+    Task get(int index) {
+        Objects.checkIndex(index, size());
+        if (index >= treeSize) {
+            return tail[index - treeSize];
+        }
+        Object node = root;
+        while (node instanceof Branch branch) {
+            int slot = branch.slotFor(index);
+            index -= branch.offset(slot);
+            node = branch.children[slot];
+        }
+        return ((Task[]) node)[index];
+    }
+
+    TaskVector append(Task task) {
+        if (tailSize < tail.length && tail[tailSize] == null) {
+            tail[tailSize] = task;
+            return new TaskVector(root, treeSize, tail, tailSize + 1);
+        }
+        if (tailSize < WIDTH) {
+            Task[] grown = newTail(tail, tailSize);
+            grown[tailSize] = task;
+            return new TaskVector(root, treeSize, grown, tailSize + 1);
+        }
+        Task[] next = new Task[WIDTH];
+        next[0] = task;
+        return withLeaf(tail).withTail(next, 1);
+    }
+
+    /**
+     * Appends the first {@code count} tasks of a batch, filling leaves directly from the batch.
+     */
+    TaskVector appendAll(Task[] batch, int count) {
+        if (count == 0) {
+            return this;
+        }
+        TaskVector tree = new TaskVector(root, treeSize, NO_TASKS, 0);
+        Task[] leaf = newTail(tail, tailSize);
+        int filled = tailSize;
+        int copied = 0;
+        while (copied < count) {
+            int chunk = Math.min(WIDTH - filled, count - copied);
+            System.arraycopy(batch, copied, leaf, filled, chunk);
+            filled += chunk;
+            copied += chunk;
+            if (filled == WIDTH) {
+                tree = tree.withLeaf(leaf);
+                leaf = new Task[WIDTH];
+                filled = 0;
+            }
+        }
+        return tree.withTail(leaf, filled);
+    }
+
+    TaskVector insertAt(int index, Task task) {
+        Objects.checkIndex(index, size() + 1);
+        if (index >= treeSize) {
+            int at = index - treeSize;
+            Task[] grown = new Task[tailSize + 1];
+            System.arraycopy(tail, 0, grown, 0, at);
+            grown[at] = task;
+            System.arraycopy(tail, at, grown, at + 1, tailSize - at);
+            if (grown.length <= WIDTH) {
+                return withTail(newTail(grown, grown.length), grown.length);
+            }
+            Task[] next = new Task[WIDTH];
+            next[0] = grown[WIDTH];
+            return withLeaf(Arrays.copyOf(grown, WIDTH)).withTail(next, 1);
+        }
+        Object[] parts = inserted(root, index, task);
+        Object newRoot = parts.length == 1 ? parts[0] : new Branch(parts);
+        return new TaskVector(newRoot, treeSize + 1, tail, tailSize);
+    }
+
+    /**
+     * Inserts a task at its place in a sequence ordered by id. The id must not be in the sequence yet.
+     */
+    TaskVector insertSorted(Task task) {
+        return insertAt(-(findById(task.getId()) + 1), task);
+    }
+
+    TaskVector removeAt(int index) {
+        Objects.checkIndex(index, size());
+        if (size() == 1) {
+            return EMPTY;
+        }
+        if (index >= treeSize) {
+            int at = index - treeSize;
+            Task[] shrunk = new Task[WIDTH];
+            System.arraycopy(tail, 0, shrunk, 0, at);
+            System.arraycopy(tail, at + 1, shrunk, at, tailSize - at - 1);
+            return withTail(shrunk, tailSize - 1);
+        }
+        Object newRoot = removed(root, index);
+        while (newRoot instanceof Branch branch && branch.children.length == 1) {
+            newRoot = branch.children[0];
+        }
+        return new TaskVector(newRoot, treeSize - 1, tail, tailSize);
+    }
+
+    TaskVector set(int index, Task task) {
+        Objects.checkIndex(index, size());
+        if (index >= treeSize) {
+            Task[] copy = newTail(tail, tailSize);
+            copy[index - treeSize] = task;
+            return withTail(copy, tailSize);
+        }
+        return new TaskVector(replaced(root, index, task), treeSize, tail, tailSize);
+    }
+
+    /**
+     * Merges tasks ordered by id into a sequence ordered by id. None of the ids may be in the sequence already.
+     */
+    TaskVector mergeById(Task[] add, int count) {
+        if (count == 0) {
+            return this;
+        }
+        int size = size();
+        if (size == 0 || get(size - 1).getId() < add[0].getId()) {
+            return appendAll(add, count);
+        }
+        Task[] result = new Task[size + count];
+        int mine = 0;
+        int theirs = 0;
+        Iterator<Task> own = asList().iterator();
+        Task next = own.next();
+        for (int i = 0; i < result.length; i++) {
+            if (theirs == count || (mine < size && next.getId() < add[theirs].getId())) {
+                result[i] = next;
+                mine++;
+                next = mine < size ? own.next() : null;
+            } else {
+                result[i] = add[theirs++];
+            }
+        }
+        return EMPTY.appendAll(result, result.length);
+    }
+
+    /**
+     * Binary search over a sequence ordered by id.
+     * @return the index of the task, or {@code -(insertion point) - 1} if it is not present.
+     */
+    int findById(long id) {
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    List<Task> asList() {
+        return new View();
+    }
+
+    private TaskVector withTail(Task[] newTail, int newTailSize) {
+        return new TaskVector(root, treeSize, newTail, newTailSize);
+    }
+
+    /**
+     * Adds a full leaf at the right edge of the tree. The tail is dropped, so it must already be in the leaf.
+     */
+    private TaskVector withLeaf(Task[] leaf) {
+        if (root == null) {
+            return new TaskVector(leaf, leaf.length, NO_TASKS, 0);
+        }
+        Object grown = pushed(root, leaf);
+        if (grown == null) {
+            grown = new Branch(new Object[] {root, pathTo(leaf, depth(root))});
+        }
+        return new TaskVector(grown, treeSize + leaf.length, NO_TASKS, 0);
+    }
+
+    private static Task[] newTail(Task[] tasks, int size) {
+        Task[] copy = new Task[WIDTH];
+        System.arraycopy(tasks, 0, copy, 0, size);
+        return copy;
+    }
+
+    private static int count(Object node) {
+        return node instanceof Branch branch ? branch.total() : ((Task[]) node).length;
+    }
+
+    private static int width(Object node) {
+        return node instanceof Branch branch ? branch.children.length : ((Task[]) node).length;
+    }
+
+    /**
+     * @return the number of branch levels above the leaves of a subtree.
+     */
+    private static int depth(Object node) {
+        int depth = 0;
+        while (node instanceof Branch branch) {
+            node = branch.children[0];
+            depth++;
+        }
+        return depth;
+    }
+
+    private static Object pathTo(Task[] leaf, int depth) {
+        Object node = leaf;
+        for (int i = 0; i < depth; i++) {
+            node = new Branch(new Object[] {node});
+        }
+        return node;
+    }
+
+    /**
+     * Adds a leaf at the right edge of a subtree.
+     * @return the new subtree, or {@code null} if the subtree has no room left.
+     */
+    private static Object pushed(Object node, Task[] leaf) {
+        if (!(node instanceof Branch branch)) {
+            return null;
+        }
+        Object[] children = branch.children;
+        Object last = children[children.length - 1];
+        Object grown = pushed(last, leaf);
+        if (grown != null) {
+            Object[] copy = children.clone();
+            copy[copy.length - 1] = grown;
+            int[] sizes = branch.sizes.clone();
+            sizes[sizes.length - 1] += leaf.length;
+            return new Branch(copy, sizes);
+        }
+        if (children.length == WIDTH) {
+            return null;
+        }
+        Object[] copy = Arrays.copyOf(children, children.length + 1);
+        copy[children.length] = pathTo(leaf, depth(last));
+        return new Branch(copy);
+    }
+
+    /**
+     * Inserts a task into a subtree.
+     * @return the new subtree, or two subtrees if it had to be split.
+     */
+    private static Object[] inserted(Object node, int index, Task task) {
+        if (node instanceof Task[] leaf) {
+            Task[] grown = new Task[leaf.length + 1];
+            System.arraycopy(leaf, 0, grown, 0, index);
+            grown[index] = task;
+            System.arraycopy(leaf, index, grown, index + 1, leaf.length - index);
+            if (grown.length <= WIDTH) {
+                return new Object[] {grown};
+            }
+            int half = grown.length / 2;
+            return new Object[] {Arrays.copyOfRange(grown, 0, half), Arrays.copyOfRange(grown, half, grown.length)};
+        }
+        Branch branch = (Branch) node;
+        int slot = branch.slotFor(index);
+        Object[] parts = inserted(branch.children[slot], index - branch.offset(slot), task);
+        Object[] children = new Object[branch.children.length + parts.length - 1];
+        System.arraycopy(branch.children, 0, children, 0, slot);
+        System.arraycopy(parts, 0, children, slot, parts.length);
+        System.arraycopy(branch.children, slot + 1, children, slot + parts.length, branch.children.length - slot - 1);
+        if (children.length <= WIDTH) {
+            return new Object[] {new Branch(children)};
+        }
+        int half = children.length / 2;
+        return new Object[] {new Branch(Arrays.copyOfRange(children, 0, half)),
+                new Branch(Arrays.copyOfRange(children, half, children.length))};
+    }
+
+    /**
+     * Removes a task from a subtree, merging a child that became less than half full into a neighbour.
+     * @return the new subtree, or {@code null} if it is empty now.
+     */
+    private static Object removed(Object node, int index) {
+        if (node instanceof Task[] leaf) {
+            if (leaf.length == 1) {
+                return null;
+            }
+            Task[] shrunk = new Task[leaf.length - 1];
+            System.arraycopy(leaf, 0, shrunk, 0, index);
+            System.arraycopy(leaf, index + 1, shrunk, index, leaf.length - index - 1);
+            return shrunk;
+        }
+        Branch branch = (Branch) node;
+        int slot = branch.slotFor(index);
+        Object child = removed(branch.children[slot], index - branch.offset(slot));
+        Object[] children = branch.children;
+        if (child == null) {
+            if (children.length == 1) {
+                return null;
+            }
+            Object[] shrunk = new Object[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, slot);
+            System.arraycopy(children, slot + 1, shrunk, slot, children.length - slot - 1);
+            return new Branch(shrunk);
+        }
+        children = children.clone();
+        children[slot] = child;
+        int neighbour = slot > 0 ? slot - 1 : slot + 1;
+        if (width(child) < WIDTH / 2 && neighbour < children.length
+                && width(child) + width(children[neighbour]) <= WIDTH) {
+            int left = Math.min(slot, neighbour);
+            Object[] merged = new Object[children.length - 1];
+            System.arraycopy(children, 0, merged, 0, left);
+            merged[left] = concat(children[left], children[left + 1]);
+            System.arraycopy(children, left + 2, merged, left + 1, children.length - left - 2);
+            children = merged;
+        }
+        return new Branch(children);
+    }
+
+    private static Object concat(Object first, Object second) {
+        if (first instanceof Task[] leaf) {
+            Task[] other = (Task[]) second;
+            Task[] joined = Arrays.copyOf(leaf, leaf.length + other.length);
+            System.arraycopy(other, 0, joined, leaf.length, other.length);
+            return joined;
+        }
+        Object[] mine = ((Branch) first).children;
+        Object[] theirs = ((Branch) second).children;
+        Object[] joined = Arrays.copyOf(mine, mine.length + theirs.length);
+        System.arraycopy(theirs, 0, joined, mine.length, theirs.length);
+        return new Branch(joined);
+    }
+
+    private static Object replaced(Object node, int index, Task task) {
+        if (node instanceof Task[] leaf) {
+            Task[] copy = leaf.clone();
+            copy[index] = task;
+            return copy;
+        }
+        Branch branch = (Branch) node;
+        int slot = branch.slotFor(index);
+        Object[] children = branch.children.clone();
+        children[slot] = replaced(children[slot], index - branch.offset(slot), task);
+        // replacing a task does not change any size, so the totals are shared
+        return new Branch(children, branch.sizes);
+    }
+
+    /**
+     * A read-only list over the sequence. Iteration walks the leaves instead of searching the tree for every task.
+     */
+    private final class View extends AbstractList<Task> implements RandomAccess {
+
+        @Override
+        public Task get(int index) {
+            return TaskVector.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return TaskVector.this.size();
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return new Iterator<>() {
+                private int next;
+                private Task[] leaf = NO_TASKS;
+                private int leafStart;
+                private int leafEnd;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size();
+                }
+
+                @Override
+                public Task next() {
+                    if (next >= size()) {
+                        throw new NoSuchElementException();
+                    }
+                    if (next >= leafEnd) {
+                        findLeaf();
+                    }
+                    return leaf[next++ - leafStart];
+                }
+
+                private void findLeaf() {
+                    if (next >= treeSize) {
+                        leaf = tail;
+                        leafStart = treeSize;
+                        leafEnd = size();
+                        return;
+                    }
+                    Object node = root;
+                    int index = next;
+                    while (node instanceof Branch branch) {
+                        int slot = branch.slotFor(index);
+                        index -= branch.offset(slot);
+                        node = branch.children[slot];
+                    }
+                    leaf = (Task[]) node;
+                    leafStart = next - index;
+                    leafEnd = leafStart + leaf.length;
+                }
+            };
+        }
+    }
+}
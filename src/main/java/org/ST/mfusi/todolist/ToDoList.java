@@ -4,30 +4,649 @@ import org.ST.mfusi.task.Priority;
 import org.ST.mfusi.task.Task;
 import org.ST.mfusi.validator.TaskValidator;
 
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * defines a to-do list class which
  * sorts all of the tasks that a user has to do.
  * they range in their priorities, completed status, and description
+ * <p>The list is safe to share between threads. Its contents live in an immutable
+ * snapshot that is replaced as a whole on every change (copy-on-write): writers are
+ * serialised against each other, while readers simply read the current snapshot and
+ * never take a lock, so rendering or refreshing a list never blocks a writer and
+ * never sees a half-applied change. Tasks inside a snapshot are never modified either;
+ * changing a task replaces it with an updated copy that keeps the same id.</p>
+ * <p>Tasks are kept in insertion order, next to a copy sorted by task id, so looking up,
+ * completing, editing or re-prioritising a task by id is a binary search rather than a
+ * scan. Because new tasks get ever larger ids, the insertion order is normally also id
+ * order, in which case both views share the same storage. Both are persistent trees (see
+ * {@link TaskVector}): appending a task is amortised O(1), {@link #addTasks(Iterable)} fills
+ * whole leaves straight from the batch, and removing, inserting or changing a task builds the
+ * next version in O(log n) while sharing everything else with the previous one.</p>
+ * <p>Lookup by id is therefore O(log n), not the O(1) of a hash index: a hash index would
+ * have to be copied or rebuilt for every snapshot, which would make every change O(n).
+ * Finding the position of a task, as {@link #indexOf(long)} does, is O(log n) as long as
+ * ids are in insertion order, but falls back to an O(n) scan once a task sits out of id
+ * order, for example after {@link #insertTask(int, Task)} or an {@link #undo()} that puts a
+ * removed task back.</p>
+ * <p>Because versions share their storage, the list can remember recent versions cheaply.
+ * After {@link #setUndoLimit(int)}, {@link #undo()} and {@link #redo()} step back and forth
+ * between them without copying the list. Columnar versions share less: removing, completing or
+ * editing a task copies the columns it touches, so a {@link StorageMode#COLUMNAR} list remembers
+ * at most {@value #COLUMNAR_UNDO_LIMIT} changes whatever limit is asked for.</p>
+ * <p>In {@link StorageMode#PRIORITY_BUCKETS} mode the list additionally keeps one bucket of
+ * open and one bucket of completed tasks per {@link Priority}, each ordered by task id.
+ * Priority-ordered iteration then needs no sort, and the
+ * next open task with the highest priority is found in O(1) without looking at any
+ * other task. {@link #getTaskList()} still returns insertion order.</p>
+ * <p>In {@link StorageMode#COLUMNAR} mode the tasks are not kept as objects at all but in
+ * primitive columns with their text packed as UTF-8, which needs well under half the memory
+ * of the other modes. Reading a task builds a new {@link Task} from the columns, so tasks read
+ * twice are equal but not the same object, and reads cost more than in the other modes.</p>
+ * <p>A list can also be opened over a {@link TaskTable}, such as a memory-mapped snapshot, with
+ * {@link #ToDoList(StorageMode, TaskTable)}. Its stored tasks are then only decoded when they are
+ * read, so opening a list of any size takes the same time.</p>
+ * <p>{@link #query()} filters, sorts and limits the tasks, using the priority buckets or a
+ * parallel scan where that is faster than checking every task in turn.</p>
+ * <p>Listeners registered with {@link #addListener(Consumer)} receive a {@link TaskEvent} for
+ * every change, which lets views and indexes follow the list without rescanning it. The list
+ * itself keeps its {@linkplain #getStats() counts} up to date the same way, so counting open,
+ * completed or per-priority tasks never looks at the tasks.</p>
+ * <p>Tasks are immutable, so a task in the list is changed through this class (for example
+ * {@link #markTaskComplete(long)}) or by building an updated copy with one of the with-updaters
+ * of {@link Task}, such as {@link Task#withCompleted(boolean)}, and passing it to
+ * {@link #replaceTask(Task)}. Building the copy alone leaves the list untouched.</p>
  * @author Sthembiso Mfusi
- * @version 1.1
+ * @version 1.9
  * @since 2025-06-24
  */
 public class ToDoList {
+
+    /**
+     * The ways a to-do list can organise its tasks internally.
+     */
+    public enum StorageMode {
+        /**
+         * Tasks are only kept in insertion order. Priority views are computed on demand.
+         */
+        INSERTION_ORDER,
+        /**
+         * Tasks are also grouped into open and completed buckets per priority.
+         */
+        PRIORITY_BUCKETS,
+        /**
+         * Tasks are stored column by column rather than as objects, which takes a fraction of the
+         * memory of the other modes. Every read builds new task objects from the columns.
+         * Changes other than appends copy the columns they touch, so undo history is capped at
+         * {@value ToDoList#COLUMNAR_UNDO_LIMIT} changes.
+         */
+        COLUMNAR
+    }
+
+    /**
+     * Orders tasks by priority (HIGH first) and puts open tasks before completed ones.
+     */
+    static final Comparator<Task> PRIORITY_ORDER =
+            Comparator.comparing(Task::getPriority).thenComparing(Task::isCompleted);
+
+    /**
+     * One immutable version of the list.
+     */
+    private sealed interface State permits ReferenceState, ColumnarState, TableState {
+
+        int size();
+
+        Task get(int index);
+
+        List<Task> asList();
+
+        Task getById(long id);
+
+        /**
+         * @return the 0-based index of the task with that id, or -1 if it is not in the list.
+         */
+        int indexOf(long id);
+
+        /**
+         * @return whether insertion order is also id order.
+         */
+        boolean idsAscending();
+
+        /**
+         * @return the largest id in the list; only defined for a non-empty list.
+         */
+        long maxId();
+
+        State appended(Task task);
+
+        /**
+         * Appends a whole batch, growing storage once. The batch must not contain ids that are
+         * already in the list or repeated within it.
+         */
+        State appendedAll(Task[] batch, int count);
+
+        State removed(int index);
+
+        /**
+         * Inserts a task at a position. The id must not be in the list yet.
+         */
+        State inserted(int index, Task task);
+
+        /**
+         * Replaces the task at a position with an updated copy that has the same id.
+         */
+        State replaced(int index, Task task);
+
+        default List<Task> byPriority() {
+            List<Task> sorted = new ArrayList<>(asList());
+            sorted.sort(PRIORITY_ORDER);
+            return sorted;
+        }
+
+        default Task peekNext() {
+            Task next = null;
+            for (Task task : asList()) {
+                if (!task.isCompleted() && (next == null || task.getPriority().compareTo(next.getPriority()) < 0)) {
+                    next = task;
+                }
+            }
+            return next;
+        }
+
+        default TaskQuery.Source querySource() {
+            return new TaskQuery.Source(asList(), idsAscending(), null, null);
+        }
+    }
+
+    /**
+     * A version of the list that holds task objects.
+     * @param tasks all tasks in insertion order.
+     * @param byId all tasks ordered by id; the same array as {@code tasks} while {@code idsAscending} holds.
+     * @param idsAscending whether insertion order is also id order. This only stops being true when a
+     *                     task created earlier is added after a newer one.
+     * @param open open tasks per priority ordinal, ordered by id; {@code null} without priority buckets.
+     * @param completed completed tasks per priority ordinal, ordered by id; {@code null} without priority buckets.
+     */
+    private record ReferenceState(TaskVector tasks, TaskVector byId, boolean idsAscending,
+                                  TaskVector[] open, TaskVector[] completed) implements State {
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
+
+        @Override
+        public Task get(int index) {
+            return tasks.get(index);
+        }
+
+        @Override
+        public List<Task> asList() {
+            return tasks.asList();
+        }
+
+        @Override
+        public Task getById(long id) {
+            int index = byId.findById(id);
+            return index >= 0 ? byId.get(index) : null;
+        }
+
+        @Override
+        public int indexOf(long id) {
+            return ToDoList.indexOf(this, id);
+        }
+
+        @Override
+        public long maxId() {
+            return byId.get(byId.size() - 1).getId();
+        }
+
+        @Override
+        public State appended(Task task) {
+            return ToDoList.appended(this, task);
+        }
+
+        @Override
+        public State appendedAll(Task[] batch, int count) {
+            return ToDoList.appendedAll(this, batch, count);
+        }
+
+        @Override
+        public State removed(int index) {
+            return ToDoList.removed(this, index);
+        }
+
+        @Override
+        public State inserted(int index, Task task) {
+            return ToDoList.inserted(this, index, task);
+        }
+
+        @Override
+        public State replaced(int index, Task task) {
+            return ToDoList.replaced(this, index, task);
+        }
+
+        @Override
+        public List<Task> byPriority() {
+            if (open == null) {
+                return State.super.byPriority();
+            }
+            List<Task> ordered = new ArrayList<>(tasks.size());
+            for (Priority priority : Priority.values()) {
+                ordered.addAll(open[priority.ordinal()].asList());
+                ordered.addAll(completed[priority.ordinal()].asList());
+            }
+            return ordered;
+        }
+
+        @Override
+        public Task peekNext() {
+            if (open == null) {
+                return State.super.peekNext();
+            }
+            for (TaskVector bucket : open) {
+                if (bucket.size() > 0) {
+                    return bucket.get(0);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public TaskQuery.Source querySource() {
+            if (open == null) {
+                return State.super.querySource();
+            }
+            List<List<Task>> openLists = new ArrayList<>(open.length);
+            List<List<Task>> completedLists = new ArrayList<>(completed.length);
+            for (int i = 0; i < open.length; i++) {
+                openLists.add(open[i].asList());
+                completedLists.add(completed[i].asList());
+            }
+            return new TaskQuery.Source(tasks.asList(), idsAscending, openLists, completedLists);
+        }
+    }
+
+    /**
+     * A version of the list stored in columns, see {@link StorageMode#COLUMNAR}.
+     * @param columns all tasks in insertion order.
+     */
+    private record ColumnarState(TaskColumns columns) implements State {
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public Task get(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public List<Task> asList() {
+            return columns.asList();
+        }
+
+        @Override
+        public Task getById(long id) {
+            int index = columns.indexOf(id);
+            return index >= 0 ? columns.get(index) : null;
+        }
+
+        @Override
+        public int indexOf(long id) {
+            return columns.indexOf(id);
+        }
+
+        @Override
+        public boolean idsAscending() {
+            return columns.idsAscending();
+        }
+
+        @Override
+        public long maxId() {
+            return columns.maxId();
+        }
+
+        @Override
+        public State appended(Task task) {
+            return new ColumnarState(columns.append(task));
+        }
+
+        @Override
+        public State appendedAll(Task[] batch, int count) {
+            return new ColumnarState(columns.appendAll(batch, count));
+        }
+
+        @Override
+        public State removed(int index) {
+            return new ColumnarState(columns.removeAt(index));
+        }
+
+        @Override
+        public State inserted(int index, Task task) {
+            if (index == columns.size()) {
+                return appended(task);
+            }
+            // columns only grow at the end, so an insertion rebuilds them
+            List<Task> tasks = new ArrayList<>(columns.asList());
+            tasks.add(index, task);
+            return new ColumnarState(TaskColumns.EMPTY.appendAll(tasks.toArray(new Task[0]), tasks.size()));
+        }
+
+        @Override
+        public State replaced(int index, Task task) {
+            return new ColumnarState(columns.set(index, task));
+        }
+
+        @Override
+        public Task peekNext() {
+            int index = columns.nextOpenIndex();
+            return index >= 0 ? columns.get(index) : null;
+        }
+    }
+
+    /**
+     * A version of the list that still reads the tasks it started with from a {@link TaskTable}.
+     * Tasks added since are kept in {@code tail}, a state of the list's own storage mode. Reads,
+     * counts and appends never load the table; the first removal or edit loads it into a state of
+     * the list's storage mode, which then replaces this one.
+     * @param table the stored tasks, which come first in the list.
+     * @param empty an empty state of the list's storage mode.
+     * @param tail the tasks added after the list was opened.
+     */
+    private record TableState(TaskTable table, State empty, State tail) implements State {
+
+        @Override
+        public int size() {
+            return table.size() + tail.size();
+        }
+
+        @Override
+        public Task get(int index) {
+            int stored = table.size();
+            return index < stored ? table.get(index) : tail.get(index - stored);
+        }
+
+        @Override
+        public List<Task> asList() {
+            List<Task> added = tail.asList();
+            int stored = table.size();
+            return new TableList(table, added, stored + added.size());
+        }
+
+        @Override
+        public Task getById(long id) {
+            int index = table.indexOf(id);
+            return index >= 0 ? table.get(index) : tail.getById(id);
+        }
+
+        @Override
+        public int indexOf(long id) {
+            int index = table.indexOf(id);
+            if (index >= 0) {
+                return index;
+            }
+            int added = tail.indexOf(id);
+            return added >= 0 ? table.size() + added : -1;
+        }
+
+        @Override
+        public boolean idsAscending() {
+            return table.idsAscending() && tail.idsAscending()
+                    && (table.size() == 0 || tail.size() == 0 || table.maxId() < tail.get(0).getId());
+        }
+
+        @Override
+        public long maxId() {
+            if (tail.size() == 0) {
+                return table.maxId();
+            }
+            return table.size() == 0 ? tail.maxId() : Math.max(table.maxId(), tail.maxId());
+        }
+
+        @Override
+        public State appended(Task task) {
+            return new TableState(table, empty, tail.appended(task));
+        }
+
+        @Override
+        public State appendedAll(Task[] batch, int count) {
+            return new TableState(table, empty, tail.appendedAll(batch, count));
+        }
+
+        @Override
+        public State removed(int index) {
+            return loaded().removed(index);
+        }
+
+        @Override
+        public State inserted(int index, Task task) {
+            int stored = table.size();
+            return index >= stored ? new TableState(table, empty, tail.inserted(index - stored, task))
+                    : loaded().inserted(index, task);
+        }
+
+        @Override
+        public State replaced(int index, Task task) {
+            return loaded().replaced(index, task);
+        }
+
+        @Override
+        public Task peekNext() {
+            int best = -1;
+            for (int i = 0; i < table.size(); i++) {
+                if (!table.isCompleted(i) && (best < 0 || table.priority(i).compareTo(table.priority(best)) < 0)) {
+                    best = i;
+                    if (table.priority(i).ordinal() == 0) {
+                        break;
+                    }
+                }
+            }
+            Task added = tail.peekNext();
+            if (best < 0 || (added != null && added.getPriority().compareTo(table.priority(best)) < 0)) {
+                return added;
+            }
+            return table.get(best);
+        }
+
+        /**
+         * Reads every stored task into the tail's storage mode.
+         */
+        private State loaded() {
+            Task[] stored = new Task[table.size()];
+            Arrays.parallelSetAll(stored, table::get);
+            State loaded = stored.length > 0 ? empty.appendedAll(stored, stored.length) : empty;
+            List<Task> added = tail.asList();
+            return added.isEmpty() ? loaded : loaded.appendedAll(added.toArray(new Task[0]), added.size());
+        }
+    }
+
+    /**
+     * The tasks of a {@link TableState}: the stored rows followed by the added tasks.
+     */
+    private static final class TableList extends AbstractList<Task> implements RandomAccess {
+        private final TaskTable table;
+        private final List<Task> added;
+        private final int size;
+
+        TableList(TaskTable table, List<Task> added, int size) {
+            this.table = table;
+            this.added = added;
+            this.size = size;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            int stored = table.size();
+            return index < stored ? table.get(index) : added.get(index - stored);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Batches with at least this many rows are validated in parallel chunks.
+     */
+    private static final int PARALLEL_VALIDATION_THRESHOLD = 16_384;
+
+    /**
+     * The number of rows validated together by one parallel worker.
+     */
+    private static final int VALIDATION_CHUNK = 4_096;
+
+    /**
+     * The most changes a {@link StorageMode#COLUMNAR} list remembers for undo. Each remembered
+     * removal or edit can keep a full copy of a column alive, so history is bounded by a small
+     * multiple of the list rather than by the requested limit.
+     */
+    static final int COLUMNAR_UNDO_LIMIT = 8;
+
+    /**
+     * How this list organises its tasks.
+     */
+    private final StorageMode storageMode;
+
+    /**
+     * The current snapshot. Only replaced while holding the list's monitor.
+     */
+    private volatile State state;
+
     /**
-     * A list holding all the {@link Task} objects in this to-do list.
+     * The counts of the current snapshot, replaced along with it; {@code null} for a list opened
+     * over a stored table until they are first needed. Only replaced while holding the list's monitor.
      */
-    private List<Task> taskList;
+    private volatile TaskStats stats;
 
     /**
-     * Constructs a new, empty ToDoList.
+     * Listeners notified of every change, see {@link #addListener(Consumer)}.
+     */
+    private final List<Consumer<TaskEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The publisher of {@link #changes()}, created when first asked for. Guarded by the list's monitor.
+     */
+    private TaskEventPublisher changes;
+
+    /**
+     * One remembered change: the versions and counts before and after it, and the event it was reported as.
+     */
+    private record Step(State before, State after, TaskStats statsBefore, TaskStats statsAfter, TaskEvent event) {}
+
+    /**
+     * The most changes remembered for undo, 0 if history is off. Guarded by the list's monitor.
+     */
+    private int undoLimit;
+
+    /**
+     * Changes that can be undone, most recent first. Guarded by the list's monitor.
+     */
+    private final Deque<Step> undoSteps = new ArrayDeque<>();
+
+    /**
+     * Undone changes that can be made again, most recently undone first. Guarded by the list's monitor.
+     */
+    private final Deque<Step> redoSteps = new ArrayDeque<>();
+
+    /**
+     * Constructs a new, empty ToDoList that keeps tasks in insertion order only.
      */
     public ToDoList(){
-        this.taskList = new ArrayList<>();
+        this(StorageMode.INSERTION_ORDER);
+    }
+
+    /**
+     * Constructs a new, empty ToDoList with the given storage mode.
+     * @param storageMode how the list should organise its tasks.
+     */
+    public ToDoList(StorageMode storageMode) {
+        this.storageMode = Objects.requireNonNull(storageMode, "storageMode");
+        this.state = emptyState();
+        this.stats = TaskStats.EMPTY;
+    }
+
+    /**
+     * Constructs a list that starts out with the tasks of a stored table, for example a memory-mapped
+     * snapshot. The table is not read up front: tasks are decoded when they are looked at, and
+     * counting or appending tasks does not decode any. The first removal or edit reads the whole
+     * table into the given storage mode.
+     * @param storageMode how the list should organise its tasks once it has read the table.
+     * @param stored the tasks the list starts with; it must not change while the list uses it.
+     */
+    public ToDoList(StorageMode storageMode, TaskTable stored) {
+        this.storageMode = Objects.requireNonNull(storageMode, "storageMode");
+        Task.reserveIdsUpTo(stored.maxId());
+        State empty = emptyState();
+        this.state = new TableState(stored, empty, empty);
+    }
+
+    /**
+     * returns how this list organises its tasks
+     * @return the storage mode of the list
+     */
+    public StorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Registers a listener that is told about every later change to the list.
+     * <p>Listeners are called on the thread that made the change, while it still holds the
+     * list's write lock, so they must be quick and must not change the list themselves; a
+     * listener that needs to do real work should hand the event to another thread. Exceptions
+     * thrown by a listener are passed to the thread's uncaught exception handler.</p>
+     * @param listener the listener to add.
+     * @return the tasks at the moment the listener was added. The first event the listener
+     *         receives applies to exactly this snapshot.
+     */
+    public synchronized List<Task> addListener(Consumer<TaskEvent> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+        return state.asList();
+    }
+
+    /**
+     * Unregisters a listener.
+     * @param listener the listener to remove.
+     */
+    public void removeListener(Consumer<TaskEvent> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the changes to the list as a reactive stream. Unlike a listener, a subscriber is
+     * called on a thread of its own, receives no more events than it has requested, and has a
+     * bounded buffer for the events it has not taken yet, so a slow consumer never holds up
+     * the thread changing the list.
+     * @return the publisher of this list's events; always the same one.
+     */
+    public synchronized TaskEventPublisher changes() {
+        if (changes == null) {
+            changes = new TaskEventPublisher(this);
+        }
+        return changes;
     }
 
     /**
@@ -58,30 +677,489 @@ public class ToDoList {
 
         // 2. Only if validation passes, create and add the task.
         Task task = new Task(title, description, priority);
-        taskList.add(task);
+        synchronized (this) {
+            int index = state.size();
+            commit(state.appended(task), stats().plus(task), () -> new TaskEvent.Added(index, task));
+        }
+    }
+
+    /**
+     * Adds an already constructed task to the list, keeping its id and completion status.
+     * This is used when restoring a list from storage.
+     *
+     * @param task the task to add.
+     * @throws IllegalArgumentException if the task is null, any of its properties are invalid,
+     *                                  or a task with the same id is already in the list.
+     */
+    public void addTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        TaskValidator.validate(task.getTitle(), task.getDescription(), task.getPriority());
+        synchronized (this) {
+            if (state.getById(task.getId()) != null) {
+                throw new IllegalArgumentException("A task with id " + task.getId() + " is already in the list.");
+            }
+            int index = state.size();
+            commit(state.appended(task), stats().plus(task), () -> new TaskEvent.Added(index, task));
+        }
+    }
+
+    /**
+     * Adds a batch of tasks, keeping their ids and completion status, for example when importing
+     * tasks from another tool.
+     * <p>Every row is checked like {@link #addTask(Task)}, large batches in parallel chunks, but a
+     * bad row does not stop the batch: it is left out and reported, and every other row is added.
+     * The accepted tasks are published in a single step, so other threads see either none or all
+     * of them, and listeners receive one {@link TaskEvent.BatchAdded} event. Storage grows once
+     * for the whole batch rather than once per task.</p>
+     *
+     * @param tasks the tasks to add.
+     * @return the added tasks and the rejected rows with the reason for each.
+     * @throws IllegalArgumentException if {@code tasks} is null.
+     */
+    public BulkAddReport addTasks(Iterable<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null.");
+        }
+        if (tasks instanceof Collection<Task> collection) {
+            return addAll(collection.toArray(new Task[0]));
+        }
+        List<Task> rows = new ArrayList<>();
+        tasks.forEach(rows::add);
+        return addAll(rows.toArray(new Task[0]));
+    }
+
+    /**
+     * Adds a batch of tasks from a stream, see {@link #addTasks(Iterable)}.
+     *
+     * @param tasks the tasks to add; the stream is consumed.
+     * @return the added tasks and the rejected rows with the reason for each.
+     * @throws IllegalArgumentException if {@code tasks} is null.
+     */
+    public BulkAddReport addTasks(Stream<Task> tasks) {
+        if (tasks == null) {
+            throw new IllegalArgumentException("Tasks cannot be null.");
+        }
+        return addAll(tasks.toArray(Task[]::new));
     }
 
     /**
      * returns the list of tasks
-     * @return the list of tasks
+     * @return an unmodifiable snapshot of the tasks, in insertion order. Later changes to the
+     *         to-do list are not reflected in it.
      */
     public List<Task> getTaskList() {
-        return taskList;
+        return state.asList();
     }
 
     /**
-     * removes a task from the list
+     * Looks up a task by its id with a binary search over the tasks sorted by id.
+     * @param id the id of the task.
+     * @return the task, or {@code null} if no task with that id is in the list.
+     */
+    public Task getTaskById(long id) {
+        return state.getById(id);
+    }
+
+    /**
+     * Finds the position of a task in the list. This is a binary search while the tasks are in
+     * id order, and a scan of the list once a task was inserted out of id order.
+     * @param id the id of the task.
+     * @return the 0-based index of the task, or -1 if no task with that id is in the list.
+     */
+    public int indexOf(long id) {
+        return state.indexOf(id);
+    }
+
+    /**
+     * removes a task from the list. The task is identified by its id, so another task
+     * with the same title and description is never removed by mistake.
      * @param task the task to remove
      */
     public void removeTask(Task task) {
-        taskList.remove(task);
+        if (task != null) {
+            removeTaskById(task.getId());
+        }
+    }
+
+    /**
+     * Removes the task with the given id.
+     * @param id the id of the task to remove.
+     * @return {@code true} if a task was removed, {@code false} if none had that id.
+     */
+    public synchronized boolean removeTaskById(long id) {
+        int index = state.indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        Task removed = state.get(index);
+        commit(state.removed(index), stats().minus(removed), () -> new TaskEvent.Removed(index, removed));
+        return true;
+    }
+
+    /**
+     * Removes the task at a position in the list.
+     * @param index the 0-based index of the task.
+     * @return the removed task.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public synchronized Task removeTaskAt(int index) {
+        State current = state;
+        Objects.checkIndex(index, current.size());
+        Task removed = current.get(index);
+        commit(current.removed(index), stats().minus(removed), () -> new TaskEvent.Removed(index, removed));
+        return removed;
+    }
+
+    /**
+     * Marks the task with the given id as complete.
+     * @param id the id of the task.
+     * @return {@code true} if the task was found, {@code false} otherwise.
+     */
+    public synchronized boolean markTaskComplete(long id) {
+        Task task = getTaskById(id);
+        if (task == null) {
+            return false;
+        }
+        if (!task.isCompleted()) {
+            replace(task, task.withCompleted(true));
+        }
+        return true;
+    }
+
+    /**
+     * Changes the priority of the task with the given id.
+     * @param id the id of the task.
+     * @param priority the new priority.
+     * @return {@code true} if the task was found, {@code false} otherwise.
+     * @throws IllegalArgumentException if the priority is null.
+     */
+    public synchronized boolean changeTaskPriority(long id, Priority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Task priority cannot be null.");
+        }
+        Task task = getTaskById(id);
+        if (task == null) {
+            return false;
+        }
+        if (task.getPriority() != priority) {
+            replace(task, task.withPriority(priority));
+        }
+        return true;
+    }
+
+    /**
+     * Edits the title and/or description of the task with the given id.
+     * Blank values leave the corresponding field unchanged.
+     * @param id the id of the task.
+     * @param title the new title, or a blank value to keep the current one.
+     * @param description the new description, or a blank value to keep the current one.
+     * @return {@code true} if the task was found, {@code false} otherwise.
+     */
+    public boolean editTask(long id, String title, String description) {
+        return editTask(id, title, description, null);
+    }
+
+    /**
+     * Edits the title, description and/or due date of the task with the given id in one change.
+     * Blank or null values leave the corresponding field unchanged.
+     * @param id the id of the task.
+     * @param title the new title, or a blank value to keep the current one.
+     * @param description the new description, or a blank value to keep the current one.
+     * @param dueDate the new due date, or {@code null} to keep the current one.
+     * @return {@code true} if the task was found, {@code false} otherwise.
+     */
+    public synchronized boolean editTask(long id, String title, String description, Instant dueDate) {
+        Task task = getTaskById(id);
+        if (task == null) {
+            return false;
+        }
+        String newTitle = title != null && !title.isBlank() ? title : task.getTitle();
+        String newDescription = description != null && !description.isBlank() ? description : task.getDescription();
+        Task updated = task.withDetails(newTitle, newDescription);
+        if (dueDate != null) {
+            updated = updated.withDueDate(dueDate);
+        }
+        if (updated != task) {
+            replace(task, updated);
+        }
+        return true;
+    }
+
+    /**
+     * Sets or removes the due date of the task with the given id.
+     * @param id the id of the task.
+     * @param dueDate the new due date, or {@code null} to remove it.
+     * @return {@code true} if the task was found, {@code false} otherwise.
+     */
+    public synchronized boolean setDueDate(long id, Instant dueDate) {
+        Task task = getTaskById(id);
+        if (task == null) {
+            return false;
+        }
+        Task updated = task.withDueDate(dueDate);
+        if (updated != task) {
+            replace(task, updated);
+        }
+        return true;
     }
 
     /**
      * clears the list of tasks
      */
-    public void clearTasks() {
-        taskList.clear();
+    public synchronized void clearTasks() {
+        List<Task> removed = state.asList();
+        if (!removed.isEmpty()) {
+            commit(emptyState(), TaskStats.EMPTY, () -> new TaskEvent.Cleared(removed));
+        }
+    }
+
+    /**
+     * Inserts an already constructed task at a position, keeping its id and completion status.
+     * This is used to put back a task whose removal was undone, for example when replaying a log.
+     * @param index the 0-based position of the task; the tasks from there on move one place back.
+     * @param task the task to insert.
+     * @throws IllegalArgumentException if the task is null, any of its properties are invalid, the
+     *                                  position is out of range, or a task with the same id is already in the list.
+     */
+    public void insertTask(int index, Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        TaskValidator.validate(task.getTitle(), task.getDescription(), task.getPriority());
+        synchronized (this) {
+            if (index < 0 || index > state.size()) {
+                throw new IllegalArgumentException("Invalid task position: " + index);
+            }
+            if (state.getById(task.getId()) != null) {
+                throw new IllegalArgumentException("A task with id " + task.getId() + " is already in the list.");
+            }
+            commit(state.inserted(index, task), stats().plus(task), () -> new TaskEvent.Added(index, task));
+        }
+    }
+
+    /**
+     * Edits the title, description and priority of the task with the given id and optionally
+     * completes it, all in one change. Blank or null values leave the corresponding field unchanged.
+     * @param id the id of the task.
+     * @param title the new title, or a blank value to keep the current one.
+     * @param description the new description, or a blank value to keep the current one.
+     * @param priority the new priority, or {@code null} to keep the current one.
+     * @param complete {@code true} to mark the task as completed; {@code false} leaves its status as it is.
+     * @return {@code true} if the task was found, {@code false} otherwise.
+     * @throws IllegalArgumentException if a new value is invalid.
+     */
+    public synchronized boolean updateTask(long id, String title, String description, Priority priority,
+                                           boolean complete) {
+        Task task = getTaskById(id);
+        if (task == null) {
+            return false;
+        }
+        String newTitle = title != null && !title.isBlank() ? title : task.getTitle();
+        String newDescription = description != null && !description.isBlank() ? description : task.getDescription();
+        Task updated = task.withDetails(newTitle, newDescription);
+        if (priority != null) {
+            updated = updated.withPriority(priority);
+        }
+        if (complete) {
+            updated = updated.withCompleted(true);
+        }
+        if (updated != task) {
+            replace(task, updated);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the task that has the same id as the given one with it, including its completion status.
+     * @param task the updated task.
+     * @return {@code true} if a task with that id was found, {@code false} otherwise.
+     * @throws IllegalArgumentException if the task is null or any of its properties are invalid.
+     */
+    public boolean replaceTask(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null.");
+        }
+        TaskValidator.validate(task.getTitle(), task.getDescription(), task.getPriority());
+        synchronized (this) {
+            Task current = getTaskById(task.getId());
+            if (current == null) {
+                return false;
+            }
+            replace(current, task);
+            return true;
+        }
+    }
+
+    /**
+     * Sets how many changes {@link #undo()} can take back. Every change made from then on is
+     * remembered, up to this many; older ones are forgotten. Remembering a change keeps the
+     * version of the list from before it, which shares all unchanged storage with the current
+     * version, so history costs memory in proportion to what changed rather than to the size of
+     * the list. History is off (a limit of 0) until this is called. A
+     * {@link StorageMode#COLUMNAR} list copies the columns a change touches, so it remembers at
+     * most {@value #COLUMNAR_UNDO_LIMIT} changes and {@link #getUndoLimit()} reports the capped limit.
+     * @param limit the number of changes to remember, or 0 to turn history off and forget it.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public synchronized void setUndoLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Undo limit cannot be negative.");
+        }
+        undoLimit = storageMode == StorageMode.COLUMNAR ? Math.min(limit, COLUMNAR_UNDO_LIMIT) : limit;
+        while (undoSteps.size() > undoLimit) {
+            undoSteps.removeLast();
+        }
+        if (limit == 0) {
+            redoSteps.clear();
+        }
+    }
+
+    /**
+     * returns how many changes this list remembers for undo
+     * @return the undo limit, 0 if history is off.
+     */
+    public synchronized int getUndoLimit() {
+        return undoLimit;
+    }
+
+    /**
+     * checks whether there is a change to undo
+     * @return true if {@link #undo()} would change the list
+     */
+    public synchronized boolean canUndo() {
+        return !undoSteps.isEmpty();
+    }
+
+    /**
+     * checks whether there is an undone change to redo
+     * @return true if {@link #redo()} would change the list
+     */
+    public synchronized boolean canRedo() {
+        return !redoSteps.isEmpty();
+    }
+
+    /**
+     * Takes back the most recent change, see {@link #setUndoLimit(int)}. The list returns to the
+     * exact version it had before the change in O(1), without copying any task. Listeners receive
+     * events that turn the list as it was into the restored version: a removed task comes back
+     * as an {@link TaskEvent.Added} at its old position, an undone clear as one
+     * {@link TaskEvent.BatchAdded}, and so on.
+     * @return the events describing the undo, in order, or an empty list if there was nothing to undo.
+     */
+    public synchronized List<TaskEvent> undo() {
+        Step step = undoSteps.poll();
+        if (step == null) {
+            return List.of();
+        }
+        redoSteps.push(step);
+        stats = step.statsBefore();
+        state = step.before();
+        List<TaskEvent> events = inverse(step.event());
+        for (TaskEvent event : events) {
+            fire(() -> event);
+        }
+        return events;
+    }
+
+    /**
+     * Makes the most recently undone change again, as long as no other change was made since.
+     * Listeners receive the same event as for the original change.
+     * @return the events describing the redo, or an empty list if there was nothing to redo.
+     */
+    public synchronized List<TaskEvent> redo() {
+        Step step = redoSteps.poll();
+        if (step == null) {
+            return List.of();
+        }
+        undoSteps.push(step);
+        stats = step.statsAfter();
+        state = step.after();
+        fire(step::event);
+        return List.of(step.event());
+    }
+
+    /**
+     * Starts a query over the tasks, for example the ten highest-priority open tasks:
+     * {@code list.query().open().sortedByPriority().limit(10).list()}.
+     * @return a new query matching every task until conditions are added.
+     */
+    public TaskQuery query() {
+        return new TaskQuery(this);
+    }
+
+    /**
+     * Hands the current snapshot to a query as read-only views.
+     */
+    TaskQuery.Source querySource() {
+        return state.querySource();
+    }
+
+    /**
+     * Returns all tasks ordered by priority, HIGH first. Within a priority, open tasks come
+     * before completed ones, and otherwise tasks keep their list order. With priority buckets this is a plain walk over the buckets;
+     * otherwise the list is copied and sorted.
+     * @return a new list of the tasks in priority order.
+     */
+    public List<Task> getTasksByPriority() {
+        return state.byPriority();
+    }
+
+    /**
+     * returns the number of tasks with the given priority
+     * @param priority the priority to count.
+     * @return the number of open and completed tasks with that priority.
+     */
+    public int getTaskCount(Priority priority) {
+        return getStats().getCount(priority);
+    }
+
+    /**
+     * returns the number of open tasks with the given priority
+     * @param priority the priority to count.
+     * @return the number of tasks with that priority that are not completed yet.
+     */
+    public int getOpenTaskCount(Priority priority) {
+        return getStats().getOpenCount(priority);
+    }
+
+    /**
+     * Retrieves the counts of the list: open and completed tasks, tasks per priority and the
+     * completion ratio. They are kept up to date on every change rather than counted when asked
+     * for, so this is O(1); only a list opened over a stored table counts the table's priority
+     * and status columns once, the first time counts are needed.
+     * @return the counts as of the latest change.
+     */
+    public TaskStats getStats() {
+        TaskStats current = stats;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            return stats();
+        }
+    }
+
+    /**
+     * Finds the open task that should be done next: the oldest open task of the highest priority.
+     * @return the next task, or {@code null} if every task is completed.
+     */
+    public Task peekNextTask() {
+        return state.peekNext();
+    }
+
+    /**
+     * Removes and returns the open task that should be done next.
+     * @return the removed task, or {@code null} if every task is completed.
+     * @see #peekNextTask()
+     */
+    public synchronized Task pollNextTask() {
+        Task next = state.peekNext();
+        if (next != null) {
+            removeTaskById(next.getId());
+        }
+        return next;
     }
 
     /**
@@ -89,7 +1167,7 @@ public class ToDoList {
      * @return the number of tasks in the list
      */
     public int getTaskCount() {
-        return taskList.size();
+        return state.size();
     }
 
     /**
@@ -99,7 +1177,7 @@ public class ToDoList {
     @Override
     public String toString() {
         return new StringJoiner(", ", ToDoList.class.getSimpleName() + "[", "]")
-                .add("taskList=" + taskList)
+                .add("taskList=" + getTaskList())
                 .toString();
     }
 
@@ -108,7 +1186,7 @@ public class ToDoList {
      * @return true if the to-do list is empty, false otherwise
      */
     public boolean isEmpty() {
-        return taskList.isEmpty();
+        return state.size() == 0;
     }
 
     /**
@@ -127,4 +1205,378 @@ public class ToDoList {
     public int hashCode() {
         return Objects.hashCode(getTaskList());
     }
-}
\ No newline at end of file
+
+    private State emptyState() {
+        return switch (storageMode) {
+            case INSERTION_ORDER -> new ReferenceState(TaskVector.EMPTY, TaskVector.EMPTY, true, null, null);
+            case PRIORITY_BUCKETS -> {
+                TaskVector[] open = new TaskVector[Priority.values().length];
+                TaskVector[] completed = new TaskVector[Priority.values().length];
+                Arrays.fill(open, TaskVector.EMPTY);
+                Arrays.fill(completed, TaskVector.EMPTY);
+                yield new ReferenceState(TaskVector.EMPTY, TaskVector.EMPTY, true, open, completed);
+            }
+            case COLUMNAR -> new ColumnarState(TaskColumns.EMPTY);
+        };
+    }
+
+    /**
+     * Replaces a task in the current state with an updated copy that has the same id.
+     * Must be called while holding the list's monitor.
+     */
+    private void replace(Task oldTask, Task newTask) {
+        State current = state;
+        int index = current.indexOf(oldTask.getId());
+        commit(current.replaced(index, newTask), stats().replaced(oldTask, newTask),
+                () -> new TaskEvent.Updated(index, oldTask, newTask));
+    }
+
+    /**
+     * Retrieves the counts of the current snapshot, counting a stored table the first time.
+     * Must be called while holding the list's monitor.
+     */
+    private TaskStats stats() {
+        TaskStats current = stats;
+        if (current == null) {
+            // every change sets the counts, so the list still holds just the table it was opened over
+            current = TaskStats.of(((TableState) state).table());
+            stats = current;
+        }
+        return current;
+    }
+
+    /**
+     * Publishes a new state and its counts, remembers the change for {@link #undo()} if history is
+     * on, and tells the listeners. Must be called while holding the list's monitor.
+     */
+    private void commit(State next, TaskStats nextStats, Supplier<TaskEvent> event) {
+        State before = state;
+        TaskStats statsBefore = stats;
+        stats = nextStats;
+        state = next;
+        if (undoLimit == 0) {
+            fire(event);
+            return;
+        }
+        TaskEvent created = event.get();
+        undoSteps.push(new Step(before, next, statsBefore, nextStats, created));
+        if (undoSteps.size() > undoLimit) {
+            undoSteps.removeLast();
+        }
+        redoSteps.clear();
+        fire(() -> created);
+    }
+
+    /**
+     * Describes how to get from the state after a change back to the state before it.
+     */
+    private static List<TaskEvent> inverse(TaskEvent event) {
+        return switch (event) {
+            case TaskEvent.Added added -> List.of(new TaskEvent.Removed(added.index(), added.task()));
+            case TaskEvent.BatchAdded batch -> {
+                if (batch.index() == 0) {
+                    yield List.of(new TaskEvent.Cleared(batch.tasks()));
+                }
+                List<TaskEvent> removals = new ArrayList<>(batch.tasks().size());
+                for (int i = batch.tasks().size() - 1; i >= 0; i--) {
+                    removals.add(new TaskEvent.Removed(batch.index() + i, batch.tasks().get(i)));
+                }
+                yield removals;
+            }
+            case TaskEvent.Removed removed -> List.of(new TaskEvent.Added(removed.index(), removed.task()));
+            case TaskEvent.Updated updated ->
+                    List.of(new TaskEvent.Updated(updated.index(), updated.newTask(), updated.oldTask()));
+            case TaskEvent.Cleared cleared -> List.of(new TaskEvent.BatchAdded(0, cleared.removed()));
+        };
+    }
+
+    /**
+     * Delivers an event to every listener. Called while holding the list's monitor, right after the
+     * new state was published, so listeners see events in the order the changes were made. The event
+     * is only created if somebody listens.
+     */
+    private void fire(Supplier<TaskEvent> event) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TaskEvent created = event.get();
+        for (Consumer<TaskEvent> listener : listeners) {
+            try {
+                listener.accept(created);
+            } catch (RuntimeException e) {
+                // the change is already made; a failing listener must not make the caller think otherwise
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    private BulkAddReport addAll(Task[] rows) {
+        List<BulkAddReport.RowError> errors = validateRows(rows);
+        Task[] accepted = new Task[rows.length - errors.size()];
+        int[] acceptedRows = new int[accepted.length];
+        int count = 0;
+        int nextError = 0;
+        for (int row = 0; row < rows.length; row++) {
+            if (nextError < errors.size() && errors.get(nextError).row() == row) {
+                nextError++;
+            } else {
+                accepted[count] = rows[row];
+                acceptedRows[count] = row;
+                count++;
+            }
+        }
+
+        List<BulkAddReport.RowError> duplicates = new ArrayList<>();
+        boolean ascending = isAscending(accepted, count);
+        if (!ascending) {
+            count = dropRepeatedIds(accepted, acceptedRows, count, duplicates);
+        }
+        List<Task> added;
+        synchronized (this) {
+            State current = state;
+            // freshly created tasks all have larger ids than anything in the list, which makes the check free
+            boolean newerThanList = ascending
+                    && (count == 0 || current.size() == 0 || current.maxId() < accepted[0].getId());
+            if (!newerThanList) {
+                count = dropIdsInList(current, accepted, acceptedRows, count, duplicates);
+            }
+            added = Collections.unmodifiableList(Arrays.asList(accepted).subList(0, count));
+            if (count > 0) {
+                int index = current.size();
+                commit(current.appendedAll(accepted, count), stats().plusAll(accepted, count),
+                        () -> new TaskEvent.BatchAdded(index, added));
+            }
+        }
+
+        if (!duplicates.isEmpty()) {
+            List<BulkAddReport.RowError> merged = new ArrayList<>(errors);
+            merged.addAll(duplicates);
+            merged.sort(Comparator.comparingInt(BulkAddReport.RowError::row));
+            errors = merged;
+        }
+        return new BulkAddReport(added, Collections.unmodifiableList(errors));
+    }
+
+    /**
+     * Checks every row, splitting large batches into chunks that are checked in parallel.
+     * @return the rejected rows, ordered by row.
+     */
+    private static List<BulkAddReport.RowError> validateRows(Task[] rows) {
+        if (rows.length < PARALLEL_VALIDATION_THRESHOLD) {
+            return validateChunk(rows, 0, rows.length);
+        }
+        int chunks = (rows.length + VALIDATION_CHUNK - 1) / VALIDATION_CHUNK;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> validateChunk(rows, chunk * VALIDATION_CHUNK,
+                        Math.min(rows.length, (chunk + 1) * VALIDATION_CHUNK)))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private static List<BulkAddReport.RowError> validateChunk(Task[] rows, int from, int to) {
+        List<BulkAddReport.RowError> errors = List.of();
+        for (int row = from; row < to; row++) {
+            Task task = rows[row];
+            String problem = null;
+            if (task == null) {
+                problem = "Task cannot be null.";
+            } else {
+                try {
+                    TaskValidator.validate(task.getTitle(), task.getDescription(), task.getPriority());
+                } catch (IllegalArgumentException e) {
+                    problem = e.getMessage();
+                }
+            }
+            if (problem != null) {
+                if (errors.isEmpty()) {
+                    errors = new ArrayList<>();
+                }
+                errors.add(new BulkAddReport.RowError(row, problem));
+            }
+        }
+        return errors;
+    }
+
+    private static boolean isAscending(Task[] tasks, int count) {
+        for (int i = 1; i < count; i++) {
+            if (tasks[i - 1].getId() >= tasks[i].getId()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keeps the first of several rows with the same id and reports the others. Compacts in place.
+     * @return the number of rows kept.
+     */
+    private static int dropRepeatedIds(Task[] tasks, int[] rows, int count, List<BulkAddReport.RowError> errors) {
+        Set<Long> seen = new HashSet<>(count * 2);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (seen.add(tasks[i].getId())) {
+                tasks[kept] = tasks[i];
+                rows[kept] = rows[i];
+                kept++;
+            } else {
+                errors.add(new BulkAddReport.RowError(rows[i],
+                        "A task with id " + tasks[i].getId() + " appears more than once in the batch."));
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Drops the rows whose id is already in the list and reports them. Compacts in place.
+     * @return the number of rows kept.
+     */
+    private static int dropIdsInList(State current, Task[] tasks, int[] rows, int count, List<BulkAddReport.RowError> errors) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (current.getById(tasks[i].getId()) == null) {
+                tasks[kept] = tasks[i];
+                rows[kept] = rows[i];
+                kept++;
+            } else {
+                errors.add(new BulkAddReport.RowError(rows[i],
+                        "A task with id " + tasks[i].getId() + " is already in the list."));
+            }
+        }
+        return kept;
+    }
+
+    private static State appendedAll(ReferenceState current, Task[] batch, int count) {
+        TaskVector previous = current.tasks();
+        TaskVector tasks = previous.appendAll(batch, count);
+
+        boolean batchAscending = isAscending(batch, count);
+        boolean ascending = current.idsAscending() && batchAscending
+                && (previous.size() == 0 || previous.get(previous.size() - 1).getId() < batch[0].getId());
+        Task[] sortedBatch = batch;
+        if (!batchAscending) {
+            sortedBatch = Arrays.copyOf(batch, count);
+            Arrays.sort(sortedBatch, Comparator.comparingLong(Task::getId));
+        }
+        TaskVector byId = ascending ? tasks : current.byId().mergeById(sortedBatch, count);
+
+        TaskVector[] open = current.open();
+        TaskVector[] completed = current.completed();
+        if (open != null) {
+            open = open.clone();
+            completed = completed.clone();
+            int buckets = Priority.values().length;
+            List<List<Task>> additions = new ArrayList<>(2 * buckets);
+            for (int i = 0; i < 2 * buckets; i++) {
+                additions.add(new ArrayList<>());
+            }
+            for (int i = 0; i < count; i++) {
+                Task task = sortedBatch[i];
+                additions.get((task.isCompleted() ? buckets : 0) + task.getPriority().ordinal()).add(task);
+            }
+            for (int slot = 0; slot < buckets; slot++) {
+                open[slot] = open[slot].mergeById(additions.get(slot).toArray(new Task[0]), additions.get(slot).size());
+                completed[slot] = completed[slot].mergeById(
+                        additions.get(buckets + slot).toArray(new Task[0]), additions.get(buckets + slot).size());
+            }
+        }
+        return new ReferenceState(tasks, byId, ascending, open, completed);
+    }
+
+    private static State appended(ReferenceState current, Task task) {
+        TaskVector previous = current.tasks();
+        TaskVector tasks = previous.append(task);
+        boolean ascending = current.idsAscending()
+                && (previous.size() == 0 || previous.get(previous.size() - 1).getId() < task.getId());
+        TaskVector byId = ascending ? tasks : current.byId().insertSorted(task);
+        TaskVector[] open = current.open();
+        TaskVector[] completed = current.completed();
+        if (open != null) {
+            open = open.clone();
+            completed = completed.clone();
+            bucket(open, completed, task);
+        }
+        return new ReferenceState(tasks, byId, ascending, open, completed);
+    }
+
+    private static State inserted(ReferenceState current, int index, Task task) {
+        TaskVector tasks = current.tasks().insertAt(index, task);
+        boolean ascending = current.idsAscending()
+                && (index == 0 || tasks.get(index - 1).getId() < task.getId())
+                && (index == tasks.size() - 1 || task.getId() < tasks.get(index + 1).getId());
+        TaskVector byId = ascending ? tasks : current.byId().insertSorted(task);
+        TaskVector[] open = current.open();
+        TaskVector[] completed = current.completed();
+        if (open != null) {
+            open = open.clone();
+            completed = completed.clone();
+            bucket(open, completed, task);
+        }
+        return new ReferenceState(tasks, byId, ascending, open, completed);
+    }
+
+    private static State removed(ReferenceState current, int index) {
+        Task task = current.tasks().get(index);
+        TaskVector tasks = current.tasks().removeAt(index);
+        // removing a task never breaks id order, and an empty list is trivially in order again
+        boolean ascending = current.idsAscending() || tasks.size() == 0;
+        TaskVector byId = ascending ? tasks : current.byId().removeAt(current.byId().findById(task.getId()));
+        TaskVector[] open = current.open();
+        TaskVector[] completed = current.completed();
+        if (open != null) {
+            open = open.clone();
+            completed = completed.clone();
+            unbucket(open, completed, task);
+        }
+        return new ReferenceState(tasks, byId, ascending, open, completed);
+    }
+
+    private static State replaced(ReferenceState current, int index, Task newTask) {
+        Task oldTask = current.tasks().get(index);
+        TaskVector tasks = current.tasks().set(index, newTask);
+        TaskVector byId = current.idsAscending()
+                ? tasks
+                : current.byId().set(current.byId().findById(oldTask.getId()), newTask);
+        TaskVector[] open = current.open();
+        TaskVector[] completed = current.completed();
+        if (open != null) {
+            open = open.clone();
+            completed = completed.clone();
+            unbucket(open, completed, oldTask);
+            bucket(open, completed, newTask);
+        }
+        return new ReferenceState(tasks, byId, current.idsAscending(), open, completed);
+    }
+
+    private static int indexOf(ReferenceState current, long id) {
+        TaskVector tasks = current.tasks();
+        if (current.idsAscending()) {
+            return Math.max(tasks.findById(id), -1);
+        }
+        int sorted = current.byId().findById(id);
+        if (sorted < 0) {
+            return -1;
+        }
+        Task task = current.byId().get(sorted);
+        int index = 0;
+        for (Task candidate : tasks.asList()) {
+            if (candidate == task) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    private static void bucket(TaskVector[] open, TaskVector[] completed, Task task) {
+        TaskVector[] buckets = task.isCompleted() ? completed : open;
+        int slot = task.getPriority().ordinal();
+        buckets[slot] = buckets[slot].insertSorted(task);
+    }
+
+    private static void unbucket(TaskVector[] open, TaskVector[] completed, Task task) {
+        TaskVector[] buckets = task.isCompleted() ? completed : open;
+        int slot = task.getPriority().ordinal();
+        buckets[slot] = buckets[slot].removeAt(buckets[slot].findById(task.getId()));
+    }
+}
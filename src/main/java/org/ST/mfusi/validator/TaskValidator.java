@@ -1,13 +1,20 @@
 package org.ST.mfusi.validator;
 
+import org.ST.mfusi.metrics.Counter;
+import org.ST.mfusi.metrics.Metrics;
 import org.ST.mfusi.task.Priority;
 
 /**
  * A utility class for validating Task properties before creation.
  * This ensures that no invalid Task objects can be instantiated.
+ * Every rejection is counted in the global {@link Metrics} under {@code validator.rejected.<field>}.
  */
 public final class TaskValidator {
 
+    private static final Counter REJECTED_TITLE = Metrics.global().counter("validator.rejected.title");
+    private static final Counter REJECTED_DESCRIPTION = Metrics.global().counter("validator.rejected.description");
+    private static final Counter REJECTED_PRIORITY = Metrics.global().counter("validator.rejected.priority");
+
     /**
      * Private constructor to prevent instantiation of this utility class.
      */
@@ -24,12 +31,15 @@ public final class TaskValidator {
      */
     public static void validate(String title, String description, Priority priority) {
         if (title == null || title.isBlank()) {
+            REJECTED_TITLE.increment();
             throw new IllegalArgumentException("Task title cannot be null or empty.");
         }
         if (description == null || description.isBlank()) {
+            REJECTED_DESCRIPTION.increment();
             throw new IllegalArgumentException("Task description cannot be null or empty.");
         }
         if (priority == null) {
+            REJECTED_PRIORITY.increment();
             throw new IllegalArgumentException("Task priority cannot be null.");
         }
     }
@@ -1,9 +1,19 @@
 package org.ST.mfusi.app;
 
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.metrics.Timer;
+import org.ST.mfusi.persistence.ProfileStore;
 import org.ST.mfusi.task.Priority;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -11,6 +21,9 @@ class AppControllerTest {
 
     private AppController app;
 
+    @TempDir
+    Path dataDir;
+
     @BeforeEach
     void setUp() {
         app = new AppController("TestUser");
@@ -71,4 +84,114 @@ class AppControllerTest {
         assertEquals("Task marked as complete.", result);
         assertTrue(app.getUserProfile().getTasks().get(0).isCompleted());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("id based operations should address the task by id, not by position")
+    void idOperations_shouldTargetTheRightTask() {
+        app.addTask("Same", "Same", Priority.LOW);
+        app.addTask("Same", "Same", Priority.LOW);
+        long secondId = app.getUserProfile().getTasks().get(1).getId();
+
+        assertEquals("Task marked as complete.", app.markTaskCompleteById(secondId));
+        assertEquals("Priority updated successfully.", app.changeTaskPriorityById(secondId, Priority.HIGH));
+        assertEquals("Task updated successfully.", app.editTaskById(secondId, "Other", ""));
+
+        assertFalse(app.getUserProfile().getTasks().get(0).isCompleted());
+        assertEquals("Other", app.getUserProfile().getTasks().get(1).getTitle());
+
+        assertEquals("Task removed successfully.", app.removeTaskById(secondId));
+        assertEquals("Invalid task id.", app.removeTaskById(secondId));
+        assertEquals(1, app.getTaskCount());
+    }
+
+    @Test
+    @DisplayName("updateTaskById should change every given field in one undoable change")
+    void updateTaskById_shouldBeOneChange() {
+        app.addTask("Title", "Description", Priority.LOW);
+        long id = app.getUserProfile().getTasks().get(0).getId();
+
+        assertEquals("Task updated successfully.", app.updateTaskById(id, "New title", "", Priority.HIGH, true));
+        var task = app.getUserProfile().getTasks().get(0);
+        assertEquals("New title", task.getTitle());
+        assertEquals("Description", task.getDescription());
+        assertEquals(Priority.HIGH, task.getPriority());
+        assertTrue(task.isCompleted());
+
+        assertEquals("Last change undone.", app.undo());
+        task = app.getUserProfile().getTasks().get(0);
+        assertEquals("Title", task.getTitle());
+        assertEquals(Priority.LOW, task.getPriority());
+        assertFalse(task.isCompleted());
+        assertEquals("Invalid task id.", app.updateTaskById(id + 1, "X", "", null, false));
+    }
+
+    @Test
+    @DisplayName("search should follow edits made after the first search")
+    void search_shouldFollowEdits() {
+        app.addTask("Buy milk", "From the corner shop", Priority.LOW);
+        app.addTask("Call plumber", "Kitchen sink leaks", Priority.HIGH);
+
+        assertEquals("Call plumber", app.search("plum", 10).get(0).getTitle());
+
+        app.editTask(2, "Call electrician", "Kitchen lights flicker");
+        assertTrue(app.search("plumber", 10).isEmpty());
+        assertEquals("Call electrician", app.search("kitchen elec", 10).get(0).getTitle());
+
+        app.removeTask(1);
+        assertTrue(app.search("milk", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> app.search("milk", 0));
+    }
+
+    @Test
+    @DisplayName("operations should be timed, failures and rejections counted, and task counts published")
+    void operations_shouldBeRecordedInMetrics() {
+        Metrics metrics = Metrics.global();
+        Timer addTask = metrics.timer("app.addTask");
+        Timer removeTask = metrics.timer("app.removeTask");
+        long added = addTask.getLatencies().getCount();
+        long failedAdds = addTask.getFailureCount();
+        long failedRemoves = removeTask.getFailureCount();
+        long rejectedTitles = metrics.counter("validator.rejected.title").get();
+
+        AppController metered = new AppController("MetricsUser");
+        metered.addTask("First", "desc", Priority.HIGH);
+        metered.addTask("Second", "desc", Priority.HIGH);
+        metered.addTask(" ", "desc", Priority.LOW);
+        metered.removeTask(99);
+
+        assertEquals(added + 3, addTask.getLatencies().getCount());
+        assertEquals(failedAdds + 1, addTask.getFailureCount());
+        assertEquals(failedRemoves + 1, removeTask.getFailureCount());
+        assertEquals(rejectedTitles + 1, metrics.counter("validator.rejected.title").get());
+        assertEquals(2L, metrics.values().get("profile.MetricsUser.tasks.HIGH"));
+        assertEquals(0L, metrics.values().get("profile.MetricsUser.tasks.LOW"));
+        assertEquals(2L, metrics.value("profile.MetricsUser.tasks.HIGH"));
+        assertEquals(metrics.values().get("app.addTask.count"), metrics.value("app.addTask.count"));
+        assertEquals(metrics.values().get("app.addTask.failures"), metrics.value("app.addTask.failures"));
+        assertNull(metrics.value("app.addTask.nothing"));
+
+        AppController second = new AppController("MetricsUser");
+        assertEquals(2L, metrics.value("profile.MetricsUser.tasks.HIGH"), "A second controller must not take over the gauges");
+        second.close();
+        assertEquals(2L, metrics.value("profile.MetricsUser.tasks.HIGH"));
+
+        metered.close();
+        assertNull(metrics.values().get("profile.MetricsUser.tasks.HIGH"));
+    }
+
+    @Test
+    @DisplayName("a change that cannot be logged should be reported as an error rather than thrown")
+    void logFailure_shouldBeReportedAsStatus() throws IOException {
+        AppController saved = new AppController("Eve", new ProfileStore(dataDir));
+        try (Stream<Path> files = Files.walk(dataDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+
+        assertTrue(saved.addTask("Lost", "Desc", Priority.LOW).startsWith("Error saving change: "));
+        assertEquals(1, saved.getTaskCount(), "The change is still made in memory");
+        assertTrue(saved.markTaskComplete(1).startsWith("Error saving change: "));
+        assertTrue(saved.undo().startsWith("Error saving change: "));
+        assertTrue(saved.clearAllTasks().startsWith("Error saving change: "));
+        assertEquals("Invalid task id.", saved.removeTaskById(42));
+    }
+}
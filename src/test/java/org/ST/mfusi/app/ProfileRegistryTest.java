@@ -0,0 +1,209 @@
+package org.ST.mfusi.app;
+
+import org.ST.mfusi.persistence.ProfileStore;
+import org.ST.mfusi.task.Priority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileRegistryTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("concurrent first requests for a profile should share one load")
+    void concurrentAcquire_shouldLoadOnce() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        ProfileRegistry registry = new ProfileRegistry(name -> {
+            opened.incrementAndGet();
+            return new AppController(name);
+        }, 10, null);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AppController>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try (ProfileRegistry.Lease lease = registry.acquire("Alex")) {
+                    return lease.controller();
+                }
+            }));
+        }
+        start.countDown();
+        AppController first = results.get(0).get();
+        for (Future<AppController> result : results) {
+            assertSame(first, result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    @DisplayName("the least recently used profiles should be evicted once the limit is exceeded")
+    void sizeLimit_shouldEvictLeastRecentlyUsed() throws IOException {
+        ProfileRegistry registry = new ProfileRegistry(AppController::new, 3, null);
+        for (String name : List.of("A", "B", "C")) {
+            registry.acquire(name).close();
+        }
+        registry.acquire("A").close();
+        registry.acquire("D").close();
+
+        assertEquals(3, registry.getActiveCount());
+        assertFalse(registry.isActive("B"));
+        assertTrue(registry.isActive("A"));
+        assertTrue(registry.isActive("D"));
+    }
+
+    @Test
+    @DisplayName("a leased profile should never be evicted")
+    void leasedProfile_shouldNotBeEvicted() throws IOException {
+        ProfileRegistry registry = new ProfileRegistry(AppController::new, 1, Duration.ofMillis(1));
+        try (ProfileRegistry.Lease lease = registry.acquire("Busy")) {
+            registry.acquire("Other").close();
+            registry.evictIdle();
+            assertFalse(registry.evict("Busy"));
+            assertTrue(registry.isActive("Busy"));
+        }
+        assertTrue(registry.evict("Busy"));
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("an evicted profile should be saved and reloaded with its tasks")
+    void evictedProfile_shouldBeReloadedFromDisk() throws IOException {
+        ProfileRegistry registry = ProfileRegistry.backedBy(new ProfileStore(dataDir), 10, null);
+        registry.withController("Sam", app -> app.addTask("Persisted", "Survives eviction", Priority.HIGH));
+        registry.setEmail("Sam", "sam@example.com");
+        assertEquals("Sam", registry.findProfileNameByEmail("SAM@example.com").orElseThrow());
+
+        assertTrue(registry.evict("Sam"));
+        assertTrue(registry.findProfileNameByEmail("sam@example.com").isEmpty());
+
+        int tasks = registry.withController("Sam", AppController::getTaskCount);
+        assertEquals(1, tasks);
+        assertEquals(2, registry.getLoadCount());
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("a profile being evicted should only be opened again once its controller is closed")
+    void acquireDuringEviction_shouldWaitForClose() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        CountDownLatch closing = new CountDownLatch(1);
+        CountDownLatch mayClose = new CountDownLatch(1);
+        ProfileRegistry registry = new ProfileRegistry(name -> {
+            opened.incrementAndGet();
+            return new AppController(name) {
+                @Override
+                public boolean isPersistent() {
+                    return true;
+                }
+
+                @Override
+                public String close() {
+                    closing.countDown();
+                    try {
+                        mayClose.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.close();
+                }
+            };
+        }, 10, null);
+        registry.acquire("Kim").close();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<Boolean> evicted = pool.submit(() -> registry.evict("Kim"));
+        closing.await();
+        Future<AppController> reopened = pool.submit(() -> {
+            try (ProfileRegistry.Lease lease = registry.acquire("Kim")) {
+                return lease.controller();
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(reopened.isDone(), "The profile must not be opened while it is still closing");
+        assertEquals(1, opened.get());
+
+        mayClose.countDown();
+        assertTrue(evicted.get());
+        assertNotNull(reopened.get());
+        assertEquals(2, opened.get());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("a profile that cannot be saved should stay in memory and be evicted once it can")
+    void failedSave_shouldKeepTheProfile() throws IOException {
+        AtomicInteger failures = new AtomicInteger(1);
+        AtomicInteger closes = new AtomicInteger();
+        ProfileRegistry registry = new ProfileRegistry(name -> new AppController(name) {
+            @Override
+            public boolean isPersistent() {
+                return true;
+            }
+
+            @Override
+            public String saveProfile() {
+                return failures.getAndDecrement() > 0 ? "Error saving profile: No space left on device" : "Profile saved successfully.";
+            }
+
+            @Override
+            public String close() {
+                closes.incrementAndGet();
+                return super.close();
+            }
+        }, 10, null);
+        AppController first;
+        try (ProfileRegistry.Lease lease = registry.acquire("Kim")) {
+            first = lease.controller();
+            first.addTask("Unsaved", "Desc", Priority.LOW);
+        }
+
+        assertFalse(registry.evict("Kim"));
+        assertTrue(registry.isActive("Kim"));
+        assertEquals(1, registry.getFailedEvictionCount());
+        assertEquals(0, registry.getEvictionCount());
+        assertEquals(0, closes.get());
+        try (ProfileRegistry.Lease lease = registry.acquire("Kim")) {
+            assertSame(first, lease.controller(), "The controller holding the changes must be kept");
+        }
+
+        assertTrue(registry.evict("Kim"));
+        assertEquals(1, closes.get());
+        assertFalse(registry.isActive("Kim"));
+    }
+
+    @Test
+    @DisplayName("evicting an in-memory profile should close its controller")
+    void evictedInMemoryProfile_shouldBeClosed() throws IOException {
+        AtomicInteger closes = new AtomicInteger();
+        ProfileRegistry registry = new ProfileRegistry(name -> new AppController(name) {
+            @Override
+            public String close() {
+                closes.incrementAndGet();
+                return super.close();
+            }
+        }, 10, null);
+        registry.acquire("Kim").close();
+
+        assertTrue(registry.evict("Kim"));
+        assertEquals(1, closes.get());
+    }
+}
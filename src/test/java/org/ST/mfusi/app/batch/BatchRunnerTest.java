@@ -0,0 +1,102 @@
+package org.ST.mfusi.app.batch;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchRunnerTest {
+
+    private static BatchRunner.Summary run(AppController app, int batchSize, String script) throws IOException {
+        return new BatchRunner(app, batchSize).run(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("a script should apply every command in order")
+    void run_shouldApplyCommandsInOrder() throws IOException {
+        AppController app = new AppController("Batch");
+        String script = """
+                # groceries
+                add HIGH Buy milk | Oat milk from the corner shop
+                ADD low Water plants|Both balconies
+
+                add medium Call Sam | About the trip
+                complete 1
+                priority 2 HIGH
+                edit 3 Call Alex |
+                remove 2
+                """;
+
+        BatchRunner.Summary summary = run(app, 2, script);
+
+        assertEquals(7, summary.commands());
+        assertEquals(0, summary.failed());
+        assertEquals(3L, summary.byCommand().get("add"));
+        assertEquals(1L, summary.byCommand().get("remove"));
+        List<Task> tasks = app.getUserProfile().getTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("Buy milk", tasks.get(0).getTitle());
+        assertEquals("Oat milk from the corner shop", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).isCompleted());
+        assertEquals("Call Alex", tasks.get(1).getTitle());
+        assertEquals("About the trip", tasks.get(1).getDescription());
+        assertEquals(Priority.MEDIUM, tasks.get(1).getPriority());
+    }
+
+    @Test
+    @DisplayName("failed lines should be reported with their line number without stopping the script")
+    void run_shouldReportFailedLines() throws IOException {
+        AppController app = new AppController("Batch");
+        String script = "add HIGH First | One\n"
+                + "fly away\n"
+                + "add URGENT Second | Two\n"
+                + "add LOW | No title\n"
+                + "remove 9\n"
+                + "complete one\n"
+                + "add LOW Last | Three"; // no line feed at the end
+
+        BatchRunner.Summary summary = run(app, BatchRunner.DEFAULT_BATCH_SIZE, script);
+
+        assertEquals(7, summary.commands());
+        assertEquals(5, summary.failed());
+        assertEquals(2, app.getTaskCount());
+        assertEquals(5, summary.errors().size());
+        assertEquals("line 2: Unknown command: fly", summary.errors().get(0));
+        assertEquals("line 3: Invalid priority: URGENT", summary.errors().get(1));
+        // the rejected add is found when its batch is added, before the next command runs
+        assertTrue(summary.errors().get(2).startsWith("line 4: "), summary.errors().get(2));
+        assertEquals("line 5: Invalid task number.", summary.errors().get(3));
+        assertEquals("line 6: Invalid task number: one", summary.errors().get(4));
+        assertTrue(summary.format().contains("5 failed"));
+    }
+
+    @Test
+    @DisplayName("lines longer than the read buffer should be read whole")
+    void run_shouldReadLongLines() throws IOException {
+        AppController app = new AppController("Batch");
+        String description = "x".repeat(200_000);
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            script.append("add MEDIUM Task ").append(i).append(" | Description ").append(i).append("\r\n");
+        }
+        script.append("add LOW Long | ").append(description).append('\n');
+        script.append("undo\n");
+
+        BatchRunner.Summary summary = run(app, 1_000, script.toString());
+
+        assertEquals(0, summary.failed(), summary.errors().toString());
+        // undo takes back the last batch, which held only the long task
+        assertEquals(5_000, app.getTaskCount());
+        assertEquals("Description 4999", app.getUserProfile().getTasks().get(4_999).getDescription());
+        assertTrue(app.redo().startsWith("Change"));
+        assertEquals(description, app.getUserProfile().getTasks().get(5_000).getDescription());
+    }
+}
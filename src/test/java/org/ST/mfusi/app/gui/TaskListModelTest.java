@@ -0,0 +1,82 @@
+package org.ST.mfusi.app.gui;
+
+import javafx.collections.ListChangeListener;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.ToDoList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskListModelTest {
+
+    @Test
+    @DisplayName("each mutation should produce one fine-grained change")
+    void mutations_shouldProduceFineGrainedChanges() {
+        ToDoList list = new ToDoList();
+        list.addTask("Existing", "Desc", Priority.LOW);
+        TaskListModel model = new TaskListModel(list, Runnable::run);
+        List<String> changes = new ArrayList<>();
+        model.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                if (change.wasReplaced()) {
+                    changes.add("replaced " + change.getFrom());
+                } else if (change.wasAdded()) {
+                    changes.add("added " + change.getFrom());
+                } else if (change.wasRemoved()) {
+                    changes.add("removed " + change.getFrom() + " x" + change.getRemovedSize());
+                }
+            }
+        });
+
+        list.addTask("New", "Desc", Priority.HIGH);
+        list.markTaskComplete(list.getTaskList().get(1).getId());
+        list.removeTaskAt(0);
+        list.clearTasks();
+
+        assertEquals(List.of("added 1", "replaced 1", "removed 0 x1", "removed 0 x1"), changes);
+        assertTrue(model.isEmpty());
+    }
+
+    @Test
+    @DisplayName("events queued before a drain should be applied as one change and match the list")
+    void queuedEvents_shouldBeCoalesced() {
+        ToDoList list = new ToDoList();
+        Queue<Runnable> uiThread = new ArrayDeque<>();
+        TaskListModel model = new TaskListModel(list, uiThread::add);
+        int[] notifications = {0};
+        model.addListener((ListChangeListener<Task>) change -> notifications[0]++);
+
+        for (int i = 0; i < 50; i++) {
+            list.addTask("Task " + i, "Desc", Priority.MEDIUM);
+        }
+        list.removeTaskAt(10);
+        list.editTask(list.getTaskList().get(20).getId(), "Edited", "");
+
+        assertEquals(1, uiThread.size(), "Only one drain should be scheduled");
+        assertTrue(model.isEmpty(), "Nothing is applied before the UI thread runs");
+        uiThread.poll().run();
+
+        assertEquals(1, notifications[0]);
+        assertEquals(list.getTaskList(), List.copyOf(model));
+        assertEquals("Edited", model.get(20).getTitle());
+    }
+
+    @Test
+    @DisplayName("a disposed model should stop following the list")
+    void dispose_shouldStopUpdates() {
+        ToDoList list = new ToDoList();
+        TaskListModel model = new TaskListModel(list, Runnable::run);
+        list.addTask("Seen", "Desc", Priority.LOW);
+        model.dispose();
+        list.addTask("Not seen", "Desc", Priority.LOW);
+
+        assertEquals(1, model.size());
+    }
+}
@@ -0,0 +1,136 @@
+package org.ST.mfusi.app.server;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.app.ProfileRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskServerTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private ProfileRegistry registry;
+    private TaskServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = new ProfileRegistry(AppController::new, 100, null);
+        server = new TaskServer(registry, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        registry.close();
+    }
+
+    @Test
+    @DisplayName("tasks should be created, read, updated, completed and removed over HTTP")
+    void crud_shouldWorkOverHttp() throws Exception {
+        HttpResponse<String> created = send("POST", "/profiles/Alex/tasks",
+                "{\"title\":\"Buy milk\",\"description\":\"From the shop\",\"priority\":\"low\"}");
+        assertEquals(201, created.statusCode());
+        assertTrue(created.body().contains("\"priority\":\"LOW\""));
+        assertEquals("application/json", created.headers().firstValue("Content-Type").orElse(""));
+        String id = idOf(created.body());
+
+        HttpResponse<String> updated = send("PUT", "/profiles/Alex/tasks/" + id,
+                "{\"title\":\"Buy oat milk\",\"priority\":\"HIGH\"}");
+        assertEquals(200, updated.statusCode());
+        assertTrue(updated.body().contains("\"title\":\"Buy oat milk\""));
+        assertTrue(updated.body().contains("\"description\":\"From the shop\""));
+        assertTrue(updated.body().contains("\"priority\":\"HIGH\""));
+
+        HttpResponse<String> completed = send("POST", "/profiles/Alex/tasks/" + id + "/complete", "");
+        assertTrue(completed.body().contains("\"completed\":true"));
+
+        HttpResponse<String> list = send("GET", "/profiles/Alex/tasks", null);
+        assertEquals(200, list.statusCode());
+        assertTrue(list.body().startsWith("{\"total\":1,"));
+
+        assertEquals(204, send("DELETE", "/profiles/Alex/tasks/" + id, null).statusCode());
+        assertEquals(404, send("GET", "/profiles/Alex/tasks/" + id, null).statusCode());
+        assertEquals(404, send("DELETE", "/profiles/Alex/tasks/" + id, null).statusCode());
+    }
+
+    @Test
+    @DisplayName("invalid requests should be answered with a status and an error message")
+    void invalidRequests_shouldBeRejected() throws Exception {
+        HttpResponse<String> blankTitle = send("POST", "/profiles/Alex/tasks",
+                "{\"title\":\" \",\"description\":\"d\",\"priority\":\"LOW\"}");
+        assertEquals(400, blankTitle.statusCode());
+        assertEquals("{\"error\":\"Task title cannot be null or empty.\"}", blankTitle.body());
+
+        assertEquals(400, send("POST", "/profiles/Alex/tasks", "[1, 2]").statusCode());
+        assertEquals(400, send("POST", "/profiles/Alex/tasks", "{\"priority\":\"URGENT\"}").statusCode());
+        assertEquals(400, send("GET", "/profiles/Alex/tasks?limit=ten", null).statusCode());
+        assertEquals(404, send("GET", "/profiles/Alex/tasks/abc", null).statusCode());
+        assertEquals(404, send("GET", "/profiles/Alex/notes", null).statusCode());
+        assertEquals(405, send("DELETE", "/profiles/Alex/tasks", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("a page should hold the requested slice and the profiles should stay apart")
+    void list_shouldPageAndSeparateProfiles() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            send("POST", "/profiles/Alex%20Smith/tasks", "{\"title\":\"Task " + i + "\",\"description\":\"d\",\"priority\":\"MEDIUM\"}");
+        }
+        send("POST", "/profiles/Sam/tasks", "{\"title\":\"Other\",\"description\":\"d\",\"priority\":\"MEDIUM\"}");
+
+        String page = send("GET", "/profiles/Alex%20Smith/tasks?offset=3&limit=10", null).body();
+        assertTrue(page.startsWith("{\"total\":5,"));
+        assertTrue(page.contains("Task 4") && page.contains("Task 5") && !page.contains("Task 3"));
+        assertTrue(send("GET", "/profiles/Sam/tasks", null).body().startsWith("{\"total\":1,"));
+        assertTrue(registry.isActive("Alex Smith"));
+    }
+
+    @Test
+    @DisplayName("concurrent requests should all be applied")
+    void concurrentRequests_shouldAllBeApplied() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(request("POST", "/profiles/Alex/tasks",
+                    "{\"title\":\"T" + i + "\",\"description\":\"d\",\"priority\":\"LOW\"}"), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.get().statusCode());
+        }
+        assertEquals(200, registry.withController("Alex", AppController::getTaskCount));
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String idOf(String json) {
+        Matcher matcher = ID.matcher(json);
+        assertTrue(matcher.find(), json);
+        return matcher.group(1);
+    }
+}
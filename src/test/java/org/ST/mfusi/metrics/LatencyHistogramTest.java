@@ -0,0 +1,64 @@
+package org.ST.mfusi.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("every value should fall into a bucket whose range contains it, within 1/32 of the value")
+    void bucketOf_shouldBoundTheRelativeError() {
+        for (long value = 0; value < 1 << 20; value += 1 + value / 7) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long highest = LatencyHistogram.highestValueOf(bucket);
+            long lowest = bucket == 0 ? 0 : LatencyHistogram.highestValueOf(bucket - 1) + 1;
+            assertTrue(lowest <= value && value <= highest, "value " + value);
+            assertTrue(highest - lowest <= value / LatencyHistogram.SUB_BUCKETS, "value " + value);
+        }
+        assertEquals(LatencyHistogram.bucketOf(LatencyHistogram.MAX_VALUE), LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("snapshot should report the count, mean, percentiles and exact maximum")
+    void snapshot_shouldReportPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().count());
+
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_500, snapshot.mean(), 0.001);
+        assertEquals(500_000, snapshot.p50(), 500_000 / 32.0);
+        assertEquals(990_000, snapshot.p99(), 990_000 / 32.0);
+        assertEquals(1_000_000, snapshot.max());
+        assertTrue(snapshot.p999() <= snapshot.max());
+    }
+
+    @Test
+    @DisplayName("values recorded from many threads at once should all be counted")
+    void record_shouldCountConcurrentValues() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, histogram.snapshot().count());
+        assertEquals(9_999, histogram.snapshot().max());
+    }
+}
@@ -0,0 +1,115 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistencePipelineTest {
+
+    @TempDir
+    Path dataDir;
+
+    private ProfileStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ProfileStore(dataDir);
+    }
+
+    @Test
+    @DisplayName("a burst of edits should be written as one batch and survive a restart")
+    void burstOfEdits_shouldBeCoalescedIntoOneBatch() throws Exception {
+        ProfileJournal journal = ProfileJournal.open(store, "Alex");
+        PersistencePipeline pipeline = new PersistencePipeline(journal, Duration.ofMillis(200));
+        for (int i = 0; i < 20; i++) {
+            assertTrue(pipeline.submit(new TaskMutation.AddTask("Task " + i, "Desc", Priority.MEDIUM)));
+        }
+        assertEquals(20, journal.getProfile().getTasks().size(), "Edits should be visible at once");
+
+        awaitWritten(pipeline, 20);
+        pipeline.close();
+        journal.close();
+
+        PersistencePipeline.Stats stats = pipeline.getStats();
+        assertEquals(0, stats.queueDepth());
+        assertEquals(1, stats.batchesWritten());
+        assertEquals(20, stats.mutationsWritten());
+        assertEquals(stats.lastSaveLatency(), stats.maxSaveLatency());
+
+        ProfileJournal reopened = ProfileJournal.open(store, "Alex");
+        assertEquals(20, reopened.getProfile().getTasks().size());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("closing should write a waiting batch at once instead of waiting out the window")
+    void close_shouldNotWaitOutTheWindow() throws IOException {
+        ProfileJournal journal = ProfileJournal.open(store, "Lee");
+        PersistencePipeline pipeline = new PersistencePipeline(journal, Duration.ofMinutes(1));
+        pipeline.submit(new TaskMutation.AddTask("Waiting", "Desc", Priority.LOW));
+        assertEquals(1, pipeline.getStats().queueDepth());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), pipeline::close);
+        assertEquals(0, pipeline.getStats().queueDepth());
+        assertEquals(1, pipeline.getStats().mutationsWritten());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("the background writer should write edits once the coalescing window has passed")
+    void backgroundWriter_shouldWriteAfterWindow() throws Exception {
+        ProfileJournal journal = ProfileJournal.open(store, "Sam");
+        PersistencePipeline pipeline = new PersistencePipeline(journal, Duration.ofMillis(5));
+        pipeline.submit(new TaskMutation.AddTask("First", "Desc", Priority.HIGH));
+        pipeline.submit(new TaskMutation.AddTask("Second", "Desc", Priority.LOW));
+
+        awaitWritten(pipeline, 2);
+
+        PersistencePipeline.Stats stats = pipeline.getStats();
+        assertEquals(2, stats.mutationsWritten());
+        assertEquals(0, stats.queueDepth());
+        assertNull(pipeline.getLastError());
+        pipeline.close();
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("a controller writing in the background should keep checkpoints and the log consistent")
+    void backgroundController_shouldSurviveCheckpointAndRestart() throws IOException {
+        AppController app = new AppController(ProfileJournal.open(store, "Kim"), Duration.ofMillis(20));
+        app.addTask("Before", "Saved in the snapshot", Priority.LOW);
+        assertEquals("Profile saved successfully.", app.saveProfile());
+        app.addTask("After", "Only in the log", Priority.HIGH);
+        app.markTaskComplete(1);
+        assertTrue(app.getPersistenceStats().isPresent());
+        app.close();
+
+        assertThrows(IllegalStateException.class, () -> app.addTask("Late", "Desc", Priority.LOW));
+
+        AppController reopened = new AppController("Kim", store);
+        List<Task> tasks = reopened.getUserProfile().getTasks();
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.get(0).isCompleted());
+        assertEquals("After", tasks.get(1).getTitle());
+        assertTrue(reopened.getPersistenceStats().isEmpty());
+        reopened.close();
+    }
+
+    private static void awaitWritten(PersistencePipeline pipeline, long mutations) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (pipeline.getStats().mutationsWritten() < mutations && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.metrics.Counter;
+import org.ST.mfusi.metrics.Metrics;
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileJournalTest {
+
+    @TempDir
+    Path dataDir;
+
+    private ProfileStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ProfileStore(dataDir);
+    }
+
+    @Test
+    @DisplayName("every mutation should be replayed after a restart without a snapshot")
+    void mutations_shouldBeReplayedAfterRestart() throws IOException {
+        AppController first = new AppController("Alex", store);
+        first.addTask("One", "First", Priority.LOW);
+        first.addTask("Two", "Second", Priority.MEDIUM);
+        first.addTask("Three", "Third", Priority.HIGH);
+        first.markTaskComplete(1);
+        first.changeTaskPriority(2, Priority.HIGH);
+        first.editTask(3, "Three!", "");
+        long threeId = first.getUserProfile().getTasks().get(2).getId();
+        first.updateTaskById(threeId, "", "Third, updated", Priority.LOW, true);
+        first.removeTask(2);
+        first.close();
+
+        assertFalse(store.exists("Alex"), "No snapshot should have been written");
+
+        AppController second = new AppController("Alex", store);
+        List<Task> tasks = second.getUserProfile().getTasks();
+
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.get(0).isCompleted());
+        assertEquals("Three!", tasks.get(1).getTitle());
+        assertEquals("Third, updated", tasks.get(1).getDescription());
+        assertEquals(Priority.LOW, tasks.get(1).getPriority());
+        assertTrue(tasks.get(1).isCompleted());
+    }
+
+    @Test
+    @DisplayName("due dates set, edited and bulk-added should be replayed after a restart")
+    void dueDates_shouldBeReplayedAfterRestart() throws IOException {
+        Instant due = Instant.parse("2026-10-20T09:00:00Z");
+        AppController first = new AppController("Noor", store);
+        first.addTask("One", "First", Priority.LOW);
+        first.addTask("Two", "Second", Priority.MEDIUM);
+        first.setDueDate(1, due);
+        first.editTask(2, "", "", due.plusSeconds(3_600));
+        first.addTasks(List.of(new Task("Imported", "Dated", Priority.HIGH).withDueDate(due.plusSeconds(60))));
+        first.setDueDate(1, null);
+        List<Task> expected = first.getUserProfile().getTasks();
+        first.close();
+
+        AppController second = new AppController("Noor", store);
+        List<Task> tasks = second.getUserProfile().getTasks();
+
+        assertEquals(expected, tasks);
+        assertNull(tasks.get(0).getDueDate());
+        assertEquals(due.plusSeconds(3_600), tasks.get(1).getDueDate());
+        assertEquals(due.plusSeconds(60), tasks.get(2).getDueDate());
+    }
+
+    @Test
+    @DisplayName("rejected mutations should not be logged")
+    void rejectedMutations_shouldNotBeLogged() throws IOException {
+        ProfileJournal journal = ProfileJournal.open(store, "Sam");
+        long before = journal.getLogSize();
+
+        AppController app = new AppController(journal);
+        app.addTask("", "No title", Priority.LOW);
+        app.removeTask(5);
+
+        assertEquals(before, journal.getLogSize());
+    }
+
+    @Test
+    @DisplayName("a checkpoint should fold the log into the snapshot")
+    void checkpoint_shouldTruncateLog() throws IOException {
+        AppController app = new AppController("Kim", store);
+        app.addTask("Task", "Desc", Priority.MEDIUM);
+        app.clearAllTasks();
+        app.addTask("After clear", "Desc", Priority.LOW);
+
+        assertEquals("Profile saved successfully.", app.saveProfile());
+        app.addTask("After save", "Desc", Priority.HIGH);
+        app.close();
+
+        Profile reloaded = ProfileJournal.open(store, "Kim").getProfile();
+        assertEquals(List.of("After clear", "After save"),
+                reloaded.getTasks().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("records already covered by the snapshot should not be applied twice")
+    void replay_shouldSkipRecordsCoveredBySnapshot() throws IOException {
+        ProfileJournal journal = ProfileJournal.open(store, "Lee");
+        journal.apply(new TaskMutation.AddTask("Once", "Only once", Priority.LOW));
+        journal.close();
+
+        // simulate a crash after the snapshot was saved but before old segments were deleted
+        Profile profile = new Profile("Lee");
+        profile.addTask("Once", "Only once", Priority.LOW);
+        store.save(profile, 1);
+
+        assertEquals(1, ProfileJournal.open(store, "Lee").getProfile().getTasks().size());
+    }
+
+    @Test
+    @DisplayName("a logged change that does not apply to the snapshot should fail the open")
+    void invalidRecord_shouldFailOpen() throws IOException {
+        ProfileJournal journal = ProfileJournal.open(store, "Ali");
+        journal.apply(new TaskMutation.AddTask("Logged", "Desc", Priority.LOW));
+        long id = journal.getProfile().getTasks().get(0).getId();
+        journal.close();
+
+        // a snapshot that claims to cover nothing of the log but already holds the logged task
+        Profile profile = new Profile("Ali");
+        profile.addTask(new Task(id, "Saved", "Desc", Priority.LOW, false));
+        store.save(profile, 0);
+
+        IOException e = assertThrows(IOException.class, () -> ProfileJournal.open(store, "Ali"));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("a torn final record should be dropped and later appends should still be readable")
+    void tornTail_shouldBeRecovered() throws IOException {
+        ProfileJournal journal = ProfileJournal.open(store, "Max");
+        journal.apply(new TaskMutation.AddTask("Kept", "Desc", Priority.LOW));
+        journal.apply(new TaskMutation.AddTask("Torn", "Desc", Priority.LOW));
+        journal.close();
+
+        Path segment;
+        try (var files = Files.list(dataDir)) {
+            segment = files.filter(p -> p.getFileName().toString().contains(".wal.")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        ProfileJournal reopened = ProfileJournal.open(store, "Max");
+        assertEquals(1, reopened.getProfile().getTasks().size());
+        reopened.apply(new TaskMutation.AddTask("Appended", "Desc", Priority.HIGH));
+        reopened.close();
+
+        List<Task> tasks = ProfileJournal.open(store, "Max").getProfile().getTasks();
+        assertEquals(List.of("Kept", "Appended"), tasks.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("a damaged record before the last segment should fail the open instead of skipping it")
+    void damagedEarlierSegment_shouldFailOpen() throws IOException {
+        ProfileJournal journal = ProfileJournal.open(store, "Sam");
+        journal.apply(new TaskMutation.AddTask("First", "Desc", Priority.LOW));
+        journal.apply(new TaskMutation.AddTask("Second", "Desc", Priority.LOW));
+        journal.close();
+        journal = ProfileJournal.open(store, "Sam");
+        journal.apply(new TaskMutation.AddTask("Third", "Desc", Priority.LOW));
+        journal.close();
+
+        List<Path> segments;
+        try (var files = Files.list(dataDir)) {
+            segments = files.filter(p -> p.getFileName().toString().contains(".wal."))
+                    .sorted((a, b) -> Long.compare(segmentStart(a), segmentStart(b))).toList();
+        }
+        assertEquals(2, segments.size());
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertThrows(IOException.class, () -> ProfileJournal.open(store, "Sam"));
+    }
+
+    private static long segmentStart(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    @Test
+    @DisplayName("crossing the size threshold should compact the log in the background")
+    void threshold_shouldTriggerBackgroundCompaction() throws Exception {
+        ProfileJournal journal = ProfileJournal.open(store, "Ana",
+                TaskLog.SyncPolicy.groupCommit(16, Duration.ofMillis(5)), 2048);
+        for (int i = 0; i < 200; i++) {
+            journal.apply(new TaskMutation.AddTask("Task " + i, "Description " + i, Priority.MEDIUM));
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!store.exists("Ana") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(store.exists("Ana"), "Compaction should have written a snapshot");
+        journal.close();
+
+        List<String> titles = new ArrayList<>();
+        for (Task task : ProfileJournal.open(store, "Ana").getProfile().getTasks()) {
+            titles.add(task.getTitle());
+        }
+        assertEquals(200, titles.size());
+        assertEquals("Task 199", titles.get(199));
+    }
+
+    @Test
+    @DisplayName("a background compaction that fails should be counted and leave the log intact")
+    void failedCompaction_shouldBeCounted() throws Exception {
+        Counter failures = Metrics.global().counter("journal.compaction.failures");
+        long before = failures.get();
+        ProfileJournal journal = ProfileJournal.open(store, "Eve", TaskLog.SyncPolicy.EVERY_RECORD, 256);
+        // a non-empty directory where the snapshot goes, so it cannot be replaced
+        Files.createDirectories(store.fileFor("Eve").resolve("blocked"));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        for (int i = 0; failures.get() == before && System.nanoTime() < deadline; i++) {
+            journal.apply(new TaskMutation.AddTask("Task " + i, "Desc", Priority.LOW));
+            Thread.sleep(1);
+        }
+
+        assertTrue(failures.get() > before, "The failed compaction should be counted");
+        assertTrue(journal.getProfile().getTasks().size() > 0);
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("a bulk add should log every added task, including its id and completion")
+    void bulkAdd_shouldBeReplayedAfterRestart() throws IOException {
+        AppController app = new AppController("Lee", store);
+        Task done = new Task(new Task("Seed", "Desc").getId() + 500, "Imported", "Done elsewhere", Priority.HIGH, true);
+        BulkAddReport report = app.addTasks(Stream.of(new Task("Open", "Desc", Priority.LOW), new Task("", "Bad", Priority.LOW), done));
+        assertEquals("Added 2 tasks, rejected 1 row.", report.summary());
+        app.close();
+
+        List<Task> tasks = ProfileJournal.open(store, "Lee").getProfile().getTasks();
+        assertEquals(List.of("Open", "Imported"), tasks.stream().map(Task::getTitle).toList());
+        assertEquals(done.getId(), tasks.get(1).getId());
+        assertTrue(tasks.get(1).isCompleted());
+    }
+
+    @Test
+    @DisplayName("undone and redone changes should be replayed after a restart")
+    void undoAndRedo_shouldBeReplayedAfterRestart() throws IOException {
+        AppController first = new AppController("Undo", store);
+        first.addTask("One", "First", Priority.LOW);
+        first.addTask("Two", "Second", Priority.MEDIUM);
+        first.addTask("Three", "Third", Priority.HIGH);
+        first.markTaskComplete(2);
+        first.removeTask(2);
+        first.clearAllTasks();
+        assertEquals("Last change undone.", first.undo());
+        assertEquals("Last change undone.", first.undo());
+        first.changeTaskPriority(1, Priority.HIGH);
+        first.undo();
+        assertEquals("Change redone.", first.redo());
+        List<Task> expected = first.getUserProfile().getTasks();
+        first.close();
+
+        AppController second = new AppController("Undo", store);
+
+        assertEquals(expected, second.getUserProfile().getTasks());
+        assertTrue(second.getUserProfile().getTasks().get(1).isCompleted(), "The restored task should keep its status");
+        assertEquals(Priority.HIGH, second.getUserProfile().getTasks().get(0).getPriority());
+        assertEquals("Nothing to undo.", second.undo(), "History should not survive a restart");
+    }
+}
@@ -0,0 +1,241 @@
+package org.ST.mfusi.persistence;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private ProfileStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ProfileStore(dataDir);
+    }
+
+    @Test
+    @DisplayName("save and load should round-trip the profile and all task fields")
+    void saveAndLoad_shouldRoundTrip() throws IOException {
+        Profile profile = new Profile("Alex", "alex@example.com");
+        profile.addTask("Buy milk", "Two litres", Priority.HIGH);
+        profile.addTask("Write \"report\"", "Quarterly, with ünïcödé", Priority.LOW);
+        profile.markTaskComplete(2);
+
+        store.save(profile);
+        Profile loaded = store.load("Alex").orElseThrow();
+
+        assertEquals(profile, loaded);
+        assertEquals(profile.getTasks(), loaded.getTasks());
+        assertTrue(loaded.getTasks().get(1).isCompleted());
+    }
+
+    @Test
+    @DisplayName("load should return empty for a profile that was never saved")
+    void load_shouldReturnEmpty_whenMissing() throws IOException {
+        assertEquals(Optional.empty(), store.load("Nobody"));
+        assertFalse(store.exists("Nobody"));
+    }
+
+    @Test
+    @DisplayName("save should replace the previous save and leave no temporary files")
+    void save_shouldReplacePreviousSave() throws IOException {
+        Profile profile = new Profile("Sam");
+        profile.addTask("First", "Desc", Priority.MEDIUM);
+        store.save(profile);
+        profile.clearTasks();
+        store.save(profile);
+
+        assertTrue(store.load("Sam").orElseThrow().getTasks().isEmpty());
+        try (var files = Files.list(dataDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("profile names with path characters should stay inside the data directory")
+    void fileFor_shouldEscapeNames() {
+        assertEquals(dataDir, store.fileFor("../etc/passwd").getParent());
+    }
+
+    @Test
+    @DisplayName("read should skip unknown fields and accept tasks without optional fields")
+    void read_shouldSkipUnknownFields() throws IOException {
+        String json = """
+                {"name": "Kim", "theme": {"dark": true}, "tasks": [
+                  {"title": "T", "description": "D", "tags": ["a", "b"]}
+                ], "email": "kim@example.com"}
+                """;
+        Profile profile = ProfileJsonCodec.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("Kim", profile.getName());
+        assertEquals("kim@example.com", profile.getEmail());
+        Task task = profile.getTasks().get(0);
+        assertEquals(Priority.MEDIUM, task.getPriority());
+        assertFalse(task.isCompleted());
+    }
+
+    @Test
+    @DisplayName("read should reject tasks that fail validation with the location of the task")
+    void read_shouldRejectInvalidTasks() {
+        String json = "{\"name\": \"Kim\", \"tasks\": [{\"title\": \"\", \"description\": \"D\"}]}";
+        JsonParseException e = assertThrows(JsonParseException.class,
+                () -> ProfileJsonCodec.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(1, e.getLocation().getLineNr());
+    }
+
+    @Test
+    @DisplayName("AppController should load a saved profile and save changes back")
+    void appController_shouldLoadAndSave() throws IOException {
+        AppController first = new AppController("Lee", store);
+        first.addTask("Persisted", "Survives a restart", Priority.HIGH);
+        assertEquals("Profile saved successfully.", first.saveProfile());
+
+        AppController second = new AppController("Lee", store);
+
+        assertEquals(1, second.getTaskCount());
+        assertEquals("Persisted", second.getUserProfile().getTasks().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("binary snapshots should round-trip unicode text, completion and out-of-order ids")
+    void binarySnapshot_shouldRoundTrip() throws IOException {
+        ProfileStore binary = new ProfileStore(dataDir, ProfileStore.Format.BINARY);
+        Profile profile = new Profile("Zoë", "zoe@example.com");
+        profile.addTask("Café ☕", "Ünïcödé — 漢字", Priority.HIGH);
+        long first = profile.getTasks().get(0).getId();
+        profile.getToDoList().addTask(new Task(first + 50, "Later id", "Desc", Priority.LOW, true));
+        profile.getToDoList().addTask(new Task(first + 10, "Earlier id", "Desc", Priority.MEDIUM, false));
+
+        binary.save(profile, 7);
+        ProfileJsonCodec.ProfileSnapshot snapshot = binary.loadSnapshot("Zoë").orElseThrow();
+        Profile loaded = snapshot.profile();
+
+        assertEquals(7, snapshot.logSequence());
+        assertEquals("zoe@example.com", loaded.getEmail());
+        assertEquals(profile.getTasks(), loaded.getTasks());
+        assertTrue(loaded.getToDoList().getTaskById(first + 50).isCompleted());
+        assertEquals("Earlier id", loaded.getToDoList().getTaskById(first + 10).getTitle());
+        assertTrue(new Task("Fresh", "Desc").getId() > first + 50, "New tasks must not reuse stored ids");
+    }
+
+    @Test
+    @DisplayName("due dates should survive JSON and binary snapshots")
+    void snapshots_shouldKeepDueDates() throws IOException {
+        Instant due = Instant.parse("2026-10-20T09:30:00.250Z");
+        for (ProfileStore.Format format : ProfileStore.Format.values()) {
+            ProfileStore formatStore = new ProfileStore(dataDir.resolve(format.name()), format);
+            Profile profile = new Profile("Dana");
+            profile.addTask("Dated", "Has a due date", Priority.HIGH);
+            profile.addTask("Undated", "Has none", Priority.LOW);
+            profile.setDueDate(1, due);
+
+            formatStore.save(profile);
+            Profile loaded = formatStore.load("Dana").orElseThrow();
+
+            assertEquals(profile.getTasks(), loaded.getTasks(), format.name());
+            assertEquals(due, loaded.getTasks().get(0).getDueDate(), format.name());
+            assertNull(loaded.getTasks().get(1).getDueDate(), format.name());
+        }
+    }
+
+    @Test
+    @DisplayName("binary snapshots should keep a missing email apart from an empty one")
+    void binarySnapshot_shouldRoundTripMissingEmail() throws IOException {
+        ProfileStore binary = new ProfileStore(dataDir, ProfileStore.Format.BINARY);
+        Profile profile = new Profile("Noa", null);
+        profile.addTask("Task", "Desc", Priority.LOW);
+
+        binary.save(profile);
+        Profile loaded = binary.load("Noa").orElseThrow();
+        assertNull(loaded.getEmail());
+        assertEquals(profile.getTasks(), loaded.getTasks());
+
+        profile.setEmail("");
+        binary.save(profile);
+        assertEquals("", binary.load("Noa").orElseThrow().getEmail());
+    }
+
+    @Test
+    @DisplayName("a mapped profile should accept changes and save them to a new snapshot")
+    void binarySnapshot_shouldAcceptChanges() throws IOException {
+        ProfileStore binary = new ProfileStore(dataDir, ProfileStore.Format.BINARY);
+        Profile profile = new Profile("Ola");
+        for (int i = 0; i < 1_000; i++) {
+            profile.addTask("Task " + i, "Desc", i % 2 == 0 ? Priority.HIGH : Priority.LOW);
+        }
+        binary.save(profile);
+
+        Profile loaded = binary.load("Ola").orElseThrow();
+        assertEquals(500, loaded.getToDoList().getTaskCount(Priority.HIGH));
+        loaded.addTask("Appended", "Desc", Priority.MEDIUM);
+        loaded.markTaskComplete(2);
+        loaded.removeTask(1);
+        binary.save(loaded);
+
+        Profile reloaded = binary.load("Ola").orElseThrow();
+        assertEquals(loaded.getTasks(), reloaded.getTasks());
+        assertEquals(1_000, reloaded.getTasks().size());
+        assertEquals("Appended", reloaded.getTasks().get(999).getTitle());
+    }
+
+    @Test
+    @DisplayName("switching formats should migrate a profile and leave a single file")
+    void switchingFormats_shouldMigrate() throws IOException {
+        Profile profile = new Profile("Ren");
+        profile.addTask("Kept", "Across formats", Priority.LOW);
+        store.save(profile);
+
+        ProfileStore binary = new ProfileStore(dataDir, ProfileStore.Format.BINARY);
+        assertTrue(binary.exists("Ren"));
+        Profile migrated = binary.load("Ren").orElseThrow();
+        assertEquals(profile.getTasks(), migrated.getTasks());
+        binary.save(migrated);
+
+        assertFalse(Files.exists(store.fileFor("Ren")));
+        assertEquals(profile.getTasks(), store.load("Ren").orElseThrow().getTasks());
+        assertTrue(binary.delete("Ren"));
+        assertFalse(store.exists("Ren"));
+    }
+
+    @Test
+    @DisplayName("opening a truncated, foreign or newer binary snapshot should fail")
+    void binarySnapshot_shouldRejectBadFiles() throws IOException {
+        ProfileStore binary = new ProfileStore(dataDir, ProfileStore.Format.BINARY);
+        Profile profile = new Profile("Max");
+        profile.addTask("Task", "Desc", Priority.LOW);
+        binary.save(profile);
+        Path file = binary.fileFor("Max");
+        byte[] valid = Files.readAllBytes(file);
+
+        Files.write(file, java.util.Arrays.copyOf(valid, valid.length - 3));
+        assertThrows(IOException.class, () -> binary.load("Max"));
+
+        Files.write(file, "{\"name\": \"Max\"}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> binary.load("Max"));
+
+        byte[] newer = valid.clone();
+        newer[4] = (byte) (ProfileBinaryCodec.FORMAT_VERSION + 1);
+        Files.write(file, newer);
+        assertThrows(IOException.class, () -> binary.load("Max"));
+    }
+}
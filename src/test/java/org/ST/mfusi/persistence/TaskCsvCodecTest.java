@@ -0,0 +1,124 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.ST.mfusi.todolist.BulkAddReport;
+import org.ST.mfusi.todolist.ToDoList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCsvCodecTest {
+
+    @TempDir
+    Path dir;
+
+    private static final List<Task> AWKWARD_TASKS = List.of(
+            new Task(1, "Buy milk", "Two litres", Priority.HIGH, false),
+            new Task(2, "Write \"report\", then send", "Line one\nLine two\r\nLine three", Priority.LOW, true),
+            new Task(3, "Tabs\tand \\backslashes\\", "ünïcödé and 🚀 emoji", Priority.MEDIUM, false));
+
+    @Test
+    @DisplayName("CSV and TSV exports should import back to the same tasks")
+    void writeAndRead_shouldRoundTrip() throws IOException {
+        for (TaskCsvCodec.Format format : TaskCsvCodec.Format.values()) {
+            Path file = dir.resolve("tasks." + format.name().toLowerCase());
+            TaskCsvCodec.write(AWKWARD_TASKS, file, format);
+
+            TaskCsvCodec.ImportedRows rows = TaskCsvCodec.read(file, TaskCsvCodec.Format.forFile(file));
+
+            assertTrue(rows.errors().isEmpty(), format + ": " + rows.errors());
+            assertEquals(AWKWARD_TASKS.size(), rows.tasks().size(), format.name());
+            for (int i = 0; i < AWKWARD_TASKS.size(); i++) {
+                Task expected = AWKWARD_TASKS.get(i);
+                Task actual = rows.tasks().get(i);
+                assertEquals(expected.getTitle(), actual.getTitle(), format.name());
+                assertEquals(expected.getDescription(), actual.getDescription(), format.name());
+                assertEquals(expected.getPriority(), actual.getPriority(), format.name());
+                assertEquals(expected.isCompleted(), actual.isCompleted(), format.name());
+                assertEquals(i, rows.rows()[i]);
+            }
+        }
+        String csv = Files.readString(dir.resolve("tasks.csv"));
+        assertTrue(csv.startsWith("id,title,description,priority,completed\n1,Buy milk,Two litres,HIGH,false\n"), csv);
+        assertTrue(csv.contains("\"Write \"\"report\"\", then send\""), csv);
+    }
+
+    @Test
+    @DisplayName("import should map columns by header and report unreadable and invalid rows by row")
+    void importTasks_shouldReportRejectedRows() throws IOException {
+        Path file = dir.resolve("other-tool.csv");
+        Files.writeString(file, """
+                Completed,Description,Title,Tags
+                yes,Oat milk,Buy milk,shopping
+                no,Both balconies,Water plants
+                0,Someday,,
+
+                1,Whenever,Fly a kite,fun
+                no,Last row,No line feed,x""", StandardCharsets.UTF_8);
+
+        TaskCsvCodec.ImportedRows rows = TaskCsvCodec.read(file, TaskCsvCodec.Format.CSV);
+        BulkAddReport report = rows.merge(new ToDoList().addTasks(rows.tasks()));
+
+        assertEquals(List.of("Buy milk", "Fly a kite", "No line feed"),
+                report.added().stream().map(Task::getTitle).toList());
+        assertTrue(report.added().get(0).isCompleted());
+        assertEquals(Priority.MEDIUM, report.added().get(0).getPriority());
+        // row 1 has three fields instead of four, row 2 has no title, row 3 is blank
+        assertEquals(List.of(1, 2), report.errors().stream().map(BulkAddReport.RowError::row).toList());
+        assertEquals("Expected 4 fields but found 3.", report.errors().get(0).message());
+    }
+
+    @Test
+    @DisplayName("a file of many chunks should be parsed in parallel and keep its row order")
+    void read_shouldKeepOrderAcrossChunks() throws IOException {
+        Path file = dir.resolve("big.tsv");
+        int count = 120_000;
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("title\tdescription\tpriority\n");
+            for (int i = 0; i < count; i++) {
+                out.write(i == 70_000 ? "Bad\trow\tURGENT\n"
+                        : "Task " + i + "\tA description long enough to spread the file over several chunks " + i + "\tLOW\n");
+            }
+        }
+        assertTrue(Files.size(file) > 2L * TaskCsvCodec.CHUNK_SIZE);
+
+        TaskCsvCodec.ImportedRows rows = TaskCsvCodec.read(file, TaskCsvCodec.Format.TSV);
+
+        assertEquals(count - 1, rows.tasks().size());
+        assertEquals(List.of(new BulkAddReport.RowError(70_000, "Invalid priority: URGENT.")), rows.errors());
+        for (int i = 0; i < rows.tasks().size(); i++) {
+            int row = i < 70_000 ? i : i + 1;
+            assertEquals(row, rows.rows()[i]);
+            assertEquals("Task " + row, rows.tasks().get(i).getTitle());
+        }
+        for (int i = 1; i < rows.tasks().size(); i++) {
+            assertTrue(rows.tasks().get(i - 1).getId() < rows.tasks().get(i).getId(), "ids ascend in file order");
+        }
+    }
+
+    @Test
+    @DisplayName("the controller should export its list and import it into another profile")
+    void controller_shouldExportAndImport() {
+        AppController source = new AppController("Source");
+        source.addTask("Buy milk", "Two litres", Priority.HIGH);
+        source.addTask("Call Sam", "About the trip", Priority.LOW);
+        Path file = dir.resolve("export.csv");
+
+        assertEquals("Exported 2 tasks.", source.exportTasks(file));
+        AppController target = new AppController("Target");
+        assertEquals("Added 2 tasks.", target.importTasks(file));
+        assertEquals("Call Sam", target.getUserProfile().getTasks().get(1).getTitle());
+        assertTrue(target.importTasks(dir.resolve("missing.csv")).startsWith("Error importing tasks"));
+    }
+}
@@ -0,0 +1,168 @@
+package org.ST.mfusi.persistence;
+
+import org.ST.mfusi.task.Priority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskLogTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("a write that fails partway should be cut off so that the retry and later records replay")
+    void failedWrite_shouldNotHideLaterRecords() throws IOException {
+        FailingTaskLog log = new FailingTaskLog(dataDir);
+        log.append(new TaskMutation.AddTask(1, "Before", "Desc", Priority.LOW));
+
+        log.failNextWrite = true;
+        List<TaskMutation> batch = List.of(
+                new TaskMutation.AddTask(2, "Retried", "Desc", Priority.LOW),
+                new TaskMutation.AddTask(3, "Retried too", "Desc", Priority.LOW));
+        assertThrows(UncheckedIOException.class, () -> log.appendAll(batch));
+        assertEquals(1, log.lastSequence(), "A failed batch must not use up sequence numbers");
+
+        assertEquals(3, log.appendAll(batch));
+        log.append(new TaskMutation.AddTask(4, "After", "Desc", Priority.LOW));
+        log.close();
+
+        List<TaskMutation> replayed = new ArrayList<>();
+        try (TaskLog reopened = new TaskLog(dataDir, "Max", 1, TaskLog.SyncPolicy.EVERY_RECORD)) {
+            assertEquals(4, reopened.replay(0, replayed::add));
+        }
+        assertEquals(List.of("Before", "Retried", "Retried too", "After"),
+                replayed.stream().map(m -> ((TaskMutation.AddTask) m).title()).toList());
+    }
+
+    /**
+     * A log whose next write can be made to stop halfway, like a disk running full.
+     */
+    private static final class FailingTaskLog extends TaskLog {
+        boolean failNextWrite;
+
+        FailingTaskLog(Path directory) throws IOException {
+            super(directory, "Max", 1, SyncPolicy.EVERY_RECORD);
+        }
+
+        @Override
+        FileChannel openChannel(Path file) throws IOException {
+            return new FailingChannel(super.openChannel(file));
+        }
+
+        private final class FailingChannel extends FileChannel {
+            private final FileChannel delegate;
+
+            FailingChannel(FileChannel delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                if (failNextWrite) {
+                    failNextWrite = false;
+                    ByteBuffer half = src.slice(src.position(), src.remaining() / 2);
+                    delegate.write(half);
+                    throw new IOException("No space left on device");
+                }
+                return delegate.write(src);
+            }
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                return delegate.read(dst);
+            }
+
+            @Override
+            public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+                return delegate.read(dsts, offset, length);
+            }
+
+            @Override
+            public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+                return delegate.write(srcs, offset, length);
+            }
+
+            @Override
+            public long position() throws IOException {
+                return delegate.position();
+            }
+
+            @Override
+            public FileChannel position(long newPosition) throws IOException {
+                delegate.position(newPosition);
+                return this;
+            }
+
+            @Override
+            public long size() throws IOException {
+                return delegate.size();
+            }
+
+            @Override
+            public FileChannel truncate(long size) throws IOException {
+                delegate.truncate(size);
+                return this;
+            }
+
+            @Override
+            public void force(boolean metaData) throws IOException {
+                delegate.force(metaData);
+            }
+
+            @Override
+            public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+                return delegate.transferTo(position, count, target);
+            }
+
+            @Override
+            public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+                return delegate.transferFrom(src, position, count);
+            }
+
+            @Override
+            public int read(ByteBuffer dst, long position) throws IOException {
+                return delegate.read(dst, position);
+            }
+
+            @Override
+            public int write(ByteBuffer src, long position) throws IOException {
+                return delegate.write(src, position);
+            }
+
+            @Override
+            public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+                return delegate.map(mode, position, size);
+            }
+
+            @Override
+            public FileLock lock(long position, long size, boolean shared) throws IOException {
+                return delegate.lock(position, size, shared);
+            }
+
+            @Override
+            public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+                return delegate.tryLock(position, size, shared);
+            }
+
+            @Override
+            protected void implCloseChannel() throws IOException {
+                delegate.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.ST.mfusi.profile;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToDoListRendererTest {
+
+    private final ToDoListRenderer renderer = new ToDoListRenderer();
+
+    private static List<Task> sampleTasks() {
+        return List.of(
+                new Task(1, "Buy milk", "Two litres", Priority.HIGH, true),
+                new Task(2, null, "No title given", Priority.MEDIUM, false),
+                new Task(3, "Call mum", "Sunday", Priority.LOW, false));
+    }
+
+    @Test
+    @DisplayName("rows should match the original String.format layout")
+    void render_shouldMatchFormatLayout() throws IOException {
+        StringBuilder expected = new StringBuilder("--- To-Do List for Alex ---\n");
+        List<Task> tasks = sampleTasks();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            expected.append(String.format("%d. %s %s: %s (Priority: %s)\n", i + 1,
+                    task.isCompleted() ? "[x]" : "[ ]", task.getTitle() != null ? task.getTitle() : "Task",
+                    task.getDescription(), task.getPriority()));
+        }
+        expected.append(ToDoListRenderer.FOOTER);
+
+        StringBuilder out = new StringBuilder();
+        renderer.render("Alex", tasks, out);
+
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    @DisplayName("a Writer should receive exactly the same output as a StringBuilder")
+    void render_toWriter_shouldMatchStringBuilder() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        StringWriter writer = new StringWriter();
+
+        renderer.render("Alex", sampleTasks(), builder);
+        renderer.render("Alex", sampleTasks(), writer);
+
+        assertEquals(builder.toString(), writer.toString());
+    }
+
+    @Test
+    @DisplayName("a page should keep the list numbers and say which rows it shows")
+    void render_page_shouldKeepNumbers() throws IOException {
+        StringBuilder out = new StringBuilder();
+        renderer.render("Alex", sampleTasks(), 1, 1, out);
+
+        assertEquals("--- To-Do List for Alex ---\n"
+                + "2. [ ] Task: No title given (Priority: MEDIUM)\n"
+                + "Showing tasks 2-2 of 3\n"
+                + ToDoListRenderer.FOOTER, out.toString());
+    }
+
+    @Test
+    @DisplayName("a page past the end should render no rows, and a negative offset should be rejected")
+    void render_pageOutOfRange() throws IOException {
+        StringBuilder out = new StringBuilder();
+        renderer.render("Alex", sampleTasks(), 10, 5, out);
+
+        assertTrue(out.toString().contains("Showing tasks none of 3"));
+        assertThrows(IllegalArgumentException.class, () -> renderer.render("Alex", sampleTasks(), -1, 5, out));
+    }
+
+    @Test
+    @DisplayName("an empty list should show the empty message")
+    void render_emptyList() throws IOException {
+        StringBuilder out = new StringBuilder();
+        renderer.render("Alex", List.of(), out);
+
+        assertEquals("--- To-Do List for Alex ---\n" + ToDoListRenderer.EMPTY_MESSAGE + ToDoListRenderer.FOOTER,
+                out.toString());
+    }
+}
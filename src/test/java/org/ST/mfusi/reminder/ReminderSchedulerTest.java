@@ -0,0 +1,199 @@
+package org.ST.mfusi.reminder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderSchedulerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final long TICK = 1_000;
+    private static final long DAY = 86_400_000;
+
+    /**
+     * Records when each of many reminders fired, and checks that none fired early, late or twice.
+     */
+    private static final class Recorder {
+        final SimulatedClock clock;
+        final long[] due;
+        final long[] firedAt;
+        final long[] advancedBefore;
+        final int[] fired;
+        long lastAdvance = Long.MIN_VALUE;
+        long lastFiredTick = Long.MIN_VALUE;
+        boolean inOrder = true;
+
+        Recorder(SimulatedClock clock, int count) {
+            this.clock = clock;
+            this.due = new long[count];
+            this.firedAt = new long[count];
+            this.advancedBefore = new long[count];
+            this.fired = new int[count];
+        }
+
+        Runnable action(int index) {
+            return () -> {
+                fired[index]++;
+                firedAt[index] = clock.millis();
+                advancedBefore[index] = lastAdvance;
+                long tick = dueTick(due[index]);
+                inOrder &= tick >= lastFiredTick;
+                lastFiredTick = tick;
+            };
+        }
+
+        /**
+         * @return The clock reading of the tick a reminder is due in.
+         */
+        long dueTick(long dueMillis) {
+            return START.toEpochMilli() + Math.ceilDiv(dueMillis - START.toEpochMilli(), TICK) * TICK;
+        }
+    }
+
+    @Test
+    @DisplayName("a million reminders should each fire once, never early and at the first advance after their tick")
+    void millionsOfReminders_shouldFireExactlyOnceOnTime() {
+        int count = 1_000_000;
+        SimulatedClock clock = new SimulatedClock(START);
+        ReminderScheduler scheduler = new ReminderScheduler(clock, Duration.ofMillis(TICK), Runnable::run);
+        Recorder recorder = new Recorder(clock, count);
+        Random random = new Random(2026);
+        List<ReminderScheduler.Reminder> reminders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recorder.due[i] = START.toEpochMilli() + 1 + (long) (random.nextDouble() * 30 * DAY);
+            reminders.add(scheduler.schedule(Instant.ofEpochMilli(recorder.due[i]), recorder.action(i)));
+        }
+        assertEquals(count, scheduler.size());
+
+        boolean[] cancelled = new boolean[count];
+        for (int i = 0; i < count; i += 10) {
+            cancelled[i] = reminders.get(i).cancel();
+            assertTrue(cancelled[i]);
+        }
+        assertFalse(reminders.get(0).cancel(), "A reminder can only be cancelled once");
+
+        long end = START.toEpochMilli() + 31 * DAY;
+        boolean rescheduled = false;
+        List<Long> advances = new ArrayList<>();
+        while (clock.millis() < end) {
+            clock.advanceMillis(1 + random.nextInt((int) (2 * 3_600_000)));
+            recorder.lastAdvance = clock.millis();
+            advances.add(clock.millis());
+            scheduler.advance();
+            if (!rescheduled && clock.millis() > START.toEpochMilli() + 10 * DAY) {
+                // move every tenth reminder, fired or not, to somewhere in the next ten days
+                rescheduled = true;
+                for (int i = 1; i < count; i += 10) {
+                    long newDue = clock.millis() + 1 + (long) (random.nextDouble() * 10 * DAY);
+                    boolean pending = recorder.fired[i] == 0;
+                    assertEquals(pending, reminders.get(i).reschedule(Instant.ofEpochMilli(newDue)));
+                    if (pending) {
+                        recorder.due[i] = newDue;
+                        assertEquals(Instant.ofEpochMilli(newDue), reminders.get(i).getDueAt());
+                    }
+                }
+            }
+        }
+
+        assertEquals(0, scheduler.size());
+        for (int i = 0; i < count; i++) {
+            if (cancelled[i]) {
+                assertEquals(0, recorder.fired[i], "cancelled reminder " + i);
+                continue;
+            }
+            assertEquals(1, recorder.fired[i], "reminder " + i);
+            assertFalse(reminders.get(i).isPending());
+            assertTrue(recorder.firedAt[i] >= recorder.due[i], "reminder " + i + " fired early");
+            assertEquals(recorder.advancedBefore[i], recorder.firedAt[i], "reminder " + i + " fired outside advance()");
+        }
+        // fired at the first advance that reached its tick: the one before had not reached it
+        for (int i = 0; i < count; i++) {
+            if (!cancelled[i]) {
+                int at = Collections.binarySearch(advances, recorder.firedAt[i]);
+                assertTrue(at >= 0);
+                if (at > 0) {
+                    assertTrue(advances.get(at - 1) < recorder.dueTick(recorder.due[i]), "reminder " + i + " fired late");
+                }
+            }
+        }
+        assertTrue(recorder.inOrder, "reminders should fire in the order they are due");
+    }
+
+    @Test
+    @DisplayName("reminders due now, in the past or beyond the span of the wheel should fire when due")
+    void edgeCases_shouldFireWhenDue() {
+        SimulatedClock clock = new SimulatedClock(START);
+        ReminderScheduler scheduler = new ReminderScheduler(clock, Duration.ofMillis(1), Runnable::run);
+        List<String> fired = new ArrayList<>();
+
+        scheduler.schedule(START.minusSeconds(60), () -> fired.add("past"));
+        scheduler.schedule(START, () -> fired.add("now"));
+        Instant farAway = START.plus(Duration.ofDays(365L * 20_000));
+        ReminderScheduler.Reminder far = scheduler.schedule(farAway, () -> fired.add("far"));
+        ReminderScheduler.Reminder soon = scheduler.schedule(START.plusMillis(5), () -> fired.add("soon"));
+        assertEquals(List.of("past", "now"), fired);
+        assertEquals(2, scheduler.size());
+
+        clock.advanceMillis(4);
+        assertEquals(0, scheduler.advance());
+        assertTrue(soon.reschedule(START.minusMillis(1)), "Moving a reminder into the past fires it at once");
+        assertEquals(List.of("past", "now", "soon"), fired);
+
+        clock.advance(Duration.between(clock.instant(), farAway).minusMillis(1));
+        assertEquals(0, scheduler.advance());
+        assertTrue(far.isPending());
+        clock.advanceMillis(1);
+        assertEquals(1, scheduler.advance());
+        assertEquals(List.of("past", "now", "soon", "far"), fired);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    @DisplayName("a closed scheduler should drop its reminders and refuse new ones")
+    void close_shouldDropReminders() {
+        SimulatedClock clock = new SimulatedClock(START);
+        ReminderScheduler scheduler = new ReminderScheduler(clock, Duration.ofSeconds(1), Runnable::run);
+        AtomicBoolean fired = new AtomicBoolean();
+        ReminderScheduler.Reminder reminder = scheduler.schedule(START.plusSeconds(10), () -> fired.set(true));
+
+        scheduler.close();
+        clock.advance(Duration.ofMinutes(1));
+
+        assertEquals(0, scheduler.advance());
+        assertFalse(fired.get());
+        assertFalse(reminder.isPending());
+        assertFalse(reminder.reschedule(START.plusSeconds(90)));
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule(START.plusSeconds(90), () -> { }));
+    }
+
+    @Test
+    @DisplayName("with the system clock, reminders should fire on virtual threads without being advanced")
+    void systemClock_shouldFireOnVirtualThreads() throws InterruptedException {
+        try (ReminderScheduler scheduler = new ReminderScheduler()) {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicBoolean virtual = new AtomicBoolean();
+            scheduler.schedule(Instant.now().plus(Duration.ofHours(1)), () -> { });
+            Instant due = Instant.now().plusMillis(50);
+            // due before the reminder the scheduler sleeps until, so it has to wake up early
+            scheduler.schedule(due, () -> {
+                virtual.set(Thread.currentThread().isVirtual() && !Instant.now().isBefore(due));
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(virtual.get());
+            assertEquals(1, scheduler.size());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.ST.mfusi.reminder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+
+/**
+ * A clock that only moves when the test moves it.
+ */
+final class SimulatedClock implements InstantSource {
+    private long millis;
+
+    SimulatedClock(Instant start) {
+        this.millis = start.toEpochMilli();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    void advance(Duration duration) {
+        millis += duration.toMillis();
+    }
+
+    void advanceMillis(long duration) {
+        millis += duration;
+    }
+}
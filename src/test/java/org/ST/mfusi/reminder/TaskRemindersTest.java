@@ -0,0 +1,84 @@
+package org.ST.mfusi.reminder;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRemindersTest {
+
+    private static final Instant START = Instant.parse("2026-10-18T08:00:00Z");
+
+    private final SimulatedClock clock = new SimulatedClock(START);
+    private final ReminderScheduler scheduler = new ReminderScheduler(clock, Duration.ofSeconds(1), Runnable::run);
+    private final List<String> reminded = new ArrayList<>();
+
+    private static Task dueIn(String title, Duration duration) {
+        return new Task(title, "Desc", Priority.MEDIUM).withDueDate(START.plus(duration));
+    }
+
+    private List<String> advance(Duration duration) {
+        clock.advance(duration);
+        scheduler.advance();
+        return reminded;
+    }
+
+    @Test
+    @DisplayName("editing, completing and removing tasks should reschedule and cancel their reminders")
+    void changes_shouldRescheduleAndCancelReminders() {
+        AppController app = new AppController("Rae");
+        app.getUserProfile().getToDoList().addTask(dueIn("Overdue", Duration.ofHours(-1)));
+        app.getUserProfile().getToDoList().addTask(dueIn("Existing", Duration.ofHours(1)));
+        app.followReminders(scheduler, task -> reminded.add(task.getTitle()));
+        app.addTask("Call Sam", "About the trip", Priority.HIGH);
+        app.addTask("Pay rent", "Before Friday", Priority.LOW);
+        app.addTasks(List.of(dueIn("Imported", Duration.ofHours(5)), dueIn("Dropped", Duration.ofMinutes(270))));
+        assertEquals(3, scheduler.size());
+
+        assertEquals("Due date set.", app.setDueDate(3, START.plus(Duration.ofHours(2))));
+        assertEquals("Due date set.", app.setDueDate(4, START.plus(Duration.ofHours(3))));
+        assertEquals("Task updated successfully.", app.editTask(3, "", "", START.plus(Duration.ofHours(4))));
+        assertEquals(5, scheduler.size(), "Editing the due date should move the reminder, not add one");
+        app.markTaskComplete(4);
+        app.removeTask(6);
+        assertEquals(3, scheduler.size());
+        assertEquals("Invalid task number.", app.setDueDate(9, START));
+
+        assertEquals(List.of("Existing"), advance(Duration.ofHours(3)));
+        assertEquals(List.of("Existing", "Call Sam"), advance(Duration.ofHours(1)));
+        assertEquals(List.of("Existing", "Call Sam", "Imported"), advance(Duration.ofHours(1)));
+        assertEquals(0, scheduler.size());
+
+        app.undo(); // brings back "Dropped", which is overdue by now
+        assertEquals(List.of("Existing", "Call Sam", "Imported", "Dropped"), reminded);
+    }
+
+    @Test
+    @DisplayName("clearing, removing the due date and closing should cancel every reminder")
+    void clearAndClose_shouldCancelReminders() {
+        AppController app = new AppController("Lee");
+        app.followReminders(scheduler, task -> reminded.add(task.getTitle()));
+        app.addTasks(List.of(dueIn("One", Duration.ofMinutes(1)), dueIn("Two", Duration.ofMinutes(2))));
+        assertEquals("Due date removed.", app.setDueDate(1, null));
+        assertEquals(1, scheduler.size());
+
+        app.clearAllTasks();
+        assertEquals(0, scheduler.size());
+        app.undo();
+        assertEquals(1, scheduler.size());
+
+        app.close();
+        assertEquals(0, scheduler.size());
+        app.addTask("After closing", "Not followed", Priority.LOW);
+        app.setDueDate(3, START.plusSeconds(30));
+        assertTrue(advance(Duration.ofHours(1)).isEmpty());
+    }
+}
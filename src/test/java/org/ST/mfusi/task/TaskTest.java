@@ -2,6 +2,10 @@ package org.ST.mfusi.task;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TaskTest {
@@ -31,48 +35,70 @@ public class TaskTest {
     }
 
     @Test
-    @DisplayName("isCompleted status should be updatable")
-    void setCompleted_shouldUpdateStatusCorrectly() {
+    @DisplayName("withCompleted should return an updated copy with the same id")
+    void withCompleted_shouldReturnUpdatedCopy() {
 
         Task task = new Task("Completion Test", "A description");
 
-        task.setCompleted(true);
-        assertTrue(task.isCompleted());
+        Task completed = task.withCompleted(true);
+        assertTrue(completed.isCompleted());
+        assertFalse(task.isCompleted(), "The original task should not change");
+        assertEquals(task.getId(), completed.getId());
 
-        task.setCompleted(false);
-        assertFalse(task.isCompleted());
+        assertFalse(completed.withCompleted(false).isCompleted());
+        assertSame(completed, completed.withCompleted(true), "An unchanged status should not copy the task");
     }
 
     @Test
-    @DisplayName("Title should be gettable and settable")
-    void testSetAndGetTitle() {
+    @DisplayName("withTitle should return a copy with the new title")
+    void withTitle_shouldReturnUpdatedCopy() {
         Task task = new Task("Initial Title", "description");
         assertEquals("Initial Title", task.getTitle());
 
-        task.setTitle("New Title");
-        assertEquals("New Title", task.getTitle());
+        Task renamed = task.withTitle("New Title");
+        assertEquals("New Title", renamed.getTitle());
+        assertEquals("Initial Title", task.getTitle());
+        assertEquals(task.getId(), renamed.getId());
     }
 
     @Test
-    @DisplayName("Description should be gettable and settable")
-    void testSetAndGetDescription() {
-        // Fix: Use a valid constructor
+    @DisplayName("withDescription and withDetails should return copies with the new text")
+    void withDescription_shouldReturnUpdatedCopy() {
         Task task = new Task("Description Test", "Initial Description");
         assertEquals("Initial Description", task.getDescription());
 
-        task.setDescription("New Description");
-        assertEquals("New Description", task.getDescription());
+        assertEquals("New Description", task.withDescription("New Description").getDescription());
+        Task edited = task.withDetails("New Title", "New Description");
+        assertEquals("New Title", edited.getTitle());
+        assertEquals("New Description", edited.getDescription());
+        assertSame(task, task.withDetails("Description Test", "Initial Description"));
+        assertEquals("Initial Description", task.getDescription());
     }
 
     @Test
-    @DisplayName("Priority should be gettable and settable")
-    void testSetAndGetPriority() {
+    @DisplayName("withPriority should return a copy with the new priority")
+    void withPriority_shouldReturnUpdatedCopy() {
 
         Task task = new Task("Check priority", "description", Priority.LOW);
         assertEquals(Priority.LOW, task.getPriority());
 
-        task.setPriority(Priority.HIGH);
-        assertEquals(Priority.HIGH, task.getPriority());
+        Task raised = task.withPriority(Priority.HIGH);
+        assertEquals(Priority.HIGH, raised.getPriority());
+        assertEquals(Priority.LOW, task.getPriority());
+        assertSame(raised, raised.withPriority(Priority.HIGH));
+    }
+
+    @Test
+    @DisplayName("a task should stay findable in a hash set, since updates create new tasks")
+    void hashSet_shouldKeepFindingTask() {
+        Task task = new Task("Hashed", "description", Priority.MEDIUM);
+        Set<Task> tasks = new HashSet<>(Set.of(task));
+
+        Task completed = task.withCompleted(true);
+
+        assertTrue(tasks.contains(task));
+        assertFalse(tasks.contains(completed));
+        assertEquals(task.hashCode(), task.hashCode());
     }
 
     @Test
@@ -90,9 +116,9 @@ public class TaskTest {
         assertNotEquals(null, task1);
 
         // Test equality with different completed status
-        task1.setCompleted(true);
+        task1 = task1.withCompleted(true);
         assertNotEquals(task1, task2);
-        task2.setCompleted(true);
+        task2 = task2.withCompleted(true);
         assertEquals(task1, task2);
 
         // Test hashCode contract
@@ -104,8 +130,7 @@ public class TaskTest {
     @DisplayName("toString should return a string containing key task details")
     void testToString() {
         // This test was already valid
-        Task task = new Task("My Test Title", "A description for the test.", Priority.MEDIUM);
-        task.setCompleted(true);
+        Task task = new Task("My Test Title", "A description for the test.", Priority.MEDIUM).withCompleted(true);
 
         String taskString = task.toString();
 
@@ -114,4 +139,18 @@ public class TaskTest {
         assertTrue(taskString.contains("priority=MEDIUM"));
         assertTrue(taskString.contains("completed=true"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("every task should get its own id, and restored ids should not be handed out again")
+    void ids_shouldBeUnique() {
+        Task first = new Task("One", "Desc");
+        Task second = new Task("One", "Desc");
+        assertNotEquals(first.getId(), second.getId());
+
+        long restoredId = second.getId() + 1000;
+        Task restored = new Task(restoredId, "Restored", "Desc", Priority.LOW, true);
+        assertEquals(restoredId, restored.getId());
+        assertTrue(restored.isCompleted());
+        assertTrue(new Task("Next", "Desc").getId() > restoredId);
+    }
+}
@@ -0,0 +1,117 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskColumnsTest {
+
+    @Test
+    @DisplayName("tasks should read back with their ids, text, priority and completion")
+    void columns_shouldRoundTripTasks() {
+        Task plain = new Task("Buy milk", "Two litres", Priority.LOW);
+        Task unicode = new Task(plain.getId() + 1, "Café ☕", "Ünïcödé — 漢字", Priority.HIGH, true);
+
+        TaskColumns columns = TaskColumns.EMPTY.append(plain).append(unicode);
+
+        assertEquals(List.of(plain, unicode), columns.asList());
+        assertEquals(unicode.getId(), columns.get(1).getId());
+        assertEquals(1, columns.indexOf(unicode.getId()));
+        assertEquals(-1, columns.indexOf(unicode.getId() + 1));
+        assertEquals(1, columns.count(Priority.HIGH, false));
+        assertEquals(0, columns.count(Priority.HIGH, true));
+        assertEquals(0, columns.nextOpenIndex());
+        assertEquals(0, TaskColumns.EMPTY.size(), "Appending must not change the run it started from");
+    }
+
+    @Test
+    @DisplayName("due dates should read back, and runs without any should read none")
+    void dueDates_shouldRoundTrip() {
+        TaskColumns base = TaskColumns.EMPTY;
+        for (int i = 0; i < 5; i++) {
+            base = base.append(new Task("Task " + i, "Desc", Priority.MEDIUM));
+        }
+        Instant due = Instant.parse("2026-10-20T09:00:00Z");
+
+        TaskColumns dated = base.set(2, base.get(2).withDueDate(due));
+        TaskColumns appended = dated.append(new Task("Later", "Desc", Priority.LOW).withDueDate(due.plusSeconds(60)));
+        TaskColumns removed = appended.removeAt(0);
+        TaskColumns undated = removed.set(1, removed.get(1).withDueDate(null));
+
+        assertNull(base.get(2).getDueDate());
+        assertEquals(due, dated.get(2).getDueDate());
+        assertNull(dated.get(3).getDueDate());
+        assertEquals(due.plusSeconds(60), appended.get(5).getDueDate());
+        assertEquals(due, removed.get(1).getDueDate());
+        assertNull(undated.get(1).getDueDate());
+        assertEquals(due.plusSeconds(60), undated.get(4).getDueDate());
+    }
+
+    @Test
+    @DisplayName("older runs should keep their contents while newer runs append, edit and remove")
+    void olderRuns_shouldNotChange() {
+        TaskColumns base = TaskColumns.EMPTY;
+        for (int i = 0; i < 10; i++) {
+            base = base.append(new Task("Task " + i, "Desc", Priority.MEDIUM));
+        }
+        List<Task> before = new ArrayList<>(base.asList());
+        Task first = base.get(0);
+
+        TaskColumns completed = base.set(0, new Task(first.getId(), first.getTitle(), first.getDescription(), Priority.HIGH, true));
+        TaskColumns grown = completed.append(new Task("Task 10", "Desc", Priority.LOW));
+        TaskColumns edited = grown.set(3, new Task(base.id(3), "Renamed", "New description", Priority.MEDIUM, false));
+        TaskColumns removed = edited.removeAt(5);
+        TaskColumns appendedToOld = base.append(new Task("Branch", "Desc", Priority.LOW));
+
+        assertEquals(before, base.asList());
+        assertTrue(completed.isCompleted(0));
+        assertEquals(Priority.HIGH, completed.priority(0));
+        assertEquals(11, grown.size());
+        assertEquals("Task 3", grown.get(3).getTitle());
+        assertEquals("Renamed", edited.get(3).getTitle());
+        assertEquals("New description", removed.get(3).getDescription());
+        assertEquals("Task 6", removed.get(5).getTitle());
+        assertEquals("Task 10", removed.get(9).getTitle());
+        assertEquals("Branch", appendedToOld.get(10).getTitle());
+        assertEquals("Task 10", grown.get(10).getTitle(), "Appending to an old run must not overwrite a newer one");
+    }
+
+    @Test
+    @DisplayName("lookups should work when tasks arrive out of id order and after the text is compacted")
+    void outOfOrderIds_andCompaction() {
+        long base = new Task("Seed", "Desc").getId() + 100_000;
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // interleave the ids so that insertion order and id order differ
+            long id = base + (i % 2 == 0 ? i : 10_000 - i);
+            tasks.add(new Task(id, "Title " + i + " with some padding to fill the text", "Desc " + i, Priority.LOW, false));
+        }
+        TaskColumns columns = TaskColumns.EMPTY.appendAll(tasks.toArray(new Task[0]), tasks.size());
+        assertFalse(columns.idsAscending());
+        for (int i = 0; i < tasks.size(); i += 7) {
+            assertEquals(i, columns.indexOf(tasks.get(i).getId()));
+        }
+        assertEquals(base + 9_999, columns.maxId());
+
+        // remove most tasks from the front so that the text storage is compacted along the way
+        while (columns.size() > 100) {
+            columns = columns.removeAt(0);
+        }
+        List<Task> remaining = tasks.subList(4_900, 5_000);
+        assertEquals(remaining, columns.asList());
+        for (int i = 0; i < remaining.size(); i++) {
+            assertEquals(i, columns.indexOf(remaining.get(i).getId()));
+        }
+        Task older = new Task(base - 1, "Older", "Desc", Priority.HIGH, false);
+        columns = columns.append(older);
+        assertEquals(100, columns.indexOf(older.getId()));
+        assertEquals(100, columns.nextOpenIndex());
+    }
+}
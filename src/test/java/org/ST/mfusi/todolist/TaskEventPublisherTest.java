@@ -0,0 +1,197 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventPublisherTest {
+
+    /**
+     * Runs delivery only when the test says so.
+     */
+    private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+
+    private static final class Recorder implements Flow.Subscriber<TaskEvent> {
+        final List<TaskEvent> events = new ArrayList<>();
+        final long initialRequest;
+        final CountDownLatch done = new CountDownLatch(1);
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(TaskEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        List<String> titles() {
+            return events.stream().map(event -> ((TaskEvent.Added) event).task().getTitle()).toList();
+        }
+    }
+
+    private static void addTasks(ToDoList list, int from, int to) {
+        for (int i = from; i < to; i++) {
+            list.addTask("Task " + i, "Description " + i, Priority.MEDIUM);
+        }
+    }
+
+    @Test
+    @DisplayName("a subscriber should receive every change in order, starting from its snapshot")
+    void subscribe_shouldDeliverChangesInOrder() throws InterruptedException {
+        ToDoList list = new ToDoList();
+        list.addTask("Before", "Already there");
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        List<Task> snapshot = list.changes().subscribeWithSnapshot(recorder, 16, TaskEventPublisher.OverflowPolicy.FAIL);
+        list.addTask("Buy milk", "Two litres");
+        Task added = list.getTaskList().get(1);
+        list.markTaskComplete(added.getId());
+        list.removeTaskById(added.getId());
+        list.clearTasks();
+        list.changes().close();
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Before"), snapshot.stream().map(Task::getTitle).toList());
+        assertEquals(4, recorder.events.size());
+        assertEquals(new TaskEvent.Added(1, added), recorder.events.get(0));
+        assertInstanceOf(TaskEvent.Updated.class, recorder.events.get(1));
+        assertInstanceOf(TaskEvent.Removed.class, recorder.events.get(2));
+        assertInstanceOf(TaskEvent.Cleared.class, recorder.events.get(3));
+        assertTrue(recorder.completed);
+        assertNull(recorder.error);
+    }
+
+    @Test
+    @DisplayName("a subscriber should receive no more events than it requested")
+    void request_shouldLimitDelivery() {
+        ToDoList list = new ToDoList();
+        TaskEventPublisher publisher = new TaskEventPublisher(list, pending::add);
+        Recorder recorder = new Recorder(2);
+        publisher.subscribeWithSnapshot(recorder, 100, TaskEventPublisher.OverflowPolicy.FAIL);
+        runPending();
+
+        addTasks(list, 0, 5);
+        runPending();
+        assertEquals(List.of("Task 0", "Task 1"), recorder.titles());
+
+        recorder.subscription.request(10);
+        runPending();
+        assertEquals(List.of("Task 0", "Task 1", "Task 2", "Task 3", "Task 4"), recorder.titles());
+
+        recorder.subscription.request(0);
+        runPending();
+        assertInstanceOf(IllegalArgumentException.class, recorder.error);
+    }
+
+    @Test
+    @DisplayName("a full buffer should drop the oldest or the newest event, or fail the subscriber")
+    void overflow_shouldFollowPolicy() {
+        ToDoList list = new ToDoList();
+        TaskEventPublisher publisher = new TaskEventPublisher(list, pending::add);
+        Recorder dropOldest = new Recorder(0);
+        Recorder dropNewest = new Recorder(0);
+        Recorder fail = new Recorder(0);
+        publisher.subscribeWithSnapshot(dropOldest, 2, TaskEventPublisher.OverflowPolicy.DROP_OLDEST);
+        publisher.subscribeWithSnapshot(dropNewest, 2, TaskEventPublisher.OverflowPolicy.DROP_NEWEST);
+        publisher.subscribeWithSnapshot(fail, 2, TaskEventPublisher.OverflowPolicy.FAIL);
+        runPending();
+
+        addTasks(list, 0, 5);
+        dropOldest.subscription.request(Long.MAX_VALUE);
+        dropNewest.subscription.request(Long.MAX_VALUE);
+        fail.subscription.request(Long.MAX_VALUE);
+        runPending();
+
+        assertEquals(List.of("Task 3", "Task 4"), dropOldest.titles());
+        assertEquals(List.of("Task 0", "Task 1"), dropNewest.titles());
+        assertTrue(fail.events.isEmpty());
+        assertInstanceOf(IllegalStateException.class, fail.error);
+        assertEquals(2, publisher.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("the publisher should stop listening to the list when its last subscriber cancels")
+    void cancel_shouldUnregisterFromList() {
+        ToDoList list = new ToDoList();
+        TaskEventPublisher publisher = new TaskEventPublisher(list, pending::add);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+        runPending();
+        addTasks(list, 0, 1);
+        runPending();
+
+        recorder.subscription.cancel();
+        addTasks(list, 1, 2);
+        runPending();
+
+        assertEquals(List.of("Task 0"), recorder.titles());
+        assertEquals(0, publisher.getSubscriberCount());
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    @DisplayName("closing should complete subscribers after their buffered events, and new subscribers at once")
+    void close_shouldDrainThenComplete() {
+        ToDoList list = new ToDoList();
+        TaskEventPublisher publisher = new TaskEventPublisher(list, pending::add);
+        Recorder recorder = new Recorder(1);
+        publisher.subscribe(recorder);
+        runPending();
+        addTasks(list, 0, 3);
+        publisher.close();
+        runPending();
+        assertEquals(List.of("Task 0"), recorder.titles());
+        assertFalse(recorder.completed);
+
+        recorder.subscription.request(5);
+        runPending();
+        assertEquals(List.of("Task 0", "Task 1", "Task 2"), recorder.titles());
+        assertTrue(recorder.completed);
+
+        Recorder late = new Recorder(1);
+        publisher.subscribe(late);
+        runPending();
+        assertTrue(late.completed);
+        assertNotNull(late.subscription);
+    }
+}
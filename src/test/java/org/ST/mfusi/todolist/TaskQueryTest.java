@@ -0,0 +1,93 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskQueryTest {
+
+    private static final int SIZE = 30_000;
+
+    private static ToDoList filledList(ToDoList.StorageMode mode) {
+        ToDoList list = new ToDoList(mode);
+        for (int i = 0; i < SIZE; i++) {
+            list.addTask("Task " + i, i % 7 == 0 ? "urgent errand" : "routine", Priority.values()[(i * 31) % 3]);
+        }
+        for (Task task : list.getTaskList()) {
+            if (task.getId() % 5 == 0) {
+                list.markTaskComplete(task.getId());
+            }
+        }
+        return list;
+    }
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("every plan should return the same tasks as filtering the list by hand")
+    void plans_shouldAgreeWithManualFiltering(ToDoList.StorageMode mode) {
+        ToDoList list = filledList(mode);
+        Predicate<Task> highOpen = task -> task.getPriority() == Priority.HIGH && !task.isCompleted();
+        List<Task> expected = list.getTaskList().stream().filter(highOpen).toList();
+
+        TaskQuery indexed = list.query().priority(Priority.HIGH).open();
+        assertEquals(mode == ToDoList.StorageMode.PRIORITY_BUCKETS
+                ? TaskQuery.Plan.PRIORITY_INDEX : TaskQuery.Plan.SEQUENTIAL_SCAN, indexed.plan());
+        assertEquals(expected, indexed.list());
+        assertEquals(expected.size(), indexed.count());
+
+        TaskQuery parallel = list.query().where(highOpen).parallelThreshold(1_000);
+        assertEquals(TaskQuery.Plan.PARALLEL_SCAN, parallel.plan());
+        assertEquals(expected, parallel.list());
+
+        assertEquals(expected.subList(0, 25), list.query().where(highOpen).parallelThreshold(1_000).limit(25).list());
+        assertEquals(expected.subList(0, 25), list.query().priority(Priority.HIGH).open().limit(25).list());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("top-k queries should return the first tasks of the fully sorted result")
+    void topK_shouldMatchFullSort(ToDoList.StorageMode mode) {
+        ToDoList list = filledList(mode);
+        Comparator<Task> byPriority = Comparator.comparing(Task::getPriority).thenComparing(Task::isCompleted);
+        List<Task> sorted = list.getTaskList().stream().sorted(byPriority).toList();
+
+        assertEquals(sorted.subList(0, 10), list.query().sortedByPriority().limit(10).list());
+        assertEquals(sorted, list.query().sortedByPriority().list());
+        assertEquals(list.getTasksByPriority(), list.query().sortedByPriority().list());
+
+        Comparator<Task> byTitle = Comparator.comparing(Task::getTitle);
+        List<Task> urgent = list.getTaskList().stream()
+                .filter(task -> task.getDescription().startsWith("urgent")).sorted(byTitle).toList();
+        for (int threshold : new int[]{1_000, Integer.MAX_VALUE}) {
+            assertEquals(urgent.subList(0, 10), list.query().descriptionMatches(d -> d.startsWith("urgent"))
+                    .sortedBy(byTitle).limit(10).parallelThreshold(threshold).list());
+        }
+    }
+
+    @Test
+    @DisplayName("a query should see the list as it is when it runs")
+    void query_shouldReadCurrentSnapshot() {
+        ToDoList list = new ToDoList(ToDoList.StorageMode.PRIORITY_BUCKETS);
+        TaskQuery query = list.query().titleMatches(title -> title.contains("report")).open();
+        assertTrue(query.list().isEmpty());
+
+        list.addTask("Write report", "Quarterly", Priority.HIGH);
+        list.addTask("Read report", "Monthly", Priority.LOW);
+        list.addTask("Call Sam", "About dinner", Priority.LOW);
+        assertEquals(2, query.count());
+
+        list.markTaskComplete(list.getTaskList().get(0).getId());
+        assertEquals(List.of("Read report"), query.list().stream().map(Task::getTitle).toList());
+        assertTrue(list.query().limit(0).list().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> list.query().limit(-1));
+    }
+}
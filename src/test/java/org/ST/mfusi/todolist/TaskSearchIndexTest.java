@@ -0,0 +1,91 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private ToDoList toDoList;
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        toDoList = new ToDoList();
+        toDoList.addTask("Write report", "Quarterly numbers for finance", Priority.HIGH);
+        toDoList.addTask("Finance meeting", "Discuss the report draft", Priority.MEDIUM);
+        toDoList.addTask("Water plants", "Balcony and kitchen", Priority.LOW);
+        index = new TaskSearchIndex(toDoList);
+    }
+
+    @Test
+    @DisplayName("a task should only match if it contains every word, title matches ranking first")
+    void search_shouldRequireAllWordsAndRankTitlesFirst() {
+        List<Task> report = index.search("report ", 10);
+        assertEquals(List.of("Write report", "Finance meeting"), titles(report));
+
+        List<Task> both = index.search("FINANCE, report!", 10);
+        assertEquals(2, both.size());
+        assertTrue(index.search("report plants", 10).isEmpty());
+        assertTrue(index.search("  ,. ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("the last word should match as a prefix unless the query ends with a space")
+    void search_shouldTreatLastWordAsPrefix() {
+        assertEquals(List.of("Water plants"), titles(index.search("bal", 10)));
+        assertTrue(index.search("bal ", 10).isEmpty());
+        assertEquals(List.of("Finance meeting", "Write report"), titles(index.search("fin", 10)));
+        assertEquals(1, index.search("re", 1).size());
+        assertEquals(2, index.search("report fin", 10).size());
+        assertEquals(List.of("Water plants"), titles(index.search("kitchen pla", 10)));
+    }
+
+    @Test
+    @DisplayName("the index should follow additions, edits, removals and clearing")
+    void index_shouldFollowChanges() {
+        toDoList.addTask("Renew passport", "Photos needed", Priority.HIGH);
+        Task passport = index.search("passport", 10).get(0);
+
+        toDoList.editTask(passport.getId(), "Renew licence", "Photos needed");
+        assertTrue(index.search("passport", 10).isEmpty());
+        assertEquals("Renew licence", index.search("licence", 10).get(0).getTitle());
+
+        toDoList.markTaskComplete(passport.getId());
+        assertTrue(index.search("licence", 10).get(0).isCompleted());
+
+        toDoList.removeTaskById(passport.getId());
+        assertTrue(index.search("photos", 10).isEmpty());
+
+        toDoList.clearTasks();
+        assertTrue(index.search("report", 10).isEmpty());
+        assertEquals(0, index.getWordCount());
+
+        toDoList.addTask("Fresh start", "After clearing", Priority.LOW);
+        assertEquals(1, index.search("fresh", 10).size());
+    }
+
+    @Test
+    @DisplayName("only the best matches should be kept when the limit is smaller than the result")
+    void search_shouldKeepTopMatches() {
+        for (int i = 0; i < 500; i++) {
+            toDoList.addTask("Chore " + i, "Something about the garden", Priority.LOW);
+        }
+        toDoList.addTask("Garden", "Garden garden", Priority.LOW);
+
+        List<Task> top = index.search("garden", 3);
+        assertEquals(3, top.size());
+        assertEquals("Garden", top.get(0).getTitle());
+        assertEquals("Chore 0", top.get(1).getTitle(), "Equal scores should favour the older task");
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        return tasks.stream().map(Task::getTitle).toList();
+    }
+}
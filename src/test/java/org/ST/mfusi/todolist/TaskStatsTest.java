@@ -0,0 +1,201 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.app.AppController;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskStatsTest {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * A table over a list of tasks that counts how many rows were decoded.
+     */
+    private static final class ListTable implements TaskTable {
+        private final List<Task> tasks;
+        int decoded;
+
+        ListTable(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
+
+        @Override
+        public long id(int index) {
+            return tasks.get(index).getId();
+        }
+
+        @Override
+        public Priority priority(int index) {
+            return tasks.get(index).getPriority();
+        }
+
+        @Override
+        public boolean isCompleted(int index) {
+            return tasks.get(index).isCompleted();
+        }
+
+        @Override
+        public Task get(int index) {
+            decoded++;
+            return tasks.get(index);
+        }
+
+        @Override
+        public int indexOf(long id) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (tasks.get(i).getId() == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean idsAscending() {
+            return true;
+        }
+
+        @Override
+        public long maxId() {
+            return tasks.isEmpty() ? 0 : tasks.get(tasks.size() - 1).getId();
+        }
+    }
+
+    private static void assertRecounted(ToDoList list, String step) {
+        assertEquals(TaskStats.of(list.getTaskList()), list.getStats(), step);
+        for (Priority priority : PRIORITIES) {
+            assertEquals(TaskStats.of(list.getTaskList()).getOpenCount(priority), list.getOpenTaskCount(priority), step);
+        }
+    }
+
+    /**
+     * Makes one random change and returns what it was.
+     */
+    private static String randomChange(ToDoList list, Random random, int step) {
+        List<Task> tasks = list.getTaskList();
+        Task some = tasks.isEmpty() ? null : tasks.get(random.nextInt(tasks.size()));
+        Priority priority = PRIORITIES[random.nextInt(PRIORITIES.length)];
+        switch (random.nextInt(10)) {
+            case 0, 1 -> list.addTask("Task " + step, "Description " + step, priority);
+            case 2 -> {
+                List<Task> batch = new ArrayList<>();
+                for (int i = random.nextInt(20); i > 0; i--) {
+                    batch.add(new Task("Batch " + step, "Row " + i, PRIORITIES[random.nextInt(PRIORITIES.length)]));
+                }
+                list.addTasks(batch);
+                return "addTasks";
+            }
+            case 3 -> {
+                if (some != null) {
+                    list.removeTaskById(some.getId());
+                }
+                return "remove";
+            }
+            case 4 -> {
+                if (some != null) {
+                    list.markTaskComplete(some.getId());
+                }
+                return "complete";
+            }
+            case 5 -> {
+                if (some != null) {
+                    list.changeTaskPriority(some.getId(), priority);
+                }
+                return "priority";
+            }
+            case 6 -> {
+                if (some != null) {
+                    list.replaceTask(some.withCompleted(!some.isCompleted()));
+                }
+                return "replace";
+            }
+            case 7 -> {
+                list.undo();
+                return "undo";
+            }
+            case 8 -> {
+                list.redo();
+                return "redo";
+            }
+            default -> {
+                if (random.nextInt(10) == 0) {
+                    list.clearTasks();
+                    return "clear";
+                }
+                list.pollNextTask();
+                return "poll";
+            }
+        }
+        return "add";
+    }
+
+    @Test
+    @DisplayName("the counts should match a full recount after every kind of change, in every storage mode")
+    void getStats_shouldMatchRecountAfterEveryChange() {
+        for (ToDoList.StorageMode mode : ToDoList.StorageMode.values()) {
+            ToDoList list = new ToDoList(mode);
+            list.setUndoLimit(20);
+            Random random = new Random(42);
+            assertRecounted(list, mode + " empty");
+            for (int step = 0; step < 2_000; step++) {
+                String change = randomChange(list, random, step);
+                assertRecounted(list, mode + " step " + step + " (" + change + ")");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("a list opened over a stored table should count it without decoding any task")
+    void getStats_shouldCountTableWithoutDecoding() {
+        List<Task> stored = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            stored.add(new Task("Stored " + i, "Row " + i, PRIORITIES[i % PRIORITIES.length]).withCompleted(i % 4 == 0));
+        }
+        ListTable table = new ListTable(stored);
+        ToDoList list = new ToDoList(ToDoList.StorageMode.INSERTION_ORDER, table);
+
+        list.addTask("Added", "After opening", Priority.HIGH);
+        TaskStats stats = list.getStats();
+
+        assertEquals(0, table.decoded);
+        assertEquals(101, stats.getTotal());
+        assertEquals(25, stats.getCompletedCount());
+        assertEquals(35, stats.getCount(Priority.HIGH));
+        list.removeTaskById(stored.get(0).getId());
+        assertRecounted(list, "after loading the table");
+    }
+
+    @Test
+    @DisplayName("the completion ratio and the summary line should describe the counts")
+    void format_shouldSummariseCounts() {
+        assertEquals(0, TaskStats.EMPTY.getCompletionRatio());
+        assertEquals("0 tasks: 0 open, 0 completed (0%) | HIGH 0, MEDIUM 0, LOW 0", TaskStats.EMPTY.format());
+
+        AppController app = new AppController("Stats");
+        app.addTask("Buy milk", "Two litres", Priority.HIGH);
+        app.addTask("Call Sam", "About the trip", Priority.LOW);
+        app.addTask("Water plants", "Both balconies", Priority.LOW);
+        app.addTask("Pay rent", "Before Friday", Priority.MEDIUM);
+        app.markTaskComplete(2);
+
+        TaskStats stats = app.getStats();
+        assertEquals(0.25, stats.getCompletionRatio());
+        assertEquals(1, stats.getCompletedCount(Priority.LOW));
+        assertEquals("4 tasks: 3 open, 1 completed (25%) | HIGH 1, MEDIUM 1, LOW 2", stats.format());
+        app.clearAllTasks();
+        assertSame(TaskStats.EMPTY, app.getStats());
+    }
+}
@@ -0,0 +1,102 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskVectorTest {
+
+    @Test
+    @DisplayName("random inserts, removals and edits should match a plain list across many leaves")
+    void randomChanges_shouldMatchArrayList() {
+        Random random = new Random(42);
+        List<Task> expected = new ArrayList<>();
+        TaskVector vector = TaskVector.EMPTY;
+        for (int i = 0; i < 5_000; i++) {
+            Task task = new Task("Task " + i, "Desc", Priority.LOW);
+            expected.add(task);
+            vector = vector.append(task);
+        }
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                Task task = new Task("Inserted " + step, "Desc", Priority.HIGH);
+                expected.add(index, task);
+                vector = vector.insertAt(index, task);
+            } else if (operation == 1) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                vector = vector.removeAt(index);
+            } else {
+                int index = random.nextInt(expected.size());
+                Task task = new Task("Edited " + step, "Desc", Priority.MEDIUM);
+                expected.set(index, task);
+                vector = vector.set(index, task);
+            }
+        }
+        assertEquals(expected.size(), vector.size());
+        assertEquals(expected, vector.asList());
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertSame(expected.get(i), vector.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("older versions should keep their contents while newer versions change")
+    void olderVersions_shouldNotChange() {
+        Task[] batch = new Task[1_000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new Task("Task " + i, "Desc", Priority.LOW);
+        }
+        TaskVector base = TaskVector.EMPTY.appendAll(batch, batch.length);
+        List<Task> before = new ArrayList<>(base.asList());
+
+        TaskVector removed = base.removeAt(500);
+        TaskVector edited = base.set(10, new Task("Edited", "Desc", Priority.HIGH));
+        TaskVector appended = base.append(new Task("Appended", "Desc", Priority.LOW));
+        TaskVector branch = base.append(new Task("Branch", "Desc", Priority.LOW));
+
+        assertEquals(before, base.asList());
+        assertEquals(999, removed.size());
+        assertEquals(batch[501], removed.get(500));
+        assertEquals("Edited", edited.get(10).getTitle());
+        assertEquals("Appended", appended.get(1_000).getTitle());
+        assertEquals("Branch", branch.get(1_000).getTitle(), "Appending to an old version must not overwrite a newer one");
+        assertEquals("Appended", appended.get(1_000).getTitle());
+    }
+
+    @Test
+    @DisplayName("id lookups and sorted inserts should work on a sequence ordered by id")
+    void sortedOperations_shouldKeepIdOrder() {
+        long base = new Task("Seed", "Desc").getId() + 10_000;
+        TaskVector vector = TaskVector.EMPTY;
+        for (int i = 0; i < 2_000; i += 2) {
+            vector = vector.append(new Task(base + i, "Even " + i, "Desc", Priority.LOW, false));
+        }
+        Task[] odd = new Task[1_000];
+        for (int i = 0; i < odd.length; i++) {
+            odd[i] = new Task(base + 2 * i + 1, "Odd " + i, "Desc", Priority.LOW, false);
+        }
+        TaskVector merged = vector.mergeById(odd, odd.length).insertSorted(new Task(base - 1, "First", "Desc", Priority.LOW, false));
+
+        assertEquals(2_001, merged.size());
+        for (int i = 1; i < merged.size(); i++) {
+            assertTrue(merged.get(i - 1).getId() < merged.get(i).getId());
+        }
+        assertEquals(0, merged.findById(base - 1));
+        assertEquals(1_000, merged.findById(base + 999));
+        assertTrue(merged.findById(base + 5_000) < 0);
+        while (merged.size() > 1) {
+            merged = merged.removeAt(merged.size() / 2);
+        }
+        assertEquals("First", merged.get(0).getTitle());
+    }
+}
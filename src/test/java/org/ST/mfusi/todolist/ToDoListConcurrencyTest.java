@@ -0,0 +1,209 @@
+package org.ST.mfusi.todolist;
+
+import org.ST.mfusi.profile.Profile;
+import org.ST.mfusi.task.Priority;
+import org.ST.mfusi.task.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToDoListConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2_000;
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("concurrent adds should never lose a task")
+    void concurrentAdds_shouldKeepEveryTask(ToDoList.StorageMode mode) throws InterruptedException {
+        ToDoList list = new ToDoList(mode);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        runTogether(THREADS, failures, worker -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                list.addTask("Task " + worker + "-" + i, "Desc", Priority.values()[i % 3]);
+            }
+        });
+
+        assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures.peek());
+        assertEquals(THREADS * OPERATIONS, list.getTaskCount());
+        Set<Long> ids = new HashSet<>();
+        for (Task task : list.getTaskList()) {
+            assertTrue(ids.add(task.getId()), "Duplicate id " + task.getId());
+            if (mode == ToDoList.StorageMode.COLUMNAR) {
+                // columnar lists build a new task object on every read
+                assertEquals(task, list.getTaskById(task.getId()));
+            } else {
+                assertSame(task, list.getTaskById(task.getId()));
+            }
+        }
+        int total = 0;
+        for (Priority priority : Priority.values()) {
+            total += list.getTaskCount(priority);
+        }
+        assertEquals(THREADS * OPERATIONS, total);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("readers should only ever see consistent snapshots while writers mutate the list")
+    void readers_shouldSeeConsistentSnapshots(ToDoList.StorageMode mode) throws InterruptedException {
+        ToDoList list = new ToDoList(mode);
+        for (int i = 0; i < 100; i++) {
+            list.addTask("Seed " + i, "Desc", Priority.LOW);
+        }
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writersDone = new AtomicBoolean();
+        CountDownLatch writersLeft = new CountDownLatch(THREADS / 2);
+
+        runTogether(THREADS, failures, worker -> {
+            if (worker % 2 == 0) {
+                try {
+                    mutateRandomly(list, OPERATIONS);
+                } finally {
+                    writersLeft.countDown();
+                    if (writersLeft.getCount() == 0) {
+                        writersDone.set(true);
+                    }
+                }
+            } else {
+                while (!writersDone.get()) {
+                    checkSnapshot(list.getTaskList());
+                    List<Task> byPriority = list.getTasksByPriority();
+                    for (int i = 1; i < byPriority.size(); i++) {
+                        assertTrue(byPriority.get(i - 1).getPriority().compareTo(byPriority.get(i).getPriority()) <= 0,
+                                "Priority view out of order");
+                    }
+                    Task next = list.peekNextTask();
+                    assertTrue(next == null || !next.isCompleted(), "Next task must be open");
+                }
+            }
+        });
+
+        assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures.peek());
+        checkSnapshot(list.getTaskList());
+        for (Priority priority : Priority.values()) {
+            long expected = list.getTaskList().stream().filter(t -> t.getPriority() == priority).count();
+            long expectedOpen = list.getTaskList().stream()
+                    .filter(t -> t.getPriority() == priority && !t.isCompleted()).count();
+            assertEquals(expected, list.getTaskCount(priority));
+            assertEquals(expectedOpen, list.getOpenTaskCount(priority));
+        }
+    }
+
+    @Test
+    @DisplayName("rendering a profile should not fail while other threads change it")
+    void formatting_shouldNotFailDuringWrites() throws InterruptedException {
+        Profile profile = new Profile("Render");
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        runTogether(4, failures, worker -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (worker == 0) {
+                    profile.addTask("Task " + i, "Desc", Priority.MEDIUM);
+                } else if (worker == 1) {
+                    profile.removeTask(1);
+                } else {
+                    String rendered = profile.getFormattedToDoList();
+                    assertTrue(rendered.endsWith("----------------------------\n"));
+                }
+            }
+        });
+
+        assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures.peek());
+    }
+
+    @Test
+    @DisplayName("concurrent pollNextTask calls should hand out every task exactly once")
+    void pollNextTask_shouldHandOutEachTaskOnce() throws InterruptedException {
+        ToDoList list = new ToDoList(ToDoList.StorageMode.PRIORITY_BUCKETS);
+        for (int i = 0; i < THREADS * 500; i++) {
+            list.addTask("Job " + i, "Desc", Priority.values()[i % 3]);
+        }
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Queue<Long> polled = new ConcurrentLinkedQueue<>();
+
+        runTogether(THREADS, failures, worker -> {
+            Task task;
+            while ((task = list.pollNextTask()) != null) {
+                polled.add(task.getId());
+            }
+        });
+
+        assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures.peek());
+        assertEquals(THREADS * 500, polled.size());
+        assertEquals(THREADS * 500, new HashSet<>(polled).size());
+        assertTrue(list.isEmpty());
+    }
+
+    private static void mutateRandomly(ToDoList list, int operations) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < operations; i++) {
+            List<Task> snapshot = list.getTaskList();
+            Task target = snapshot.isEmpty() ? null : snapshot.get(random.nextInt(snapshot.size()));
+            switch (random.nextInt(5)) {
+                case 0, 1 -> list.addTask("Added " + i, "Desc", Priority.values()[random.nextInt(3)]);
+                case 2 -> {
+                    if (target != null) list.removeTaskById(target.getId());
+                }
+                case 3 -> {
+                    if (target != null) list.markTaskComplete(target.getId());
+                }
+                default -> {
+                    if (target != null) list.changeTaskPriority(target.getId(), Priority.values()[random.nextInt(3)]);
+                }
+            }
+        }
+    }
+
+    private static void checkSnapshot(List<Task> snapshot) {
+        Set<Long> ids = new HashSet<>();
+        for (Task task : snapshot) {
+            assertNotNull(task, "Snapshot contains a hole");
+            assertTrue(ids.add(task.getId()), "Snapshot contains task " + task.getId() + " twice");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int worker) throws Exception;
+    }
+
+    /**
+     * Starts all workers at once so they actually overlap, and collects failures seen on worker threads.
+     */
+    private static void runTogether(int threads, Queue<Throwable> failures, Worker body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(worker);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            thread.start();
+            workers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+    }
+}
@@ -5,7 +5,10 @@ import org.ST.mfusi.task.Task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -89,6 +92,24 @@ class ToDoListTest {
         assertEquals("My Task", returnedList.get(0).getTitle());
     }
 
+    @Test
+    @DisplayName("getTaskList should return a snapshot that later changes do not affect")
+    void getTaskList_shouldReturnSnapshot() {
+        toDoList.addTask("First", "Desc");
+        List<Task> before = toDoList.getTaskList();
+
+        toDoList.addTask("Second", "Desc");
+        toDoList.markTaskComplete(before.get(0).getId());
+        List<Task> after = toDoList.getTaskList();
+        toDoList.removeTaskAt(1);
+        toDoList.addTask("Third", "Desc");
+
+        assertEquals(1, before.size());
+        assertFalse(before.get(0).isCompleted());
+        assertEquals(List.of("First", "Second"), after.stream().map(Task::getTitle).toList());
+        assertEquals(List.of("First", "Third"), toDoList.getTaskList().stream().map(Task::getTitle).toList());
+    }
+
     @Test
     @DisplayName("removeTask should decrease task count when task exists")
     void removeTask_whenTaskExists() {
@@ -188,4 +209,284 @@ class ToDoListTest {
         list2.addTask("Another task", "Another desc");
         assertNotEquals(list1, list2, "Lists should not be equal after one is modified");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("removeTask should remove the given task even when another task has identical fields")
+    void removeTask_shouldUseIdentity_forIdenticalTasks() {
+        toDoList.addTask("Same", "Same", Priority.LOW);
+        toDoList.addTask("Same", "Same", Priority.LOW);
+        Task second = toDoList.getTaskList().get(1);
+
+        toDoList.removeTask(second);
+
+        assertEquals(1, toDoList.getTaskCount());
+        assertNotEquals(second.getId(), toDoList.getTaskList().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("tasks should be addressable by id independent of their position")
+    void idOperations_shouldFindTasksById() {
+        toDoList.addTask("First", "Desc", Priority.LOW);
+        toDoList.addTask("Second", "Desc", Priority.LOW);
+        toDoList.addTask("Third", "Desc", Priority.LOW);
+        long thirdId = toDoList.getTaskList().get(2).getId();
+
+        assertTrue(toDoList.removeTaskById(toDoList.getTaskList().get(0).getId()));
+        assertEquals(1, toDoList.indexOf(thirdId));
+        assertTrue(toDoList.markTaskComplete(thirdId));
+        assertTrue(toDoList.changeTaskPriority(thirdId, Priority.HIGH));
+        assertTrue(toDoList.editTask(thirdId, "Renamed", " "));
+
+        Task third = toDoList.getTaskById(thirdId);
+        assertTrue(third.isCompleted());
+        assertEquals(Priority.HIGH, third.getPriority());
+        assertEquals("Renamed", third.getTitle());
+        assertEquals("Desc", third.getDescription());
+    }
+
+    @Test
+    @DisplayName("id operations should report unknown ids")
+    void idOperations_shouldFailForUnknownIds() {
+        toDoList.addTask("Only", "Desc");
+        long unknown = Task.nextId();
+
+        assertNull(toDoList.getTaskById(unknown));
+        assertEquals(-1, toDoList.indexOf(unknown));
+        assertFalse(toDoList.removeTaskById(unknown));
+        assertFalse(toDoList.markTaskComplete(unknown));
+        assertEquals(1, toDoList.getTaskCount());
+    }
+
+    @Test
+    @DisplayName("indexOf should still work when tasks were added out of id order")
+    void indexOf_shouldHandleOutOfOrderIds() {
+        Task older = new Task("Older", "Created first");
+        toDoList.addTask("Newer", "Created second");
+        toDoList.addTask(older);
+
+        assertEquals(1, toDoList.indexOf(older.getId()));
+        assertThrows(IllegalArgumentException.class, () -> toDoList.addTask(older));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("priority views should agree in every storage mode")
+    void priorityViews_shouldWorkInEveryMode(ToDoList.StorageMode mode) {
+        ToDoList list = new ToDoList(mode);
+        list.addTask("Low", "Desc", Priority.LOW);
+        list.addTask("High done", "Desc", Priority.HIGH);
+        list.addTask("Medium", "Desc", Priority.MEDIUM);
+        list.addTask("High open", "Desc", Priority.HIGH);
+        list.markTaskComplete(list.getTaskList().get(1).getId());
+
+        assertEquals(List.of("High open", "High done", "Medium", "Low"),
+                list.getTasksByPriority().stream().map(Task::getTitle).toList());
+        assertEquals(2, list.getTaskCount(Priority.HIGH));
+        assertEquals(1, list.getOpenTaskCount(Priority.HIGH));
+        assertEquals("Low", list.getTaskList().get(0).getTitle(), "Insertion order should be kept");
+
+        list.changeTaskPriority(list.getTaskList().get(0).getId(), Priority.HIGH);
+        assertEquals(2, list.getOpenTaskCount(Priority.HIGH));
+        assertEquals(0, list.getTaskCount(Priority.LOW));
+
+        assertEquals("Low", list.pollNextTask().getTitle(), "Oldest open HIGH task should come first");
+        assertEquals("High open", list.pollNextTask().getTitle());
+        assertEquals("Medium", list.pollNextTask().getTitle());
+        assertNull(list.pollNextTask(), "Only completed tasks are left");
+        assertEquals(1, list.getTaskCount());
+
+        list.clearTasks();
+        assertEquals(0, list.getTaskCount(Priority.HIGH));
+        assertNull(list.peekNextTask());
+    }
+
+    @Test
+    @DisplayName("listeners should receive an event with the right position for every change")
+    void listeners_shouldReceiveEvents() {
+        toDoList.addTask("First", "Desc");
+        List<TaskEvent> events = new ArrayList<>();
+        List<Task> initial = toDoList.addListener(events::add);
+
+        toDoList.addTask("Second", "Desc");
+        Task second = toDoList.getTaskList().get(1);
+        toDoList.changeTaskPriority(second.getId(), Priority.HIGH);
+        toDoList.removeTaskById(initial.get(0).getId());
+        toDoList.markTaskComplete(12345);
+        toDoList.clearTasks();
+        toDoList.clearTasks();
+
+        assertEquals(1, initial.size());
+        assertEquals(4, events.size(), "Changes that did nothing should not be reported");
+        assertEquals(new TaskEvent.Added(1, second), events.get(0));
+        TaskEvent.Updated updated = assertInstanceOf(TaskEvent.Updated.class, events.get(1));
+        assertEquals(1, updated.index());
+        assertEquals(Priority.HIGH, updated.newTask().getPriority());
+        assertEquals(new TaskEvent.Removed(0, initial.get(0)), events.get(2));
+        assertEquals(1, assertInstanceOf(TaskEvent.Cleared.class, events.get(3)).removed().size());
+    }
+
+    @Test
+    @DisplayName("addTasks should add every valid row and report every invalid one")
+    void addTasks_shouldReportInvalidRows() {
+        toDoList.addTask("Existing", "Desc");
+        Task existing = toDoList.getTaskList().get(0);
+        long base = existing.getId() + 1000;
+        Task valid = new Task(base, "Valid", "Desc", Priority.HIGH, true);
+        List<Task> rows = new ArrayList<>(List.of(
+                valid,
+                new Task(base + 1, "", "No title", Priority.LOW, false),
+                existing,
+                new Task(base, "Same id", "Desc", Priority.LOW, false),
+                new Task(base - 5, "Older id", "Desc", Priority.MEDIUM, false)));
+        rows.add(1, null);
+        List<TaskEvent> events = new ArrayList<>();
+        toDoList.addListener(events::add);
+
+        BulkAddReport report = toDoList.addTasks(rows);
+
+        assertEquals(List.of(valid, rows.get(5)), report.added());
+        assertEquals(List.of(1, 2, 3, 4), report.errors().stream().map(BulkAddReport.RowError::row).toList());
+        assertEquals("Task title cannot be null or empty.", report.errors().get(1).message());
+        assertFalse(report.isComplete());
+        assertEquals("Added 2 tasks, rejected 4 rows.", report.summary());
+        assertEquals(3, toDoList.getTaskCount());
+        assertSame(rows.get(5), toDoList.getTaskById(base - 5));
+        assertEquals(2, toDoList.indexOf(base - 5));
+        assertEquals(List.of(new TaskEvent.BatchAdded(1, report.added())), events, "The batch should be published at once");
+    }
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("addTasks should validate large batches in parallel and keep every view consistent")
+    void addTasks_shouldHandleLargeBatches(ToDoList.StorageMode mode) {
+        ToDoList list = new ToDoList(mode);
+        list.addTask("Existing", "Desc", Priority.LOW);
+        int size = 40_000;
+        List<Task> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new Task(i % 1000 == 7 ? " " : "Task " + i, "Desc", Priority.values()[i % 3]));
+        }
+
+        BulkAddReport report = list.addTasks(rows.stream());
+
+        assertEquals(40, report.errors().size());
+        assertEquals(7, report.errors().get(0).row());
+        assertEquals(size - 40 + 1, list.getTaskCount());
+        assertEquals(report.added(), list.getTaskList().subList(1, list.getTaskCount()));
+        Task last = rows.get(size - 1);
+        assertEquals(last, list.getTaskById(last.getId()));
+        assertEquals(list.getTaskCount() - 1, list.indexOf(last.getId()));
+        int high = (int) report.added().stream().filter(task -> task.getPriority() == Priority.HIGH).count();
+        assertEquals(high, list.getTaskCount(Priority.HIGH));
+        assertTrue(toDoList.addTasks(List.of()).isComplete());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ToDoList.StorageMode.class)
+    @DisplayName("undo and redo should step through earlier versions and report events listeners can follow")
+    void undoAndRedo_shouldRestoreVersions(ToDoList.StorageMode mode) {
+        ToDoList list = new ToDoList(mode);
+        list.setUndoLimit(10);
+        List<Task> follower = new ArrayList<>(list.addListener(event -> { }));
+        list.addListener(event -> {
+            switch (event) {
+                case TaskEvent.Added added -> follower.add(added.index(), added.task());
+                case TaskEvent.BatchAdded batch -> follower.addAll(batch.index(), batch.tasks());
+                case TaskEvent.Removed removed -> follower.remove(removed.index());
+                case TaskEvent.Updated updated -> follower.set(updated.index(), updated.newTask());
+                case TaskEvent.Cleared cleared -> follower.clear();
+            }
+        });
+        list.addTask("First", "Desc", Priority.LOW);
+        list.addTask("Second", "Desc", Priority.HIGH);
+        list.addTask("Third", "Desc", Priority.MEDIUM);
+        long secondId = list.getTaskList().get(1).getId();
+        list.addTasks(List.of(new Task("Fourth", "Desc"), new Task("Fifth", "Desc")));
+        List<Task> full = list.getTaskList();
+        list.markTaskComplete(secondId);
+        list.removeTaskById(secondId);
+        list.clearTasks();
+
+        assertTrue(list.isEmpty());
+        assertFalse(list.canRedo());
+        assertFalse(list.undo().isEmpty(), "Clearing should be undoable");
+        assertEquals(4, list.getTaskCount());
+        assertFalse(list.undo().isEmpty());
+        assertEquals(1, list.indexOf(secondId), "A removed task should come back at its old position");
+        assertTrue(list.getTaskById(secondId).isCompleted());
+        list.undo();
+        assertEquals(full, list.getTaskList());
+        assertEquals(1, list.getOpenTaskCount(Priority.HIGH));
+        assertEquals(follower, list.getTaskList());
+
+        list.undo();
+        assertEquals(3, list.getTaskCount());
+        list.redo();
+        list.redo();
+        assertTrue(list.getTaskById(secondId).isCompleted());
+        assertEquals(follower, list.getTaskList());
+
+        list.addTask("Branch", "Desc", Priority.LOW);
+        assertFalse(list.canRedo(), "A new change should discard the undone ones");
+        assertTrue(list.redo().isEmpty());
+        while (list.canUndo()) {
+            list.undo();
+        }
+        assertTrue(list.isEmpty(), "Every change within the limit should be undoable");
+        assertEquals(follower, list.getTaskList());
+    }
+
+    @Test
+    @DisplayName("history should keep at most the configured number of changes")
+    void undoLimit_shouldBoundHistory() {
+        assertTrue(toDoList.undo().isEmpty(), "History is off by default");
+        toDoList.setUndoLimit(3);
+        for (int i = 0; i < 5; i++) {
+            toDoList.addTask("Task " + i, "Desc");
+        }
+        int undone = 0;
+        while (!toDoList.undo().isEmpty()) {
+            undone++;
+        }
+        assertEquals(3, undone);
+        assertEquals(2, toDoList.getTaskCount());
+        assertThrows(IllegalArgumentException.class, () -> toDoList.setUndoLimit(-1));
+    }
+
+    @Test
+    @DisplayName("a columnar list should cap its history whatever limit is asked for")
+    void undoLimit_shouldBeCappedForColumnarLists() {
+        ToDoList list = new ToDoList(ToDoList.StorageMode.COLUMNAR);
+        list.setUndoLimit(100);
+        assertEquals(ToDoList.COLUMNAR_UNDO_LIMIT, list.getUndoLimit());
+        for (int i = 0; i < 20; i++) {
+            list.addTask("Task " + i, "Desc");
+        }
+        int undone = 0;
+        while (!list.undo().isEmpty()) {
+            undone++;
+        }
+        assertEquals(ToDoList.COLUMNAR_UNDO_LIMIT, undone);
+        assertEquals(20 - ToDoList.COLUMNAR_UNDO_LIMIT, list.getTaskCount());
+        list.setUndoLimit(3);
+        assertEquals(3, list.getUndoLimit(), "Limits below the cap should be kept");
+    }
+
+    @Test
+    @DisplayName("insertTask and replaceTask should keep ids and completion status")
+    void insertAndReplace_shouldKeepIdsAndStatus() {
+        toDoList.addTask("First", "Desc");
+        toDoList.addTask("Last", "Desc");
+        Task middle = new Task(toDoList.getTaskList().get(1).getId() + 10, "Middle", "Desc", Priority.HIGH, true);
+
+        toDoList.insertTask(1, middle);
+        assertEquals(List.of("First", "Middle", "Last"), toDoList.getTaskList().stream().map(Task::getTitle).toList());
+        assertEquals(1, toDoList.indexOf(middle.getId()));
+        assertThrows(IllegalArgumentException.class, () -> toDoList.insertTask(1, middle));
+        assertThrows(IllegalArgumentException.class, () -> toDoList.insertTask(9, new Task("Far", "Desc")));
+
+        assertTrue(toDoList.replaceTask(new Task(middle.getId(), "Middle", "Desc", Priority.LOW, false)));
+        assertFalse(toDoList.getTaskById(middle.getId()).isCompleted());
+        assertFalse(toDoList.replaceTask(new Task(middle.getId() + 1, "None", "Desc", Priority.LOW, false)));
+    }
+}